@@ -0,0 +1,32 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line (benchmark regex, -p, -f, -wi, -i, ...)
+ * and always adds the GC profiler, so every run reports allocation rate (gc.alloc.rate.norm, bytes per
+ * operation) next to throughput.
+ * <p>
+ * Example: java -jar benchmarks/target/benchmarks.jar HashBenchmark -p lines=1000
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
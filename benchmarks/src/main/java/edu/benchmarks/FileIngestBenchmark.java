@@ -0,0 +1,85 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.benchmarks;
+
+import edu.cmu.andrew.mpanindr.MappedFileHasher;
+import edu.cmu.andrew.mpanindr.MerkleTree;
+import edu.cmu.andrew.mpanindr.SinglyLinkedList;
+import edu.cmu.andrew.mpanindr.StreamingMerkleBuilder;
+import edu.cmu.andrew.mpanindr.TreeMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a generated CSV file: readFileLines alone, and the full file-to-root paths
+ * (list + computeMerkleRoot, streaming reader, memory-mapped bytes).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class FileIngestBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int lines;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("merkle-bench", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < lines; i++) {
+                writer.write("1348656.471,399538.5342,32874,100 BONIFAY ST,ROBBERY,1/1/90,160600,40.408655,");
+                writer.write(Integer.toString(i));
+                writer.write('\n');
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public SinglyLinkedList readFileLines() throws IOException {
+        return MerkleTree.readFileLines(file.toString());
+    }
+
+    @Benchmark
+    public String readFileLinesAndRoot() throws IOException, NoSuchAlgorithmException {
+        return MerkleTree.computeMerkleRoot(MerkleTree.readFileLines(file.toString()));
+    }
+
+    @Benchmark
+    public String streamingRoot() throws IOException, NoSuchAlgorithmException {
+        return StreamingMerkleBuilder.computeMerkleRoot(file.toString(), TreeMode.LEGACY_HEX);
+    }
+
+    @Benchmark
+    public String mappedRoot() throws IOException, NoSuchAlgorithmException {
+        return MappedFileHasher.computeMerkleRoot(file.toString(), TreeMode.LEGACY_HEX);
+    }
+}
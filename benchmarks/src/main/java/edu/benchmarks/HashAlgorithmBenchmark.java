@@ -0,0 +1,80 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.benchmarks;
+
+import edu.cmu.andrew.mpanindr.StreamingMerkleBuilder;
+import edu.cmu.andrew.mpanindr.TreeMode;
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+import edu.utils.HashFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every HashAlgorithm, on a single input of the given size (multiply ops/s by size for bytes/s)
+ * and on a whole tree of 4096 CSV-sized lines, where most calls hash a short line or a 64-byte parent.
+ * <p>
+ * Example: java -jar benchmarks/target/benchmarks.jar HashAlgorithmBenchmark -p size=1048576
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashAlgorithmBenchmark {
+
+    @Param({"SHA_256", "SHA_512_256", "SHA3_256", "BLAKE3"})
+    public HashAlgorithm algorithm;
+
+    @Param({"64", "1024", "1048576"})
+    public int size;
+
+    private HashFunction function;
+    private byte[] input;
+    private final byte[] out = new byte[Digest.LENGTH];
+    private String[] lines;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        function = algorithm.newFunction();
+        input = new byte[size];
+        new Random(42).nextBytes(input);
+        lines = new String[4096];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = i + ",40.408655,-79.976088,1990,ROBBERY,Pittsburgh Zone " + (i % 6) + ",2,1850,Centre Ave";
+        }
+    }
+
+    @Benchmark
+    public byte[] hash() {
+        function.update(input, 0, input.length);
+        function.digest(out, 0);
+        return out;
+    }
+
+    @Benchmark
+    public Digest treeRoot() throws NoSuchAlgorithmException {
+        StreamingMerkleBuilder builder = new StreamingMerkleBuilder(TreeMode.BINARY, algorithm);
+        for (String line : lines) {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            builder.addLeaf(bytes, 0, bytes.length);
+        }
+        return builder.root();
+    }
+}
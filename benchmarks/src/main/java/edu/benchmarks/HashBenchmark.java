@@ -0,0 +1,69 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.benchmarks;
+
+import edu.utils.HashUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of HashUtil.hash on CSV-sized lines, next to the original implementation
+ * (a fresh MessageDigest and 32 String.format calls per hash) as a fixed point of comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashBenchmark {
+
+    @Param({"16", "90", "1024"})
+    public int length;
+
+    private String[] inputs;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        inputs = new String[256];
+        for (int i = 0; i < inputs.length; i++) {
+            StringBuilder sb = new StringBuilder(Integer.toString(i)).append(',');
+            while (sb.length() < length) {
+                sb.append("40.408655,-79.976088,");
+            }
+            inputs[i] = sb.substring(0, length);
+        }
+    }
+
+    @Benchmark
+    public String hashUtil() throws NoSuchAlgorithmException {
+        return HashUtil.hash(inputs[next++ & 255]);
+    }
+
+    @Benchmark
+    public String legacyHash() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = digest.digest(inputs[next++ & 255].getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i <= 31; i++) {
+            sb.append(String.format("%02X", hash[i]));
+        }
+        return sb.toString();
+    }
+}
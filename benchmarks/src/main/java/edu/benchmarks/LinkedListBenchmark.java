@@ -0,0 +1,192 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.benchmarks;
+
+import edu.cmu.andrew.mpanindr.OrderedIntList;
+import edu.cmu.andrew.mpanindr.OrderedLinkedListOfIntegers;
+import edu.cmu.andrew.mpanindr.SinglyLinkedList;
+import edu.cmu.andrew.mpanindr.TreeHasher;
+import edu.cmu.andrew.mpanindr.TreeMode;
+import edu.cmu.andrew.mpanindr.UnrolledLinkedList;
+import edu.utils.Digest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Core operations of SinglyLinkedList and OrderedLinkedListOfIntegers. Sizes are kept small enough that the
+ * quadratic operations (index loops, sortedAdd, merge) still finish, so later improvements can be measured
+ * against the same parameters. streamHash and parallelStreamHash hash every node through stream(), sequentially and
+ * across all cores. The unrolled benchmarks repeat addAtEndNode and forEach on UnrolledLinkedList, and the
+ * orderedIntList benchmarks run the same workloads on OrderedIntList.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkedListBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private SinglyLinkedList list;
+    private UnrolledLinkedList unrolled;
+    private int[] values;
+    private OrderedLinkedListOfIntegers ordered1;
+    private OrderedLinkedListOfIntegers ordered2;
+    private OrderedIntList primitive1;
+    private OrderedIntList primitive2;
+    private ThreadLocal<TreeHasher> hashers;
+
+    @Setup
+    public void setUp() {
+        hashers = ThreadLocal.withInitial(() -> {
+            try {
+                return new TreeHasher(TreeMode.BINARY);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        list = new SinglyLinkedList();
+        unrolled = new UnrolledLinkedList();
+        for (int i = 0; i < size; i++) {
+            list.addAtEndNode("row " + i);
+            unrolled.addAtEndNode("row " + i);
+        }
+
+        Random random = new Random(42);
+        values = new int[size];
+        ordered1 = new OrderedLinkedListOfIntegers();
+        ordered2 = new OrderedLinkedListOfIntegers();
+        primitive1 = new OrderedIntList();
+        primitive2 = new OrderedIntList();
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt();
+            int value1 = random.nextInt();
+            int value2 = random.nextInt();
+            ordered1.sortedAdd(value1);
+            ordered2.sortedAdd(value2);
+            primitive1.sortedAdd(value1);
+            primitive2.sortedAdd(value2);
+        }
+    }
+
+    @Benchmark
+    public SinglyLinkedList addAtEndNode() {
+        SinglyLinkedList built = new SinglyLinkedList();
+        for (int i = 0; i < size; i++) {
+            built.addAtEndNode(values[i]);
+        }
+        return built;
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        list.reset();
+        while (list.hasNext()) {
+            blackhole.consume(list.next());
+        }
+    }
+
+    @Benchmark
+    public void getObjectAtLoop(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(list.getObjectAt(i));
+        }
+    }
+
+    @Benchmark
+    public ArrayList<String> getAllNodes() {
+        return list.getAllNodes();
+    }
+
+    @Benchmark
+    public Object[] toArray() {
+        return list.toArray();
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        list.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public UnrolledLinkedList unrolledAddAtEndNode() {
+        UnrolledLinkedList built = new UnrolledLinkedList();
+        for (int i = 0; i < size; i++) {
+            built.addAtEndNode(values[i]);
+        }
+        return built;
+    }
+
+    @Benchmark
+    public void unrolledForEach(Blackhole blackhole) {
+        unrolled.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public long streamHash() {
+        return list.stream().mapToLong(this::leafPrefix).sum();
+    }
+
+    @Benchmark
+    public long parallelStreamHash() {
+        return list.stream().parallel().mapToLong(this::leafPrefix).sum();
+    }
+
+    @Benchmark
+    public OrderedLinkedListOfIntegers sortedAdd() {
+        OrderedLinkedListOfIntegers built = new OrderedLinkedListOfIntegers();
+        for (int value : values) {
+            built.sortedAdd(value);
+        }
+        return built;
+    }
+
+    @Benchmark
+    public OrderedLinkedListOfIntegers merge() {
+        return OrderedLinkedListOfIntegers.merge(ordered1, ordered2);
+    }
+
+    @Benchmark
+    public OrderedIntList orderedIntListSortedAdd() {
+        OrderedIntList built = new OrderedIntList();
+        for (int value : values) {
+            built.sortedAdd(value);
+        }
+        return built;
+    }
+
+    @Benchmark
+    public OrderedIntList orderedIntListMerge() {
+        return OrderedIntList.merge(primitive1, primitive2);
+    }
+
+    // The first eight bytes of a node's leaf digest, so the stream result depends on every hash
+    private long leafPrefix(Object data) {
+        byte[] out = new byte[Digest.LENGTH];
+        hashers.get().leaf(data.toString(), out, 0);
+        long prefix = 0;
+        for (int i = 0; i < 8; i++) {
+            prefix = (prefix << 8) | (out[i] & 0xFF);
+        }
+        return prefix;
+    }
+}
@@ -0,0 +1,64 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.benchmarks;
+
+import edu.cmu.andrew.mpanindr.MerkleTree;
+import edu.cmu.andrew.mpanindr.ParallelMerkleBuilder;
+import edu.cmu.andrew.mpanindr.SinglyLinkedList;
+import edu.cmu.andrew.mpanindr.TreeMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to compute the Merkle root of an in-memory list of lines, sequentially and on the common ForkJoinPool,
+ * in both tree modes. Leaf counts are even so that computeMerkleRoot never appends to the shared list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+public class MerkleRootBenchmark {
+
+    @Param({"1000", "1000000", "10000000"})
+    public int leaves;
+
+    @Param({"LEGACY_HEX", "BINARY"})
+    public TreeMode mode;
+
+    private SinglyLinkedList list;
+    private ParallelMerkleBuilder parallel;
+
+    @Setup
+    public void setUp() {
+        list = new SinglyLinkedList();
+        for (int i = 0; i < leaves; i++) {
+            list.addAtEndNode("1348656.471,399538.5342,32874,100 BONIFAY ST,ROBBERY,1/1/90,160600," + i);
+        }
+        parallel = new ParallelMerkleBuilder();
+    }
+
+    @Benchmark
+    public String computeMerkleRoot() throws NoSuchAlgorithmException {
+        return MerkleTree.computeMerkleRoot(list, mode);
+    }
+
+    @Benchmark
+    public String parallelMerkleRoot() throws NoSuchAlgorithmException {
+        return parallel.computeMerkleRoot(list, mode);
+    }
+}
@@ -0,0 +1,71 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.benchmarks;
+
+import edu.cmu.andrew.mpanindr.MerkleMetrics;
+import edu.cmu.andrew.mpanindr.MerkleTree;
+import edu.cmu.andrew.mpanindr.SinglyLinkedList;
+import edu.cmu.andrew.mpanindr.TreeMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of MerkleMetrics on the hashing hot path: the same sequential root of a million-leaf list, in a JVM that
+ * records metrics and in one started with -Dmerkle.metrics=false. Each benchmark runs in its own forks, so the
+ * setting is fixed before any Merkle class is loaded. Compare metricsOn with metricsOff at each mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class MetricsOverheadBenchmark {
+
+    @Param({"1000000"})
+    public int leaves;
+
+    @Param({"LEGACY_HEX", "BINARY"})
+    public TreeMode mode;
+
+    private SinglyLinkedList list;
+
+    @Setup
+    public void setUp() {
+        list = new SinglyLinkedList();
+        for (int i = 0; i < leaves; i++) {
+            list.addAtEndNode("1348656.471,399538.5342,32874,100 BONIFAY ST,ROBBERY,1/1/90,160600," + i);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 3, jvmArgsAppend = {"-Xmx2g"})
+    public String metricsOn() throws NoSuchAlgorithmException {
+        return root(true);
+    }
+
+    @Benchmark
+    @Fork(value = 3, jvmArgsAppend = {"-Xmx2g", "-Dmerkle.metrics=false"})
+    public String metricsOff() throws NoSuchAlgorithmException {
+        return root(false);
+    }
+
+    private String root(boolean expected) throws NoSuchAlgorithmException {
+        if (MerkleMetrics.enabled() != expected) {
+            throw new IllegalStateException("Metrics are " + (expected ? "off" : "on") + " in this fork");
+        }
+        return MerkleTree.computeMerkleRoot(list, mode);
+    }
+}
@@ -0,0 +1,115 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.benchmarks;
+
+import edu.cmu.andrew.mpanindr.MerkleLevelBuilder;
+import edu.cmu.andrew.mpanindr.ParallelMerkleBuilder;
+import edu.cmu.andrew.mpanindr.TreeHasher;
+import edu.cmu.andrew.mpanindr.TreeMode;
+import edu.utils.Digest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Speedup of ParallelMerkleBuilder over the sequential level engine for a range of worker counts and
+ * sequential cutoffs. Compare parallelRoot at each thread count with sequentialRoot, for example
+ * -p threads=1,2,4,8,16 -p cutoff=8192. The sequential baseline has its own state without the threads and
+ * cutoff parameters, so it runs once per leaf count rather than once per thread count.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ParallelScalingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Sequential {
+
+        @Param({"2000000"})
+        public int leaves;
+
+        private String[] lines;
+        private TreeHasher hasher;
+
+        @Setup
+        public void setUp() throws NoSuchAlgorithmException {
+            lines = lines(leaves);
+            hasher = new TreeHasher(TreeMode.LEGACY_HEX);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Parallel {
+
+        @Param({"2000000"})
+        public int leaves;
+
+        @Param({"1", "2", "4", "8"})
+        public int threads;
+
+        @Param({"8192"})
+        public int cutoff;
+
+        private String[] lines;
+        private ForkJoinPool pool;
+        private ParallelMerkleBuilder builder;
+
+        @Setup
+        public void setUp() throws NoSuchAlgorithmException {
+            lines = lines(leaves);
+            pool = new ForkJoinPool(threads);
+            builder = new ParallelMerkleBuilder(pool, cutoff);
+            Digest expected = sequentialRoot(lines, new TreeHasher(TreeMode.LEGACY_HEX));
+            if (!builder.computeRoot(lines, TreeMode.LEGACY_HEX).equals(expected)) {
+                throw new IllegalStateException("Parallel root differs from sequential root");
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public Digest sequentialRoot(Sequential state) {
+        return sequentialRoot(state.lines, state.hasher);
+    }
+
+    @Benchmark
+    public Digest parallelRoot(Parallel state) throws NoSuchAlgorithmException {
+        return state.builder.computeRoot(state.lines, TreeMode.LEGACY_HEX);
+    }
+
+    private static String[] lines(int leaves) {
+        String[] lines = new String[leaves];
+        for (int i = 0; i < leaves; i++) {
+            lines[i] = "1348656.471,399538.5342,32874,100 BONIFAY ST,ROBBERY,1/1/90,160600,40.408655," + i;
+        }
+        return lines;
+    }
+
+    private static Digest sequentialRoot(String[] lines, TreeHasher hasher) {
+        byte[] level = new byte[MerkleLevelBuilder.packedLength(lines.length)];
+        for (int i = 0; i < lines.length; i++) {
+            hasher.leaf(lines[i], level, i * Digest.LENGTH);
+        }
+        return MerkleLevelBuilder.computeRoot(level, lines.length, hasher);
+    }
+}
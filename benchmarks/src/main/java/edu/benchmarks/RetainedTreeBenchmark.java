@@ -0,0 +1,66 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.benchmarks;
+
+import edu.cmu.andrew.mpanindr.InclusionProof;
+import edu.cmu.andrew.mpanindr.RetainedMerkleTree;
+import edu.cmu.andrew.mpanindr.TreeMode;
+import edu.utils.Digest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of inclusion proofs and single-leaf updates on a retained tree, for trees of a thousand to a million
+ * leaves. Each call picks the next leaf with a stride, so successive calls walk different paths.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class RetainedTreeBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int leaves;
+
+    private RetainedMerkleTree tree;
+    private int next;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        byte[] digests = new byte[leaves * Digest.LENGTH];
+        for (int i = 0; i < leaves; i++) {
+            digests[i * Digest.LENGTH] = (byte) i;
+            digests[i * Digest.LENGTH + 1] = (byte) (i >>> 8);
+            digests[i * Digest.LENGTH + 2] = (byte) (i >>> 16);
+        }
+        tree = RetainedMerkleTree.fromLeafDigests(digests, leaves, TreeMode.BINARY);
+    }
+
+    @Benchmark
+    public InclusionProof proof() {
+        next = (next + 7919) % leaves;
+        return tree.proof(next);
+    }
+
+    @Benchmark
+    public Digest updateLeaf() {
+        next = (next + 7919) % leaves;
+        tree.updateLeaf(next, "Row " + next);
+        return tree.root();
+    }
+}
@@ -0,0 +1,237 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The BatchProofVerifier class checks many inclusion proofs against one root, hashing every internal node
+ * only once however many proofs pass through it.
+ * <p>
+ * Nodes are identified by (level, index), which names the same node in every proof of a tree with the given leaf
+ * count. The verifier remembers every node proven by an accepted proof: the nodes on its path and their siblings.
+ * The root is known from the start. A later proof hashes upwards only until it reaches a known node; from there its
+ * digests and remaining siblings are compared with the known ones instead of being hashed. A proof whose computed
+ * node or sibling differs from a known node is rejected at once.
+ * <p>
+ * Key Features:
+ * - One TreeHasher for the whole batch.
+ * - Proofs for nearby leaves share most of their paths, so a batch of all n leaves costs about n parent hashes
+ * instead of n log n.
+ * - Reports the positions of the failed proofs; a failed proof adds nothing to the known nodes.
+ * - The known nodes are kept between calls to verify, so later batches for the same root are cheaper still.
+ * <p>
+ * Pre-condition:
+ * - All proofs must be for the same tree; proofs with another leaf count, mode or algorithm fail.
+ * - An instance is not thread-safe.
+ * <p>
+ * Post-condition:
+ * - A proof is accepted exactly when InclusionProof.verify would accept it for the same root and leaf.
+ * <p>
+ * Time Complexity:
+ * - O(p log n) map lookups for p proofs, plus one parent hash per distinct node that is not known yet.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class BatchProofVerifier {
+
+    private final TreeHasher hasher;
+    private final long leafCount;
+    private final int pathLength;
+    private final Map<Long, Digest> known = new HashMap<>();
+    private final List<Digest> leaves = new ArrayList<>();
+    private final List<InclusionProof> proofs = new ArrayList<>();
+    private final byte[] scratch = new byte[2 * Digest.LENGTH];
+    private long parentHashes;
+
+    /**
+     * Creates a verifier for a formatted root.
+     *
+     * @param formattedRoot The expected root, as printed by TreeMode.formatRoot.
+     * @param leafCount     The number of leaves of the tree.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the root cannot be parsed or leafCount is less than 1.
+     * @pre-condition formattedRoot is not null.
+     * @post-condition Only the root is known.
+     * @time-complexity O(1).
+     */
+    public BatchProofVerifier(String formattedRoot, long leafCount) throws NoSuchAlgorithmException {
+        this(TreeMode.parseDigest(formattedRoot), leafCount, TreeMode.parseRoot(formattedRoot),
+                TreeMode.parseAlgorithm(formattedRoot));
+    }
+
+    /**
+     * Creates a verifier for a root digest.
+     *
+     * @param root      The expected root digest.
+     * @param leafCount The number of leaves of the tree.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If leafCount is less than 1.
+     * @pre-condition No argument is null.
+     * @post-condition Only the root is known.
+     * @time-complexity O(1).
+     */
+    public BatchProofVerifier(Digest root, long leafCount, TreeMode mode, HashAlgorithm algorithm)
+            throws NoSuchAlgorithmException {
+        if (leafCount < 1) {
+            throw new IllegalArgumentException("A tree has at least one leaf: " + leafCount);
+        }
+        this.hasher = new TreeHasher(mode, algorithm);
+        this.leafCount = leafCount;
+        this.pathLength = RetainedMerkleTree.levelCount(leafCount) - 1;
+        known.put(key(pathLength, 0), root);
+    }
+
+    /**
+     * Adds a line and its proof to the next batch.
+     *
+     * @param line  The content of the leaf, hashed as UTF-8.
+     * @param proof The proof.
+     * @pre-condition Neither argument is null.
+     * @post-condition The leaf is hashed; the proof is checked by the next call to verify.
+     * @time-complexity O(m) in the line length.
+     */
+    public void add(String line, InclusionProof proof) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        add(bytes, 0, bytes.length, proof);
+    }
+
+    /**
+     * Adds a range of bytes and its proof to the next batch.
+     *
+     * @param data  The leaf content.
+     * @param off   The first content byte.
+     * @param len   The number of content bytes.
+     * @param proof The proof.
+     * @pre-condition The range of data is valid and proof is not null.
+     * @post-condition The leaf is hashed; the data is not retained.
+     * @time-complexity O(len).
+     */
+    public void add(byte[] data, int off, int len, InclusionProof proof) {
+        hasher.leaf(data, off, len, scratch, 0);
+        leaves.add(Digest.read(scratch, 0));
+        proofs.add(proof);
+    }
+
+    /**
+     * Returns the number of proofs waiting for the next call to verify.
+     *
+     * @return The batch size.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int size() {
+        return proofs.size();
+    }
+
+    /**
+     * Checks every proof added since the previous call.
+     *
+     * @return The positions, in the order of addition, of the proofs that failed; empty if all passed.
+     * @pre-condition None.
+     * @post-condition The batch is empty; the nodes proven by accepted proofs are known.
+     * @time-complexity O(p log n) lookups plus one parent hash per newly proven node.
+     */
+    public List<Integer> verify() {
+        List<Integer> failed = new ArrayList<>();
+        for (int i = 0; i < proofs.size(); i++) {
+            if (!verify(leaves.get(i), proofs.get(i))) {
+                failed.add(i);
+            }
+        }
+        leaves.clear();
+        proofs.clear();
+        hasher.flushMetrics();
+        return failed;
+    }
+
+    /**
+     * Returns the number of parent hashes computed so far, a measure of the work saved by sharing.
+     *
+     * @return The parent hash count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long parentHashCount() {
+        return parentHashes;
+    }
+
+    private boolean verify(Digest leaf, InclusionProof proof) {
+        if (proof.mode() != hasher.mode() || proof.algorithm() != hasher.algorithm() || proof.leafCount() != leafCount
+                || proof.leafIndex() < 0 || proof.leafIndex() >= leafCount || proof.length() != pathLength) {
+            return false;
+        }
+        // Nodes this proof would prove, remembered only if it is accepted
+        Map<Long, Digest> proven = new HashMap<>();
+        Digest current = leaf;
+        long index = proof.leafIndex();
+        long size = leafCount;
+        for (int k = 0; k < pathLength; k++) {
+            Digest node = known.get(key(k, index));
+            if (node != null && !node.equals(current)) {
+                return false;
+            }
+            Digest sibling = proof.sibling(k);
+            long siblingIndex = index ^ 1;
+            if (siblingIndex >= size) {
+                // The unpaired last node of an odd level must be paired with itself
+                if (!sibling.equals(current)) {
+                    return false;
+                }
+                siblingIndex = index;
+            }
+            Digest knownSibling = known.get(key(k, siblingIndex));
+            if (knownSibling != null && !knownSibling.equals(sibling)) {
+                return false;
+            }
+            if (node == null) {
+                proven.put(key(k, index), current);
+            }
+            if (knownSibling == null) {
+                proven.put(key(k, siblingIndex), sibling);
+            }
+
+            // The parent of two known nodes is known too, so only the first proof through a node hashes it
+            Digest parent = node != null && knownSibling != null ? known.get(key(k + 1, index >>> 1)) : null;
+            if (parent == null) {
+                if ((index & 1) == 0) {
+                    current.writeTo(scratch, 0);
+                    sibling.writeTo(scratch, Digest.LENGTH);
+                } else {
+                    sibling.writeTo(scratch, 0);
+                    current.writeTo(scratch, Digest.LENGTH);
+                }
+                hasher.parent(scratch, 0, scratch, Digest.LENGTH, scratch, 0);
+                parentHashes++;
+                parent = Digest.read(scratch, 0);
+            }
+            current = parent;
+            index >>>= 1;
+            size = (size + 1) / 2;
+        }
+        if (!known.get(key(pathLength, 0)).equals(current)) {
+            return false;
+        }
+        known.putAll(proven);
+        return true;
+    }
+
+    // Levels are below 64 and indexes below 2^57, so (level, index) fits in one long
+    private static long key(int level, long index) {
+        return ((long) level << 57) | index;
+    }
+}
@@ -0,0 +1,315 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The ContentDefinedChunker class cuts a byte stream into variable-size chunks at positions chosen by the content
+ * itself, and hashes each chunk into a leaf digest.
+ * <p>
+ * A Gear rolling hash (hash = (hash &lt;&lt; 1) + GEAR[byte]) is updated for every byte; a chunk ends where the top
+ * bits of the hash are all zero. Because the hash only depends on the last 64 bytes, inserting or deleting bytes
+ * moves the cut points near the edit and leaves the others, so the leaves after the edit are unchanged. Cut points
+ * follow FastCDC: no cut before the minimum size (and the hash is not even computed for the first min - 64 bytes),
+ * a stricter mask before the average size and a looser one after it (normalization level 2), and a forced cut at
+ * the maximum size.
+ * <p>
+ * Key Features:
+ * - Works on any bytes, including binary files; lines play no role.
+ * - Chunks may be fed in buffers of any size; the cut points do not depend on how the stream is split.
+ * - One hash per chunk instead of one per line, so large files need far fewer hash calls.
+ * - Any HashAlgorithm may be chosen; the default is SHA-256.
+ * <p>
+ * Pre-condition:
+ * - 64 &lt;= min &lt;= avg &lt;= max, and avg is a power of two.
+ * - An instance is not thread-safe.
+ * <p>
+ * Post-condition:
+ * - The sink receives the digest of every chunk in order; all chunks but the last are between min and max bytes.
+ * - The GEAR table is fixed, so the same content and sizes always give the same chunks and roots.
+ * <p>
+ * Time Complexity:
+ * - O(s) in the stream size, with a shift, an add and a mask test per byte past the minimum.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public class ContentDefinedChunker {
+
+    /**
+     * Default minimum chunk size.
+     */
+    public static final int DEFAULT_MIN_SIZE = 2 * 1024;
+
+    /**
+     * Default average chunk size.
+     */
+    public static final int DEFAULT_AVG_SIZE = 8 * 1024;
+
+    /**
+     * Default maximum chunk size.
+     */
+    public static final int DEFAULT_MAX_SIZE = 64 * 1024;
+
+    // The Gear hash forgets a byte after 64 shifts
+    private static final int WINDOW = 64;
+    private static final int NORMALIZATION = 2;
+    private static final long[] GEAR = gearTable();
+
+    private final int minSize;
+    private final int avgSize;
+    private final int maxSize;
+    private final int hashFrom;
+    private final long maskSmall;
+    private final long maskLarge;
+    private final TreeHasher hasher;
+    private final LeafSink sink;
+    private final byte[] leaf = new byte[Digest.LENGTH];
+
+    private long hash;
+    private int length;
+    private long chunks;
+
+    /**
+     * Creates a chunker.
+     *
+     * @param minSize The minimum chunk size.
+     * @param avgSize The average chunk size, a power of two.
+     * @param maxSize The maximum chunk size.
+     * @param sink    The receiver of the chunk digests.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the sizes are out of range.
+     * @pre-condition sink is not null.
+     * @post-condition No chunk has been emitted.
+     * @time-complexity O(1).
+     */
+    public ContentDefinedChunker(int minSize, int avgSize, int maxSize, LeafSink sink) throws NoSuchAlgorithmException {
+        this(minSize, avgSize, maxSize, HashAlgorithm.DEFAULT, sink);
+    }
+
+    /**
+     * Creates a chunker that hashes chunks with the given algorithm.
+     *
+     * @param minSize   The minimum chunk size.
+     * @param avgSize   The average chunk size, a power of two.
+     * @param maxSize   The maximum chunk size.
+     * @param algorithm The hash algorithm for the chunk digests.
+     * @param sink      The receiver of the chunk digests.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the sizes are out of range.
+     * @pre-condition algorithm and sink are not null.
+     * @post-condition No chunk has been emitted.
+     * @time-complexity O(1).
+     */
+    public ContentDefinedChunker(int minSize, int avgSize, int maxSize, HashAlgorithm algorithm, LeafSink sink)
+            throws NoSuchAlgorithmException {
+        if (minSize < WINDOW || avgSize < minSize || maxSize < avgSize || Integer.bitCount(avgSize) != 1) {
+            throw new IllegalArgumentException("Chunk sizes must satisfy 64 <= min <= avg <= max with avg a power of two: "
+                    + minSize + ", " + avgSize + ", " + maxSize);
+        }
+        this.minSize = minSize;
+        this.avgSize = avgSize;
+        this.maxSize = maxSize;
+        this.hashFrom = minSize - WINDOW;
+        int bits = Integer.numberOfTrailingZeros(avgSize);
+        this.maskSmall = topBits(Math.min(63, bits + NORMALIZATION));
+        this.maskLarge = topBits(Math.max(1, bits - NORMALIZATION));
+        // Leaves are hashed the same way in every mode
+        this.hasher = new TreeHasher(TreeMode.BINARY, algorithm);
+        this.sink = sink;
+    }
+
+    /**
+     * Computes the Merkle root of a file's content-defined chunks with the default sizes.
+     *
+     * @param fileName The file to hash.
+     * @param mode     The tree mode.
+     * @return The root formatted by {@link TreeMode#formatRoot}.
+     * @throws IOException              If the file cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the file is empty.
+     * @pre-condition The file exists.
+     * @post-condition The file is closed.
+     * @time-complexity O(s) in the file size.
+     */
+    public static String computeMerkleRoot(String fileName, TreeMode mode) throws IOException, NoSuchAlgorithmException {
+        return computeMerkleRoot(fileName, mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Computes the Merkle root of a file's content-defined chunks with the default sizes and the given algorithm.
+     *
+     * @param fileName  The file to hash.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm for chunks and parents.
+     * @return The root formatted by {@link TreeMode#formatRoot(Digest, HashAlgorithm)}.
+     * @throws IOException              If the file cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the file is empty.
+     * @pre-condition The file exists.
+     * @post-condition The file is closed.
+     * @time-complexity O(s) in the file size.
+     */
+    public static String computeMerkleRoot(String fileName, TreeMode mode, HashAlgorithm algorithm)
+            throws IOException, NoSuchAlgorithmException {
+        try (InputStream in = Files.newInputStream(Paths.get(fileName))) {
+            return computeMerkleRoot(in, mode, algorithm, DEFAULT_MIN_SIZE, DEFAULT_AVG_SIZE, DEFAULT_MAX_SIZE);
+        }
+    }
+
+    /**
+     * Computes the Merkle root of a stream's content-defined chunks.
+     *
+     * @param in      The stream. It is read to the end but not closed.
+     * @param mode    The tree mode.
+     * @param minSize The minimum chunk size.
+     * @param avgSize The average chunk size, a power of two.
+     * @param maxSize The maximum chunk size.
+     * @return The root formatted by {@link TreeMode#formatRoot}.
+     * @throws IOException              If the stream cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the stream is empty or the sizes are out of range.
+     * @pre-condition in is not null.
+     * @post-condition The stream is exhausted.
+     * @time-complexity O(s) in the stream size.
+     */
+    public static String computeMerkleRoot(InputStream in, TreeMode mode, int minSize, int avgSize, int maxSize)
+            throws IOException, NoSuchAlgorithmException {
+        return computeMerkleRoot(in, mode, HashAlgorithm.DEFAULT, minSize, avgSize, maxSize);
+    }
+
+    /**
+     * Computes the Merkle root of a stream's content-defined chunks with the given algorithm.
+     *
+     * @param in        The stream. It is read to the end but not closed.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm for chunks and parents.
+     * @param minSize   The minimum chunk size.
+     * @param avgSize   The average chunk size, a power of two.
+     * @param maxSize   The maximum chunk size.
+     * @return The root formatted by {@link TreeMode#formatRoot(Digest, HashAlgorithm)}.
+     * @throws IOException              If the stream cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the stream is empty or the sizes are out of range.
+     * @pre-condition in is not null.
+     * @post-condition The stream is exhausted.
+     * @time-complexity O(s) in the stream size.
+     */
+    public static String computeMerkleRoot(InputStream in, TreeMode mode, HashAlgorithm algorithm, int minSize,
+                                           int avgSize, int maxSize) throws IOException, NoSuchAlgorithmException {
+        StreamingMerkleBuilder builder = new StreamingMerkleBuilder(mode, algorithm);
+        ContentDefinedChunker chunker = new ContentDefinedChunker(minSize, avgSize, maxSize, algorithm,
+                builder::addLeafDigest);
+        byte[] buffer = new byte[1 << 16];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            chunker.feed(ByteBuffer.wrap(buffer, 0, read));
+        }
+        chunker.finish();
+        return builder.formattedRoot();
+    }
+
+    /**
+     * Chunks the bytes between the buffer's position and limit.
+     *
+     * @param buffer The next part of the stream.
+     * @pre-condition buffer is not null.
+     * @post-condition Every chunk completed by this buffer has been handed to the sink; the buffer's position and
+     * limit are unchanged.
+     * @time-complexity O(b) in the number of bytes.
+     */
+    public void feed(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        int end = buffer.limit();
+        int pieceStart = buffer.position();
+        int i = pieceStart;
+        while (i < end) {
+            if (length < hashFrom) {
+                // Too early for a cut, and too early for these bytes to reach the hash at the first possible cut
+                int skip = Math.min(hashFrom - length, end - i);
+                i += skip;
+                length += skip;
+                continue;
+            }
+            hash = (hash << 1) + GEAR[buffer.get(i++) & 0xFF];
+            length++;
+            boolean cut = length >= maxSize
+                    || length >= minSize && (hash & (length < avgSize ? maskSmall : maskLarge)) == 0;
+            if (cut) {
+                view.limit(i).position(pieceStart);
+                hasher.updateLeaf(view);
+                emit();
+                pieceStart = i;
+            }
+        }
+        if (pieceStart < end) {
+            view.limit(end).position(pieceStart);
+            hasher.updateLeaf(view);
+        }
+    }
+
+    /**
+     * Ends the stream: the remaining bytes, if any, form the last chunk.
+     *
+     * @return The number of chunks handed to the sink in total.
+     * @pre-condition No more buffers follow.
+     * @post-condition The sink has received every chunk.
+     * @time-complexity O(1).
+     */
+    public long finish() {
+        if (length > 0) {
+            emit();
+        }
+        hasher.flushMetrics();
+        return chunks;
+    }
+
+    /**
+     * Returns the number of chunks emitted so far.
+     *
+     * @return The chunk count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long chunkCount() {
+        return chunks;
+    }
+
+    private void emit() {
+        hasher.finishLeaf(leaf, 0);
+        sink.accept(leaf, 0);
+        chunks++;
+        length = 0;
+        hash = 0;
+    }
+
+    // A mask of the given number of high bits; the Gear hash mixes best in its high bits
+    private static long topBits(int bits) {
+        return -1L << (64 - bits);
+    }
+
+    // SplitMix64 from a fixed seed: any 256 well-mixed constants work, but they must never change
+    private static long[] gearTable() {
+        long[] table = new long[256];
+        long state = 0x6D65726B6C654344L; // "merkleCD"
+        for (int i = 0; i < table.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            long z = state;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            table[i] = z ^ (z >>> 31);
+        }
+        return table;
+    }
+}
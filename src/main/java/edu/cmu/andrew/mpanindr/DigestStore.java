@@ -0,0 +1,104 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * The DigestStore interface is a fixed-size sequence of packed 32-byte digests, such as one level of a retained
+ * Merkle tree. Implementations decide where the bytes live: on the heap, in a memory-mapped file or off-heap.
+ * <p>
+ * Key Features:
+ * - Digests are copied in and out of caller-supplied byte arrays, so reading a node allocates nothing.
+ * - A store can be written to a channel in its packed form, which is also the on-disk level format.
+ * <p>
+ * Pre-condition:
+ * - Indices are between 0 and size() - 1.
+ * - Implementations are not required to be thread-safe for writes.
+ * <p>
+ * Post-condition:
+ * - read returns the bytes last written at the same index.
+ * <p>
+ * Time Complexity:
+ * - read, write and get are O(1); writeTo is O(size()).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public interface DigestStore {
+
+    /**
+     * Returns the number of digests in the store.
+     *
+     * @return The number of digests.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    int size();
+
+    /**
+     * Copies one digest out of the store.
+     *
+     * @param index The position of the digest.
+     * @param dst   The array receiving the digest.
+     * @param off   The position of the digest in dst.
+     * @pre-condition 0 &lt;= index &lt; size() and [off, off + 32) of dst is valid.
+     * @post-condition dst holds the digest.
+     * @time-complexity O(1).
+     */
+    void read(int index, byte[] dst, int off);
+
+    /**
+     * Replaces one digest of the store.
+     *
+     * @param index The position of the digest.
+     * @param src   The array holding the new digest.
+     * @param off   The position of the digest in src.
+     * @throws UnsupportedOperationException If the store is read-only.
+     * @pre-condition 0 &lt;= index &lt; size() and [off, off + 32) of src is valid.
+     * @post-condition The store holds the new digest at index.
+     * @time-complexity O(1).
+     */
+    void write(int index, byte[] src, int off);
+
+    /**
+     * Returns one digest of the store.
+     *
+     * @param index The position of the digest.
+     * @return The digest.
+     * @pre-condition 0 &lt;= index &lt; size().
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    default Digest get(int index) {
+        byte[] digest = new byte[Digest.LENGTH];
+        read(index, digest, 0);
+        return Digest.read(digest, 0);
+    }
+
+    /**
+     * Tells whether write is supported.
+     *
+     * @return true if the store cannot be changed.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    boolean isReadOnly();
+
+    /**
+     * Writes every digest, packed and in order, to a channel.
+     *
+     * @param out The destination.
+     * @throws IOException If writing fails.
+     * @pre-condition out is open.
+     * @post-condition 32 * size() bytes have been written.
+     * @time-complexity O(size()).
+     */
+    void writeTo(WritableByteChannel out) throws IOException;
+}
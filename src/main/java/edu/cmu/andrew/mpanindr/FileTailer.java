@@ -0,0 +1,275 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The FileTailer class keeps the Merkle root of a file that grows by appended lines up to date,
+ * hashing each new line once instead of recomputing the whole file.
+ * <p>
+ * Every call to poll reads the bytes appended since the previous call, turns each complete line into a leaf of a
+ * StreamingMerkleBuilder and remembers the byte offset just after the last complete line. A line that is still
+ * being written (no terminator yet) is left for a later poll. The offset, together with the builder's frontier,
+ * can be saved to a checkpoint file, so tailing resumes after a restart without re-reading the file.
+ * <p>
+ * Key Features:
+ * - Lines are found by the same LineScanner as MappedFileHasher, so they end at "\n", "\r" or "\r\n" exactly like
+ * BufferedReader.readLine, even when a "\r\n" pair is split across two polls.
+ * - Lines are hashed from their raw bytes, as MappedFileHasher does, with the chosen HashAlgorithm (SHA-256 by
+ * default); a resumed tailer uses the algorithm recorded in its checkpoint.
+ * - Amortized O(1) parent hashes per appended line; the root is refreshed in O(log n).
+ * <p>
+ * Pre-condition:
+ * - The file only grows by appending and holds UTF-8 text; bytes before the saved offset must not change.
+ * - An instance is not thread-safe.
+ * <p>
+ * Post-condition:
+ * - After poll, root() equals computeMerkleRoot over the complete lines read so far; after drain, it equals
+ * computeMerkleRoot over the whole file.
+ * <p>
+ * Time Complexity:
+ * - O(a) per poll in the number of appended bytes a, plus a re-read of an unfinished last line, which is hashed only
+ * once its terminator has been written.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public class FileTailer {
+
+    private static final int CHECKPOINT_MAGIC = 0x4D4B544C; // "MKTL"
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path file;
+    private final StreamingMerkleBuilder builder;
+    private final TreeHasher leafHasher;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] leaf = new byte[Digest.LENGTH];
+    private final LineScanner.LineHandler lineHandler = this::addLine;
+    private long offset;
+    // The last complete line ended with '\r', so a '\n' at offset belongs to that terminator
+    private boolean skipNewline;
+
+    /**
+     * Starts tailing a file from its beginning.
+     *
+     * @param file The file to tail.
+     * @param mode The tree mode.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition file is not null.
+     * @post-condition No line has been read yet.
+     * @time-complexity O(1).
+     */
+    public FileTailer(Path file, TreeMode mode) throws NoSuchAlgorithmException {
+        this(file, mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Starts tailing a file from its beginning with the given hash algorithm.
+     *
+     * @param file      The file to tail.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm for leaves and parents.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition No argument is null.
+     * @post-condition No line has been read yet.
+     * @time-complexity O(1).
+     */
+    public FileTailer(Path file, TreeMode mode, HashAlgorithm algorithm) throws NoSuchAlgorithmException {
+        this(file, new StreamingMerkleBuilder(mode, algorithm), 0, false);
+    }
+
+    private FileTailer(Path file, StreamingMerkleBuilder builder, long offset, boolean skipNewline)
+            throws NoSuchAlgorithmException {
+        this.file = file;
+        this.builder = builder;
+        this.leafHasher = new TreeHasher(builder.mode(), builder.algorithm());
+        this.offset = offset;
+        this.skipNewline = skipNewline;
+    }
+
+    /**
+     * Resumes tailing from a checkpoint written by {@link #saveCheckpoint}.
+     *
+     * @param file       The file to tail.
+     * @param checkpoint The checkpoint file.
+     * @return The tailer, positioned after the last line covered by the checkpoint.
+     * @throws IOException              If the checkpoint cannot be read, is not a checkpoint, or the file is
+     *                                  shorter than the checkpoint's offset.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition The checkpoint was saved while tailing the same file.
+     * @post-condition The file is not read.
+     * @time-complexity O(1).
+     */
+    public static FileTailer resume(Path file, Path checkpoint) throws IOException, NoSuchAlgorithmException {
+        long offset;
+        boolean skipNewline;
+        MerkleFrontier frontier;
+        try (InputStream in = Files.newInputStream(checkpoint)) {
+            DataInputStream data = new DataInputStream(in);
+            if (data.readInt() != CHECKPOINT_MAGIC) {
+                throw new IOException("Not a tail checkpoint: " + checkpoint);
+            }
+            offset = data.readLong();
+            skipNewline = data.readBoolean();
+            frontier = MerkleFrontier.readFrom(data);
+        }
+        if (Files.size(file) < offset) {
+            throw new IOException("File is shorter than the checkpoint offset " + offset + ": " + file);
+        }
+        return new FileTailer(file, new StreamingMerkleBuilder(frontier), offset, skipNewline);
+    }
+
+    /**
+     * Writes the offset and the frontier to a checkpoint file. The file is replaced atomically where supported.
+     *
+     * @param checkpoint The checkpoint file.
+     * @throws IOException If the checkpoint cannot be written.
+     * @pre-condition checkpoint is not null.
+     * @post-condition resume(file, checkpoint) restores this tailer's state.
+     * @time-complexity O(log n).
+     */
+    public void saveCheckpoint(Path checkpoint) throws IOException {
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(CHECKPOINT_MAGIC);
+            data.writeLong(offset);
+            data.writeBoolean(skipNewline);
+            builder.frontier().writeTo(data);
+            data.flush();
+        }
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Adds every complete line appended since the previous poll.
+     *
+     * @return The number of lines added.
+     * @throws IOException If the file cannot be read.
+     * @pre-condition The file exists.
+     * @post-condition The offset is just after the last complete line.
+     * @time-complexity O(a) in the number of bytes appended.
+     */
+    public long poll() throws IOException {
+        return read(false);
+    }
+
+    /**
+     * Adds every remaining line, including a last line without terminator. Call it once the writer has finished.
+     *
+     * @return The number of lines added.
+     * @throws IOException If the file cannot be read.
+     * @pre-condition The file exists and is no longer written to.
+     * @post-condition The offset is the end of the file.
+     * @time-complexity O(a) in the number of bytes not yet consumed.
+     */
+    public long drain() throws IOException {
+        return read(true);
+    }
+
+    private long read(boolean includeUnterminated) throws IOException {
+        long before = builder.leafCount();
+        LineScanner scanner = new LineScanner(skipNewline);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long end = channel.size();
+            long position = offset;
+            boolean lineOpen = false;
+
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(BUFFER_SIZE, end - position));
+                int length = channel.read(buffer, position);
+                if (length <= 0) {
+                    break;
+                }
+                buffer.flip();
+                int tail = scanner.scan(buffer, lineHandler);
+                if (tail > buffer.position()) {
+                    // A terminator was consumed, so any line begun in an earlier buffer is complete
+                    lineOpen = false;
+                    offset = position + tail;
+                    skipNewline = scanner.skipNewline();
+                }
+
+                // The unfinished tail continues in the next buffer; on poll, a tail at the end of the file is left
+                // unread for a later poll instead of being hashed now
+                position += length;
+                if (tail < length && (includeUnterminated || position < end)) {
+                    buffer.position(tail);
+                    leafHasher.updateLeaf(buffer);
+                    lineOpen = true;
+                }
+            }
+
+            if (lineOpen && includeUnterminated && position == end) {
+                leafHasher.finishLeaf(leaf, 0);
+                builder.addLeafDigest(leaf, 0);
+                offset = position;
+                skipNewline = false;
+            } else if (lineOpen) {
+                // The line is still being written; it is read again from offset by a later poll
+                leafHasher.discardLeaf();
+            }
+        }
+        leafHasher.flushMetrics();
+        return builder.leafCount() - before;
+    }
+
+    private void addLine(ByteBuffer line) {
+        leafHasher.updateLeaf(line);
+        leafHasher.finishLeaf(leaf, 0);
+        builder.addLeafDigest(leaf, 0);
+    }
+
+    /**
+     * Returns the number of lines added so far.
+     *
+     * @return The leaf count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long lineCount() {
+        return builder.leafCount();
+    }
+
+    /**
+     * Returns the byte offset just after the last line added.
+     *
+     * @return The offset where the next poll starts reading.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long offset() {
+        return offset;
+    }
+
+    /**
+     * Returns the Merkle root of the lines added so far.
+     *
+     * @return The root formatted by {@link TreeMode#formatRoot}.
+     * @throws IllegalArgumentException If no line has been added.
+     * @pre-condition At least one line has been added.
+     * @post-condition The tailer is unchanged.
+     * @time-complexity O(log n) parent hashes.
+     */
+    public String root() {
+        return builder.formattedRoot();
+    }
+}
@@ -0,0 +1,256 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The FixedBlockHasher class builds a Merkle tree whose leaves are fixed-size blocks of a file rather than lines,
+ * reading and hashing the blocks on several threads at once.
+ * <p>
+ * Block i covers bytes [i * blockSize, (i + 1) * blockSize) of the file; the last block may be shorter. Each worker
+ * thread owns one direct buffer and one hasher, claims a batch of consecutive blocks, reads each with the positional
+ * FileChannel.read(buffer, position) (which does not share a file position, so threads never contend for it) and
+ * writes the digest into the block's slot of a packed leaf array. The levels above are then built by
+ * ParallelMerkleBuilder.
+ * <p>
+ * Key Features:
+ * - Works on binary files; line terminators play no role.
+ * - Many reads in flight on one file, so a single large file can keep a fast disk and every core busy.
+ * - Batches of consecutive blocks keep each thread's reads sequential.
+ * - A failed read stops every worker after the block it is hashing, so the error is reported without waiting for
+ *   the rest of the file.
+ * <p>
+ * Pre-condition:
+ * - The file must not change while it is hashed.
+ * - The number of blocks must fit in one packed leaf array (fewer than 2^26).
+ * <p>
+ * Post-condition:
+ * - The root depends only on the content and the block size, never on the number of threads.
+ * <p>
+ * Time Complexity:
+ * - O(s / t) wall time for a file of s bytes on t threads, if the disk keeps up.
+ * - Every call starts its own pool of up to t threads and allocates one direct buffer of blockSize bytes per thread;
+ *   both are released when the call returns (the buffers once they are garbage collected). For many small files
+ *   that fixed cost dominates, and MultiFileMerkleEngine is the better fit.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public class FixedBlockHasher {
+
+    /**
+     * Default block size.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    // Blocks claimed by a worker at a time
+    private static final int BATCH = 16;
+    private static final int MAX_BLOCKS = Integer.MAX_VALUE / Digest.LENGTH;
+
+    private final int blockSize;
+    private final int threads;
+
+    /**
+     * Creates a hasher with the default block size and one thread per core.
+     *
+     * @pre-condition None.
+     * @post-condition The hasher is ready.
+     * @time-complexity O(1).
+     */
+    public FixedBlockHasher() {
+        this(DEFAULT_BLOCK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a hasher.
+     *
+     * @param blockSize The size of every block but the last, at least 1.
+     * @param threads   The number of reading and hashing threads, at least 1.
+     * @throws IllegalArgumentException If a parameter is out of range.
+     * @pre-condition None.
+     * @post-condition The hasher is ready.
+     * @time-complexity O(1).
+     */
+    public FixedBlockHasher(int blockSize, int threads) {
+        if (blockSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("Block size and thread count must be positive: " + blockSize + ", " + threads);
+        }
+        this.blockSize = blockSize;
+        this.threads = threads;
+    }
+
+    /**
+     * Computes the Merkle root of a file's fixed-size blocks.
+     *
+     * @param fileName The file to hash.
+     * @param mode     The tree mode.
+     * @return The root formatted by {@link TreeMode#formatRoot}.
+     * @throws IOException              If the file cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the file is empty or has too many blocks.
+     * @pre-condition The file exists.
+     * @post-condition The file is closed.
+     * @time-complexity O(s / t).
+     */
+    public String computeMerkleRoot(String fileName, TreeMode mode) throws IOException, NoSuchAlgorithmException {
+        return computeMerkleRoot(fileName, mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Computes the Merkle root of a file's fixed-size blocks with the given hash algorithm.
+     *
+     * @param fileName  The file to hash.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm for blocks and parents.
+     * @return The root formatted by {@link TreeMode#formatRoot(Digest, HashAlgorithm)}.
+     * @throws IOException              If the file cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the file is empty or has too many blocks.
+     * @pre-condition The file exists.
+     * @post-condition The file is closed.
+     * @time-complexity O(s / t).
+     */
+    public String computeMerkleRoot(String fileName, TreeMode mode, HashAlgorithm algorithm)
+            throws IOException, NoSuchAlgorithmException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            int count = blockCount(channel.size());
+            byte[] leaves = hashBlocks(channel, count, algorithm);
+            return mode.formatRoot(new ParallelMerkleBuilder().computeRoot(leaves, count, mode, algorithm), algorithm);
+        }
+    }
+
+    /**
+     * Hashes every block of a file into a packed array of leaf digests.
+     *
+     * @param file The file to hash.
+     * @return The digests of the blocks, in file order.
+     * @throws IOException              If the file cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the file has too many blocks.
+     * @pre-condition The file exists.
+     * @post-condition The file is closed.
+     * @time-complexity O(s / t).
+     */
+    public byte[] hashBlocks(Path file) throws IOException, NoSuchAlgorithmException {
+        return hashBlocks(file, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Hashes every block of a file with the given algorithm into a packed array of leaf digests.
+     *
+     * @param file      The file to hash.
+     * @param algorithm The hash algorithm for the blocks.
+     * @return The digests of the blocks, in file order.
+     * @throws IOException              If the file cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the file has too many blocks.
+     * @pre-condition The file exists.
+     * @post-condition The file is closed.
+     * @time-complexity O(s / t).
+     */
+    public byte[] hashBlocks(Path file, HashAlgorithm algorithm) throws IOException, NoSuchAlgorithmException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return hashBlocks(channel, blockCount(channel.size()), algorithm);
+        }
+    }
+
+    private int blockCount(long size) {
+        long count = (size + blockSize - 1) / blockSize;
+        if (count > MAX_BLOCKS) {
+            throw new IllegalArgumentException("Too many blocks: " + count + "; use a larger block size");
+        }
+        return (int) count;
+    }
+
+    private byte[] hashBlocks(FileChannel channel, int count, HashAlgorithm algorithm)
+            throws IOException, NoSuchAlgorithmException {
+        byte[] leaves = new byte[count * Digest.LENGTH];
+        long size = channel.size();
+        AtomicInteger nextBatch = new AtomicInteger();
+        // Set by the first worker to fail; the others stop after their current block. Workers are not interrupted,
+        // since an interrupt during a read would close the channel under the others.
+        AtomicBoolean failed = new AtomicBoolean();
+        int workers = Math.min(threads, (count + BATCH - 1) / BATCH);
+
+        // Create the hashers up front so that a missing algorithm is reported as such
+        List<TreeHasher> hashers = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            hashers.add(new TreeHasher(TreeMode.BINARY, algorithm));
+        }
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, workers))) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (TreeHasher hasher : hashers) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        ByteBuffer buffer = ByteBuffer.allocateDirect(blockSize);
+                        int first;
+                        while (!failed.get() && (first = nextBatch.getAndAdd(BATCH)) < count) {
+                            for (int block = first; block < Math.min(first + BATCH, count) && !failed.get(); block++) {
+                                long position = (long) block * blockSize;
+                                buffer.clear().limit((int) Math.min(blockSize, size - position));
+                                readFully(channel, buffer, position);
+                                buffer.flip();
+                                hasher.updateLeaf(buffer);
+                                hasher.finishLeaf(leaves, block * Digest.LENGTH);
+                            }
+                        }
+                        return null;
+                    } catch (IOException | RuntimeException | Error e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        hasher.flushMetrics();
+                    }
+                }));
+            }
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (ExecutionException | InterruptedException e) {
+                // Stop the remaining workers before the pool is closed, which waits for them
+                failed.set(true);
+                for (Future<?> future : futures) {
+                    future.cancel(false);
+                }
+                throw e;
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while hashing blocks", e);
+        }
+        return leaves;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("File shrank while it was hashed");
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * The HeapDigestStore class is a DigestStore backed by one packed byte array on the Java heap.
+ * <p>
+ * Pre-condition:
+ * - The array holds at least 32 * size bytes; it is shared, not copied.
+ * <p>
+ * Post-condition:
+ * - Writes go straight to the array.
+ * <p>
+ * Time Complexity:
+ * - read, write and get are O(1).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class HeapDigestStore implements DigestStore {
+
+    private final byte[] digests;
+    private final int size;
+
+    /**
+     * Wraps a packed array of digests.
+     *
+     * @param digests The packed digests.
+     * @param size    The number of digests to expose.
+     * @throws IllegalArgumentException If the array is too short.
+     * @pre-condition digests is not null.
+     * @post-condition The store shares the array.
+     * @time-complexity O(1).
+     */
+    public HeapDigestStore(byte[] digests, int size) {
+        if (size < 0 || (long) size * Digest.LENGTH > digests.length) {
+            throw new IllegalArgumentException("Array too short for " + size + " digests");
+        }
+        this.digests = digests;
+        this.size = size;
+    }
+
+    /**
+     * Returns the backing array. Builders use it to hash a level without copying.
+     *
+     * @return The packed digests; only the first 32 * size() bytes are meaningful.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public byte[] array() {
+        return digests;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void read(int index, byte[] dst, int off) {
+        System.arraycopy(digests, checkIndex(index), dst, off, Digest.LENGTH);
+    }
+
+    @Override
+    public void write(int index, byte[] src, int off) {
+        System.arraycopy(src, off, digests, checkIndex(index), Digest.LENGTH);
+    }
+
+    @Override
+    public Digest get(int index) {
+        return Digest.read(digests, checkIndex(index));
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    @Override
+    public void writeTo(WritableByteChannel out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(digests, 0, size * Digest.LENGTH);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        return index * Digest.LENGTH;
+    }
+}
@@ -0,0 +1,234 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The InclusionProof class is the sibling path proving that one leaf belongs to a Merkle tree with a known root.
+ * <p>
+ * The proof holds the position of the leaf, the number of leaves in the tree, the tree mode, the hash algorithm
+ * and, for every level below the root, the digest of the sibling of the leaf's ancestor on that level. The side
+ * on which each sibling is hashed follows from the bits of the leaf index, so no direction flags are stored.
+ * <p>
+ * Key Features:
+ * - Static verifiers that recompute the root from the leaf content and compare it with the expected root.
+ * - The proof length and the self-paired last nodes are checked against the leaf count, so a proof cannot
+ * be replayed for a different position or tree size.
+ * - The proof records its hash algorithm; a formatted root naming a different algorithm never verifies.
+ * <p>
+ * Pre-condition:
+ * - Proofs are produced by RetainedMerkleTree.proof; instances are immutable.
+ * <p>
+ * Post-condition:
+ * - verify returns true exactly when the leaf content, position and siblings reproduce the root.
+ * <p>
+ * Time Complexity:
+ * - Verification is O(log n) parent hashes plus one leaf hash.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class InclusionProof {
+
+    private final TreeMode mode;
+    private final HashAlgorithm algorithm;
+    private final long leafIndex;
+    private final long leafCount;
+    private final byte[] siblings;
+
+    /**
+     * Creates a proof for a SHA-256 tree.
+     *
+     * @param mode      The tree mode.
+     * @param leafIndex The position of the leaf.
+     * @param leafCount The number of leaves in the tree.
+     * @param siblings  The packed sibling digests, from the leaf level upwards. The array is owned by the proof.
+     * @pre-condition siblings holds a whole number of digests.
+     * @post-condition The proof is ready to be verified.
+     * @time-complexity O(1).
+     */
+    public InclusionProof(TreeMode mode, long leafIndex, long leafCount, byte[] siblings) {
+        this(mode, HashAlgorithm.DEFAULT, leafIndex, leafCount, siblings);
+    }
+
+    /**
+     * Creates a proof.
+     *
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm of the tree.
+     * @param leafIndex The position of the leaf.
+     * @param leafCount The number of leaves in the tree.
+     * @param siblings  The packed sibling digests, from the leaf level upwards. The array is owned by the proof.
+     * @pre-condition siblings holds a whole number of digests.
+     * @post-condition The proof is ready to be verified.
+     * @time-complexity O(1).
+     */
+    public InclusionProof(TreeMode mode, HashAlgorithm algorithm, long leafIndex, long leafCount, byte[] siblings) {
+        if (siblings.length % Digest.LENGTH != 0) {
+            throw new IllegalArgumentException("Sibling path must hold whole digests");
+        }
+        this.mode = mode;
+        this.algorithm = algorithm;
+        this.leafIndex = leafIndex;
+        this.leafCount = leafCount;
+        this.siblings = siblings;
+    }
+
+    /**
+     * Returns the tree mode the proof was produced for.
+     *
+     * @return The tree mode.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public TreeMode mode() {
+        return mode;
+    }
+
+    /**
+     * Returns the hash algorithm of the tree the proof was produced from.
+     *
+     * @return The algorithm.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public HashAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns the position of the proven leaf.
+     *
+     * @return The leaf index.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long leafIndex() {
+        return leafIndex;
+    }
+
+    /**
+     * Returns the number of leaves of the tree the proof was produced from.
+     *
+     * @return The leaf count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long leafCount() {
+        return leafCount;
+    }
+
+    /**
+     * Returns the number of siblings on the path.
+     *
+     * @return The path length.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int length() {
+        return siblings.length / Digest.LENGTH;
+    }
+
+    /**
+     * Returns one sibling of the path.
+     *
+     * @param level The level of the sibling, 0 for the leaf's own sibling.
+     * @return The sibling digest.
+     * @pre-condition 0 &lt;= level &lt; length().
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public Digest sibling(int level) {
+        return Digest.read(siblings, level * Digest.LENGTH);
+    }
+
+    /**
+     * Verifies that a line is the proven leaf of a tree with the given formatted root.
+     *
+     * @param formattedRoot The expected root, as printed by TreeMode.formatRoot.
+     * @param line          The content of the leaf, hashed as UTF-8.
+     * @param proof         The proof.
+     * @return true if the proof is valid for this root and line.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition None of the arguments is null.
+     * @post-condition None.
+     * @time-complexity O(log n).
+     */
+    public static boolean verify(String formattedRoot, String line, InclusionProof proof) throws NoSuchAlgorithmException {
+        if (TreeMode.parseRoot(formattedRoot) != proof.mode || TreeMode.parseAlgorithm(formattedRoot) != proof.algorithm) {
+            return false;
+        }
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return verify(TreeMode.parseDigest(formattedRoot), bytes, 0, bytes.length, proof);
+    }
+
+    /**
+     * Verifies that a range of bytes is the proven leaf of a tree with the given root.
+     *
+     * @param root  The expected root digest.
+     * @param data  The leaf content.
+     * @param off   The first content byte.
+     * @param len   The number of content bytes.
+     * @param proof The proof.
+     * @return true if the proof is valid for this root and content.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition The range of data is valid.
+     * @post-condition None.
+     * @time-complexity O(log n).
+     */
+    public static boolean verify(Digest root, byte[] data, int off, int len, InclusionProof proof)
+            throws NoSuchAlgorithmException {
+        TreeHasher hasher = new TreeHasher(proof.mode, proof.algorithm);
+        byte[] current = new byte[Digest.LENGTH];
+        hasher.leaf(data, off, len, current, 0);
+        boolean valid = proof.matches(root, current, hasher);
+        hasher.flushMetrics();
+        return valid;
+    }
+
+    /**
+     * Recomputes the root from a leaf digest and compares it with the expected root.
+     *
+     * @param root   The expected root digest.
+     * @param leaf   A 32-byte array holding the leaf digest; it is overwritten.
+     * @param hasher A hasher for this proof's mode and algorithm.
+     * @return true if the path is consistent with the leaf count and reproduces the root.
+     * @pre-condition hasher.mode() equals mode() and hasher.algorithm() equals algorithm().
+     * @post-condition leaf holds the last value computed.
+     * @time-complexity O(log n).
+     */
+    boolean matches(Digest root, byte[] leaf, TreeHasher hasher) {
+        if (leafCount < 1 || leafIndex < 0 || leafIndex >= leafCount
+                || length() != RetainedMerkleTree.levelCount(leafCount) - 1) {
+            return false;
+        }
+        long index = leafIndex;
+        long size = leafCount;
+        for (int k = 0; k < length(); k++) {
+            int siblingOff = k * Digest.LENGTH;
+            if ((index & 1) == 0) {
+                // The unpaired last node of an odd level must be paired with itself
+                if (index + 1 == size && !Digest.read(leaf, 0).matches(siblings, siblingOff)) {
+                    return false;
+                }
+                hasher.parent(leaf, 0, siblings, siblingOff, leaf, 0);
+            } else {
+                hasher.parent(siblings, siblingOff, leaf, 0, leaf, 0);
+            }
+            index >>>= 1;
+            size = (size + 1) / 2;
+        }
+        return root.matches(leaf, 0);
+    }
+}
@@ -0,0 +1,93 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram class counts durations in power-of-two buckets of nanoseconds, with one striped LongAdder
+ * per bucket so that concurrent recorders do not contend.
+ * <p>
+ * Bucket k holds durations in [2^(k-1), 2^k) nanoseconds (bucket 0 holds 0), so a percentile is reported as the
+ * upper bound of its bucket: at most twice the true value. The count, total and maximum are exact.
+ * <p>
+ * Pre-condition:
+ * - Durations are not negative; negative values are recorded as 0.
+ * <p>
+ * Post-condition:
+ * - Readings taken while other threads record may miss their latest values, but never go backwards.
+ * <p>
+ * Time Complexity:
+ * - record is O(1); percentile is O(64).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value))].increment();
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    long maxNanos() {
+        return maxNanos.get();
+    }
+
+    // The upper bound of the bucket holding the given fraction of the recorded durations; 0 if none were recorded
+    long percentile(double fraction) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == 0 ? 0 : Math.min(maxNanos(), (1L << i) - 1);
+            }
+        }
+        return maxNanos();
+    }
+
+    void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+}
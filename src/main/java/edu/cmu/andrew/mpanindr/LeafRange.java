@@ -0,0 +1,101 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+/**
+ * The LeafRange class is an immutable half-open range [start, end) of leaf positions.
+ * <p>
+ * Pre-condition:
+ * - 0 &lt;= start &lt; end.
+ * <p>
+ * Post-condition:
+ * - Two ranges are equal when their bounds are equal.
+ * <p>
+ * Time Complexity:
+ * - Every operation is O(1).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class LeafRange {
+
+    private final long start;
+    private final long end;
+
+    /**
+     * Creates a range.
+     *
+     * @param start The first leaf in the range.
+     * @param end   The first leaf after the range.
+     * @throws IllegalArgumentException If the range is empty or negative.
+     * @pre-condition 0 &lt;= start &lt; end.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public LeafRange(long start, long end) {
+        if (start < 0 || end <= start) {
+            throw new IllegalArgumentException("Invalid leaf range [" + start + ", " + end + ")");
+        }
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the first leaf in the range.
+     *
+     * @return The start, inclusive.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long start() {
+        return start;
+    }
+
+    /**
+     * Returns the first leaf after the range.
+     *
+     * @return The end, exclusive.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long end() {
+        return end;
+    }
+
+    /**
+     * Returns the number of leaves in the range.
+     *
+     * @return end - start.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long length() {
+        return end - start;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LeafRange)) {
+            return false;
+        }
+        LeafRange other = (LeafRange) o;
+        return start == other.start && end == other.end;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(start) * 31 + Long.hashCode(end);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + start + ", " + end + ")";
+    }
+}
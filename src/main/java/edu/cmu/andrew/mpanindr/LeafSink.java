@@ -0,0 +1,26 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+/**
+ * The LeafSink interface receives leaf digests, in order, from code that splits input into leaves.
+ * StreamingMerkleBuilder::addLeafDigest is the usual sink.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+@FunctionalInterface
+public interface LeafSink {
+
+    /**
+     * Accepts the next leaf digest.
+     *
+     * @param digest The array holding the digest. It may be reused by the caller after this call returns.
+     * @param off    The position of the digest.
+     * @pre-condition The range [off, off + 32) of digest is valid.
+     * @post-condition The sink has consumed or copied the digest.
+     * @time-complexity Defined by the implementation.
+     */
+    void accept(byte[] digest, int off);
+}
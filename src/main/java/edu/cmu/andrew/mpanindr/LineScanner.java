@@ -0,0 +1,144 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The LineScanner class finds the lines of a byte stream delivered in consecutive buffers. It holds the
+ * line-terminator rules shared by LineSplitter and FileTailer.
+ * <p>
+ * Lines end at "\n", "\r" or "\r\n", exactly like BufferedReader.readLine. A "\r\n" pair may be split across two
+ * buffers: a buffer ending in '\r' leaves the scanner expecting a '\n', which the next buffer then skips.
+ * Terminators are located eight bytes at a time with a word-at-a-time (SWAR) test.
+ * <p>
+ * Pre-condition:
+ * - Buffers are scanned in stream order; an instance is not thread-safe.
+ * <p>
+ * Post-condition:
+ * - Every terminator is reported exactly once, as the end of the line it closes.
+ * <p>
+ * Time Complexity:
+ * - O(b) per buffer of b bytes; no allocation.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+final class LineScanner {
+
+    /**
+     * Receives the lines a buffer completes.
+     */
+    interface LineHandler {
+
+        /**
+         * Receives the part of a line held by the scanned buffer.
+         *
+         * @param line A view of the scanned buffer whose position is the first byte of the line in this buffer (the
+         *             scanned buffer's position for a line begun in an earlier buffer) and whose limit is the index
+         *             of the line's terminator, so the line ends at that offset. The handler may consume the view.
+         */
+        void line(ByteBuffer line);
+    }
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long NEWLINES = ONES * '\n';
+    private static final long RETURNS = ONES * '\r';
+
+    // The previous buffer ended with '\r', so a '\n' at the start of the next one belongs to that terminator
+    private boolean skipNewline;
+
+    LineScanner() {
+    }
+
+    // Restores the state saved with skipNewline(), for example from a checkpoint
+    LineScanner(boolean skipNewline) {
+        this.skipNewline = skipNewline;
+    }
+
+    /**
+     * Tells whether the last buffer ended with '\r', so that a leading '\n' of the next buffer will be skipped.
+     *
+     * @return The carried state.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    boolean skipNewline() {
+        return skipNewline;
+    }
+
+    /**
+     * Reports every line completed by the bytes between the buffer's position and limit.
+     *
+     * @param buffer  The next part of the stream.
+     * @param handler The receiver of the completed lines, in order.
+     * @return The index just after the last terminator consumed: the start of the unfinished tail, or the limit if
+     * there is none. It is the buffer's position if the buffer completes no line and skips no '\n'.
+     * @pre-condition Neither argument is null.
+     * @post-condition The handler has received every line whose terminator lies in the buffer; the buffer's
+     * position and limit are unchanged.
+     * @time-complexity O(b) in the number of bytes.
+     */
+    int scan(ByteBuffer buffer, LineHandler handler) {
+        int end = buffer.limit();
+        int i = buffer.position();
+        if (i == end) {
+            return i;
+        }
+        ByteBuffer view = buffer.duplicate();
+        if (skipNewline && buffer.get(i) == '\n') {
+            i++;
+        }
+        skipNewline = false;
+        int lineStart = i;
+
+        while (true) {
+            i = nextTerminator(buffer, i, end);
+            if (i == end) {
+                return lineStart;
+            }
+            view.limit(i).position(lineStart);
+            handler.line(view);
+            if (buffer.get(i) == '\r') {
+                if (i + 1 == end) {
+                    skipNewline = true;
+                } else if (buffer.get(i + 1) == '\n') {
+                    i++;
+                }
+            }
+            lineStart = ++i;
+        }
+    }
+
+    // Returns the index of the first '\n' or '\r' at or after from, or end if there is none
+    private static int nextTerminator(ByteBuffer buffer, int from, int end) {
+        int i = from;
+        for (; i + 8 <= end; i += 8) {
+            long word = buffer.getLong(i);
+            if (hasByte(word, NEWLINES) || hasByte(word, RETURNS)) {
+                // The word test is exact, so one of these eight bytes is a terminator
+                return firstTerminator(buffer, i, i + 8);
+            }
+        }
+        return firstTerminator(buffer, i, end);
+    }
+
+    private static int firstTerminator(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    // True if any byte of word equals the byte repeated in pattern
+    private static boolean hasByte(long word, long pattern) {
+        long x = word ^ pattern;
+        return ((x - ONES) & ~x & HIGHS) != 0;
+    }
+}
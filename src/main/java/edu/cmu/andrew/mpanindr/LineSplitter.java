@@ -0,0 +1,97 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The LineSplitter class turns a byte stream delivered in consecutive buffers into line leaf digests.
+ * <p>
+ * Lines are found by a LineScanner, so they end at "\n", "\r" or "\r\n" exactly like BufferedReader.readLine. A
+ * line, or a "\r\n" pair, may be split across any number of buffers: the unfinished part is fed to the digest and
+ * the line is completed by a later buffer or by finish.
+ * <p>
+ * Pre-condition:
+ * - Buffers are fed in stream order; an instance is not thread-safe, though successive calls may come from
+ * different threads if they are ordered by a happens-before edge.
+ * <p>
+ * Post-condition:
+ * - The sink receives the digest of every line's bytes under the chosen HashAlgorithm, in order.
+ * <p>
+ * Time Complexity:
+ * - O(b) per buffer of b bytes; no allocation per line.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+final class LineSplitter {
+
+    private final TreeHasher hasher;
+    private final LeafSink sink;
+    private final LineScanner scanner = new LineScanner();
+    private final LineScanner.LineHandler handler = this::line;
+    private final byte[] leaf = new byte[Digest.LENGTH];
+    private long lines;
+
+    // A line begun in an earlier buffer has been fed to the hasher but not finished
+    private boolean lineOpen;
+
+    LineSplitter(LeafSink sink, HashAlgorithm algorithm) throws NoSuchAlgorithmException {
+        // Leaves are hashed the same way in every mode
+        this.hasher = new TreeHasher(TreeMode.BINARY, algorithm);
+        this.sink = sink;
+    }
+
+    /**
+     * Splits the bytes between the buffer's position and limit.
+     *
+     * @param buffer The next part of the stream.
+     * @pre-condition buffer is not null.
+     * @post-condition Every line completed by this buffer has been handed to the sink; the buffer's position and
+     * limit are unchanged.
+     * @time-complexity O(b) in the number of bytes.
+     */
+    void feed(ByteBuffer buffer) {
+        int tail = scanner.scan(buffer, handler);
+
+        // Feed the unfinished tail; the line continues in the next buffer
+        if (tail < buffer.limit()) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(tail);
+            hasher.updateLeaf(view);
+            lineOpen = true;
+        }
+    }
+
+    private void line(ByteBuffer line) {
+        hasher.updateLeaf(line);
+        hasher.finishLeaf(leaf, 0);
+        sink.accept(leaf, 0);
+        lines++;
+        lineOpen = false;
+    }
+
+    /**
+     * Ends the stream: a last line without terminator is still a line.
+     *
+     * @return The number of lines handed to the sink in total.
+     * @pre-condition No more buffers follow.
+     * @post-condition The sink has received every line.
+     * @time-complexity O(1).
+     */
+    long finish() {
+        if (lineOpen) {
+            hasher.finishLeaf(leaf, 0);
+            sink.accept(leaf, 0);
+            lines++;
+            lineOpen = false;
+        }
+        hasher.flushMetrics();
+        return lines;
+    }
+}
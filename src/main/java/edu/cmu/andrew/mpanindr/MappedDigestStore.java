@@ -0,0 +1,156 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * The MappedDigestStore class is a DigestStore over one or more regions of ByteBuffers, typically memory mappings of
+ * a tree file. Nothing is read or parsed up front: digests are fetched from the mapping on access, so the operating
+ * system pages them in lazily.
+ * <p>
+ * One mapping is limited to 2 GB, about 67 million digests. map() therefore splits a level into mappings of up to
+ * 2^25 digests (1 GiB) each, like the chunks of an OffHeapDigestStore, so a store can hold up to Integer.MAX_VALUE
+ * digests.
+ * <p>
+ * Pre-condition:
+ * - The buffer region holds exactly 32 * size bytes starting at its position.
+ * <p>
+ * Post-condition:
+ * - The store is read-only when the buffer is read-only (a READ_ONLY mapping); writes go to the mapping otherwise.
+ * <p>
+ * Time Complexity:
+ * - read, write and get are O(1), plus a page fault on first access.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class MappedDigestStore implements DigestStore {
+
+    // A single buffer holds at most Integer.MAX_VALUE bytes, so fewer than 2^26 digests
+    private static final int SINGLE_BUFFER_SHIFT = 26;
+
+    private final ByteBuffer[] chunks;
+    private final int size;
+    private final int chunkShift;
+    private final int chunkMask;
+    private final boolean readOnly;
+
+    /**
+     * Wraps the region between a buffer's position and limit.
+     *
+     * @param buffer The buffer holding the packed digests.
+     * @throws IllegalArgumentException If the region does not hold a whole number of digests.
+     * @pre-condition buffer is not null.
+     * @post-condition The store shares the buffer's content; the buffer's position and limit are not used again.
+     * @time-complexity O(1).
+     */
+    public MappedDigestStore(ByteBuffer buffer) {
+        this(new ByteBuffer[]{wholeDigests(buffer).slice()}, buffer.remaining() / Digest.LENGTH, SINGLE_BUFFER_SHIFT,
+                buffer.isReadOnly());
+    }
+
+    private MappedDigestStore(ByteBuffer[] chunks, int size, int chunkShift, boolean readOnly) {
+        this.chunks = chunks;
+        this.size = size;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1 << chunkShift) - 1;
+        this.readOnly = readOnly;
+    }
+
+    private static ByteBuffer wholeDigests(ByteBuffer buffer) {
+        if (buffer.remaining() % Digest.LENGTH != 0) {
+            throw new IllegalArgumentException("Region does not hold whole digests: " + buffer.remaining() + " bytes");
+        }
+        return buffer;
+    }
+
+    /**
+     * Maps a region of a file that holds packed digests, one mapping per 2^25 digests.
+     *
+     * @param channel  The open file.
+     * @param mapMode  The mapping mode, READ_ONLY for a read-only store.
+     * @param position The offset of the first digest in the file.
+     * @param size     The number of digests.
+     * @return The store over the mappings.
+     * @throws IOException              If the region cannot be mapped.
+     * @throws IllegalArgumentException If size is negative.
+     * @pre-condition The file holds 32 * size bytes from position.
+     * @post-condition The mappings stay valid after the channel is closed.
+     * @time-complexity O(size / 2^25) mappings.
+     */
+    public static MappedDigestStore map(FileChannel channel, FileChannel.MapMode mapMode, long position, int size)
+            throws IOException {
+        return map(channel, mapMode, position, size, OffHeapDigestStore.DEFAULT_CHUNK_SHIFT);
+    }
+
+    // Smaller chunks let tests cross mapping boundaries with few digests
+    static MappedDigestStore map(FileChannel channel, FileChannel.MapMode mapMode, long position, int size,
+                                 int chunkShift) throws IOException {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative: " + size);
+        }
+        ByteBuffer[] chunks = new ByteBuffer[(int) (((long) size + (1 << chunkShift) - 1) >>> chunkShift)];
+        for (int c = 0; c < chunks.length; c++) {
+            int digests = Math.min(1 << chunkShift, size - (c << chunkShift));
+            long offset = position + ((long) c << chunkShift) * Digest.LENGTH;
+            chunks[c] = channel.map(mapMode, offset, (long) digests * Digest.LENGTH);
+        }
+        return new MappedDigestStore(chunks, size, chunkShift, mapMode == FileChannel.MapMode.READ_ONLY);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void read(int index, byte[] dst, int off) {
+        chunk(index).get(offset(index), dst, off, Digest.LENGTH);
+    }
+
+    @Override
+    public void write(int index, byte[] src, int off) {
+        if (isReadOnly()) {
+            throw new UnsupportedOperationException("Digest store is read-only");
+        }
+        chunk(index).put(offset(index), src, off, Digest.LENGTH);
+    }
+
+    @Override
+    public Digest get(int index) {
+        return Digest.read(chunk(index), offset(index));
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    @Override
+    public void writeTo(WritableByteChannel out) throws IOException {
+        for (ByteBuffer chunk : chunks) {
+            ByteBuffer buffer = chunk.duplicate().clear();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+    }
+
+    private ByteBuffer chunk(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        return chunks[index >>> chunkShift];
+    }
+
+    private int offset(int index) {
+        return (index & chunkMask) * Digest.LENGTH;
+    }
+}
@@ -0,0 +1,179 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.HashAlgorithm;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The MappedFileHasher class hashes the lines of a file straight from a memory-mapped view of its bytes.
+ * <p>
+ * readFileLines decodes every line into a String and the hasher encodes it back to UTF-8; for UTF-8 input
+ * both steps reproduce the original bytes. This class skips them: it maps the file with FileChannel.map,
+ * finds line terminators in the raw bytes and feeds each byte range directly to the digest.
+ * <p>
+ * Key Features:
+ * - Lines end at "\n", "\r" or "\r\n", exactly like BufferedReader.readLine, including a terminator
+ * split across two mapped windows.
+ * - The file is mapped in windows of at most 1 GiB with long positions, so files larger than 2 GB are supported.
+ * - A line may be longer than a window: it is fed to the digest piece by piece.
+ * - Terminators are located eight bytes at a time with a word-at-a-time (SWAR) test (see LineSplitter).
+ * - Any HashAlgorithm may be chosen; the default is SHA-256.
+ * <p>
+ * Pre-condition:
+ * - The file holds valid UTF-8 text. For other encodings the roots differ from readFileLines, which replaces
+ * malformed input while decoding.
+ * - The file must not be truncated while it is being hashed.
+ * <p>
+ * Post-condition:
+ * - The leaves, and therefore the roots, equal those of readFileLines followed by computeMerkleRoot.
+ * <p>
+ * Time Complexity:
+ * - O(s) in the file size s, with O(log n) memory for the tree frontier and no per-line allocation.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class MappedFileHasher {
+
+    /**
+     * Default size of one mapped window.
+     */
+    public static final long DEFAULT_WINDOW = 1L << 30;
+
+    private MappedFileHasher() {
+    }
+
+    /**
+     * Computes the Merkle root of the lines of a file through memory mapping.
+     *
+     * @param fileName The file to hash.
+     * @param mode     The tree mode.
+     * @return The root formatted by {@link TreeMode#formatRoot}.
+     * @throws IOException              If the file cannot be mapped.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the file has no lines.
+     * @pre-condition The file exists and holds UTF-8 text.
+     * @post-condition The file is closed.
+     * @time-complexity O(s) in the file size s.
+     */
+    public static String computeMerkleRoot(String fileName, TreeMode mode) throws IOException, NoSuchAlgorithmException {
+        return computeMerkleRoot(fileName, mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Computes the Merkle root of the lines of a file through memory mapping, with the given hash algorithm.
+     *
+     * @param fileName  The file to hash.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm for leaves and parents.
+     * @return The root formatted by {@link TreeMode#formatRoot(edu.utils.Digest, HashAlgorithm)}.
+     * @throws IOException              If the file cannot be mapped.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the file has no lines.
+     * @pre-condition The file exists and holds UTF-8 text.
+     * @post-condition The file is closed.
+     * @time-complexity O(s) in the file size s.
+     */
+    public static String computeMerkleRoot(String fileName, TreeMode mode, HashAlgorithm algorithm)
+            throws IOException, NoSuchAlgorithmException {
+        StreamingMerkleBuilder builder = new StreamingMerkleBuilder(mode, algorithm);
+        hashLines(Paths.get(fileName), algorithm, builder::addLeafDigest);
+        return builder.formattedRoot();
+    }
+
+    /**
+     * Hashes every line of a file and hands the leaf digests to a sink, in file order.
+     *
+     * @param file The file to hash.
+     * @param sink The receiver of the leaf digests.
+     * @return The number of lines hashed.
+     * @throws IOException              If the file cannot be mapped.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition The file exists.
+     * @post-condition The file is closed.
+     * @time-complexity O(s) in the file size s.
+     */
+    public static long hashLines(Path file, LeafSink sink) throws IOException, NoSuchAlgorithmException {
+        return hashLines(file, HashAlgorithm.DEFAULT, sink);
+    }
+
+    /**
+     * Hashes every line of a file with the given algorithm and hands the leaf digests to a sink, in file order.
+     *
+     * @param file      The file to hash.
+     * @param algorithm The hash algorithm.
+     * @param sink      The receiver of the leaf digests.
+     * @return The number of lines hashed.
+     * @throws IOException              If the file cannot be mapped.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition The file exists.
+     * @post-condition The file is closed.
+     * @time-complexity O(s) in the file size s.
+     */
+    public static long hashLines(Path file, HashAlgorithm algorithm, LeafSink sink)
+            throws IOException, NoSuchAlgorithmException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return hashLines(channel, 0, channel.size(), DEFAULT_WINDOW, algorithm, sink);
+        }
+    }
+
+    /**
+     * Hashes every line in a region of a channel and hands the leaf digests to a sink, in order.
+     * The region is treated as a complete text: a final line without terminator is still a line.
+     *
+     * @param channel The channel to map.
+     * @param start   The first byte of the region.
+     * @param end     The end (exclusive) of the region.
+     * @param window  The largest number of bytes mapped at once, between 8 and Integer.MAX_VALUE.
+     * @param sink    The receiver of the leaf digests.
+     * @return The number of lines hashed.
+     * @throws IOException              If the channel cannot be mapped.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition 0 &lt;= start &lt;= end &lt;= channel.size().
+     * @post-condition The channel is left open; its position is not used.
+     * @time-complexity O(end - start).
+     */
+    public static long hashLines(FileChannel channel, long start, long end, long window, LeafSink sink)
+            throws IOException, NoSuchAlgorithmException {
+        return hashLines(channel, start, end, window, HashAlgorithm.DEFAULT, sink);
+    }
+
+    /**
+     * Hashes every line in a region of a channel with the given algorithm and hands the leaf digests to a sink,
+     * in order. The region is treated as a complete text: a final line without terminator is still a line.
+     *
+     * @param channel   The channel to map.
+     * @param start     The first byte of the region.
+     * @param end       The end (exclusive) of the region.
+     * @param window    The largest number of bytes mapped at once, between 8 and Integer.MAX_VALUE.
+     * @param algorithm The hash algorithm.
+     * @param sink      The receiver of the leaf digests.
+     * @return The number of lines hashed.
+     * @throws IOException              If the channel cannot be mapped.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition 0 &lt;= start &lt;= end &lt;= channel.size().
+     * @post-condition The channel is left open; its position is not used.
+     * @time-complexity O(end - start).
+     */
+    public static long hashLines(FileChannel channel, long start, long end, long window, HashAlgorithm algorithm,
+                                 LeafSink sink) throws IOException, NoSuchAlgorithmException {
+        if (window < 8 || window > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Window must be between 8 and " + Integer.MAX_VALUE + ": " + window);
+        }
+        LineSplitter splitter = new LineSplitter(sink, algorithm);
+        for (long position = start; position < end; ) {
+            int length = (int) Math.min(window, end - position);
+            splitter.feed(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            position += length;
+        }
+        return splitter.finish();
+    }
+}
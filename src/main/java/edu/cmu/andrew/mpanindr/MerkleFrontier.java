@@ -0,0 +1,182 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The MerkleFrontier class is an immutable snapshot of the state of a StreamingMerkleBuilder: the leaf count
+ * and the pending subtree roots. It is everything needed to resume appending leaves to a tree, so a process
+ * can save it and later continue without re-reading the leaves already hashed.
+ * <p>
+ * The pending roots are stored packed, one 32-byte digest for every bit set in the leaf count,
+ * from the lowest level upwards.
+ * <p>
+ * Key Features:
+ * - At most 64 digests (about 2 KB) describe a tree of any size.
+ * - Written to and read from any DataOutput/DataInput; the tree mode and hash algorithm are recorded by
+ * TreeMode.tag, so snapshots of SHA-256 trees keep their earlier format.
+ * <p>
+ * Pre-condition:
+ * - The digests must match the leaf count: one per set bit.
+ * <p>
+ * Post-condition:
+ * - A builder restored from a snapshot produces the same roots as the builder the snapshot was taken from.
+ * <p>
+ * Time Complexity:
+ * - Every operation is O(log n) in the leaf count.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class MerkleFrontier {
+
+    private final TreeMode mode;
+    private final HashAlgorithm algorithm;
+    private final long leafCount;
+    private final byte[] digests;
+
+    /**
+     * Creates a snapshot of a SHA-256 tree.
+     *
+     * @param mode      The tree mode.
+     * @param leafCount The number of leaves added so far.
+     * @param digests   The packed pending subtree roots, lowest level first. The array is owned by the snapshot.
+     * @throws IllegalArgumentException If the number of digests does not match the leaf count.
+     * @pre-condition leafCount is not negative.
+     * @post-condition The snapshot is ready to be restored or written.
+     * @time-complexity O(1).
+     */
+    public MerkleFrontier(TreeMode mode, long leafCount, byte[] digests) {
+        this(mode, HashAlgorithm.DEFAULT, leafCount, digests);
+    }
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm.
+     * @param leafCount The number of leaves added so far.
+     * @param digests   The packed pending subtree roots, lowest level first. The array is owned by the snapshot.
+     * @throws IllegalArgumentException If the number of digests does not match the leaf count.
+     * @pre-condition leafCount is not negative.
+     * @post-condition The snapshot is ready to be restored or written.
+     * @time-complexity O(1).
+     */
+    public MerkleFrontier(TreeMode mode, HashAlgorithm algorithm, long leafCount, byte[] digests) {
+        if (leafCount < 0 || digests.length != Long.bitCount(leafCount) * Digest.LENGTH) {
+            throw new IllegalArgumentException("Frontier does not match leaf count " + leafCount);
+        }
+        this.mode = mode;
+        this.algorithm = algorithm;
+        this.leafCount = leafCount;
+        this.digests = digests;
+    }
+
+    /**
+     * Returns the tree mode.
+     *
+     * @return The tree mode.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public TreeMode mode() {
+        return mode;
+    }
+
+    /**
+     * Returns the hash algorithm.
+     *
+     * @return The algorithm.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public HashAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns the number of leaves covered by the snapshot.
+     *
+     * @return The leaf count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long leafCount() {
+        return leafCount;
+    }
+
+    /**
+     * Returns the number of pending subtree roots.
+     *
+     * @return The number of set bits of the leaf count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int size() {
+        return Long.bitCount(leafCount);
+    }
+
+    /**
+     * Returns one pending subtree root.
+     *
+     * @param i The position of the root among the pending roots, 0 for the lowest level.
+     * @return The digest.
+     * @pre-condition 0 &lt;= i &lt; size().
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public Digest digest(int i) {
+        return Digest.read(digests, i * Digest.LENGTH);
+    }
+
+    /**
+     * Writes the snapshot.
+     *
+     * @param out The destination.
+     * @throws IOException If writing fails.
+     * @pre-condition out is not null.
+     * @post-condition The tag of the mode and algorithm, the leaf count and the pending roots are written.
+     * @time-complexity O(log n).
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeUTF(mode.tag(algorithm));
+        out.writeLong(leafCount);
+        out.write(digests);
+    }
+
+    /**
+     * Reads a snapshot written by {@link #writeTo}.
+     *
+     * @param in The source.
+     * @return The snapshot.
+     * @throws IOException              If reading fails.
+     * @throws IllegalArgumentException If the tag or the leaf count is invalid.
+     * @pre-condition in is positioned at a snapshot.
+     * @post-condition in is positioned after the snapshot.
+     * @time-complexity O(log n).
+     */
+    public static MerkleFrontier readFrom(DataInput in) throws IOException {
+        String tag = in.readUTF();
+        int plus = tag.indexOf('+');
+        TreeMode mode = TreeMode.fromVersionTag(plus < 0 ? tag : tag.substring(0, plus));
+        HashAlgorithm algorithm = plus < 0 ? HashAlgorithm.DEFAULT : HashAlgorithm.fromId(tag.substring(plus + 1));
+        long leafCount = in.readLong();
+        if (leafCount < 0) {
+            throw new IllegalArgumentException("Invalid leaf count: " + leafCount);
+        }
+        byte[] digests = new byte[Long.bitCount(leafCount) * Digest.LENGTH];
+        in.readFully(digests);
+        return new MerkleFrontier(mode, algorithm, leafCount, digests);
+    }
+}
@@ -0,0 +1,187 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+
+/**
+ * The MerkleLevelBuilder class is the level engine behind {@link MerkleTree#computeMerkleRoot(SinglyLinkedList)}.
+ * It builds every level of the Merkle tree in a single sequential pass over an array of digests, instead of
+ * re-walking a SinglyLinkedList from the head for every index.
+ * <p>
+ * Key Features:
+ * - Hashes the leaves of a SinglyLinkedList in one traversal of the list.
+ * - Stores each level as one packed byte array holding 32 bytes per node, so no String or node object
+ * is created per digest.
+ * - Builds each parent level from its child level in one pass, using a TreeHasher for the chosen TreeMode.
+ * - Applies the same duplicate-last-node rule as the original list-based algorithm, so LEGACY_HEX roots are identical.
+ * <p>
+ * Pre-condition:
+ * - The leaf level handed to the builder must contain at least one digest.
+ * <p>
+ * Post-condition:
+ * - The root returned is the same digest the list-based algorithm produced for LEGACY_HEX.
+ * <p>
+ * Time Complexity:
+ * - Hashing the leaves is O(n), where n is the number of lines.
+ * - Building all levels is O(n), since the level sizes form the series n + n/2 + n/4 + ... &lt;= 2n.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class MerkleLevelBuilder {
+
+    /**
+     * The largest number of digests one packed level can hold: 32 times this still fits in an int array length.
+     */
+    public static final int MAX_LEAVES = Integer.MAX_VALUE / Digest.LENGTH;
+
+    private MerkleLevelBuilder() {
+    }
+
+    /**
+     * Hashes every node of the list into a packed leaf level, walking the list exactly once.
+     *
+     * @param list   The list whose nodes are hashed. Every node must hold non-null data.
+     * @param hasher The hasher producing leaf digests.
+     * @return A packed array holding the leaf digest of each node's data, in list order.
+     * @throws IllegalArgumentException If the list has more than MAX_LEAVES nodes.
+     * @pre-condition The list is not null and none of its nodes hold null data.
+     * @post-condition The list's iterator is left exhausted; the list content itself is unchanged.
+     * @time-complexity O(n) - Each node is visited once through the list's iterator.
+     */
+    public static byte[] hashLeaves(SinglyLinkedList list, TreeHasher hasher) {
+        int count = list.countNodes();
+        byte[] leaves = new byte[packedLength(count)];
+        list.reset();
+        for (int i = 0; i < count; i++) {
+            hasher.leaf(list.next().toString(), leaves, i * Digest.LENGTH);
+        }
+        return leaves;
+    }
+
+    /**
+     * Returns the length of a packed array holding the given number of digests.
+     *
+     * @param count The number of digests.
+     * @return count * 32.
+     * @throws IllegalArgumentException If count is above MAX_LEAVES, so the array could not be allocated.
+     * @pre-condition count is not negative.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public static int packedLength(long count) {
+        if (count > MAX_LEAVES) {
+            throw new IllegalArgumentException("Too many leaves for a packed level: " + count
+                    + " (at most " + MAX_LEAVES + ")");
+        }
+        return (int) count * Digest.LENGTH;
+    }
+
+    /**
+     * Builds the parent level of the given level by hashing adjacent pairs.
+     * If the level has an odd number of digests, the last one is paired with itself.
+     *
+     * @param level  The packed digests of the current level.
+     * @param size   The number of digests in the level.
+     * @param hasher The hasher producing parent digests.
+     * @return A new packed array holding the (size + 1) / 2 parent digests.
+     * @pre-condition size is at least 1 and level holds at least size digests.
+     * @post-condition The input array is not modified; the build time and size are recorded in MerkleMetrics.
+     * @time-complexity O(size) - One hash per pair of digests.
+     */
+    public static byte[] nextLevel(byte[] level, int size, TreeHasher hasher) {
+        long start = System.nanoTime();
+        byte[] parents = new byte[((size + 1) / 2) * Digest.LENGTH];
+        for (int i = 0; i < size; i += 2) {
+            int leftOff = i * Digest.LENGTH;
+            // Duplicate the last node if the number of nodes is odd
+            int rightOff = (i + 1 < size) ? leftOff + Digest.LENGTH : leftOff;
+            hasher.parent(level, leftOff, level, rightOff, parents, (i / 2) * Digest.LENGTH);
+        }
+        MerkleMetrics.global().recordLevel(System.nanoTime() - start, parents.length);
+        return parents;
+    }
+
+    /**
+     * Computes the Merkle root of a packed leaf level.
+     * The leaf level is always paired at least once, so a single leaf h yields parent(h, h),
+     * exactly as the list-based algorithm does after duplicating the only node.
+     *
+     * @param leaves The packed leaf digests.
+     * @param count  The number of leaves.
+     * @param hasher The hasher producing parent digests.
+     * @return The Merkle root digest.
+     * @throws IllegalArgumentException If there are no leaves.
+     * @pre-condition count is at least 1 and leaves holds at least count digests.
+     * @post-condition The input array is not modified.
+     * @time-complexity O(n) - The levels shrink geometrically, so the total work is at most 2n hashes.
+     */
+    public static Digest computeRoot(byte[] leaves, int count, TreeHasher hasher) {
+        if (count == 0) {
+            throw new IllegalArgumentException("List is empty. Cannot compute Merkle root.");
+        }
+
+        byte[] currentLevel = leaves;
+        int size = count;
+        do {
+            currentLevel = nextLevel(currentLevel, size, hasher);
+            size = (size + 1) / 2;
+        } while (size > 1);
+
+        hasher.flushMetrics();
+        return Digest.read(currentLevel, 0);
+    }
+
+    /**
+     * Reduces an aligned block of a level to the single node it contributes {@code height} levels higher.
+     * The block is paired {@code height} times with the duplicate-last-node rule, so a partial block at the
+     * right edge of a level produces exactly the node the whole-level algorithm would produce there.
+     *
+     * @param level  The packed digests of the level the block belongs to.
+     * @param offset The index of the first digest of the block.
+     * @param size   The number of digests in the block, at most 2^height.
+     * @param height The number of levels to climb.
+     * @param hasher The hasher producing parent digests.
+     * @param out    The array receiving the block's root digest.
+     * @param outOff The position of the root digest in out.
+     * @pre-condition The block starts at a multiple of 2^height in a level that has more than 2^height digests,
+     * so that no level inside the block is the global root level.
+     * @post-condition The input level is not modified; the build time and size of each level of the block are
+     * recorded in MerkleMetrics.
+     * @time-complexity O(size + height) - The block shrinks geometrically; once it is one node, each remaining
+     * level costs one hash.
+     */
+    public static void subtreeRoot(byte[] level, int offset, int size, int height, TreeHasher hasher,
+                                   byte[] out, int outOff) {
+        MerkleMetrics metrics = MerkleMetrics.global();
+        long start = System.nanoTime();
+        byte[] scratch = new byte[((size + 1) / 2) * Digest.LENGTH];
+        int base = offset * Digest.LENGTH;
+
+        // The first level reads from the caller's array, every later one is reduced in place
+        for (int i = 0; i < size; i += 2) {
+            int leftOff = base + i * Digest.LENGTH;
+            int rightOff = (i + 1 < size) ? leftOff + Digest.LENGTH : leftOff;
+            hasher.parent(level, leftOff, level, rightOff, scratch, (i / 2) * Digest.LENGTH);
+        }
+        size = (size + 1) / 2;
+        long end = System.nanoTime();
+        metrics.recordLevel(end - start, (long) size * Digest.LENGTH);
+
+        for (int h = 1; h < height; h++) {
+            start = end;
+            for (int i = 0; i < size; i += 2) {
+                int leftOff = i * Digest.LENGTH;
+                int rightOff = (i + 1 < size) ? leftOff + Digest.LENGTH : leftOff;
+                hasher.parent(scratch, leftOff, scratch, rightOff, scratch, (i / 2) * Digest.LENGTH);
+            }
+            size = (size + 1) / 2;
+            end = System.nanoTime();
+            metrics.recordLevel(end - start, (long) size * Digest.LENGTH);
+        }
+        System.arraycopy(scratch, 0, out, outOff, Digest.LENGTH);
+        hasher.flushMetrics();
+    }
+}
@@ -0,0 +1,249 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The MerkleMetrics class collects process-wide counters for hashing and tree building, and publishes them as a
+ * pull-style MetricsSnapshot and as a JMX MXBean.
+ * <p>
+ * Counters are striped LongAdders, so threads hashing in parallel do not contend on them. The hashing hot path does
+ * not touch them directly: each TreeHasher counts its hashes, leaves and bytes in plain fields and adds them here
+ * every 1024 hashes and when a build finishes, so counts from a hasher still in use may lag by up to 1024 hashes.
+ * Level timings cost one or two System.nanoTime() calls per level, which is O(log n) per tree, or per level of each
+ * block for ParallelMerkleBuilder.
+ * <p>
+ * Key Features:
+ * - Hashes computed, leaves hashed and leaf bytes ingested, from every TreeHasher.
+ * - Leaves per second, since the start or last reset, or between two snapshots; reading it has no side effect.
+ * - Per-level build time histogram from MerkleLevelBuilder (whole levels, and each level of a ParallelMerkleBuilder
+ * block), the off-heap RetainedMerkleTree builder and the right-edge fold of StreamingMerkleBuilder.
+ * - Peak level and streaming frontier sizes in bytes.
+ * - RootCache hits and misses.
+ * - Recording can be turned off with -Dmerkle.metrics=false; MetricsOverheadBenchmark compares the two settings.
+ * <p>
+ * Pre-condition:
+ * - None; all methods are thread-safe.
+ * <p>
+ * Post-condition:
+ * - Counters only grow until reset() is called.
+ * <p>
+ * Time Complexity:
+ * - Recording is O(1); snapshot() is O(64) for the histogram.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class MerkleMetrics implements MerkleMetricsMXBean {
+
+    /**
+     * The JMX name the metrics are registered under.
+     */
+    public static final String OBJECT_NAME = "edu.cmu.andrew.mpanindr:type=MerkleMetrics";
+
+    /**
+     * System property that turns recording off when set to "false", for example to measure its overhead.
+     */
+    public static final String ENABLED_PROPERTY = "merkle.metrics";
+
+    // Read once, so the JIT drops the recording code when it is off
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+
+    private static final MerkleMetrics GLOBAL = new MerkleMetrics();
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder leaves = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LatencyHistogram levelBuild = new LatencyHistogram();
+    private final LongAccumulator peakLevelBytes = new LongAccumulator(Long::max, 0);
+    private final LongAccumulator peakFrontierBytes = new LongAccumulator(Long::max, 0);
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private volatile long startNanos = System.nanoTime();
+
+    private MerkleMetrics() {
+    }
+
+    /**
+     * Returns the process-wide metrics.
+     *
+     * @return The metrics every hasher, builder and cache reports to.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public static MerkleMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Tells whether recording is on. It is on unless the merkle.metrics system property was "false" when the class
+     * was loaded; when it is off, every counter stays at zero.
+     *
+     * @return true if work is recorded.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public static boolean enabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Registers the process-wide metrics with the platform MBean server. Registering again has no effect.
+     *
+     * @return The name the metrics are registered under.
+     * @throws IllegalStateException If JMX refuses the registration.
+     * @pre-condition None.
+     * @post-condition The metrics are visible to JMX clients such as jconsole.
+     * @time-complexity O(1).
+     */
+    public static ObjectName register() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                try {
+                    server.registerMBean(GLOBAL, name);
+                } catch (InstanceAlreadyExistsException e) {
+                    // Registered concurrently by another thread
+                }
+            }
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Reads every counter at once.
+     *
+     * @return The current values.
+     * @pre-condition None.
+     * @post-condition The metrics are not modified.
+     * @time-complexity O(64).
+     */
+    public MetricsSnapshot snapshot() {
+        long now = System.nanoTime();
+        return new MetricsSnapshot(now, now - startNanos, hashes.sum(), leaves.sum(), bytes.sum(), levelBuild,
+                peakLevelBytes.get(), peakFrontierBytes.get(), cacheHits.sum(), cacheMisses.sum());
+    }
+
+    @Override
+    public long getHashesComputed() {
+        return hashes.sum();
+    }
+
+    @Override
+    public long getLeavesHashed() {
+        return leaves.sum();
+    }
+
+    @Override
+    public long getBytesIngested() {
+        return bytes.sum();
+    }
+
+    @Override
+    public double getLeavesPerSecond() {
+        long nanos = System.nanoTime() - startNanos;
+        return nanos <= 0 ? 0 : leaves.sum() * 1e9 / nanos;
+    }
+
+    @Override
+    public long getLevelsBuilt() {
+        return levelBuild.count();
+    }
+
+    @Override
+    public double getLevelBuildMeanNanos() {
+        long count = levelBuild.count();
+        return count == 0 ? 0 : (double) levelBuild.totalNanos() / count;
+    }
+
+    @Override
+    public long getLevelBuildP99Nanos() {
+        return levelBuild.percentile(0.99);
+    }
+
+    @Override
+    public long getLevelBuildMaxNanos() {
+        return levelBuild.maxNanos();
+    }
+
+    @Override
+    public long getPeakLevelBytes() {
+        return peakLevelBytes.get();
+    }
+
+    @Override
+    public long getPeakFrontierBytes() {
+        return peakFrontierBytes.get();
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    @Override
+    public void reset() {
+        hashes.reset();
+        leaves.reset();
+        bytes.reset();
+        levelBuild.reset();
+        peakLevelBytes.reset();
+        peakFrontierBytes.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+        startNanos = System.nanoTime();
+    }
+
+    void recordHashes(long hashCount, long leafCount, long byteCount) {
+        if (!ENABLED) {
+            return;
+        }
+        hashes.add(hashCount);
+        leaves.add(leafCount);
+        bytes.add(byteCount);
+    }
+
+    void recordLevel(long nanos, long levelBytes) {
+        if (!ENABLED) {
+            return;
+        }
+        levelBuild.record(nanos);
+        peakLevelBytes.accumulate(levelBytes);
+    }
+
+    void recordFrontier(long frontierBytes) {
+        if (!ENABLED) {
+            return;
+        }
+        peakFrontierBytes.accumulate(frontierBytes);
+    }
+
+    void recordCacheLookup(boolean hit) {
+        if (!ENABLED) {
+            return;
+        }
+        if (hit) {
+            cacheHits.increment();
+        } else {
+            cacheMisses.increment();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+/**
+ * The MerkleMetricsMXBean interface is the JMX view of MerkleMetrics, registered by MerkleMetrics.register() under
+ * {@value MerkleMetrics#OBJECT_NAME}. Every attribute is read from live counters when it is requested.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public interface MerkleMetricsMXBean {
+
+    /**
+     * Returns the number of leaf and parent digests computed.
+     *
+     * @return The hash count.
+     */
+    long getHashesComputed();
+
+    /**
+     * Returns the number of leaves hashed.
+     *
+     * @return The leaf count.
+     */
+    long getLeavesHashed();
+
+    /**
+     * Returns the number of leaf content bytes hashed.
+     *
+     * @return The byte count.
+     */
+    long getBytesIngested();
+
+    /**
+     * Returns the average leaf rate since the metrics were created or last reset. Reading it changes nothing, so
+     * any number of JMX clients may poll it; for the rate over an interval, compare two snapshots with
+     * MetricsSnapshot.leavesPerSecondSince.
+     *
+     * @return Leaves per second, or 0 if no time has elapsed.
+     */
+    double getLeavesPerSecond();
+
+    /**
+     * Returns the number of tree levels built.
+     *
+     * @return The level count.
+     */
+    long getLevelsBuilt();
+
+    /**
+     * Returns the mean time to build one level.
+     *
+     * @return Nanoseconds.
+     */
+    double getLevelBuildMeanNanos();
+
+    /**
+     * Returns the 99th percentile of the level build time, rounded up to a power of two.
+     *
+     * @return Nanoseconds.
+     */
+    long getLevelBuildP99Nanos();
+
+    /**
+     * Returns the longest level build.
+     *
+     * @return Nanoseconds.
+     */
+    long getLevelBuildMaxNanos();
+
+    /**
+     * Returns the size of the largest level built.
+     *
+     * @return Bytes.
+     */
+    long getPeakLevelBytes();
+
+    /**
+     * Returns the size of the largest streaming frontier seen.
+     *
+     * @return Bytes.
+     */
+    long getPeakFrontierBytes();
+
+    /**
+     * Returns the number of RootCache lookups that found a valid root.
+     *
+     * @return The hit count.
+     */
+    long getCacheHits();
+
+    /**
+     * Returns the number of RootCache lookups that found no root or a stale one.
+     *
+     * @return The miss count.
+     */
+    long getCacheMisses();
+
+    /**
+     * Clears every counter, histogram and peak.
+     */
+    void reset();
+}
@@ -3,6 +3,7 @@
 
 package edu.cmu.andrew.mpanindr;
 
+import edu.utils.HashAlgorithm;
 import edu.utils.HashUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,11 +11,15 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * The MerkleTree class demonstrates the construction and computation of a Merkle root
@@ -26,6 +31,9 @@ import java.util.Scanner;
  * <p>
  * Features:
  * - Reads data from a file into a SinglyLinkedList, where each line becomes a node.
+ * - When run as a program, streams each file through StreamingMerkleBuilder, so only O(log n) pending hashes
+ * are held in memory no matter how large the file is. All files are hashed concurrently by MultiFileMerkleEngine,
+ * and files unchanged since the previous run are answered from a RootCache.
  * - Computes the Merkle root by iteratively hashing pairs of nodes until a single root is reached.
  * - Provides flexibility for processing either all predefined files or a user-selected file.
  * - Implements exception handling to ensure robustness when dealing with invalid inputs or errors during file processing.
@@ -43,7 +51,7 @@ import java.util.Scanner;
  * <p>
  * Time Complexity:
  * - The file reading method operates in O(n), where n is the number of lines in the file.
- * - The Merkle root computation operates in O(n log n), where n is the number of nodes in the list.
+ * - The Merkle root computation operates in O(n), where n is the number of nodes in the list.
  * <p>
  * Note:
  * - This class is intended for educational purposes and may not be optimized for high-performance use cases.
@@ -56,6 +64,12 @@ public class MerkleTree {
 
     private static final Logger logger = LoggerFactory.getLogger(MerkleTree.class);
 
+    /**
+     * System property naming a root cache file for the "all files" choice. Roots of unchanged files are read from it
+     * and new roots written back; without the property no cache is used and nothing is written.
+     */
+    public static final String ROOT_CACHE_PROPERTY = "merkle.rootCache";
+
     public static void main(String[] args) {
         // Create a scanner to handle user input
         Scanner scanner = new Scanner(System.in);
@@ -86,20 +100,37 @@ public class MerkleTree {
         try {
             // If a single file was selected, process it and compute its Merkle root
             if (fileNames.isEmpty()) {
-                SinglyLinkedList lineList = readFileLines(fileName);
-                String merkleRoot = computeMerkleRoot(lineList);
+                // Stream the file so that only O(log n) pending hashes are held in memory
+                String merkleRoot = StreamingMerkleBuilder.computeMerkleRoot(fileName, TreeMode.LEGACY_HEX);
                 logger.info("Merkle Root: {}", merkleRoot);
             }
             // Otherwise, process all files and compute their respective Merkle roots
             else {
-                for (String file : fileNames) {
-                    SinglyLinkedList lineList = readFileLines(file);
-                    String merkleRoot = computeMerkleRoot(lineList);
-                    logger.info("Merkle Root for {}: {}", file, merkleRoot);
+                // Hash the files concurrently, skipping unchanged ones if a cache was asked for;
+                // roots are still logged in list order
+                String cacheFile = System.getProperty(ROOT_CACHE_PROPERTY);
+                Path cachePath = cacheFile == null ? null : Paths.get(cacheFile);
+                RootCache cache = cachePath == null ? null
+                        : RootCache.load(cachePath, RootCache.DEFAULT_MAX_ENTRIES, RootCache.DEFAULT_MAX_BYTES, false);
+                try (MultiFileMerkleEngine engine = new MultiFileMerkleEngine(TreeMode.LEGACY_HEX, cache)) {
+                    List<CompletableFuture<String>> roots = new ArrayList<>();
+                    for (String file : fileNames) {
+                        roots.add(engine.submit(file));
+                    }
+                    for (int i = 0; i < fileNames.size(); i++) {
+                        try {
+                            logger.info("Merkle Root for {}: {}", fileNames.get(i), roots.get(i).get());
+                        } catch (ExecutionException e) {
+                            logger.error("{}: {}", fileNames.get(i), e.getCause().getMessage());
+                        }
+                    }
+                }
+                if (cache != null) {
+                    cache.save(cachePath);
                 }
             }
 
-        } catch (IOException | NoSuchAlgorithmException e) {
+        } catch (IOException | NoSuchAlgorithmException | InterruptedException e) {
             // Log any errors encountered during file reading or hashing
             logger.error(e.getMessage());
         }
@@ -144,12 +175,47 @@ public class MerkleTree {
      * Merkle tree computed from the given list of lines.
      * If the number of nodes in the list is odd, the last node will be duplicated
      * to ensure all levels have an even number of nodes.
-     * @time-complexity O(n log n) where n is the number of nodes in the initial list.
-     * - In each level, the number of nodes is halved after pairing and hashing.
-     * - Hashing a pair is O(1), so the total time is O(n log n) due to the recursive
-     * nature of the tree.
+     * @time-complexity O(n) where n is the number of nodes in the initial list.
+     * - The list is walked once to hash the leaves (see MerkleLevelBuilder).
+     * - In each level, the number of nodes is halved after pairing and hashing, so all
+     * levels together cost at most 2n hashes.
      */
     public static String computeMerkleRoot(SinglyLinkedList list) throws NoSuchAlgorithmException {
+        return computeMerkleRoot(list, TreeMode.LEGACY_HEX);
+    }
+
+    /**
+     * Computes the Merkle root from the given SinglyLinkedList of lines using the given tree mode.
+     *
+     * @param list The SinglyLinkedList containing the lines to compute the Merkle root from.
+     * @param mode The tree mode: LEGACY_HEX reproduces the original roots, BINARY hashes raw 32-byte digests.
+     * @return The computed Merkle root, formatted by {@link TreeMode#formatRoot}.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the input list is empty.
+     * @pre-condition The input list must contain at least one node.
+     * @post-condition Same as computeMerkleRoot(list); the root of a BINARY tree carries the "v2:" tag.
+     * @time-complexity O(n) where n is the number of nodes in the initial list. Lists of more than
+     * MerkleLevelBuilder.MAX_LEAVES nodes are hashed by a StreamingMerkleBuilder, with the same root.
+     */
+    public static String computeMerkleRoot(SinglyLinkedList list, TreeMode mode) throws NoSuchAlgorithmException {
+        return computeMerkleRoot(list, mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Computes the Merkle root from the given SinglyLinkedList of lines using the given tree mode and hash algorithm.
+     *
+     * @param list      The SinglyLinkedList containing the lines to compute the Merkle root from.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm for leaves and parents.
+     * @return The computed Merkle root, formatted by {@link TreeHasher#formatRoot} so that it carries the algorithm tag.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the input list is empty.
+     * @pre-condition The input list must contain at least one node.
+     * @post-condition Same as computeMerkleRoot(list, mode); with SHA-256 the root is identical.
+     * @time-complexity O(n) where n is the number of nodes in the initial list.
+     */
+    public static String computeMerkleRoot(SinglyLinkedList list, TreeMode mode, HashAlgorithm algorithm)
+            throws NoSuchAlgorithmException {
 
         // Check if the list is empty
         if (list.countNodes() == 0) {
@@ -161,39 +227,36 @@ public class MerkleTree {
             list.duplicateLastNode();
         }
 
-        SinglyLinkedList currentLevel = new SinglyLinkedList();
-
-        // Hash each element in the initial list
-        for (int i = 0; i < list.countNodes(); i++) {
-            String hashString = HashUtil.hash(list.getObjectAt(i).toString());
-            currentLevel.addAtEndNode(hashString);
-        }
-
-        // Repeat until we get to a single root hash
-        while (currentLevel.countNodes() > 1) {
-
-            // Duplicate the last node if the number of nodes is odd
-            if (currentLevel.countNodes() % 2 != 0) {
-                currentLevel.duplicateLastNode();
-            }
-
-            SinglyLinkedList nextLevel = new SinglyLinkedList();
-
-            // Combine adjacent pairs of nodes and hash them
-            for (int i = 0; i < currentLevel.countNodes(); i += 2) {
-                String leftHash = currentLevel.getObjectAt(i).toString();
-                String rightHash = currentLevel.getObjectAt(i + 1).toString();
-
-                // Concatenate and hash the pair of nodes
-                String combinedHash = HashUtil.hash(leftHash + rightHash);
-                nextLevel.addAtEndNode(combinedHash);
+        // Too many leaves for one packed array: fold them through the streaming frontier instead
+        if (list.countNodes() > MerkleLevelBuilder.MAX_LEAVES) {
+            StreamingMerkleBuilder builder = new StreamingMerkleBuilder(mode, algorithm);
+            list.reset();
+            while (list.hasNext()) {
+                builder.addLine(list.next().toString());
             }
-
-            // Move to the next level
-            currentLevel = nextLevel;
+            return builder.formattedRoot();
         }
 
-        // The root is the only element left
-        return currentLevel.getObjectAt(0).toString();
+        // Hash the leaves in one pass, then build each level over packed digest arrays
+        TreeHasher hasher = new TreeHasher(mode, algorithm);
+        byte[] leaves = MerkleLevelBuilder.hashLeaves(list, hasher);
+        return hasher.formatRoot(MerkleLevelBuilder.computeRoot(leaves, list.countNodes(), hasher));
+    }
+
+    /**
+     * Builds a Merkle tree from the given SinglyLinkedList of lines and keeps every level,
+     * so that the root can be read and inclusion proofs produced without rebuilding.
+     *
+     * @param list The SinglyLinkedList containing the lines of the tree.
+     * @param mode The tree mode.
+     * @return The retained tree.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the input list is empty.
+     * @pre-condition The input list must contain at least one node.
+     * @post-condition The list is not modified; the tree's root equals computeMerkleRoot(list, mode).
+     * @time-complexity O(n) where n is the number of nodes in the list.
+     */
+    public static RetainedMerkleTree buildMerkleTree(SinglyLinkedList list, TreeMode mode) throws NoSuchAlgorithmException {
+        return RetainedMerkleTree.build(list, mode);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The MerkleTreeDiff class finds the leaf positions at which two retained Merkle trees differ.
+ * <p>
+ * The node at (level, index) covers the leaves [index * 2^level, (index + 1) * 2^level) in every tree, so nodes of
+ * two trees can be compared position by position even when the leaf counts differ. The search starts at the top and
+ * descends only into pairs of nodes whose digests differ; equal subtrees are skipped whole.
+ * <p>
+ * Key Features:
+ * - Leaves that exist in only one tree are reported as differing, without descending into them.
+ * - A node that is the self-paired tail of one tree can equal a node of the other tree that covers more real
+ * leaves (for example [a, b, c] and [a, b, c, c]); the extra leaves are still reported.
+ * - Adjacent differing leaves are merged into one LeafRange.
+ * <p>
+ * Pre-condition:
+ * - Both trees use the same TreeMode.
+ * <p>
+ * Post-condition:
+ * - The ranges are sorted, disjoint and non-adjacent; a leaf is in a range exactly when its content differs or it
+ * exists in only one tree.
+ * <p>
+ * Time Complexity:
+ * - O(k log n) node comparisons for k differing leaves (fewer when they are clustered).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class MerkleTreeDiff {
+
+    private final RetainedMerkleTree a;
+    private final RetainedMerkleTree b;
+    private final List<LeafRange> ranges = new ArrayList<>();
+    private long pendingStart = -1;
+    private long pendingEnd = -1;
+
+    private MerkleTreeDiff(RetainedMerkleTree a, RetainedMerkleTree b) {
+        this.a = a;
+        this.b = b;
+    }
+
+    /**
+     * Finds the leaf ranges at which two trees differ.
+     *
+     * @param a The first tree.
+     * @param b The second tree.
+     * @return The differing ranges in ascending order; empty if the trees are equal.
+     * @throws IllegalArgumentException If the trees use different modes or hash algorithms.
+     * @pre-condition Neither tree is null.
+     * @post-condition The trees are not modified.
+     * @time-complexity O(k log n) for k differing leaves.
+     */
+    public static List<LeafRange> diff(RetainedMerkleTree a, RetainedMerkleTree b) {
+        if (a.mode() != b.mode()) {
+            throw new IllegalArgumentException("Cannot compare trees of modes " + a.mode() + " and " + b.mode());
+        }
+        if (a.algorithm() != b.algorithm()) {
+            throw new IllegalArgumentException("Cannot compare trees hashed with " + a.algorithm() + " and " + b.algorithm());
+        }
+        MerkleTreeDiff diff = new MerkleTreeDiff(a, b);
+        diff.compare(Math.max(a.height(), b.height()) - 1, 0);
+        diff.flush();
+        return diff.ranges;
+    }
+
+    /**
+     * Finds the line ranges at which two files differ.
+     *
+     * @param fileA The first file.
+     * @param fileB The second file.
+     * @return The differing ranges of line numbers (0-based) in ascending order; empty if the files have equal lines.
+     * @throws IOException              If a file cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If a file has no lines.
+     * @pre-condition Both files hold UTF-8 text.
+     * @post-condition The files are closed.
+     * @time-complexity O(s) to hash both files of total size s, then O(k log n).
+     */
+    public static List<LeafRange> diff(String fileA, String fileB) throws IOException, NoSuchAlgorithmException {
+        return diff(RetainedMerkleTree.build(Paths.get(fileA), TreeMode.BINARY),
+                RetainedMerkleTree.build(Paths.get(fileB), TreeMode.BINARY));
+    }
+
+    private void compare(int level, long index) {
+        long start = index << level;
+        long countA = a.leafCount();
+        long countB = b.leafCount();
+        if (start >= countA && start >= countB) {
+            return;
+        }
+        long end = start + (1L << level);
+        long endA = Math.min(end, countA);
+        long endB = Math.min(end, countB);
+
+        // A range that only one tree reaches differs as a whole
+        if (start >= countA || start >= countB) {
+            report(start, Math.max(endA, endB));
+            return;
+        }
+        if (level < a.height() && level < b.height()) {
+            Digest nodeA = a.node(level, (int) index);
+            Digest nodeB = b.node(level, (int) index);
+            if (nodeA.equals(nodeB)) {
+                // Equal digests may still cover different numbers of real leaves
+                if (endA != endB) {
+                    report(Math.min(endA, endB), Math.max(endA, endB));
+                }
+                return;
+            }
+            if (level == 0) {
+                report(start, end);
+                return;
+            }
+        }
+        compare(level - 1, 2 * index);
+        compare(level - 1, 2 * index + 1);
+    }
+
+    // Ranges arrive in ascending order, so merging only looks at the last one
+    private void report(long start, long end) {
+        if (start == pendingEnd) {
+            pendingEnd = end;
+            return;
+        }
+        flush();
+        pendingStart = start;
+        pendingEnd = end;
+    }
+
+    private void flush() {
+        if (pendingStart >= 0) {
+            ranges.add(new LeafRange(pendingStart, pendingEnd));
+        }
+    }
+}
@@ -0,0 +1,254 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * The MerkleTreeFile class saves a retained Merkle tree to a compact binary file and loads it back through
+ * memory mapping, so a restarted process can serve roots and proofs without re-hashing the source.
+ * <p>
+ * Layout (all integers big-endian):
+ * <pre>
+ *  0  8 bytes  magic "MRKLTREE"
+ *  8  int      format version (1)
+ * 12  int      number of levels
+ * 16  long     leaf count
+ * 24  16 bytes hash algorithm standard name, ASCII, zero-padded ("SHA-256", "BLAKE3", ...)
+ * 40  4 bytes  tree mode version tag, ASCII, zero-padded ("v1" or "v2")
+ * 44  int      reserved (0)
+ * 48  long     source file size in bytes, or -1
+ * 56  long     source file last-modified time in milliseconds, or -1
+ * 64  every level from the leaves to the root, 32 bytes per node, no padding
+ * </pre>
+ * <p>
+ * Key Features:
+ * - Loading validates the 64-byte header and the file length, then maps the levels; no digest is read or parsed,
+ * so loading takes nearly the same time for any tree size.
+ * - Records the size and modification time of the source file, so callers can tell whether the tree is stale.
+ * - Files are written to a temporary sibling and moved into place, so readers never see a partial file.
+ * <p>
+ * Pre-condition:
+ * - A tree file must not be modified while it is mapped.
+ * <p>
+ * Post-condition:
+ * - A loaded tree has the same nodes, root and proofs as the tree that was saved.
+ * <p>
+ * Time Complexity:
+ * - save is O(n); load is O(log n + n / 2^25) (one mapping per level and per 2^25 digests of a level).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class MerkleTreeFile {
+
+    /**
+     * Current format version.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final byte[] MAGIC = "MRKLTREE".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_SIZE = 64;
+    private static final int ALGORITHM_FIELD = 16;
+    private static final int MODE_FIELD = 4;
+
+    private final RetainedMerkleTree tree;
+    private final long sourceSize;
+    private final long sourceModified;
+
+    private MerkleTreeFile(RetainedMerkleTree tree, long sourceSize, long sourceModified) {
+        this.tree = tree;
+        this.sourceSize = sourceSize;
+        this.sourceModified = sourceModified;
+    }
+
+    /**
+     * Saves a tree.
+     *
+     * @param tree   The tree to save.
+     * @param target The tree file to write; an existing file is replaced.
+     * @param source The file the tree was built from, whose size and modification time are recorded, or null.
+     * @throws IOException If a file cannot be read or written.
+     * @pre-condition tree and target are not null.
+     * @post-condition load(target) returns an equal tree.
+     * @time-complexity O(n).
+     */
+    public static void save(RetainedMerkleTree tree, Path target, Path source) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC);
+        header.putInt(FORMAT_VERSION);
+        header.putInt(tree.height());
+        header.putLong(tree.leafCount());
+        header.put(Arrays.copyOf(tree.algorithm().standardName().getBytes(StandardCharsets.US_ASCII), ALGORITHM_FIELD));
+        header.put(Arrays.copyOf(tree.mode().versionTag().getBytes(StandardCharsets.US_ASCII), MODE_FIELD));
+        header.putInt(0);
+        header.putLong(source == null ? -1 : Files.size(source));
+        header.putLong(source == null ? -1 : Files.getLastModifiedTime(source).toMillis());
+        header.flip();
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            for (int level = 0; level < tree.height(); level++) {
+                tree.level(level).writeTo(channel);
+            }
+            channel.force(false);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a tree file read-only through memory mapping.
+     *
+     * @param file The tree file.
+     * @return The loaded tree and its source information.
+     * @throws IOException              If the file cannot be mapped, or is not a valid tree file.
+     * @throws NoSuchAlgorithmException If the recorded hashing algorithm is not available.
+     * @pre-condition file is not null.
+     * @post-condition The mapping stays valid after the channel is closed; updating the tree is not supported.
+     * @time-complexity O(log n + n / 2^25).
+     */
+    public static MerkleTreeFile load(Path file) throws IOException, NoSuchAlgorithmException {
+        return load(file, OffHeapDigestStore.DEFAULT_CHUNK_SHIFT);
+    }
+
+    // Smaller mappings let tests cross mapping boundaries with few digests
+    static MerkleTreeFile load(Path file, int chunkShift) throws IOException, NoSuchAlgorithmException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_SIZE) {
+                throw new IOException("Not a Merkle tree file: " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            byte[] magic = new byte[MAGIC.length];
+            header.get(0, magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a Merkle tree file: " + file);
+            }
+            int version = header.getInt(8);
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported Merkle tree file version " + version + ": " + file);
+            }
+            int height = header.getInt(12);
+            long leafCount = header.getLong(16);
+            String name = field(header, 24, ALGORITHM_FIELD);
+            HashAlgorithm algorithm;
+            try {
+                algorithm = HashAlgorithm.fromStandardName(name);
+            } catch (NoSuchAlgorithmException e) {
+                throw new NoSuchAlgorithmException("Unsupported hash algorithm in " + file + ": " + name, e);
+            }
+            TreeMode mode;
+            try {
+                mode = TreeMode.fromVersionTag(field(header, 40, MODE_FIELD));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt Merkle tree file: " + file, e);
+            }
+            if (leafCount < 1 || leafCount > Integer.MAX_VALUE
+                    || height != RetainedMerkleTree.levelCount(leafCount)) {
+                throw new IOException("Corrupt Merkle tree file: " + file);
+            }
+
+            // Each level is mapped in chunks of at most 1 GiB, so neither a level nor the tree is limited to 2 GB
+            DigestStore[] levels = new DigestStore[height];
+            long position = HEADER_SIZE;
+            long size = leafCount;
+            for (int k = 0; k < height; k++) {
+                long bytes = size * Digest.LENGTH;
+                if (position + bytes > length) {
+                    throw new IOException("Truncated Merkle tree file: " + file);
+                }
+                levels[k] = MappedDigestStore.map(channel, FileChannel.MapMode.READ_ONLY, position, (int) size, chunkShift);
+                position += bytes;
+                size = (size + 1) / 2;
+            }
+            if (position != length) {
+                throw new IOException("Corrupt Merkle tree file: " + file);
+            }
+            return new MerkleTreeFile(RetainedMerkleTree.fromLevels(levels, mode, algorithm), header.getLong(48), header.getLong(56));
+        }
+    }
+
+    private static String field(ByteBuffer map, int offset, int length) {
+        byte[] bytes = new byte[length];
+        map.get(offset, bytes);
+        int end = 0;
+        while (end < length && bytes[end] != 0) {
+            end++;
+        }
+        return new String(bytes, 0, end, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns the loaded tree.
+     *
+     * @return The tree, backed by the mapping.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public RetainedMerkleTree tree() {
+        return tree;
+    }
+
+    /**
+     * Returns the recorded size of the source file.
+     *
+     * @return The size in bytes, or -1 if none was recorded.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long sourceSize() {
+        return sourceSize;
+    }
+
+    /**
+     * Returns the recorded modification time of the source file.
+     *
+     * @return The time in milliseconds since the epoch, or -1 if none was recorded.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long sourceModified() {
+        return sourceModified;
+    }
+
+    /**
+     * Tells whether a source file still has the recorded size and modification time.
+     *
+     * @param source The source file.
+     * @return true if both match; false if they differ, none were recorded, or the file cannot be read.
+     * @pre-condition source is not null.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public boolean matchesSource(Path source) {
+        if (sourceSize < 0) {
+            return false;
+        }
+        try {
+            return Files.size(source) == sourceSize && Files.getLastModifiedTime(source).toMillis() == sourceModified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
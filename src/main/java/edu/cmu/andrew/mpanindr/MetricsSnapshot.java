@@ -0,0 +1,259 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+/**
+ * The MetricsSnapshot class is an immutable reading of MerkleMetrics, taken by MerkleMetrics.snapshot(). Rates are
+ * computed between two snapshots, so a monitoring loop can keep the previous one and ask for the rate since then.
+ * <p>
+ * Pre-condition:
+ * - Snapshots are compared only when taken from the same MerkleMetrics, with no reset in between.
+ * <p>
+ * Post-condition:
+ * - Every value is fixed at the time the snapshot was taken.
+ * <p>
+ * Time Complexity:
+ * - Every method is O(1).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class MetricsSnapshot {
+
+    private final long timestampNanos;
+    private final long elapsedNanos;
+    private final long hashesComputed;
+    private final long leavesHashed;
+    private final long bytesIngested;
+    private final long levelsBuilt;
+    private final long levelBuildTotalNanos;
+    private final long levelBuildP50Nanos;
+    private final long levelBuildP99Nanos;
+    private final long levelBuildMaxNanos;
+    private final long peakLevelBytes;
+    private final long peakFrontierBytes;
+    private final long cacheHits;
+    private final long cacheMisses;
+
+    MetricsSnapshot(long timestampNanos, long elapsedNanos, long hashesComputed, long leavesHashed, long bytesIngested,
+                    LatencyHistogram levelBuild, long peakLevelBytes, long peakFrontierBytes, long cacheHits,
+                    long cacheMisses) {
+        this.timestampNanos = timestampNanos;
+        this.elapsedNanos = elapsedNanos;
+        this.hashesComputed = hashesComputed;
+        this.leavesHashed = leavesHashed;
+        this.bytesIngested = bytesIngested;
+        this.levelsBuilt = levelBuild.count();
+        this.levelBuildTotalNanos = levelBuild.totalNanos();
+        this.levelBuildP50Nanos = levelBuild.percentile(0.50);
+        this.levelBuildP99Nanos = levelBuild.percentile(0.99);
+        this.levelBuildMaxNanos = levelBuild.maxNanos();
+        this.peakLevelBytes = peakLevelBytes;
+        this.peakFrontierBytes = peakFrontierBytes;
+        this.cacheHits = cacheHits;
+        this.cacheMisses = cacheMisses;
+    }
+
+    /**
+     * Returns the System.nanoTime() at which the snapshot was taken.
+     *
+     * @return The timestamp in nanoseconds.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long timestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * Returns the time since the metrics were created or last reset.
+     *
+     * @return Nanoseconds.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the number of leaf and parent digests computed.
+     *
+     * @return The hash count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long hashesComputed() {
+        return hashesComputed;
+    }
+
+    /**
+     * Returns the number of leaves hashed.
+     *
+     * @return The leaf count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long leavesHashed() {
+        return leavesHashed;
+    }
+
+    /**
+     * Returns the number of leaf content bytes hashed.
+     *
+     * @return The byte count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long bytesIngested() {
+        return bytesIngested;
+    }
+
+    /**
+     * Returns the number of tree levels built.
+     *
+     * @return The level count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long levelsBuilt() {
+        return levelsBuilt;
+    }
+
+    /**
+     * Returns the mean time to build one level.
+     *
+     * @return Nanoseconds, or 0 if no level was built.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public double levelBuildMeanNanos() {
+        return levelsBuilt == 0 ? 0 : (double) levelBuildTotalNanos / levelsBuilt;
+    }
+
+    /**
+     * Returns the median level build time, rounded up to a power of two.
+     *
+     * @return Nanoseconds.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long levelBuildP50Nanos() {
+        return levelBuildP50Nanos;
+    }
+
+    /**
+     * Returns the 99th percentile of the level build time, rounded up to a power of two.
+     *
+     * @return Nanoseconds.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long levelBuildP99Nanos() {
+        return levelBuildP99Nanos;
+    }
+
+    /**
+     * Returns the longest level build.
+     *
+     * @return Nanoseconds.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long levelBuildMaxNanos() {
+        return levelBuildMaxNanos;
+    }
+
+    /**
+     * Returns the size of the largest level built.
+     *
+     * @return Bytes.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long peakLevelBytes() {
+        return peakLevelBytes;
+    }
+
+    /**
+     * Returns the size of the largest streaming frontier seen.
+     *
+     * @return Bytes.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long peakFrontierBytes() {
+        return peakFrontierBytes;
+    }
+
+    /**
+     * Returns the number of RootCache lookups that found a valid root.
+     *
+     * @return The hit count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long cacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Returns the number of RootCache lookups that found no root or a stale one.
+     *
+     * @return The miss count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long cacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * Returns the average leaf rate since the metrics were created or last reset.
+     *
+     * @return Leaves per second, or 0 if no time has elapsed.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public double leavesPerSecond() {
+        return elapsedNanos <= 0 ? 0 : leavesHashed * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns the leaf rate between an earlier snapshot and this one.
+     *
+     * @param earlier A snapshot taken before this one.
+     * @return Leaves per second, or 0 if no time has elapsed.
+     * @pre-condition earlier is not null.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public double leavesPerSecondSince(MetricsSnapshot earlier) {
+        long nanos = timestampNanos - earlier.timestampNanos;
+        return nanos <= 0 ? 0 : (leavesHashed - earlier.leavesHashed) * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{hashes=" + hashesComputed + ", leaves=" + leavesHashed + ", bytes=" + bytesIngested
+                + ", levels=" + levelsBuilt + ", levelP99Nanos=" + levelBuildP99Nanos
+                + ", peakLevelBytes=" + peakLevelBytes + ", peakFrontierBytes=" + peakFrontierBytes
+                + ", cacheHits=" + cacheHits + ", cacheMisses=" + cacheMisses + "}";
+    }
+}
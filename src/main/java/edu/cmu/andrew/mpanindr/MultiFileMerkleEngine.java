@@ -0,0 +1,403 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.HashAlgorithm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The MultiFileMerkleEngine class computes the Merkle roots of many files concurrently.
+ * <p>
+ * Every file gets its own virtual thread, which opens the file and reads it in fixed-size chunks. Reading blocks
+ * only that virtual thread, so thousands of files can wait on the disk at the same time. Each chunk is handed to a
+ * fixed pool of CPU threads that splits it into lines and hashes them; while one chunk is hashed, the file's virtual
+ * thread already reads the next one. The chunks of one file are hashed strictly in order, so each root equals the
+ * root computed for that file alone.
+ * <p>
+ * Key Features:
+ * - Hashing runs on at most cpuThreads platform threads, by default one per core.
+ * - A cap on the number of files open at the same time.
+ * - A cap on the memory held by chunk buffers; buffers are direct and recycled between files.
+ * - Lines are split and hashed from raw bytes, as MappedFileHasher does.
+ * - An optional RootCache returns the roots of unchanged files without reading them.
+ * - Any HashAlgorithm may be chosen; the default is SHA-256.
+ * <p>
+ * Pre-condition:
+ * - The files hold UTF-8 text.
+ * - The memory budget must hold at least one chunk.
+ * <p>
+ * Post-condition:
+ * - Every root equals computeMerkleRoot over the lines of that file.
+ * - close() shuts both executors down; running files finish first.
+ * <p>
+ * Time Complexity:
+ * - O(S / min(cores, disks)) wall time for S bytes in total, and O(log n) tree memory per file.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public class MultiFileMerkleEngine implements AutoCloseable {
+
+    /**
+     * Default size of one chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Default cap on the number of files open at the same time.
+     */
+    public static final int DEFAULT_MAX_OPEN_FILES = 64;
+
+    /**
+     * Default cap on the memory held by chunk buffers.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 256L << 20;
+
+    private final TreeMode mode;
+    private final HashAlgorithm algorithm;
+    private final int chunkSize;
+    private final ExecutorService ioExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService cpuExecutor;
+    private final Semaphore openFiles;
+    private final Semaphore buffers;
+    private final ConcurrentLinkedQueue<ByteBuffer> freeBuffers = new ConcurrentLinkedQueue<>();
+    private final RootCache cache;
+
+    /**
+     * Creates an engine with one hashing thread per core and the default limits.
+     *
+     * @param mode The tree mode.
+     * @pre-condition mode is not null.
+     * @post-condition The engine accepts files.
+     * @time-complexity O(1).
+     */
+    public MultiFileMerkleEngine(TreeMode mode) {
+        this(mode, null);
+    }
+
+    /**
+     * Creates an engine with one hashing thread per core, the default limits and a root cache.
+     *
+     * @param mode  The tree mode.
+     * @param cache The cache consulted before and updated after hashing a file, or null.
+     * @pre-condition mode is not null.
+     * @post-condition The engine accepts files.
+     * @time-complexity O(1).
+     */
+    public MultiFileMerkleEngine(TreeMode mode, RootCache cache) {
+        this(mode, HashAlgorithm.DEFAULT, cache);
+    }
+
+    /**
+     * Creates an engine with one hashing thread per core, the default limits, a hash algorithm and a root cache.
+     *
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm for leaves and parents.
+     * @param cache     The cache consulted before and updated after hashing a file, or null.
+     * @pre-condition mode and algorithm are not null.
+     * @post-condition The engine accepts files.
+     * @time-complexity O(1).
+     */
+    public MultiFileMerkleEngine(TreeMode mode, HashAlgorithm algorithm, RootCache cache) {
+        this(mode, algorithm, Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_OPEN_FILES,
+                DEFAULT_MEMORY_BUDGET, DEFAULT_CHUNK_SIZE, cache);
+    }
+
+    /**
+     * Creates an engine with explicit limits.
+     *
+     * @param mode         The tree mode.
+     * @param cpuThreads   The number of hashing threads, at least 1.
+     * @param maxOpenFiles The largest number of files open at the same time, at least 1.
+     * @param memoryBudget The largest number of bytes held by chunk buffers, at least chunkSize.
+     * @param chunkSize    The number of bytes read at once, at least 1.
+     * @throws IllegalArgumentException If a limit is out of range.
+     * @pre-condition mode is not null.
+     * @post-condition The engine accepts files.
+     * @time-complexity O(1).
+     */
+    public MultiFileMerkleEngine(TreeMode mode, int cpuThreads, int maxOpenFiles, long memoryBudget, int chunkSize) {
+        this(mode, cpuThreads, maxOpenFiles, memoryBudget, chunkSize, null);
+    }
+
+    /**
+     * Creates an engine with explicit limits and a root cache.
+     *
+     * @param mode         The tree mode.
+     * @param cpuThreads   The number of hashing threads, at least 1.
+     * @param maxOpenFiles The largest number of files open at the same time, at least 1.
+     * @param memoryBudget The largest number of bytes held by chunk buffers, at least chunkSize.
+     * @param chunkSize    The number of bytes read at once, at least 1.
+     * @param cache        The cache consulted before and updated after hashing a file, or null.
+     * @throws IllegalArgumentException If a limit is out of range.
+     * @pre-condition mode is not null.
+     * @post-condition The engine accepts files.
+     * @time-complexity O(1).
+     */
+    public MultiFileMerkleEngine(TreeMode mode, int cpuThreads, int maxOpenFiles, long memoryBudget, int chunkSize,
+                                 RootCache cache) {
+        this(mode, HashAlgorithm.DEFAULT, cpuThreads, maxOpenFiles, memoryBudget, chunkSize, cache);
+    }
+
+    /**
+     * Creates an engine with a hash algorithm, explicit limits and a root cache.
+     *
+     * @param mode         The tree mode.
+     * @param algorithm    The hash algorithm for leaves and parents.
+     * @param cpuThreads   The number of hashing threads, at least 1.
+     * @param maxOpenFiles The largest number of files open at the same time, at least 1.
+     * @param memoryBudget The largest number of bytes held by chunk buffers, at least chunkSize.
+     * @param chunkSize    The number of bytes read at once, at least 1.
+     * @param cache        The cache consulted before and updated after hashing a file, or null.
+     * @throws IllegalArgumentException If a limit is out of range.
+     * @pre-condition mode and algorithm are not null.
+     * @post-condition The engine accepts files.
+     * @time-complexity O(1).
+     */
+    public MultiFileMerkleEngine(TreeMode mode, HashAlgorithm algorithm, int cpuThreads, int maxOpenFiles,
+                                 long memoryBudget, int chunkSize, RootCache cache) {
+        if (cpuThreads < 1 || maxOpenFiles < 1 || chunkSize < 1 || memoryBudget < chunkSize) {
+            throw new IllegalArgumentException("Invalid engine limits");
+        }
+        this.mode = mode;
+        this.algorithm = algorithm;
+        this.chunkSize = chunkSize;
+        this.cpuExecutor = Executors.newFixedThreadPool(cpuThreads);
+        this.openFiles = new Semaphore(maxOpenFiles);
+        this.buffers = new Semaphore((int) Math.min(Integer.MAX_VALUE, memoryBudget / chunkSize));
+        this.cache = cache;
+    }
+
+    /**
+     * Starts computing the Merkle root of a file.
+     *
+     * @param fileName The file to hash.
+     * @return A future completed with the root formatted by
+     * {@link TreeMode#formatRoot(edu.utils.Digest, HashAlgorithm)}, or with the IOException,
+     * NoSuchAlgorithmException or IllegalArgumentException (empty file) that stopped it.
+     * @pre-condition The engine is not closed.
+     * @post-condition The file is closed once the future completes.
+     * @time-complexity O(1) to submit.
+     */
+    public CompletableFuture<String> submit(String fileName) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        ioExecutor.execute(() -> {
+            try {
+                result.complete(hashFile(fileName));
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            } catch (Error e) {
+                result.completeExceptionally(e);
+                throw e;
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Computes the Merkle roots of several files concurrently and waits for all of them.
+     *
+     * @param fileNames The files to hash.
+     * @return The roots, keyed and ordered by file name.
+     * @throws IOException              If a file cannot be read; the failures of other files are suppressed in it.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws InterruptedException     If the calling thread is interrupted while waiting.
+     * @throws IllegalArgumentException If a file has no lines.
+     * @pre-condition The engine is not closed.
+     * @post-condition Every file has been processed, even when one fails.
+     * @time-complexity O(S / min(cores, disks)) for S bytes in total.
+     */
+    public Map<String, String> computeMerkleRoots(List<String> fileNames)
+            throws IOException, NoSuchAlgorithmException, InterruptedException {
+        List<CompletableFuture<String>> futures = new ArrayList<>(fileNames.size());
+        for (String fileName : fileNames) {
+            futures.add(submit(fileName));
+        }
+        Map<String, String> roots = new LinkedHashMap<>();
+        Exception failure = null;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                roots.put(fileNames.get(i), futures.get(i).get());
+            } catch (ExecutionException e) {
+                Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof NoSuchAlgorithmException) {
+            throw (NoSuchAlgorithmException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+        return roots;
+    }
+
+    // Runs on the file's virtual thread
+    private String hashFile(String fileName) throws IOException, NoSuchAlgorithmException, InterruptedException {
+        Path file = Paths.get(fileName);
+        openFiles.acquire();
+        try {
+            if (cache == null) {
+                return hashLines(file);
+            }
+            RootCache.FileIdentity identity = cache.identify(file);
+            String root = cache.lookup(file, mode, algorithm, identity);
+            if (root == null) {
+                root = hashLines(file);
+                cache.put(file, mode, algorithm, identity, root);
+            }
+            return root;
+        } finally {
+            openFiles.release();
+        }
+    }
+
+    // Reads chunk k + 1 while the CPU pool hashes chunk k
+    private String hashLines(Path file) throws IOException, NoSuchAlgorithmException, InterruptedException {
+        StreamingMerkleBuilder builder = new StreamingMerkleBuilder(mode, algorithm);
+        LineSplitter splitter = new LineSplitter(builder::addLeafDigest, algorithm);
+
+        ByteBuffer reading = null;
+        ByteBuffer hashing = null;
+        Future<?> pending = null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            boolean eof = false;
+            while (!eof) {
+                // Prefetch only if the budget allows; otherwise finish the pending chunk first to free its buffer
+                if (pending != null && !buffers.tryAcquire()) {
+                    await(pending);
+                    pending = null;
+                    releaseBuffer(hashing);
+                    hashing = null;
+                    buffers.acquire();
+                } else if (pending == null) {
+                    buffers.acquire();
+                }
+                reading = takeBuffer();
+                eof = fill(channel, reading);
+                reading.flip();
+
+                if (pending != null) {
+                    await(pending);
+                    pending = null;
+                    releaseBuffer(hashing);
+                }
+                hashing = reading;
+                reading = null;
+                if (hashing.hasRemaining()) {
+                    ByteBuffer chunk = hashing;
+                    pending = cpuExecutor.submit(() -> splitter.feed(chunk));
+                }
+            }
+            if (pending != null) {
+                await(pending);
+                pending = null;
+            }
+        } finally {
+            if (pending != null) {
+                // Let the hashing task finish before its buffer is reused
+                awaitQuietly(pending);
+            }
+            if (hashing != null) {
+                releaseBuffer(hashing);
+            }
+            if (reading != null) {
+                releaseBuffer(reading);
+            }
+        }
+        splitter.finish();
+        return builder.formattedRoot();
+    }
+
+    // Reads until the buffer is full or the file ends; returns true at end of file
+    private static boolean fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void await(Future<?> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void awaitQuietly(Future<?> future) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                future.get();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                // The failure is reported by the caller's own exception
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // The caller holds one permit of the buffer semaphore
+    private ByteBuffer takeBuffer() {
+        ByteBuffer buffer = freeBuffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(chunkSize);
+        }
+        return buffer.clear();
+    }
+
+    private void releaseBuffer(ByteBuffer buffer) {
+        freeBuffers.offer(buffer);
+        buffers.release();
+    }
+
+    /**
+     * Shuts the engine down after the submitted files have finished.
+     *
+     * @pre-condition None.
+     * @post-condition Both executors are terminated.
+     * @time-complexity O(t) in the time the running files still need.
+     */
+    @Override
+    public void close() {
+        ioExecutor.close();
+        cpuExecutor.close();
+    }
+}
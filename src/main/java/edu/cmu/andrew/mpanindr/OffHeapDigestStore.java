@@ -0,0 +1,393 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The OffHeapDigestStore class is a DigestStore kept outside the Java heap, in direct ByteBuffers of up to 2^25
+ * digests (1 GiB) each, and freed as soon as it is closed instead of whenever the garbage collector finds it.
+ * <p>
+ * The early release uses sun.misc.Unsafe.invokeCleaner from the jdk.unsupported module, reached by reflection. A full
+ * JDK or JRE has it; a jlink image without jdk.unsupported, or a security policy that blocks the lookup, does not.
+ * In that case a warning is logged once, releasesOnClose() returns false, and a closed store's memory is only
+ * returned when the garbage collector reclaims the buffers, just like any other direct buffer.
+ * <p>
+ * A heap level is one byte array, so it is limited to about 67 million digests and counts against -Xmx. An off-heap
+ * level is split into chunks, so it can hold up to Integer.MAX_VALUE digests, limited only by the memory available
+ * to the process (-XX:MaxDirectMemorySize). The garbage collector sees one small buffer object per chunk, not the
+ * digests.
+ * <p>
+ * Key Features:
+ * - Fixed-size stores are created zero-filled; a Collector gathers leaf digests of unknown count, chunk by chunk.
+ * - close() releases the memory immediately where releasesOnClose() is true; any later access throws
+ * IllegalStateException instead of reading freed memory.
+ * <p>
+ * Pre-condition:
+ * - Indices are between 0 and size() - 1.
+ * - close() must not run concurrently with other calls. The closed check is not synchronized, so a read racing with
+ * close() can touch native memory that has just been freed, which reads garbage or crashes the JVM rather than
+ * throwing; callers that share a store across threads must stop every reader before closing it.
+ * <p>
+ * Post-condition:
+ * - read returns the bytes last written at the same index, until the store is closed.
+ * <p>
+ * Time Complexity:
+ * - read, write and get are O(1); writeTo is O(size()); close is O(number of chunks).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class OffHeapDigestStore implements DigestStore, AutoCloseable {
+
+    static final int DEFAULT_CHUNK_SHIFT = 25;
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapDigestStore.class);
+
+    // Frees a direct buffer's memory at once; null where sun.misc.Unsafe is not reachable
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Closed stores are then freed by the garbage collector
+            logger.warn("sun.misc.Unsafe.invokeCleaner is not available ({}); off-heap digest stores will be freed "
+                    + "by the garbage collector instead of on close", e.toString());
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final int size;
+    private final int chunkShift;
+    private final int chunkMask;
+    private ByteBuffer[] chunks;
+    // Chunks of a closed store that could not be freed at once; weak, so the garbage collector can still reclaim them
+    private List<WeakReference<ByteBuffer>> unreleased = List.of();
+
+    /**
+     * Allocates a zero-filled store.
+     *
+     * @param size The number of digests.
+     * @throws IllegalArgumentException If size is negative.
+     * @throws OutOfMemoryError         If the direct memory limit is reached.
+     * @pre-condition None.
+     * @post-condition Every digest is 32 zero bytes.
+     * @time-complexity O(size) - The operating system zeroes the memory.
+     */
+    public OffHeapDigestStore(int size) {
+        this(size, DEFAULT_CHUNK_SHIFT);
+    }
+
+    // Smaller chunks let tests cross chunk boundaries with few digests
+    OffHeapDigestStore(int size, int chunkShift) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative: " + size);
+        }
+        this.size = size;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1 << chunkShift) - 1;
+        int count = (int) (((long) size + chunkMask) >>> chunkShift);
+        List<ByteBuffer> allocated = new ArrayList<>(count);
+        try {
+            for (int c = 0; c < count; c++) {
+                int digests = Math.min(1 << chunkShift, size - (c << chunkShift));
+                allocated.add(ByteBuffer.allocateDirect(digests * Digest.LENGTH));
+            }
+        } catch (OutOfMemoryError e) {
+            allocated.forEach(OffHeapDigestStore::free);
+            throw e;
+        }
+        this.chunks = allocated.toArray(new ByteBuffer[0]);
+    }
+
+    private OffHeapDigestStore(ByteBuffer[] chunks, int size, int chunkShift) {
+        this.size = size;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1 << chunkShift) - 1;
+        this.chunks = chunks;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void read(int index, byte[] dst, int off) {
+        chunk(index).get(offset(index), dst, off, Digest.LENGTH);
+    }
+
+    @Override
+    public void write(int index, byte[] src, int off) {
+        chunk(index).put(offset(index), src, off, Digest.LENGTH);
+    }
+
+    @Override
+    public Digest get(int index) {
+        return Digest.read(chunk(index), offset(index));
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    @Override
+    public void writeTo(WritableByteChannel out) throws IOException {
+        ensureOpen();
+        for (int c = 0; c < chunks.length; c++) {
+            int digests = Math.min(1 << chunkShift, size - (c << chunkShift));
+            ByteBuffer buffer = chunks[c].duplicate().clear().limit(digests * Digest.LENGTH);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of off-heap bytes held by the store.
+     *
+     * @return The capacity of all chunks, at least 32 * size(). Once the store is closed this is 0 if the memory
+     * was freed, or the capacity of the chunks the garbage collector has not yet reclaimed if it was not.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(number of chunks).
+     */
+    public long offHeapBytes() {
+        long bytes = 0;
+        if (chunks != null) {
+            for (ByteBuffer chunk : chunks) {
+                bytes += chunk.capacity();
+            }
+        }
+        for (WeakReference<ByteBuffer> reference : unreleased) {
+            ByteBuffer chunk = reference.get();
+            if (chunk != null) {
+                bytes += chunk.capacity();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Tells whether close() frees the memory at once. This is false when sun.misc.Unsafe.invokeCleaner cannot be
+     * reached, for example in a runtime image without the jdk.unsupported module; closed stores are then freed by
+     * the garbage collector.
+     *
+     * @return true if closing a store releases its memory immediately.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public static boolean releasesOnClose() {
+        return INVOKE_CLEANER != null;
+    }
+
+    /**
+     * Tells whether the store has been closed.
+     *
+     * @return true after close().
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public boolean isClosed() {
+        return chunks == null;
+    }
+
+    /**
+     * Releases the off-heap memory. Closing twice has no effect.
+     *
+     * @pre-condition No other thread is using the store; a concurrent read may touch freed memory and crash the JVM.
+     * @post-condition Reads and writes throw IllegalStateException. If releasesOnClose() is true the memory has been
+     * freed; otherwise it is freed when the garbage collector reclaims the chunks, and offHeapBytes() counts it until
+     * then.
+     * @time-complexity O(number of chunks).
+     */
+    @Override
+    public void close() {
+        ByteBuffer[] released = chunks;
+        if (released == null) {
+            return;
+        }
+        chunks = null;
+        if (!releasesOnClose()) {
+            List<WeakReference<ByteBuffer>> pending = new ArrayList<>(released.length);
+            for (ByteBuffer chunk : released) {
+                pending.add(new WeakReference<>(chunk));
+            }
+            unreleased = pending;
+            return;
+        }
+        for (ByteBuffer chunk : released) {
+            free(chunk);
+        }
+    }
+
+    private ByteBuffer chunk(int index) {
+        ensureOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        return chunks[index >>> chunkShift];
+    }
+
+    private int offset(int index) {
+        return (index & chunkMask) * Digest.LENGTH;
+    }
+
+    private void ensureOpen() {
+        if (chunks == null) {
+            throw new IllegalStateException("Digest store is closed");
+        }
+    }
+
+    // Without invokeCleaner the buffer is left to the garbage collector, as the warning logged at startup says
+    private static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot free direct buffer", e);
+        }
+    }
+
+    /**
+     * The Collector class gathers a stream of leaf digests into off-heap chunks, allocating one chunk at a time, and
+     * turns them into an OffHeapDigestStore without copying.
+     * <p>
+     * Author: Manjunath K P
+     * Andrew ID: mpanindr
+     */
+    public static final class Collector implements LeafSink, AutoCloseable {
+        private final int chunkShift;
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+        private ByteBuffer current;
+        private int count;
+        private boolean done;
+
+        /**
+         * Creates an empty collector.
+         *
+         * @pre-condition None.
+         * @post-condition No memory is allocated until the first digest.
+         * @time-complexity O(1).
+         */
+        public Collector() {
+            this(DEFAULT_CHUNK_SHIFT);
+        }
+
+        Collector(int chunkShift) {
+            this.chunkShift = chunkShift;
+        }
+
+        /**
+         * Appends a leaf digest.
+         *
+         * @param digest The array holding the digest.
+         * @param off    The position of the digest.
+         * @throws IllegalArgumentException If Integer.MAX_VALUE digests have already been collected.
+         * @throws IllegalStateException    If the collector has been turned into a store or closed.
+         * @pre-condition The range [off, off + 32) of digest is valid.
+         * @post-condition The digest is copied off-heap.
+         * @time-complexity O(1) - A new chunk is allocated every 2^25 digests.
+         */
+        @Override
+        public void accept(byte[] digest, int off) {
+            if (done) {
+                throw new IllegalStateException("Collector is closed");
+            }
+            if (count == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many leaves to retain: more than " + Integer.MAX_VALUE);
+            }
+            if (current == null || !current.hasRemaining()) {
+                // The last chunk doubles from 1024 digests up to the full chunk size, so small inputs stay small;
+                // every other chunk is full, as the store's index arithmetic requires
+                int full = 1 << chunkShift;
+                int held = current == null ? full : current.capacity() / Digest.LENGTH;
+                if (held < full) {
+                    ByteBuffer grown = ByteBuffer.allocateDirect(Math.min(2 * held, full) * Digest.LENGTH);
+                    grown.put(current.flip());
+                    free(current);
+                    chunks.set(chunks.size() - 1, grown);
+                    current = grown;
+                } else {
+                    current = ByteBuffer.allocateDirect(Math.min(1024, full) * Digest.LENGTH);
+                    chunks.add(current);
+                }
+            }
+            current.put(digest, off, Digest.LENGTH);
+            count++;
+        }
+
+        /**
+         * Returns the number of digests collected so far.
+         *
+         * @return The count.
+         * @pre-condition None.
+         * @post-condition None.
+         * @time-complexity O(1).
+         */
+        public int count() {
+            return count;
+        }
+
+        /**
+         * Hands the collected digests over to a store.
+         *
+         * @return A store of count() digests that owns the collected memory.
+         * @throws IllegalStateException If the collector has already been turned into a store or closed.
+         * @pre-condition None.
+         * @post-condition The collector accepts no more digests; closing it has no effect.
+         * @time-complexity O(number of chunks).
+         */
+        public OffHeapDigestStore toStore() {
+            if (done) {
+                throw new IllegalStateException("Collector is closed");
+            }
+            done = true;
+            return new OffHeapDigestStore(chunks.toArray(new ByteBuffer[0]), count, chunkShift);
+        }
+
+        /**
+         * Frees the collected digests unless they were handed to a store.
+         *
+         * @pre-condition None.
+         * @post-condition The collector accepts no more digests.
+         * @time-complexity O(number of chunks).
+         */
+        @Override
+        public void close() {
+            if (!done) {
+                done = true;
+                chunks.forEach(OffHeapDigestStore::free);
+                chunks.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,489 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * The OrderedIntList class keeps primitive ints in non-decreasing order in a B+ tree whose pages are int arrays,
+ * as a replacement for OrderedLinkedListOfIntegers at millions of elements.
+ * <p>
+ * Leaves hold up to 128 values each and are chained left to right; inner pages hold up to 64 children and the
+ * separator keys between them. Equal values are kept (like OrderedLinkedListOfIntegers, this is a sorted multiset)
+ * and a new value is placed after the values equal to it. No value is ever boxed: pages are int[] and iteration
+ * uses PrimitiveIterator.OfInt.
+ * <p>
+ * Key Features:
+ * - sortedAdd and contains descend one page per level: O(log n).
+ * - merge walks both leaf chains once and bulk-loads the result bottom up: O(n + m), with full leaves.
+ * - Range iteration starts at the first value &gt;= from in O(log n) and then walks the leaf chain.
+ * - reset, hasNext and next mirror the iteration methods of OrderedLinkedListOfIntegers.
+ * <p>
+ * Pre-condition:
+ * - An instance is not thread-safe; adding during an iteration invalidates the iteration.
+ * <p>
+ * Post-condition:
+ * - Iteration returns every added value exactly once, in non-decreasing order.
+ * <p>
+ * Time Complexity:
+ * - sortedAdd and contains O(log n); merge and fromSorted O(n + m); iteration O(1) per value.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public class OrderedIntList {
+
+    private static final int LEAF_CAPACITY = 128;
+    private static final int INNER_CAPACITY = 64;
+
+    private Page root;
+    private Leaf first;
+    private int size;
+
+    // Iteration state for reset, hasNext and next
+    private Leaf iteratorLeaf;
+    private int iteratorIndex;
+
+    // Separator produced by the last split, valid right after insert returns a new page
+    private int splitKey;
+
+    /**
+     * Creates an empty list.
+     *
+     * @pre-condition None.
+     * @post-condition The list is empty.
+     * @time-complexity O(1).
+     */
+    public OrderedIntList() {
+        first = new Leaf();
+        root = first;
+    }
+
+    /**
+     * Builds a list from values that are already sorted.
+     *
+     * @param values The values in non-decreasing order.
+     * @param count  The number of values to take from the start of the array.
+     * @return The list.
+     * @throws IllegalArgumentException If the values are not sorted.
+     * @pre-condition 0 &lt;= count &lt;= values.length.
+     * @post-condition The array is not modified.
+     * @time-complexity O(n).
+     */
+    public static OrderedIntList fromSorted(int[] values, int count) {
+        for (int i = 1; i < count; i++) {
+            if (values[i - 1] > values[i]) {
+                throw new IllegalArgumentException("Values are not sorted at position " + i);
+            }
+        }
+        OrderedIntList list = new OrderedIntList();
+        list.bulkLoad(values, count);
+        return list;
+    }
+
+    /**
+     * Merges two ordered lists into a new one.
+     *
+     * @param list1 The first list.
+     * @param list2 The second list.
+     * @return A new list holding the values of both.
+     * @pre-condition Neither list is null.
+     * @post-condition The input lists are not modified.
+     * @time-complexity O(n + m) - Each leaf chain is walked once and the result is bulk-loaded.
+     */
+    public static OrderedIntList merge(OrderedIntList list1, OrderedIntList list2) {
+        int[] merged = new int[list1.size + list2.size];
+        Leaf a = list1.first;
+        Leaf b = list2.first;
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (a != null && b != null) {
+            if (i == a.size) {
+                a = a.next;
+                i = 0;
+            } else if (j == b.size) {
+                b = b.next;
+                j = 0;
+            } else if (a.keys[i] <= b.keys[j]) {
+                merged[k++] = a.keys[i++];
+            } else {
+                merged[k++] = b.keys[j++];
+            }
+        }
+        for (; a != null; a = a.next, i = 0) {
+            System.arraycopy(a.keys, i, merged, k, a.size - i);
+            k += a.size - i;
+        }
+        for (; b != null; b = b.next, j = 0) {
+            System.arraycopy(b.keys, j, merged, k, b.size - j);
+            k += b.size - j;
+        }
+        OrderedIntList result = new OrderedIntList();
+        result.bulkLoad(merged, k);
+        return result;
+    }
+
+    /**
+     * Adds a value, after any values equal to it.
+     *
+     * @param value The value.
+     * @pre-condition None.
+     * @post-condition The list holds the value and remains sorted.
+     * @time-complexity O(log n).
+     */
+    public void sortedAdd(int value) {
+        Page right = insert(root, value);
+        if (right != null) {
+            Inner top = new Inner();
+            top.children[0] = root;
+            top.children[1] = right;
+            top.keys[0] = splitKey;
+            top.size = 2;
+            root = top;
+        }
+        size++;
+    }
+
+    /**
+     * Tells whether a value is present.
+     *
+     * @param value The value.
+     * @return true if at least one element equals the value.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(log n).
+     */
+    public boolean contains(int value) {
+        Leaf leaf = lowerLeaf(value);
+        int index = lowerBound(leaf.keys, leaf.size, value);
+        while (index == leaf.size && leaf.next != null) {
+            leaf = leaf.next;
+            index = lowerBound(leaf.keys, leaf.size, value);
+        }
+        return index < leaf.size && leaf.keys[index] == value;
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return The size.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns an iterator over every value in order.
+     *
+     * @return The iterator.
+     * @pre-condition None.
+     * @post-condition The list is not modified.
+     * @time-complexity O(1).
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new Cursor(first, 0, Integer.MAX_VALUE, true);
+    }
+
+    /**
+     * Returns an iterator over the values in [from, to).
+     *
+     * @param from The smallest value to return.
+     * @param to   The bound above the values to return.
+     * @return The iterator; empty if from &gt;= to.
+     * @pre-condition None.
+     * @post-condition The list is not modified.
+     * @time-complexity O(log n) to start, O(1) per value.
+     */
+    public PrimitiveIterator.OfInt range(int from, int to) {
+        Leaf leaf = lowerLeaf(from);
+        return new Cursor(leaf, lowerBound(leaf.keys, leaf.size, from), to, false);
+    }
+
+    /**
+     * Copies the values into a new array.
+     *
+     * @return The values in non-decreasing order.
+     * @pre-condition None.
+     * @post-condition The list is not modified.
+     * @time-complexity O(n).
+     */
+    public int[] toArray() {
+        int[] values = new int[size];
+        int k = 0;
+        for (Leaf leaf = first; leaf != null; leaf = leaf.next) {
+            System.arraycopy(leaf.keys, 0, values, k, leaf.size);
+            k += leaf.size;
+        }
+        return values;
+    }
+
+    /**
+     * Resets the iteration to the smallest value.
+     *
+     * @pre-condition None.
+     * @post-condition next returns the smallest value.
+     * @time-complexity O(1).
+     */
+    public void reset() {
+        iteratorLeaf = first;
+        iteratorIndex = 0;
+    }
+
+    /**
+     * Checks whether the iteration has more values.
+     *
+     * @return true if next can be called.
+     * @pre-condition reset has been called.
+     * @post-condition None.
+     * @time-complexity O(1) amortized.
+     */
+    public boolean hasNext() {
+        while (iteratorLeaf != null && iteratorIndex == iteratorLeaf.size) {
+            iteratorLeaf = iteratorLeaf.next;
+            iteratorIndex = 0;
+        }
+        return iteratorLeaf != null;
+    }
+
+    /**
+     * Returns the next value of the iteration.
+     *
+     * @return The value.
+     * @throws NoSuchElementException If the iteration is exhausted.
+     * @pre-condition reset has been called.
+     * @post-condition The iteration advances by one value.
+     * @time-complexity O(1) amortized.
+     */
+    public int next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return iteratorLeaf.keys[iteratorIndex++];
+    }
+
+    /**
+     * Converts the list into a string in the format of OrderedLinkedListOfIntegers.
+     *
+     * @return "[v1 -> v2 -> ...]", or "[]" if the list is empty.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(n).
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("[");
+        PrimitiveIterator.OfInt values = iterator();
+        while (values.hasNext()) {
+            result.append(values.nextInt());
+            if (values.hasNext()) {
+                result.append(" -> ");
+            }
+        }
+        return result.append(']').toString();
+    }
+
+    // Inserts into a subtree; returns the new right sibling if the page split, with its first key in splitKey
+    private Page insert(Page page, int value) {
+        if (page instanceof Leaf) {
+            Leaf leaf = (Leaf) page;
+            int index = upperBound(leaf.keys, leaf.size, value);
+            if (leaf.size < LEAF_CAPACITY) {
+                System.arraycopy(leaf.keys, index, leaf.keys, index + 1, leaf.size - index);
+                leaf.keys[index] = value;
+                leaf.size++;
+                return null;
+            }
+            Leaf right = new Leaf();
+            int half = LEAF_CAPACITY / 2;
+            System.arraycopy(leaf.keys, half, right.keys, 0, LEAF_CAPACITY - half);
+            right.size = LEAF_CAPACITY - half;
+            leaf.size = half;
+            right.next = leaf.next;
+            leaf.next = right;
+            Leaf target = index <= half ? leaf : right;
+            int at = index <= half ? index : index - half;
+            System.arraycopy(target.keys, at, target.keys, at + 1, target.size - at);
+            target.keys[at] = value;
+            target.size++;
+            splitKey = right.keys[0];
+            return right;
+        }
+
+        Inner inner = (Inner) page;
+        int child = upperBound(inner.keys, inner.size - 1, value);
+        Page grown = insert(inner.children[child], value);
+        if (grown == null) {
+            return null;
+        }
+        int key = splitKey;
+        if (inner.size < INNER_CAPACITY) {
+            insertChild(inner, child, key, grown);
+            return null;
+        }
+        Inner right = new Inner();
+        int half = INNER_CAPACITY / 2;
+        // Children [half, size) move right; the key between the halves moves up
+        System.arraycopy(inner.children, half, right.children, 0, INNER_CAPACITY - half);
+        System.arraycopy(inner.keys, half, right.keys, 0, INNER_CAPACITY - half - 1);
+        int up = inner.keys[half - 1];
+        right.size = INNER_CAPACITY - half;
+        inner.size = half;
+        for (int i = half; i < INNER_CAPACITY; i++) {
+            inner.children[i] = null;
+        }
+        if (child < half) {
+            insertChild(inner, child, key, grown);
+        } else {
+            insertChild(right, child - half, key, grown);
+        }
+        splitKey = up;
+        return right;
+    }
+
+    // Places a new child right after children[child], separated from it by key
+    private static void insertChild(Inner inner, int child, int key, Page page) {
+        System.arraycopy(inner.children, child + 1, inner.children, child + 2, inner.size - child - 1);
+        System.arraycopy(inner.keys, child, inner.keys, child + 1, inner.size - 1 - child);
+        inner.children[child + 1] = page;
+        inner.keys[child] = key;
+        inner.size++;
+    }
+
+    // The leftmost leaf that can hold the first value >= value
+    private Leaf lowerLeaf(int value) {
+        Page page = root;
+        while (page instanceof Inner) {
+            Inner inner = (Inner) page;
+            page = inner.children[lowerBound(inner.keys, inner.size - 1, value)];
+        }
+        return (Leaf) page;
+    }
+
+    // Replaces the content with sorted values: full leaves, then full inner levels
+    private void bulkLoad(int[] values, int count) {
+        int leaves = Math.max(1, (count + LEAF_CAPACITY - 1) / LEAF_CAPACITY);
+        Page[] level = new Page[leaves];
+        int[] lows = new int[leaves];
+        Leaf previous = null;
+        for (int i = 0; i < leaves; i++) {
+            Leaf leaf = new Leaf();
+            int from = i * LEAF_CAPACITY;
+            leaf.size = Math.min(LEAF_CAPACITY, count - from);
+            System.arraycopy(values, from, leaf.keys, 0, leaf.size);
+            lows[i] = leaf.size > 0 ? leaf.keys[0] : 0;
+            if (previous == null) {
+                first = leaf;
+            } else {
+                previous.next = leaf;
+            }
+            previous = leaf;
+            level[i] = leaf;
+        }
+        int width = leaves;
+        while (width > 1) {
+            int parents = (width + INNER_CAPACITY - 1) / INNER_CAPACITY;
+            Page[] next = new Page[parents];
+            int[] nextLows = new int[parents];
+            for (int p = 0; p < parents; p++) {
+                Inner inner = new Inner();
+                int from = p * INNER_CAPACITY;
+                inner.size = Math.min(INNER_CAPACITY, width - from);
+                System.arraycopy(level, from, inner.children, 0, inner.size);
+                for (int c = 1; c < inner.size; c++) {
+                    inner.keys[c - 1] = lows[from + c];
+                }
+                next[p] = inner;
+                nextLows[p] = lows[from];
+            }
+            level = next;
+            lows = nextLows;
+            width = parents;
+        }
+        root = level[0];
+        size = count;
+    }
+
+    // First position in keys[0, n) holding a value >= value
+    private static int lowerBound(int[] keys, int n, int value) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First position in keys[0, n) holding a value > value
+    private static int upperBound(int[] keys, int n, int value) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private abstract static class Page {
+    }
+
+    private static final class Leaf extends Page {
+        private final int[] keys = new int[LEAF_CAPACITY];
+        private int size;
+        private Leaf next;
+    }
+
+    // size children, separated by size - 1 keys: every value under children[i] lies in [keys[i - 1], keys[i]]
+    private static final class Inner extends Page {
+        private final int[] keys = new int[INNER_CAPACITY - 1];
+        private final Page[] children = new Page[INNER_CAPACITY];
+        private int size;
+    }
+
+    // Walks the leaf chain from a position up to an exclusive bound
+    private static final class Cursor implements PrimitiveIterator.OfInt {
+        private Leaf leaf;
+        private int index;
+        private final int to;
+        private final boolean unbounded;
+
+        private Cursor(Leaf leaf, int index, int to, boolean unbounded) {
+            this.leaf = leaf;
+            this.index = index;
+            this.to = to;
+            this.unbounded = unbounded;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (leaf != null && index == leaf.size) {
+                leaf = leaf.next;
+                index = 0;
+            }
+            return leaf != null && (unbounded || leaf.keys[index] < to);
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return leaf.keys[index++];
+        }
+    }
+}
@@ -80,28 +80,25 @@ public class OrderedLinkedListOfIntegers {
         OrderedLinkedListOfIntegers mergedList = new OrderedLinkedListOfIntegers();
         ObjectNode current1 = list1.head;
         ObjectNode current2 = list2.head;
+        ObjectNode tail = null;
 
-        // Traverse both lists and add elements in sorted order
-        while (current1 != null && current2 != null) {
-            if ((int) current1.getData() <= (int) current2.getData()) {
-                mergedList.sortedAdd((int) current1.getData());
+        // Traverse both lists and append the smaller element; appending at the tail keeps the merge linear
+        while (current1 != null || current2 != null) {
+            ObjectNode source;
+            if (current2 == null || (current1 != null && (int) current1.getData() <= (int) current2.getData())) {
+                source = current1;
                 current1 = current1.getLink();
             } else {
-                mergedList.sortedAdd((int) current2.getData());
+                source = current2;
                 current2 = current2.getLink();
             }
-        }
-
-        // Add remaining elements from list1
-        while (current1 != null) {
-            mergedList.sortedAdd((int) current1.getData());
-            current1 = current1.getLink();
-        }
-
-        // Add remaining elements from list2
-        while (current2 != null) {
-            mergedList.sortedAdd((int) current2.getData());
-            current2 = current2.getLink();
+            if (tail == null) {
+                mergedList.head = new ObjectNode(source.getData(), null);
+                tail = mergedList.head;
+            } else {
+                tail.addNodeAfter(source.getData());
+                tail = tail.getLink();
+            }
         }
 
         return mergedList;
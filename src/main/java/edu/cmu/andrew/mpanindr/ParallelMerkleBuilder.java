@@ -0,0 +1,327 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The ParallelMerkleBuilder class computes a Merkle root on a ForkJoinPool.
+ * <p>
+ * The leaves are cut into aligned blocks of 2^k leaves (the sequential cutoff rounded down to a power of two).
+ * Every block is hashed and reduced to its subtree root by one task, and the block roots then form level k of
+ * the tree, which is reduced the same way until it fits in one block. Because every block starts at a multiple
+ * of 2^k, a level inside a block has an odd size exactly when the same level of the whole tree does, so the
+ * duplicate-last-node rule gives exactly the sequential root.
+ * <p>
+ * Key Features:
+ * - Runs on the common ForkJoinPool or on a pool supplied by the caller.
+ * - Sequential cutoff controls how many leaves one task hashes before it stops splitting.
+ * - Each task owns its TreeHasher and scratch buffer; tasks share nothing but disjoint slots of the output array.
+ * - Any HashAlgorithm may be chosen; the default is SHA-256.
+ * <p>
+ * Pre-condition:
+ * - The input must contain at least one line and no null lines.
+ * <p>
+ * Post-condition:
+ * - The root equals MerkleTree.computeMerkleRoot for the same lines and TreeMode.
+ * <p>
+ * Time Complexity:
+ * - O(n) total work and O(n / p + cutoff * log(n)) span on p workers, where n is the number of lines.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public class ParallelMerkleBuilder {
+
+    /**
+     * Default number of leaves hashed by one task.
+     */
+    public static final int DEFAULT_SEQUENTIAL_CUTOFF = 8192;
+
+    private final ForkJoinPool pool;
+    private final int blockSize;
+    private final int blockHeight;
+
+    /**
+     * Creates a builder on the common ForkJoinPool with the default sequential cutoff.
+     *
+     * @pre-condition None.
+     * @post-condition The builder uses ForkJoinPool.commonPool().
+     * @time-complexity O(1).
+     */
+    public ParallelMerkleBuilder() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_CUTOFF);
+    }
+
+    /**
+     * Creates a builder on the given pool.
+     *
+     * @param pool             The pool that runs the hashing tasks.
+     * @param sequentialCutoff The number of leaves below which a task stops splitting; rounded down to a power of two.
+     * @throws IllegalArgumentException If sequentialCutoff is less than 2.
+     * @pre-condition pool is not null.
+     * @post-condition The builder is ready to compute roots.
+     * @time-complexity O(1).
+     */
+    public ParallelMerkleBuilder(ForkJoinPool pool, int sequentialCutoff) {
+        if (sequentialCutoff < 2) {
+            throw new IllegalArgumentException("Sequential cutoff must be at least 2: " + sequentialCutoff);
+        }
+        this.pool = pool;
+        this.blockSize = Integer.highestOneBit(sequentialCutoff);
+        this.blockHeight = Integer.numberOfTrailingZeros(blockSize);
+    }
+
+    /**
+     * Returns the effective sequential cutoff, the number of leaves reduced by one task.
+     *
+     * @return The cutoff rounded down to a power of two.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int sequentialCutoff() {
+        return blockSize;
+    }
+
+    /**
+     * Computes the formatted Merkle root of the lines stored in a list.
+     *
+     * @param list The list of lines.
+     * @param mode The tree mode.
+     * @return The root formatted by {@link TreeMode#formatRoot}.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the list is empty.
+     * @pre-condition The list holds at least one node and no null data.
+     * @post-condition The list content is not modified (unlike MerkleTree.computeMerkleRoot, no node is duplicated);
+     * its iterator is left exhausted.
+     * @time-complexity O(n) work; the list is copied to an array in one pass before the parallel phase.
+     */
+    public String computeMerkleRoot(SinglyLinkedList list, TreeMode mode) throws NoSuchAlgorithmException {
+        return computeMerkleRoot(list, mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Computes the formatted Merkle root of the lines stored in a list with the given hash algorithm.
+     *
+     * @param list      The list of lines.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm.
+     * @return The root formatted by {@link TreeMode#formatRoot(Digest, HashAlgorithm)}.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the list is empty.
+     * @pre-condition The list holds at least one node and no null data.
+     * @post-condition The list content is not modified; its iterator is left exhausted.
+     * @time-complexity O(n) work; the list is copied to an array in one pass before the parallel phase.
+     */
+    public String computeMerkleRoot(SinglyLinkedList list, TreeMode mode, HashAlgorithm algorithm)
+            throws NoSuchAlgorithmException {
+        String[] lines = new String[list.countNodes()];
+        list.reset();
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = list.next().toString();
+        }
+        return mode.formatRoot(computeRoot(lines, mode, algorithm), algorithm);
+    }
+
+    /**
+     * Computes the Merkle root digest of an array of lines.
+     *
+     * @param lines The lines, one leaf each.
+     * @param mode  The tree mode.
+     * @return The root digest.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If there are no lines.
+     * @pre-condition lines holds no null entries.
+     * @post-condition The array is not modified.
+     * @time-complexity O(n) work.
+     */
+    public Digest computeRoot(String[] lines, TreeMode mode) throws NoSuchAlgorithmException {
+        return computeRoot(lines, mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Computes the Merkle root digest of an array of lines with the given hash algorithm.
+     *
+     * @param lines     The lines, one leaf each.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm.
+     * @return The root digest.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If there are no lines.
+     * @pre-condition lines holds no null entries.
+     * @post-condition The array is not modified.
+     * @time-complexity O(n) work.
+     */
+    public Digest computeRoot(String[] lines, TreeMode mode, HashAlgorithm algorithm) throws NoSuchAlgorithmException {
+        if (lines.length == 0) {
+            throw new IllegalArgumentException("List is empty. Cannot compute Merkle root.");
+        }
+        // Fail here, on the caller's thread, if the algorithm is missing
+        TreeHasher hasher = new TreeHasher(mode, algorithm);
+
+        if (lines.length <= blockSize) {
+            byte[] leaves = new byte[MerkleLevelBuilder.packedLength(lines.length)];
+            for (int i = 0; i < lines.length; i++) {
+                hasher.leaf(lines[i], leaves, i * Digest.LENGTH);
+            }
+            return MerkleLevelBuilder.computeRoot(leaves, lines.length, hasher);
+        }
+
+        int blocks = blockCount(lines.length);
+        byte[] level = new byte[blocks * Digest.LENGTH];
+        pool.invoke(new LeafBlocks(lines, mode, algorithm, level, 0, blocks));
+        return reduce(level, blocks, hasher);
+    }
+
+    /**
+     * Computes the Merkle root digest of an already hashed leaf level.
+     *
+     * @param leaves The packed leaf digests.
+     * @param count  The number of leaves.
+     * @param mode   The tree mode.
+     * @return The root digest.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If there are no leaves.
+     * @pre-condition leaves holds at least count digests.
+     * @post-condition The array is not modified.
+     * @time-complexity O(n) work.
+     */
+    public Digest computeRoot(byte[] leaves, int count, TreeMode mode) throws NoSuchAlgorithmException {
+        return computeRoot(leaves, count, mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Computes the Merkle root digest of an already hashed leaf level with the given hash algorithm for the parents.
+     *
+     * @param leaves    The packed leaf digests, hashed with the same algorithm.
+     * @param count     The number of leaves.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm.
+     * @return The root digest.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If there are no leaves.
+     * @pre-condition leaves holds at least count digests.
+     * @post-condition The array is not modified.
+     * @time-complexity O(n) work.
+     */
+    public Digest computeRoot(byte[] leaves, int count, TreeMode mode, HashAlgorithm algorithm)
+            throws NoSuchAlgorithmException {
+        TreeHasher hasher = new TreeHasher(mode, algorithm);
+        if (count <= blockSize) {
+            return MerkleLevelBuilder.computeRoot(leaves, count, hasher);
+        }
+        return reduce(leaves, count, hasher);
+    }
+
+    // Reduces a level of at least two digests to the root, block by block while it is larger than one block
+    private Digest reduce(byte[] level, int size, TreeHasher hasher) {
+        while (size > blockSize) {
+            int blocks = blockCount(size);
+            byte[] next = new byte[blocks * Digest.LENGTH];
+            pool.invoke(new LevelBlocks(level, size, hasher.mode(), hasher.algorithm(), next, 0, blocks));
+            level = next;
+            size = blocks;
+        }
+        while (size > 1) {
+            level = MerkleLevelBuilder.nextLevel(level, size, hasher);
+            size = (size + 1) / 2;
+        }
+        hasher.flushMetrics();
+        return Digest.read(level, 0);
+    }
+
+    private int blockCount(int size) {
+        return (size + blockSize - 1) >>> blockHeight;
+    }
+
+    private static TreeHasher newHasher(TreeMode mode, HashAlgorithm algorithm) {
+        try {
+            return new TreeHasher(mode, algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            // Cannot happen: computeRoot already created a hasher for this algorithm on the calling thread
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Hashes the lines of blocks [from, to) and stores each block's subtree root
+    private final class LeafBlocks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String[] lines;
+        private final TreeMode mode;
+        private final HashAlgorithm algorithm;
+        private final byte[] roots;
+        private final int from;
+        private final int to;
+
+        LeafBlocks(String[] lines, TreeMode mode, HashAlgorithm algorithm, byte[] roots, int from, int to) {
+            this.lines = lines;
+            this.mode = mode;
+            this.algorithm = algorithm;
+            this.roots = roots;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new LeafBlocks(lines, mode, algorithm, roots, from, mid),
+                        new LeafBlocks(lines, mode, algorithm, roots, mid, to));
+                return;
+            }
+            TreeHasher hasher = newHasher(mode, algorithm);
+            int first = from * blockSize;
+            int size = Math.min(blockSize, lines.length - first);
+            byte[] leaves = new byte[size * Digest.LENGTH];
+            for (int i = 0; i < size; i++) {
+                hasher.leaf(lines[first + i], leaves, i * Digest.LENGTH);
+            }
+            MerkleLevelBuilder.subtreeRoot(leaves, 0, size, blockHeight, hasher, roots, from * Digest.LENGTH);
+        }
+    }
+
+    // Reduces blocks [from, to) of a packed level and stores each block's subtree root
+    private final class LevelBlocks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] level;
+        private final int size;
+        private final TreeMode mode;
+        private final HashAlgorithm algorithm;
+        private final byte[] roots;
+        private final int from;
+        private final int to;
+
+        LevelBlocks(byte[] level, int size, TreeMode mode, HashAlgorithm algorithm, byte[] roots, int from, int to) {
+            this.level = level;
+            this.size = size;
+            this.mode = mode;
+            this.algorithm = algorithm;
+            this.roots = roots;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new LevelBlocks(level, size, mode, algorithm, roots, from, mid),
+                        new LevelBlocks(level, size, mode, algorithm, roots, mid, to));
+                return;
+            }
+            int first = from * blockSize;
+            MerkleLevelBuilder.subtreeRoot(level, first, Math.min(blockSize, size - first), blockHeight,
+                    newHasher(mode, algorithm), roots, from * Digest.LENGTH);
+        }
+    }
+}
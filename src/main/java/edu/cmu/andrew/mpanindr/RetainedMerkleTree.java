@@ -0,0 +1,583 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * The RetainedMerkleTree class keeps every level of a Merkle tree after it has been built, so that
+ * inclusion proofs can be produced without rebuilding the tree.
+ * <p>
+ * Each level is one DigestStore of packed 32-byte digests holding only the real nodes of that level; the
+ * duplicated last node of an odd level is implied, never stored. Built trees keep their levels on the heap, or
+ * off-heap when built with buildOffHeap or fromLeafStore; trees loaded by MerkleTreeFile read them from a
+ * memory-mapped file. Level 0 holds the leaves and the last level
+ * holds the root alone. A tree of n leaves therefore stores fewer than 2n digests, about 64n bytes.
+ * <p>
+ * Key Features:
+ * - Built from a SinglyLinkedList, an array of lines, the lines of a file or a packed array of leaf digests.
+ * - Hashed with SHA-256 by default or with any other HashAlgorithm; proofs carry the algorithm.
+ * - Produces the sibling path of any leaf in O(log n) (see InclusionProof for the matching verifier).
+ * - Gives access to the root, any leaf and any internal node.
+ * - Replaces the content of one leaf by rehashing only its path to the root, in O(log n).
+ * - Off-heap trees hold up to Integer.MAX_VALUE leaves outside -Xmx, and close() frees them at once.
+ * <p>
+ * Pre-condition:
+ * - The tree must have at least one leaf.
+ * - An instance is not thread-safe; proofs produced before an update describe the old root.
+ * <p>
+ * Post-condition:
+ * - root() equals the root computed by MerkleTree.computeMerkleRoot for the same lines and TreeMode.
+ * <p>
+ * Time Complexity:
+ * - Building is O(n); proof generation is O(log n); node access is O(1).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public class RetainedMerkleTree implements AutoCloseable {
+
+    private final TreeHasher hasher;
+    private final DigestStore[] levels;
+    private final byte[] scratch = new byte[2 * Digest.LENGTH];
+
+    private RetainedMerkleTree(TreeHasher hasher, DigestStore[] levels) {
+        this.hasher = hasher;
+        this.levels = levels;
+    }
+
+    /**
+     * Builds a tree over the lines stored in a list.
+     *
+     * @param list The lines, one leaf each.
+     * @param mode The tree mode.
+     * @return The retained tree.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the list is empty or has more than MerkleLevelBuilder.MAX_LEAVES nodes.
+     * @pre-condition The list holds no null data.
+     * @post-condition The list content is not modified; its iterator is left exhausted.
+     * @time-complexity O(n).
+     */
+    public static RetainedMerkleTree build(SinglyLinkedList list, TreeMode mode) throws NoSuchAlgorithmException {
+        return build(list, mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Builds a tree over the lines stored in a list with the given hash algorithm.
+     *
+     * @param list      The lines, one leaf each.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm.
+     * @return The retained tree.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the list is empty or has more than MerkleLevelBuilder.MAX_LEAVES nodes.
+     * @pre-condition The list holds no null data.
+     * @post-condition The list content is not modified; its iterator is left exhausted.
+     * @time-complexity O(n).
+     */
+    public static RetainedMerkleTree build(SinglyLinkedList list, TreeMode mode, HashAlgorithm algorithm)
+            throws NoSuchAlgorithmException {
+        TreeHasher hasher = new TreeHasher(mode, algorithm);
+        return fromLeafDigests(MerkleLevelBuilder.hashLeaves(list, hasher), list.countNodes(), hasher);
+    }
+
+    /**
+     * Builds a tree over an array of lines.
+     *
+     * @param lines The lines, one leaf each.
+     * @param mode  The tree mode.
+     * @return The retained tree.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If there are no lines, or more than MerkleLevelBuilder.MAX_LEAVES.
+     * @pre-condition lines holds no null entries.
+     * @post-condition The array is not modified.
+     * @time-complexity O(n).
+     */
+    public static RetainedMerkleTree build(String[] lines, TreeMode mode) throws NoSuchAlgorithmException {
+        return build(lines, mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Builds a tree over an array of lines with the given hash algorithm.
+     *
+     * @param lines     The lines, one leaf each.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm.
+     * @return The retained tree.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If there are no lines, or more than MerkleLevelBuilder.MAX_LEAVES.
+     * @pre-condition lines holds no null entries.
+     * @post-condition The array is not modified.
+     * @time-complexity O(n).
+     */
+    public static RetainedMerkleTree build(String[] lines, TreeMode mode, HashAlgorithm algorithm)
+            throws NoSuchAlgorithmException {
+        TreeHasher hasher = new TreeHasher(mode, algorithm);
+        byte[] leaves = new byte[MerkleLevelBuilder.packedLength(lines.length)];
+        for (int i = 0; i < lines.length; i++) {
+            hasher.leaf(lines[i], leaves, i * Digest.LENGTH);
+        }
+        return fromLeafDigests(leaves, lines.length, hasher);
+    }
+
+    /**
+     * Builds a tree over the lines of a file, hashed from a memory-mapped view of its bytes.
+     *
+     * @param file The file, one leaf per line.
+     * @param mode The tree mode.
+     * @return The retained tree.
+     * @throws IOException              If the file cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the file has no lines or too many to be retained in one array per level.
+     * @pre-condition The file holds UTF-8 text.
+     * @post-condition The file is closed.
+     * @time-complexity O(s) in the file size s.
+     */
+    public static RetainedMerkleTree build(Path file, TreeMode mode) throws IOException, NoSuchAlgorithmException {
+        return build(file, mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Builds a tree over the lines of a file with the given hash algorithm.
+     *
+     * @param file      The file, one leaf per line.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm for leaves and parents.
+     * @return The retained tree.
+     * @throws IOException              If the file cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the file has no lines or too many to be retained in one array per level.
+     * @pre-condition The file holds UTF-8 text.
+     * @post-condition The file is closed.
+     * @time-complexity O(s) in the file size s.
+     */
+    public static RetainedMerkleTree build(Path file, TreeMode mode, HashAlgorithm algorithm)
+            throws IOException, NoSuchAlgorithmException {
+        LeafCollector leaves = new LeafCollector();
+        MappedFileHasher.hashLines(file, algorithm, leaves);
+        return fromLeafDigests(leaves.digests, leaves.count, mode, algorithm);
+    }
+
+    /**
+     * Builds a tree over the lines of a file, keeping every level off-heap in OffHeapDigestStores.
+     *
+     * @param file The file, one leaf per line.
+     * @param mode The tree mode.
+     * @return The retained tree; close it to free its levels.
+     * @throws IOException              If the file cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the file has no lines or more than Integer.MAX_VALUE.
+     * @pre-condition The file holds UTF-8 text.
+     * @post-condition The file is closed; on failure no off-heap memory stays allocated.
+     * @time-complexity O(s) in the file size s.
+     */
+    public static RetainedMerkleTree buildOffHeap(Path file, TreeMode mode) throws IOException, NoSuchAlgorithmException {
+        return buildOffHeap(file, mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Builds a tree over the lines of a file with the given hash algorithm, keeping every level off-heap.
+     *
+     * @param file      The file, one leaf per line.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm for leaves and parents.
+     * @return The retained tree; close it to free its levels.
+     * @throws IOException              If the file cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the file has no lines or more than Integer.MAX_VALUE.
+     * @pre-condition The file holds UTF-8 text.
+     * @post-condition The file is closed; on failure no off-heap memory stays allocated.
+     * @time-complexity O(s) in the file size s.
+     */
+    public static RetainedMerkleTree buildOffHeap(Path file, TreeMode mode, HashAlgorithm algorithm)
+            throws IOException, NoSuchAlgorithmException {
+        try (OffHeapDigestStore.Collector leaves = new OffHeapDigestStore.Collector()) {
+            MappedFileHasher.hashLines(file, algorithm, leaves);
+            return fromLeafStore(leaves.toStore(), mode, algorithm);
+        }
+    }
+
+    /**
+     * Builds a tree over leaf digests held off-heap, allocating every parent level off-heap as well.
+     *
+     * @param leaves    The leaf digests, for example from an OffHeapDigestStore.Collector. The store becomes level 0
+     *                  of the tree and is closed with it.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm the leaves were hashed with.
+     * @return The retained tree; close it to free its levels.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the store is empty.
+     * @pre-condition The store is open.
+     * @post-condition The tree owns the store; on failure the store and every allocated level are closed.
+     * @time-complexity O(n).
+     */
+    public static RetainedMerkleTree fromLeafStore(OffHeapDigestStore leaves, TreeMode mode, HashAlgorithm algorithm)
+            throws NoSuchAlgorithmException {
+        int height = leaves.size() == 0 ? 0 : levelCount(leaves.size());
+        DigestStore[] levels = new DigestStore[Math.max(1, height)];
+        levels[0] = leaves;
+        RetainedMerkleTree tree = null;
+        try {
+            if (height == 0) {
+                throw new IllegalArgumentException("List is empty. Cannot compute Merkle root.");
+            }
+            TreeHasher hasher = new TreeHasher(mode, algorithm);
+            byte[] pair = new byte[2 * Digest.LENGTH];
+            for (int k = 1; k < height; k++) {
+                long start = System.nanoTime();
+                DigestStore below = levels[k - 1];
+                OffHeapDigestStore level = new OffHeapDigestStore((below.size() + 1) / 2);
+                levels[k] = level;
+                for (int i = 0; i < level.size(); i++) {
+                    // The unpaired last node of an odd level is paired with itself
+                    below.read(2 * i, pair, 0);
+                    below.read(Math.min(2 * i + 1, below.size() - 1), pair, Digest.LENGTH);
+                    hasher.parent(pair, 0, pair, Digest.LENGTH, pair, 0);
+                    level.write(i, pair, 0);
+                }
+                MerkleMetrics.global().recordLevel(System.nanoTime() - start, (long) level.size() * Digest.LENGTH);
+            }
+            hasher.flushMetrics();
+            tree = new RetainedMerkleTree(hasher, levels);
+            return tree;
+        } finally {
+            if (tree == null) {
+                closeLevels(levels);
+            }
+        }
+    }
+
+    /**
+     * Builds a tree over already hashed leaves.
+     *
+     * @param leaves The packed leaf digests. The array becomes level 0 of the tree: it is changed by updates
+     *               and must not be changed by the caller afterwards.
+     * @param count  The number of leaves.
+     * @param mode   The tree mode.
+     * @return The retained tree.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If count is 0.
+     * @pre-condition leaves holds at least count digests; only the first count are used.
+     * @post-condition The tree owns the leaves array.
+     * @time-complexity O(n).
+     */
+    public static RetainedMerkleTree fromLeafDigests(byte[] leaves, int count, TreeMode mode) throws NoSuchAlgorithmException {
+        return fromLeafDigests(leaves, count, mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Builds a tree over already hashed leaves with the given hash algorithm for the parents.
+     *
+     * @param leaves    The packed leaf digests, hashed with the same algorithm. The array becomes level 0 of the
+     *                  tree: it is changed by updates and must not be changed by the caller afterwards.
+     * @param count     The number of leaves.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm.
+     * @return The retained tree.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If count is 0.
+     * @pre-condition leaves holds at least count digests; only the first count are used.
+     * @post-condition The tree owns the leaves array.
+     * @time-complexity O(n).
+     */
+    public static RetainedMerkleTree fromLeafDigests(byte[] leaves, int count, TreeMode mode, HashAlgorithm algorithm)
+            throws NoSuchAlgorithmException {
+        return fromLeafDigests(leaves, count, new TreeHasher(mode, algorithm));
+    }
+
+    private static RetainedMerkleTree fromLeafDigests(byte[] leaves, int count, TreeHasher hasher) {
+        if (count == 0) {
+            throw new IllegalArgumentException("List is empty. Cannot compute Merkle root.");
+        }
+        int height = levelCount(count);
+        DigestStore[] levels = new DigestStore[height];
+        byte[] level = leaves;
+        int size = count;
+        levels[0] = new HeapDigestStore(level, size);
+        for (int k = 1; k < height; k++) {
+            level = MerkleLevelBuilder.nextLevel(level, size, hasher);
+            size = (size + 1) / 2;
+            levels[k] = new HeapDigestStore(level, size);
+        }
+        hasher.flushMetrics();
+        return new RetainedMerkleTree(hasher, levels);
+    }
+
+    /**
+     * Wraps existing levels, for example the mapped levels of a tree file.
+     *
+     * @param levels    The levels, from the leaves to the root.
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm the levels were built with.
+     * @return The retained tree.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the level sizes do not form a tree.
+     * @pre-condition The digests are those a build over the same leaves would produce.
+     * @post-condition The tree shares the stores.
+     * @time-complexity O(log n).
+     */
+    static RetainedMerkleTree fromLevels(DigestStore[] levels, TreeMode mode, HashAlgorithm algorithm)
+            throws NoSuchAlgorithmException {
+        if (levels.length == 0 || levels[0].size() == 0 || levels.length != levelCount(levels[0].size())) {
+            throw new IllegalArgumentException("Levels do not form a Merkle tree");
+        }
+        for (int k = 1; k < levels.length; k++) {
+            if (levels[k].size() != (levels[k - 1].size() + 1) / 2) {
+                throw new IllegalArgumentException("Levels do not form a Merkle tree");
+            }
+        }
+        return new RetainedMerkleTree(new TreeHasher(mode, algorithm), levels.clone());
+    }
+
+    /**
+     * Returns the number of levels, including the leaf level and the root level, of a tree with the given leaf count.
+     * A single leaf is still paired with itself, so every tree has at least two levels.
+     *
+     * @param leafCount The number of leaves, at least 1.
+     * @return The number of levels.
+     * @pre-condition leafCount is at least 1.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public static int levelCount(long leafCount) {
+        if (leafCount <= 2) {
+            return 2;
+        }
+        return 65 - Long.numberOfLeadingZeros(leafCount - 1);
+    }
+
+    /**
+     * Returns the tree mode.
+     *
+     * @return The tree mode.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public TreeMode mode() {
+        return hasher.mode();
+    }
+
+    /**
+     * Returns the hash algorithm.
+     *
+     * @return The algorithm the tree was built with.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public HashAlgorithm algorithm() {
+        return hasher.algorithm();
+    }
+
+    /**
+     * Returns the number of leaves.
+     *
+     * @return The leaf count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int leafCount() {
+        return levels[0].size();
+    }
+
+    /**
+     * Returns the number of levels, from the leaves (level 0) to the root.
+     *
+     * @return The number of levels.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int height() {
+        return levels.length;
+    }
+
+    /**
+     * Returns the number of stored nodes on a level.
+     *
+     * @param level The level, 0 for the leaves.
+     * @return The number of nodes on that level.
+     * @pre-condition 0 &lt;= level &lt; height().
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int levelSize(int level) {
+        return levels[level].size();
+    }
+
+    /**
+     * Returns a node of the tree.
+     *
+     * @param level The level, 0 for the leaves.
+     * @param index The position of the node on its level.
+     * @return The node's digest.
+     * @throws IndexOutOfBoundsException If the level or index is out of range.
+     * @pre-condition 0 &lt;= level &lt; height() and 0 &lt;= index &lt; levelSize(level).
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public Digest node(int level, int index) {
+        return levels[level].get(index);
+    }
+
+    /**
+     * Returns the storage of one level.
+     *
+     * @param level The level, 0 for the leaves.
+     * @return The level's digests.
+     * @pre-condition 0 &lt;= level &lt; height().
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public DigestStore level(int level) {
+        return levels[level];
+    }
+
+    /**
+     * Returns the root digest.
+     *
+     * @return The root.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public Digest root() {
+        return levels[levels.length - 1].get(0);
+    }
+
+    /**
+     * Returns the root formatted for output.
+     *
+     * @return The root formatted by {@link TreeMode#formatRoot}.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public String formattedRoot() {
+        return hasher.formatRoot(root());
+    }
+
+    /**
+     * Produces the inclusion proof of a leaf: the sibling of the leaf and of each of its ancestors below the root.
+     * Where an ancestor is the unpaired last node of an odd level, its sibling is itself.
+     *
+     * @param leafIndex The position of the leaf.
+     * @return The proof.
+     * @throws IndexOutOfBoundsException If leafIndex is out of range.
+     * @pre-condition 0 &lt;= leafIndex &lt; leafCount().
+     * @post-condition The tree is not modified.
+     * @time-complexity O(log n) - One 32-byte copy per level.
+     */
+    public InclusionProof proof(int leafIndex) {
+        if (leafIndex < 0 || leafIndex >= leafCount()) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        byte[] siblings = new byte[(levels.length - 1) * Digest.LENGTH];
+        int index = leafIndex;
+        for (int k = 0; k < levels.length - 1; k++) {
+            int sibling = index ^ 1;
+            if (sibling >= levels[k].size()) {
+                sibling = index;
+            }
+            levels[k].read(sibling, siblings, k * Digest.LENGTH);
+            index >>>= 1;
+        }
+        return new InclusionProof(hasher.mode(), hasher.algorithm(), leafIndex, leafCount(), siblings);
+    }
+
+    /**
+     * Replaces the content of a leaf and recomputes the root.
+     *
+     * @param leafIndex The position of the leaf.
+     * @param line      The new content of the leaf, hashed as UTF-8.
+     * @throws IndexOutOfBoundsException If leafIndex is out of range.
+     * @pre-condition 0 &lt;= leafIndex &lt; leafCount() and line is not null.
+     * @post-condition The tree equals a tree built from scratch over the updated leaves.
+     * @time-complexity O(m + log n) - One leaf hash and one parent hash per level.
+     */
+    public void updateLeaf(int leafIndex, String line) {
+        byte[] leaf = new byte[Digest.LENGTH];
+        hasher.leaf(line, leaf, 0);
+        updateLeafDigest(leafIndex, leaf, 0);
+    }
+
+    /**
+     * Replaces the digest of a leaf and rehashes only the nodes on its path to the root.
+     *
+     * @param leafIndex The position of the leaf.
+     * @param digest    The array holding the new leaf digest.
+     * @param off       The position of the digest.
+     * @throws IndexOutOfBoundsException    If leafIndex is out of range.
+     * @throws UnsupportedOperationException If the tree was loaded read-only.
+     * @pre-condition 0 &lt;= leafIndex &lt; leafCount() and [off, off + 32) of digest is valid.
+     * @post-condition The tree equals a tree built from scratch over the updated leaves.
+     * @time-complexity O(log n) - One parent hash per level.
+     */
+    public void updateLeafDigest(int leafIndex, byte[] digest, int off) {
+        if (leafIndex < 0 || leafIndex >= leafCount()) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        levels[0].write(leafIndex, digest, off);
+        int index = leafIndex;
+        for (int k = 0; k < levels.length - 1; k++) {
+            // The pair holding index; the unpaired last node of an odd level is its own right child
+            int left = index & ~1;
+            int right = left + 1 < levels[k].size() ? left + 1 : left;
+            levels[k].read(left, scratch, 0);
+            levels[k].read(right, scratch, Digest.LENGTH);
+            hasher.parent(scratch, 0, scratch, Digest.LENGTH, scratch, 0);
+            index >>>= 1;
+            levels[k + 1].write(index, scratch, 0);
+        }
+    }
+
+    /**
+     * Frees the levels held off-heap. Heap and memory-mapped levels are left to the garbage collector.
+     *
+     * @pre-condition No other thread is using the tree.
+     * @post-condition An off-heap tree can no longer be read or updated; other trees are unaffected.
+     * @time-complexity O(log n).
+     */
+    @Override
+    public void close() {
+        closeLevels(levels);
+    }
+
+    private static void closeLevels(DigestStore[] levels) {
+        for (DigestStore level : levels) {
+            if (level instanceof OffHeapDigestStore) {
+                ((OffHeapDigestStore) level).close();
+            }
+        }
+    }
+
+    // Gathers streamed leaf digests into one packed array, doubling its capacity as needed
+    private static final class LeafCollector implements LeafSink {
+        private static final int MAX_LEAVES = MerkleLevelBuilder.MAX_LEAVES;
+
+        private byte[] digests = new byte[64 * Digest.LENGTH];
+        private int count;
+
+        @Override
+        public void accept(byte[] digest, int off) {
+            if (count == MAX_LEAVES) {
+                throw new IllegalArgumentException("Too many leaves to retain: more than " + MAX_LEAVES);
+            }
+            if ((count + 1) * Digest.LENGTH > digests.length) {
+                long grown = Math.min(2L * digests.length, (long) MAX_LEAVES * Digest.LENGTH);
+                digests = Arrays.copyOf(digests, (int) grown);
+            }
+            System.arraycopy(digest, off, digests, count * Digest.LENGTH, Digest.LENGTH);
+            count++;
+        }
+    }
+}
@@ -0,0 +1,461 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The RootCache class remembers the Merkle roots of files, so an unchanged file returns its root without being read.
+ * <p>
+ * A file is identified by its canonical path, its size, its last-modified time and its file key (the inode on
+ * Unix-like systems). If any of these differ from the cached entry, the entry is ignored. Optionally a content
+ * sample (a SHA-256 over up to three 4 KiB blocks at the start, middle and end of the file) is compared as well;
+ * it catches rewrites that keep size and modification time, at the cost of three small reads.
+ * <p>
+ * Key Features:
+ * - Least-recently-used eviction (LinkedHashMap in access order) once the cache exceeds either its maximum number
+ * of entries or its maximum size in bytes, estimated from the lengths of the paths, file keys and roots it holds.
+ * - Saved to and loaded from a small binary file, in LRU order, so the cache survives restarts.
+ * - Thread-safe, so concurrent file hashing can share one cache.
+ * <p>
+ * Pre-condition:
+ * - Without content sampling, a file rewritten within the file system's timestamp resolution and with the same
+ * size is not detected.
+ * <p>
+ * Post-condition:
+ * - lookup returns a root only for an entry whose identity matches the file's current identity.
+ * <p>
+ * Time Complexity:
+ * - lookup is O(1) plus one stat (and three 4 KiB reads with sampling); put adds O(e) for the e entries it evicts;
+ * save and load are O(entries).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public class RootCache {
+
+    /**
+     * Default maximum number of entries.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    /**
+     * Default maximum estimated size of the entries, in bytes.
+     */
+    public static final long DEFAULT_MAX_BYTES = 16L << 20;
+
+    // Estimated cost of an entry besides its strings: the entry, identity, map node and sample objects
+    private static final int ENTRY_OVERHEAD = 160;
+
+    private static final int FILE_MAGIC = 0x4D4B5243; // "MKRC"
+    private static final int FILE_VERSION = 1;
+    private static final int SAMPLE_SIZE = 4096;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final boolean sampleContent;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    /**
+     * Creates an empty cache bounded by DEFAULT_MAX_BYTES.
+     *
+     * @param maxEntries    The maximum number of entries, at least 1.
+     * @param sampleContent Whether to compare a content sample as well as the file attributes.
+     * @throws IllegalArgumentException If maxEntries is less than 1.
+     * @pre-condition None.
+     * @post-condition The cache is empty.
+     * @time-complexity O(1).
+     */
+    public RootCache(int maxEntries, boolean sampleContent) {
+        this(maxEntries, DEFAULT_MAX_BYTES, sampleContent);
+    }
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxEntries    The maximum number of entries, at least 1.
+     * @param maxBytes      The maximum estimated size of the entries in bytes, at least 1.
+     * @param sampleContent Whether to compare a content sample as well as the file attributes.
+     * @throws IllegalArgumentException If maxEntries or maxBytes is less than 1.
+     * @pre-condition None.
+     * @post-condition The cache is empty.
+     * @time-complexity O(1).
+     */
+    public RootCache(int maxEntries, long maxBytes, boolean sampleContent) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache must hold at least one entry: " + maxEntries);
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxBytes);
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.sampleContent = sampleContent;
+    }
+
+    /**
+     * Loads a cache saved by {@link #save}. A missing file gives an empty cache.
+     *
+     * @param file          The cache file.
+     * @param maxEntries    The maximum number of entries; the most recently used saved entries are kept.
+     * @param sampleContent Whether to compare a content sample; saved entries without a sample never match if true.
+     * @return The cache.
+     * @throws IOException If the file exists but cannot be read or is not a cache file.
+     * @pre-condition file is not null.
+     * @post-condition The entries are in their saved LRU order.
+     * @time-complexity O(entries).
+     */
+    public static RootCache load(Path file, int maxEntries, boolean sampleContent) throws IOException {
+        return load(file, maxEntries, DEFAULT_MAX_BYTES, sampleContent);
+    }
+
+    /**
+     * Loads a cache saved by {@link #save} with a given size bound. A missing file gives an empty cache.
+     *
+     * @param file          The cache file.
+     * @param maxEntries    The maximum number of entries.
+     * @param maxBytes      The maximum estimated size in bytes; the most recently used saved entries that fit are kept.
+     * @param sampleContent Whether to compare a content sample; saved entries without a sample never match if true.
+     * @return The cache.
+     * @throws IOException If the file exists but cannot be read or is not a cache file.
+     * @pre-condition file is not null.
+     * @post-condition The entries are in their saved LRU order.
+     * @time-complexity O(entries).
+     */
+    public static RootCache load(Path file, int maxEntries, long maxBytes, boolean sampleContent) throws IOException {
+        RootCache cache = new RootCache(maxEntries, maxBytes, sampleContent);
+        try (InputStream in = Files.newInputStream(file)) {
+            DataInputStream data = new DataInputStream(in);
+            if (data.readInt() != FILE_MAGIC || data.readInt() != FILE_VERSION) {
+                throw new IOException("Not a root cache file: " + file);
+            }
+            int count = data.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = data.readUTF();
+                long size = data.readLong();
+                long modified = data.readLong();
+                String fileKey = data.readUTF();
+                byte[] sample = null;
+                if (data.readBoolean()) {
+                    sample = new byte[Digest.LENGTH];
+                    data.readFully(sample);
+                }
+                String root = data.readUTF();
+                cache.store(key, new Entry(new FileIdentity(size, modified, fileKey, sample), root));
+            }
+        } catch (NoSuchFileException e) {
+            // No cache has been saved yet
+        }
+        return cache;
+    }
+
+    /**
+     * Saves the cache, replacing the file atomically where supported.
+     *
+     * @param file The cache file.
+     * @throws IOException If the file cannot be written.
+     * @pre-condition file is not null.
+     * @post-condition load(file, ...) restores the entries in LRU order.
+     * @time-complexity O(entries).
+     */
+    public synchronized void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(FILE_MAGIC);
+            data.writeInt(FILE_VERSION);
+            data.writeInt(entries.size());
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                FileIdentity identity = e.getValue().identity;
+                data.writeUTF(e.getKey());
+                data.writeLong(identity.size);
+                data.writeLong(identity.modified);
+                data.writeUTF(identity.fileKey);
+                data.writeBoolean(identity.sample != null);
+                if (identity.sample != null) {
+                    data.write(identity.sample);
+                }
+                data.writeUTF(e.getValue().root);
+            }
+            data.flush();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the current identity of a file: its attributes and, if sampling is on, its content sample.
+     * Take it before hashing and pass it to {@link #put}, so a change made during hashing is not cached.
+     *
+     * @param file The file.
+     * @return The identity.
+     * @throws IOException If the file cannot be read.
+     * @pre-condition file exists.
+     * @post-condition The file is not modified.
+     * @time-complexity O(1) - One stat, plus three 4 KiB reads with sampling.
+     */
+    public FileIdentity identify(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        Object key = attributes.fileKey();
+        return new FileIdentity(attributes.size(), attributes.lastModifiedTime().to(TimeUnit.MICROSECONDS),
+                key == null ? "" : key.toString(), sampleContent ? sample(file, attributes.size()) : null);
+    }
+
+    /**
+     * Returns the cached root of a file if the file has not changed since it was cached.
+     *
+     * @param file The file.
+     * @param mode The tree mode of the wanted root.
+     * @return The root, or null on a miss.
+     * @throws IOException If the file cannot be read.
+     * @pre-condition file exists.
+     * @post-condition A hit makes the entry the most recently used; a stale entry is removed.
+     * @time-complexity O(1) plus {@link #identify}.
+     */
+    public String lookup(Path file, TreeMode mode) throws IOException {
+        return lookup(file, mode, identify(file));
+    }
+
+    /**
+     * Returns the cached root of a file under the given hash algorithm if the file has not changed since it was cached.
+     *
+     * @param file      The file.
+     * @param mode      The tree mode of the wanted root.
+     * @param algorithm The hash algorithm of the wanted root.
+     * @return The root, or null on a miss.
+     * @throws IOException If the file cannot be read.
+     * @pre-condition file exists.
+     * @post-condition A hit makes the entry the most recently used; a stale entry is removed.
+     * @time-complexity O(1) plus {@link #identify}.
+     */
+    public String lookup(Path file, TreeMode mode, HashAlgorithm algorithm) throws IOException {
+        return lookup(file, mode, algorithm, identify(file));
+    }
+
+    /**
+     * Returns the cached root of a file if the cached identity equals the given one.
+     *
+     * @param file     The file.
+     * @param mode     The tree mode of the wanted SHA-256 root.
+     * @param identity The file's current identity.
+     * @return The root, or null on a miss.
+     * @throws IOException If the canonical path cannot be resolved.
+     * @pre-condition identity was just taken by {@link #identify}.
+     * @post-condition A hit makes the entry the most recently used; a stale entry is removed; the hit or miss is
+     * counted in MerkleMetrics.
+     * @time-complexity O(1).
+     */
+    public String lookup(Path file, TreeMode mode, FileIdentity identity) throws IOException {
+        return lookup(file, mode, HashAlgorithm.DEFAULT, identity);
+    }
+
+    /**
+     * Returns the cached root of a file hashed with the given algorithm if the cached identity equals the given one.
+     *
+     * @param file      The file.
+     * @param mode      The tree mode of the wanted root.
+     * @param algorithm The hash algorithm of the wanted root.
+     * @param identity  The file's current identity.
+     * @return The root, or null on a miss.
+     * @throws IOException If the canonical path cannot be resolved.
+     * @pre-condition identity was just taken by {@link #identify}.
+     * @post-condition A hit makes the entry the most recently used; a stale entry is removed; the hit or miss is
+     * counted in MerkleMetrics.
+     * @time-complexity O(1).
+     */
+    public String lookup(Path file, TreeMode mode, HashAlgorithm algorithm, FileIdentity identity) throws IOException {
+        String key = key(file, mode, algorithm);
+        String root = null;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.identity.equals(identity)) {
+                root = entry.root;
+            } else if (entry != null) {
+                entries.remove(key);
+                bytes -= entry.bytes(key);
+            }
+        }
+        MerkleMetrics.global().recordCacheLookup(root != null);
+        return root;
+    }
+
+    /**
+     * Caches the root of a file.
+     *
+     * @param file     The file.
+     * @param mode     The tree mode of the root.
+     * @param identity The identity taken before the file was hashed.
+     * @param root     The root.
+     * @throws IOException If the canonical path cannot be resolved or the file cannot be read.
+     * @pre-condition root was computed from the file as it was when identity was taken.
+     * @post-condition The entry is the most recently used; least recently used entries are evicted until the
+     * cache is within its entry and byte bounds. Nothing is cached if the file changed since identity was taken.
+     * @time-complexity O(1) plus {@link #identify}.
+     */
+    public void put(Path file, TreeMode mode, FileIdentity identity, String root) throws IOException {
+        put(file, mode, HashAlgorithm.DEFAULT, identity, root);
+    }
+
+    /**
+     * Caches the root of a file hashed with the given algorithm.
+     *
+     * @param file      The file.
+     * @param mode      The tree mode of the root.
+     * @param algorithm The hash algorithm of the root.
+     * @param identity  The identity taken before the file was hashed.
+     * @param root      The root.
+     * @throws IOException If the canonical path cannot be resolved or the file cannot be read.
+     * @pre-condition root was computed from the file as it was when identity was taken.
+     * @post-condition As for put without an algorithm; roots of different algorithms are separate entries.
+     * @time-complexity O(1) plus {@link #identify}.
+     */
+    public void put(Path file, TreeMode mode, HashAlgorithm algorithm, FileIdentity identity, String root)
+            throws IOException {
+        if (!identity.equals(identify(file))) {
+            return;
+        }
+        String key = key(file, mode, algorithm);
+        synchronized (this) {
+            store(key, new Entry(identity, root));
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return The number of cached roots.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the estimated size of the entries.
+     *
+     * @return Bytes, at most the cache's maximum.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    // Adds or replaces an entry, then evicts from the least recently used end until both bounds hold
+    private void store(String key, Entry entry) {
+        Entry old = entries.put(key, entry);
+        bytes += entry.bytes(key) - (old == null ? 0 : old.bytes(key));
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || bytes > maxBytes) {
+            Map.Entry<String, Entry> e = eldest.next();
+            bytes -= e.getValue().bytes(e.getKey());
+            eldest.remove();
+        }
+    }
+
+    // SHA-256 keys keep the bare version tag, so caches saved before algorithms were added still match
+    private static String key(Path file, TreeMode mode, HashAlgorithm algorithm) throws IOException {
+        return mode.tag(algorithm) + ":" + file.toRealPath();
+    }
+
+    private static byte[] sample(Path file, long size) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is required on every Java platform
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(SAMPLE_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] offsets = {0, Math.max(0, size / 2 - SAMPLE_SIZE / 2), Math.max(0, size - SAMPLE_SIZE)};
+            for (long offset : offsets) {
+                buffer.clear();
+                int read;
+                do {
+                    read = channel.read(buffer, offset + buffer.position());
+                } while (read > 0 && buffer.hasRemaining());
+                buffer.flip();
+                digest.update(buffer);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * The FileIdentity class is what the cache compares to decide whether a file has changed.
+     */
+    public static final class FileIdentity {
+        private final long size;
+        private final long modified;
+        private final String fileKey;
+        private final byte[] sample;
+
+        private FileIdentity(long size, long modified, String fileKey, byte[] sample) {
+            this.size = size;
+            this.modified = modified;
+            this.fileKey = fileKey;
+            this.sample = sample;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FileIdentity)) {
+                return false;
+            }
+            FileIdentity other = (FileIdentity) o;
+            return size == other.size && modified == other.modified && fileKey.equals(other.fileKey)
+                    && Arrays.equals(sample, other.sample);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, modified, fileKey, Arrays.hashCode(sample));
+        }
+    }
+
+    private static final class Entry {
+        private final FileIdentity identity;
+        private final String root;
+
+        private Entry(FileIdentity identity, String root) {
+            this.identity = identity;
+            this.root = root;
+        }
+
+        // Two bytes per char of the key, file key and root, plus the fixed object overhead
+        private long bytes(String key) {
+            return ENTRY_OVERHEAD + 2L * (key.length() + identity.fileKey.length() + root.length());
+        }
+    }
+}
@@ -6,6 +6,13 @@ package edu.cmu.andrew.mpanindr;
 import edu.colorado.nodes.ObjectNode;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The SinglyLinkedList class represents a singly linked list where each node points to the next node in the list.
@@ -20,6 +27,10 @@ import java.util.ArrayList;
  * - Duplicating the last node of the list.
  * - Iterating through the list with methods like reset(), hasNext(), and next().
  * - Retrieving all nodes as an ArrayList of Strings for easier handling.
+ * - getObjectAt remembers the last node it reached, so index loops that move forwards cost O(1) per call.
+ * - Bulk toArray() and forEach() visit every node in one pass.
+ * - Iterable: iterator() returns an independent iterator, so several threads can read the list at once, and the
+ * spliterator splits off halves of the known node count as arrays for parallel stream() pipelines.
  * - Provides a string representation of the list with the toString() method.
  * <p>
  * Pre-condition:
@@ -31,7 +42,10 @@ import java.util.ArrayList;
  * <p>
  * Time Complexity:
  * - Most operations such as adding to the front or end, or resetting the iterator are O(1) as they only modify or access single nodes.
- * - Retrieving nodes by index and iteration methods have a time complexity of O(n), where n is the number of nodes in the list.
+ * - Retrieving a node by index is O(k), where k is the distance from the last retrieved index, or from the head when
+ * moving backwards; the last node is O(1). A loop over all indexes is therefore O(n) instead of O(n^2).
+ * - toArray(), forEach() and getAllNodes() are O(n).
+ * - Splitting a spliterator of n nodes copies its first half, so fully splitting a list copies n references in total.
  * - The toString() method also operates in O(n) time, as it needs to traverse all nodes to generate the string.
  * <p>
  * Example Usage:
@@ -46,12 +60,20 @@ import java.util.ArrayList;
  * Author: Manjunath K P
  * Andrew ID: mpanindr
  */
-public class SinglyLinkedList {
+public class SinglyLinkedList implements Iterable<Object> {
+
+    // A spliterator over fewer nodes than this is not split further
+    private static final int MIN_BATCH = 256;
+
     private ObjectNode head;
     private ObjectNode tail;
     private int countNodes;
     private ObjectNode iterator;
 
+    // The node last reached by getObjectAt and its index; cursorIndex is -1 when there is no cursor
+    private ObjectNode cursor;
+    private int cursorIndex;
+
     /**
      * Constructor for the SinglyLinkedList class.
      *
@@ -65,6 +87,8 @@ public class SinglyLinkedList {
         tail = null;
         countNodes = 0;
         iterator = null;
+        cursor = null;
+        cursorIndex = -1;
     }
 
     // Test Driver: Testing with BigInteger data and a list of lists
@@ -160,6 +184,9 @@ public class SinglyLinkedList {
 
         head = newNode; // Update the head to the new node
         countNodes++;
+        if (cursorIndex >= 0) {
+            cursorIndex++; // The cached node moved one position back
+        }
     }
 
     /**
@@ -197,21 +224,66 @@ public class SinglyLinkedList {
      * @throws IndexOutOfBoundsException If the provided index is less than 0 or greater than or equal to the total number of nodes in the list.
      * @pre-condition The list contains one or more nodes, and the index i is between 0 (inclusive) and countNodes (exclusive).
      * @post-condition The method returns the data stored at the specified index without modifying the list.
-     * @time-complexity O(n) - The method has linear time complexity since it may need to traverse through up to n nodes to reach the target index.
+     * @time-complexity O(k) - Where k is the distance from the previously retrieved index when i is not before it, or i
+     * otherwise; retrieving the last node is O(1). Sequential calls are amortized O(1).
      */
     public Object getObjectAt(int i) {
         if (i < 0 || i >= countNodes) {
             throw new IndexOutOfBoundsException("Index out of bounds");
         }
+        if (i == countNodes - 1) {
+            return tail.getData();
+        }
 
+        // Continue from the cached node when the target is not behind it; a singly linked list cannot step back
         ObjectNode current = head;
-        for (int index = 0; index < i; index++) {
+        int index = 0;
+        if (cursorIndex >= 0 && cursorIndex <= i) {
+            current = cursor;
+            index = cursorIndex;
+        }
+        for (; index < i; index++) {
             current = current.getLink();
         }
 
+        cursor = current;
+        cursorIndex = i;
         return current.getData();
     }
 
+    /**
+     * Copies the data of every node into an array, in list order.
+     *
+     * @return A new array of length countNodes().
+     * @pre-condition None.
+     * @post-condition The list is not modified.
+     * @time-complexity O(n) - One pass over the nodes.
+     */
+    public Object[] toArray() {
+        Object[] result = new Object[countNodes];
+        ObjectNode current = head;
+        for (int i = 0; i < result.length; i++) {
+            result[i] = current.getData();
+            current = current.getLink();
+        }
+        return result;
+    }
+
+    /**
+     * Passes the data of every node to an action, in list order.
+     *
+     * @param action The action to run for each element.
+     * @pre-condition action is not null and does not modify the list.
+     * @post-condition The action has seen every element; the iterator and cursor of the list are not moved.
+     * @time-complexity O(n) - One pass over the nodes.
+     */
+    @Override
+    public void forEach(Consumer<? super Object> action) {
+        for (ObjectNode current = head; current != null; current = current.getLink()) {
+            action.accept(current.getData());
+        }
+    }
+
     /**
      * Resets the iterator to the start of the list, pointing it to the head node.
      *
@@ -253,6 +325,46 @@ public class SinglyLinkedList {
         return data;
     }
 
+    /**
+     * Returns an iterator over the data of the nodes, independent of reset(), hasNext() and next().
+     *
+     * @return A new iterator positioned before the first node.
+     * @pre-condition The list is not modified while the iterator is in use.
+     * @post-condition The list and its built-in iterator are not modified; remove() is not supported.
+     * @time-complexity O(1) - Each call to next() is O(1) as well.
+     */
+    @Override
+    public Iterator<Object> iterator() {
+        return new NodeIterator(head);
+    }
+
+    /**
+     * Returns an ordered, sized spliterator over the nodes present now. Splitting copies the first half of the
+     * remaining nodes into an array, whose spliterator then splits without copying.
+     *
+     * @return A new spliterator over countNodes() elements.
+     * @pre-condition The nodes present now are not removed or changed while the spliterator is in use. Nodes added
+     * at the end later are not covered.
+     * @post-condition The list is not modified.
+     * @time-complexity O(1) - trySplit is O(k) for the k nodes it splits off.
+     */
+    @Override
+    public Spliterator<Object> spliterator() {
+        return new NodeSpliterator(head, countNodes);
+    }
+
+    /**
+     * Returns a sequential stream over the data of the nodes; call parallel() on it to spread the work over cores.
+     *
+     * @return A new stream.
+     * @pre-condition The same as for spliterator().
+     * @post-condition The list is not modified.
+     * @time-complexity O(1) - The stream is lazy.
+     */
+    public Stream<Object> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
     /**
      * Duplicates the last node in the list, adding it to the end of the list.
      *
@@ -276,9 +388,9 @@ public class SinglyLinkedList {
      * @time-complexity O(n) - The method traverses the entire list to collect all the nodes' data, where n is the number of nodes.
      */
     public ArrayList<String> getAllNodes() {
-        ArrayList<String> list = new ArrayList<>();
-        for (int i = 0; i < this.countNodes; i++) {
-            Object data = this.getObjectAt(i);
+        ArrayList<String> list = new ArrayList<>(this.countNodes);
+        for (ObjectNode current = head; current != null; current = current.getLink()) {
+            Object data = current.getData();
             if (data == null) {
                 list.add(null);  // Explicitly add null if data is null
             } else {
@@ -315,4 +427,82 @@ public class SinglyLinkedList {
         return result.toString();
     }
 
+    // Walks the links from a start node, without touching the list's own iterator
+    private static final class NodeIterator implements Iterator<Object> {
+        private ObjectNode current;
+
+        private NodeIterator(ObjectNode start) {
+            current = start;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current != null;
+        }
+
+        @Override
+        public Object next() {
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            Object data = current.getData();
+            current = current.getLink();
+            return data;
+        }
+    }
+
+    // Covers the next remaining nodes from current; splits off the first half as an array spliterator
+    private static final class NodeSpliterator implements Spliterator<Object> {
+        private ObjectNode current;
+        private int remaining;
+
+        private NodeSpliterator(ObjectNode start, int count) {
+            current = start;
+            remaining = count;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Object> action) {
+            if (remaining == 0) {
+                return false;
+            }
+            Object data = current.getData();
+            current = current.getLink();
+            remaining--;
+            action.accept(data);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Object> action) {
+            for (; remaining > 0; remaining--) {
+                action.accept(current.getData());
+                current = current.getLink();
+            }
+        }
+
+        @Override
+        public Spliterator<Object> trySplit() {
+            if (remaining < 2 * MIN_BATCH) {
+                return null;
+            }
+            Object[] batch = new Object[remaining / 2];
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = current.getData();
+                current = current.getLink();
+            }
+            remaining -= batch.length;
+            return Spliterators.spliterator(batch, characteristics());
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
 }
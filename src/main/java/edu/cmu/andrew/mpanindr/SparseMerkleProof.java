@@ -0,0 +1,147 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The SparseMerkleProof class is the compressed sibling path of one key of a SparseMerkleTree. With the key's
+ * value it proves membership; with no value it proves that the key is absent.
+ * <p>
+ * A path always has 256 siblings, but most of them are empty subtrees whose digests are fixed. A 256-bit bitmap
+ * marks the siblings that are stored (bit d - 1 for the sibling at depth d); all others are the empty-subtree
+ * digest of their depth.
+ * <p>
+ * Key Features:
+ * - A proof in a tree of k keys stores about log2(k) siblings instead of 256.
+ * - Bound to its key: the direction at every level follows from the key's bits.
+ * <p>
+ * Pre-condition:
+ * - Proofs are produced by SparseMerkleTree.proof; instances are immutable.
+ * <p>
+ * Post-condition:
+ * - verify returns true exactly when the key, value and siblings reproduce the root.
+ * <p>
+ * Time Complexity:
+ * - Verification is 256 parent hashes plus one leaf hash.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class SparseMerkleProof {
+
+    private final HashAlgorithm algorithm;
+    private final Digest key;
+    private final long[] bitmap;
+    private final byte[] siblings;
+
+    /**
+     * Creates a proof.
+     *
+     * @param algorithm The hash algorithm of the tree.
+     * @param key       The proven key.
+     * @param bitmap    Four words marking the stored siblings. The array is owned by the proof.
+     * @param siblings  The packed stored siblings, from the leaf upwards. The array is owned by the proof.
+     * @throws IllegalArgumentException If the number of siblings does not match the bitmap.
+     * @pre-condition No argument is null.
+     * @post-condition The proof is ready to be verified.
+     * @time-complexity O(1).
+     */
+    public SparseMerkleProof(HashAlgorithm algorithm, Digest key, long[] bitmap, byte[] siblings) {
+        int stored = 0;
+        for (long word : bitmap) {
+            stored += Long.bitCount(word);
+        }
+        if (bitmap.length != SparseMerkleTree.DEPTH / 64 || siblings.length != stored * Digest.LENGTH) {
+            throw new IllegalArgumentException("Sibling path does not match its bitmap");
+        }
+        this.algorithm = algorithm;
+        this.key = key;
+        this.bitmap = bitmap;
+        this.siblings = siblings;
+    }
+
+    /**
+     * Returns the hash algorithm of the tree the proof was produced from.
+     *
+     * @return The algorithm.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public HashAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns the proven key.
+     *
+     * @return The key.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public Digest key() {
+        return key;
+    }
+
+    /**
+     * Returns the number of siblings that are stored rather than implied.
+     *
+     * @return The stored sibling count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int storedSiblings() {
+        return siblings.length / Digest.LENGTH;
+    }
+
+    /**
+     * Verifies that a key holds a value, or that it is absent, in a tree with the given root.
+     *
+     * @param root  The expected root digest.
+     * @param key   The key.
+     * @param value The key's value, or null to verify that the key is absent.
+     * @param proof The proof.
+     * @return true if the proof is valid for this root, key and value.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition root, key and proof are not null.
+     * @post-condition None.
+     * @time-complexity O(256).
+     */
+    public static boolean verify(Digest root, Digest key, byte[] value, SparseMerkleProof proof)
+            throws NoSuchAlgorithmException {
+        if (!key.equals(proof.key)) {
+            return false;
+        }
+        TreeHasher hasher = new TreeHasher(TreeMode.BINARY, proof.algorithm);
+        byte[] defaults = SparseMerkleTree.defaults(proof.algorithm);
+        byte[] keyBits = key.toBytes();
+        byte[] current = new byte[Digest.LENGTH];
+        if (value != null) {
+            hasher.leaf(value, 0, value.length, current, 0);
+        }
+        int next = 0;
+        for (int depth = SparseMerkleTree.DEPTH; depth > 0; depth--) {
+            int bit = depth - 1;
+            byte[] sibling = defaults;
+            int siblingOff = depth * Digest.LENGTH;
+            if ((proof.bitmap[bit >>> 6] & (1L << (bit & 63))) != 0) {
+                sibling = proof.siblings;
+                siblingOff = next++ * Digest.LENGTH;
+            }
+            if ((keyBits[bit >>> 3] & (0x80 >>> (bit & 7))) == 0) {
+                hasher.parent(current, 0, sibling, siblingOff, current, 0);
+            } else {
+                hasher.parent(sibling, siblingOff, current, 0, current, 0);
+            }
+        }
+        hasher.flushMetrics();
+        return root.matches(current, 0);
+    }
+}
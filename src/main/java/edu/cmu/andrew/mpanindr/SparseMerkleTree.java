@@ -0,0 +1,475 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The SparseMerkleTree class is a Merkle tree over the whole 256-bit key space: every possible key has a fixed
+ * leaf, so a key's position never shifts and its absence can be proven as well as its presence.
+ * <p>
+ * The leaf of a key is reached from the root by following the key's bits, most significant first (0 = left,
+ * 1 = right), through 256 levels. An empty leaf is 32 zero bytes; a present leaf is the hash of its value.
+ * Parents hash the 64-byte concatenation of their children, as in TreeMode.BINARY. An empty subtree of any height
+ * therefore has a fixed digest, precomputed once per algorithm, and is not stored.
+ * <p>
+ * Storage is path-compressed: a subtree that holds a single key is stored as one shortcut leaf, placed where its key
+ * diverges from every other key, and an internal node is stored only where both of its sides hold keys. A tree of k
+ * keys therefore stores k leaves and k - 1 branches, a few hundred bytes per key, instead of the 257 nodes of each
+ * key's full path. The digests of the skipped single-child nodes are folded with the empty-subtree digests whenever a
+ * stored node's digest is needed above its own depth, so the root and the proofs are those of the full tree.
+ * <p>
+ * Key Features:
+ * - put, remove and proof touch one path: 256 parent hashes at most.
+ * - putAll applies many changes and then rehashes each affected node once, bottom-up, so shared upper nodes
+ * are not hashed once per key.
+ * - Proofs are compressed: siblings that are empty subtrees are marked in a bitmap instead of being stored.
+ * - The same proof type proves membership (with the value) and non-membership (with no value).
+ * <p>
+ * Pre-condition:
+ * - An instance is not thread-safe.
+ * <p>
+ * Post-condition:
+ * - root() depends only on the set of (key, value) pairs, not on the order of the updates.
+ * <p>
+ * Time Complexity:
+ * - put, remove and proof are O(256); get is O(b) in the b branches on the key's path, O(log k) for hashed keys;
+ * putAll is O(k * b) lookups and one hash per distinct affected node or skipped level.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public class SparseMerkleTree {
+
+    /**
+     * Number of bits in a key, and number of levels below the root.
+     */
+    public static final int DEPTH = 256;
+
+    private static final Map<HashAlgorithm, byte[]> DEFAULTS = new EnumMap<>(HashAlgorithm.class);
+
+    private final TreeHasher hasher;
+    private final byte[] defaults;
+    private final byte[] scratch = new byte[2 * Digest.LENGTH];
+    private Node top;
+    private int size;
+
+    /**
+     * Creates an empty tree hashed with SHA-256.
+     *
+     * @throws NoSuchAlgorithmException If SHA-256 is not available.
+     * @pre-condition None.
+     * @post-condition The tree holds no key; its root is the empty-tree digest.
+     * @time-complexity O(1), or O(256) the first time the algorithm is used.
+     */
+    public SparseMerkleTree() throws NoSuchAlgorithmException {
+        this(HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Creates an empty tree hashed with the given algorithm.
+     *
+     * @param algorithm The hash algorithm.
+     * @throws NoSuchAlgorithmException If the algorithm is not available.
+     * @pre-condition algorithm is not null.
+     * @post-condition The tree holds no key; its root is the empty-tree digest.
+     * @time-complexity O(1), or O(256) the first time the algorithm is used.
+     */
+    public SparseMerkleTree(HashAlgorithm algorithm) throws NoSuchAlgorithmException {
+        this.hasher = new TreeHasher(TreeMode.BINARY, algorithm);
+        this.defaults = defaults(algorithm);
+    }
+
+    /**
+     * Returns the key of a piece of content: the hash of its UTF-8 bytes.
+     *
+     * @param content   The content.
+     * @param algorithm The hash algorithm.
+     * @return The 256-bit key.
+     * @throws NoSuchAlgorithmException If the algorithm is not available.
+     * @pre-condition content is not null.
+     * @post-condition None.
+     * @time-complexity O(m) in the content length.
+     */
+    public static Digest keyOf(String content, HashAlgorithm algorithm) throws NoSuchAlgorithmException {
+        byte[] out = new byte[Digest.LENGTH];
+        new TreeHasher(TreeMode.BINARY, algorithm).leaf(content, out, 0);
+        return Digest.read(out, 0);
+    }
+
+    /**
+     * Returns the digests of empty subtrees for an algorithm: entry d is the digest of an empty subtree whose root
+     * is at depth d, so entry 256 is the empty leaf (all zeros) and entry 0 is the root of the empty tree.
+     *
+     * @param algorithm The hash algorithm.
+     * @return The packed digests, 257 of them. The array is shared and must not be modified.
+     * @throws NoSuchAlgorithmException If the algorithm is not available.
+     * @pre-condition algorithm is not null.
+     * @post-condition The digests are cached for later calls.
+     * @time-complexity O(256) the first time, O(1) afterwards.
+     */
+    static byte[] defaults(HashAlgorithm algorithm) throws NoSuchAlgorithmException {
+        synchronized (DEFAULTS) {
+            byte[] defaults = DEFAULTS.get(algorithm);
+            if (defaults == null) {
+                TreeHasher hasher = new TreeHasher(TreeMode.BINARY, algorithm);
+                defaults = new byte[(DEPTH + 1) * Digest.LENGTH];
+                for (int d = DEPTH - 1; d >= 0; d--) {
+                    int child = (d + 1) * Digest.LENGTH;
+                    hasher.parent(defaults, child, defaults, child, defaults, d * Digest.LENGTH);
+                }
+                DEFAULTS.put(algorithm, defaults);
+            }
+            return defaults;
+        }
+    }
+
+    /**
+     * Returns the hash algorithm.
+     *
+     * @return The algorithm.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public HashAlgorithm algorithm() {
+        return hasher.algorithm();
+    }
+
+    /**
+     * Returns the number of keys present.
+     *
+     * @return The key count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the root digest.
+     *
+     * @return The root; the empty-tree digest if no key is present.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public Digest root() {
+        return top == null ? Digest.read(defaults, 0) : top.lifted;
+    }
+
+    /**
+     * Returns the leaf digest of a key.
+     *
+     * @param key The key.
+     * @return The hash of the key's value, or null if the key is absent.
+     * @pre-condition key is not null.
+     * @post-condition None.
+     * @time-complexity O(b) in the b branches on the key's path.
+     */
+    public Digest get(Digest key) {
+        Node leaf = closestLeaf(key.toBytes());
+        return leaf != null && Arrays.equals(leaf.key, key.toBytes()) ? leaf.digest : null;
+    }
+
+    /**
+     * Stores a line under its own content hash.
+     *
+     * @param line The line, hashed as UTF-8 both for its key and for its leaf.
+     * @return The key of the line.
+     * @pre-condition line is not null.
+     * @post-condition The line's key is present.
+     * @time-complexity O(256).
+     */
+    public Digest add(String line) {
+        byte[] value = line.getBytes(StandardCharsets.UTF_8);
+        hasher.leaf(value, 0, value.length, scratch, 0);
+        Digest key = Digest.read(scratch, 0);
+        put(key, value);
+        return key;
+    }
+
+    /**
+     * Stores a value under a key, replacing any earlier value.
+     *
+     * @param key   The key.
+     * @param value The value; its hash becomes the key's leaf.
+     * @pre-condition Neither argument is null.
+     * @post-condition The key is present and the path to the root is rehashed.
+     * @time-complexity O(256).
+     */
+    public void put(Digest key, byte[] value) {
+        hasher.leaf(value, 0, value.length, scratch, 0);
+        update(key.toBytes(), Digest.read(scratch, 0));
+        refresh();
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key The key.
+     * @return true if the key was present.
+     * @pre-condition key is not null.
+     * @post-condition The key is absent and the path to the root is rehashed.
+     * @time-complexity O(256).
+     */
+    public boolean remove(Digest key) {
+        boolean present = update(key.toBytes(), null);
+        refresh();
+        return present;
+    }
+
+    /**
+     * Applies many changes and rehashes every affected node once.
+     *
+     * @param changes The new value of each key, or null to remove the key.
+     * @pre-condition changes is not null and holds no null key.
+     * @post-condition The tree equals the one obtained by applying the changes one by one.
+     * @time-complexity O(k * b) lookups and one hash per distinct node or skipped level on the k paths.
+     */
+    public void putAll(Map<Digest, byte[]> changes) {
+        for (Map.Entry<Digest, byte[]> change : changes.entrySet()) {
+            byte[] value = change.getValue();
+            Digest digest = null;
+            if (value != null) {
+                hasher.leaf(value, 0, value.length, scratch, 0);
+                digest = Digest.read(scratch, 0);
+            }
+            update(change.getKey().toBytes(), digest);
+        }
+        refresh();
+    }
+
+    /**
+     * Produces the proof for a key, which proves its value if it is present and its absence otherwise.
+     *
+     * @param key The key.
+     * @return The compressed sibling path.
+     * @pre-condition key is not null.
+     * @post-condition None.
+     * @time-complexity O(256).
+     */
+    public SparseMerkleProof proof(Digest key) {
+        byte[] path = key.toBytes();
+        Digest[] byDepth = new Digest[DEPTH + 1];
+        Node node = top;
+        while (node != null) {
+            int diverge = firstDifference(path, node.key, node.depth);
+            if (diverge < node.depth) {
+                // The key leaves this node's path here: the node, folded up to depth diverge + 1, is the only sibling
+                // that is not an empty subtree from here down
+                byDepth[diverge + 1] = fold(node.digest, node.depth, diverge + 1, node.key);
+                break;
+            }
+            if (node.isLeaf()) {
+                break;
+            }
+            int side = bit(path, node.depth);
+            byDepth[node.depth + 1] = node.child(1 - side).lifted;
+            node = node.child(side);
+        }
+
+        long[] bitmap = new long[DEPTH / 64];
+        byte[] siblings = new byte[DEPTH * Digest.LENGTH];
+        int count = 0;
+        for (int depth = DEPTH; depth > 0; depth--) {
+            if (byDepth[depth] != null) {
+                // Bit depth - 1 marks a stored sibling; siblings are packed from the leaf upwards
+                bitmap[(depth - 1) >>> 6] |= 1L << ((depth - 1) & 63);
+                byDepth[depth].writeTo(siblings, count++ * Digest.LENGTH);
+            }
+        }
+        return new SparseMerkleProof(hasher.algorithm(), key, bitmap, Arrays.copyOf(siblings, count * Digest.LENGTH));
+    }
+
+    /**
+     * Returns the number of stored nodes, leaves and branches together.
+     *
+     * @return 2k - 1 for k keys, or 0 for an empty tree.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(k).
+     */
+    int storedNodes() {
+        return count(top);
+    }
+
+    private static int count(Node node) {
+        return node == null ? 0 : 1 + (node.isLeaf() ? 0 : count(node.left) + count(node.right));
+    }
+
+    // Sets or clears a leaf without rehashing; returns whether the leaf was present
+    private boolean update(byte[] key, Digest leaf) {
+        Node closest = closestLeaf(key);
+        boolean present = closest != null && Arrays.equals(closest.key, key);
+        if (leaf == null) {
+            if (present) {
+                top = delete(top, key);
+                size--;
+            }
+            return present;
+        }
+        if (closest == null) {
+            top = new Node(key, leaf);
+        } else {
+            top = insert(top, key, leaf, firstDifference(key, closest.key, DEPTH));
+        }
+        if (!present) {
+            size++;
+        }
+        return present;
+    }
+
+    // Follows the key's bits through the branches; the leaf reached shares the longest prefix with the key
+    private Node closestLeaf(byte[] key) {
+        Node node = top;
+        while (node != null && !node.isLeaf()) {
+            node = node.child(bit(key, node.depth));
+        }
+        return node;
+    }
+
+    // Places a leaf below a subtree; diverge is the first bit in which the key differs from every stored key
+    private Node insert(Node node, byte[] key, Digest leaf, int diverge) {
+        if (node.depth > diverge) {
+            // The new key splits off above this node: a branch at the diverging bit takes both
+            Node fresh = new Node(key, leaf);
+            return bit(key, diverge) == 0 ? new Node(diverge, key, fresh, node) : new Node(diverge, key, node, fresh);
+        }
+        node.dirty = true;
+        if (node.isLeaf()) {
+            node.digest = leaf;
+        } else if (bit(key, node.depth) == 0) {
+            node.left = insert(node.left, key, leaf, diverge);
+        } else {
+            node.right = insert(node.right, key, leaf, diverge);
+        }
+        return node;
+    }
+
+    // Removes a present leaf below a subtree; a branch left with one side collapses into that side
+    private Node delete(Node node, byte[] key) {
+        if (node.isLeaf()) {
+            return null;
+        }
+        int side = bit(key, node.depth);
+        Node child = delete(node.child(side), key);
+        if (child == null) {
+            return node.child(1 - side);
+        }
+        if (side == 0) {
+            node.left = child;
+        } else {
+            node.right = child;
+        }
+        node.dirty = true;
+        return node;
+    }
+
+    private void refresh() {
+        if (top != null) {
+            refresh(top, 0);
+        }
+    }
+
+    // Rehashes the changed nodes below a subtree, then folds its digest up to the given depth
+    private Digest refresh(Node node, int depth) {
+        if (node.dirty) {
+            if (!node.isLeaf()) {
+                Digest l = refresh(node.left, node.depth + 1);
+                Digest r = refresh(node.right, node.depth + 1);
+                l.writeTo(scratch, 0);
+                r.writeTo(scratch, Digest.LENGTH);
+                hasher.parent(scratch, 0, scratch, Digest.LENGTH, scratch, 0);
+                node.digest = Digest.read(scratch, 0);
+            }
+            node.dirty = false;
+            node.liftedDepth = -1;
+        }
+        if (node.liftedDepth != depth) {
+            node.lifted = fold(node.digest, node.depth, depth, node.key);
+            node.liftedDepth = depth;
+        }
+        return node.lifted;
+    }
+
+    // Hashes a node's digest up from its own depth to a smaller one, with an empty subtree on every other side
+    private Digest fold(Digest digest, int from, int to, byte[] path) {
+        if (from == to) {
+            return digest;
+        }
+        digest.writeTo(scratch, 0);
+        for (int depth = from; depth > to; depth--) {
+            int empty = depth * Digest.LENGTH;
+            if (bit(path, depth - 1) == 0) {
+                System.arraycopy(defaults, empty, scratch, Digest.LENGTH, Digest.LENGTH);
+            } else {
+                System.arraycopy(scratch, 0, scratch, Digest.LENGTH, Digest.LENGTH);
+                System.arraycopy(defaults, empty, scratch, 0, Digest.LENGTH);
+            }
+            hasher.parent(scratch, 0, scratch, Digest.LENGTH, scratch, 0);
+        }
+        return Digest.read(scratch, 0);
+    }
+
+    private static int bit(byte[] key, int index) {
+        return (key[index >>> 3] >>> (7 - (index & 7))) & 1;
+    }
+
+    // Returns the first of the first limit bits in which two keys differ, or limit if there is none
+    private static int firstDifference(byte[] a, byte[] b, int limit) {
+        for (int i = 0; i < Digest.LENGTH && i * 8 < limit; i++) {
+            int x = (a[i] ^ b[i]) & 0xFF;
+            if (x != 0) {
+                return Math.min(limit, i * 8 + Integer.numberOfLeadingZeros(x) - 24);
+            }
+        }
+        return limit;
+    }
+
+    // A stored subtree: a shortcut leaf holding its only key at depth 256, or a branch at the depth where the keys
+    // below it split into two non-empty sides. key shares the first depth bits with every key below the node.
+    private static final class Node {
+        private final int depth;
+        private final byte[] key;
+        private Node left;
+        private Node right;
+        // The digest of the subtree at its own depth: the value hash of a leaf, the parent hash of a branch
+        private Digest digest;
+        // The digest folded up to liftedDepth, the depth just below the parent branch (0 for the top node)
+        private Digest lifted;
+        private int liftedDepth = -1;
+        private boolean dirty = true;
+
+        private Node(byte[] key, Digest digest) {
+            this.depth = DEPTH;
+            this.key = key;
+            this.digest = digest;
+        }
+
+        private Node(int depth, byte[] key, Node left, Node right) {
+            this.depth = depth;
+            this.key = key;
+            this.left = left;
+            this.right = right;
+        }
+
+        private boolean isLeaf() {
+            return depth == DEPTH;
+        }
+
+        private Node child(int side) {
+            return side == 0 ? left : right;
+        }
+    }
+}
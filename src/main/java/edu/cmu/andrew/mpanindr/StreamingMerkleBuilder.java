@@ -0,0 +1,341 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The StreamingMerkleBuilder class computes a Merkle root from leaves that arrive one at a time,
+ * without ever holding the whole leaf level in memory.
+ * <p>
+ * It keeps a frontier: for every bit k set in the leaf count, the root of the complete subtree of 2^k leaves
+ * that has not been paired yet. Adding a leaf works like incrementing a binary counter; each carry hashes two
+ * subtree roots into one. The root is obtained by folding the frontier from the lowest level upwards and
+ * pairing the last node of every odd-sized level with itself, which is the duplicate-last-node rule of
+ * MerkleTree.computeMerkleRoot.
+ * <p>
+ * Key Features:
+ * - Accepts lines, raw byte ranges or ready-made leaf digests.
+ * - Streams a file or InputStream line by line, so files far larger than the heap can be rooted.
+ * - root() does not disturb the frontier; more leaves can be added after asking for a root.
+ * - The frontier can be saved as a MerkleFrontier and restored later, so appending can resume in another process.
+ * <p>
+ * Pre-condition:
+ * - At least one leaf must be added before asking for the root.
+ * - An instance is not thread-safe.
+ * <p>
+ * Post-condition:
+ * - The root equals MerkleTree.computeMerkleRoot over the same leaves and TreeMode.
+ * <p>
+ * Time Complexity:
+ * - Adding a leaf costs one leaf hash plus amortized O(1) parent hashes.
+ * - root() costs O(log n) parent hashes.
+ * - Memory is O(log n): at most 64 pending digests.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public class StreamingMerkleBuilder {
+
+    // One slot per level; slot k is occupied exactly when bit k of leafCount is set
+    private static final int MAX_LEVELS = 64;
+
+    private final TreeHasher hasher;
+    private final byte[] frontier = new byte[MAX_LEVELS * Digest.LENGTH];
+    private final byte[] scratch = new byte[2 * Digest.LENGTH];
+    private long leafCount;
+
+    /**
+     * Creates an empty builder.
+     *
+     * @param mode The tree mode.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition mode is not null.
+     * @post-condition The builder holds no leaves.
+     * @time-complexity O(1).
+     */
+    public StreamingMerkleBuilder(TreeMode mode) throws NoSuchAlgorithmException {
+        this(mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Creates an empty builder that hashes with the given algorithm.
+     *
+     * @param mode      The tree mode.
+     * @param algorithm The hash algorithm.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition Neither argument is null.
+     * @post-condition The builder holds no leaves.
+     * @time-complexity O(1).
+     */
+    public StreamingMerkleBuilder(TreeMode mode, HashAlgorithm algorithm) throws NoSuchAlgorithmException {
+        this.hasher = new TreeHasher(mode, algorithm);
+    }
+
+    /**
+     * Creates a builder that resumes from a saved frontier.
+     *
+     * @param saved The snapshot returned by {@link #frontier()}.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition saved is not null.
+     * @post-condition The builder holds the leaves covered by the snapshot.
+     * @time-complexity O(log n).
+     */
+    public StreamingMerkleBuilder(MerkleFrontier saved) throws NoSuchAlgorithmException {
+        this(saved.mode(), saved.algorithm());
+        int i = 0;
+        for (int level = 0; level < MAX_LEVELS; level++) {
+            if ((saved.leafCount() & (1L << level)) != 0) {
+                saved.digest(i++).writeTo(frontier, level * Digest.LENGTH);
+            }
+        }
+        leafCount = saved.leafCount();
+    }
+
+    /**
+     * Computes the Merkle root of every line of a file while holding only the frontier in memory.
+     *
+     * @param fileName The file to read.
+     * @param mode     The tree mode.
+     * @return The root formatted by {@link TreeMode#formatRoot}.
+     * @throws IOException              If the file cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the file has no lines.
+     * @pre-condition The file exists and holds UTF-8 text.
+     * @post-condition The file is closed.
+     * @time-complexity O(n) where n is the number of lines; O(log n) memory besides the current line.
+     */
+    public static String computeMerkleRoot(String fileName, TreeMode mode) throws IOException, NoSuchAlgorithmException {
+        try (InputStream in = new FileInputStream(fileName)) {
+            return computeMerkleRoot(in, mode);
+        }
+    }
+
+    /**
+     * Computes the Merkle root of every line of a stream while holding only the frontier in memory.
+     * Lines are split exactly as BufferedReader.readLine splits them.
+     *
+     * @param in   The stream of UTF-8 text. It is read to the end but not closed.
+     * @param mode The tree mode.
+     * @return The root formatted by {@link TreeMode#formatRoot}.
+     * @throws IOException              If the stream cannot be read.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If the stream has no lines.
+     * @pre-condition in is not null.
+     * @post-condition The stream is exhausted.
+     * @time-complexity O(n) where n is the number of lines.
+     */
+    public static String computeMerkleRoot(InputStream in, TreeMode mode) throws IOException, NoSuchAlgorithmException {
+        StreamingMerkleBuilder builder = new StreamingMerkleBuilder(mode);
+        BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = br.readLine()) != null) {
+            builder.addLine(line);
+        }
+        return builder.formattedRoot();
+    }
+
+    /**
+     * Adds a line of text as the next leaf.
+     *
+     * @param line The line, hashed as UTF-8.
+     * @pre-condition line is not null.
+     * @post-condition The leaf count grows by one.
+     * @time-complexity O(m) for the leaf hash plus amortized O(1) parent hashes.
+     */
+    public void addLine(String line) {
+        hasher.leaf(line, scratch, 0);
+        addLeafDigest(scratch, 0);
+    }
+
+    /**
+     * Adds a range of raw bytes as the next leaf.
+     *
+     * @param data The leaf content.
+     * @param off  The first content byte.
+     * @param len  The number of content bytes.
+     * @pre-condition The range is valid.
+     * @post-condition The leaf count grows by one.
+     * @time-complexity O(len) for the leaf hash plus amortized O(1) parent hashes.
+     */
+    public void addLeaf(byte[] data, int off, int len) {
+        hasher.leaf(data, off, len, scratch, 0);
+        addLeafDigest(scratch, 0);
+    }
+
+    /**
+     * Adds an already computed leaf digest as the next leaf.
+     *
+     * @param digest The array holding the leaf digest.
+     * @param off    The position of the digest.
+     * @pre-condition The range [off, off + 32) is valid.
+     * @post-condition The leaf count grows by one; the complete subtrees it finishes are hashed into the frontier.
+     * @time-complexity Amortized O(1) parent hashes, O(log n) in the worst case.
+     */
+    public void addLeafDigest(byte[] digest, int off) {
+        byte[] carry = scratch;
+        if (digest != scratch || off != 0) {
+            System.arraycopy(digest, off, scratch, 0, Digest.LENGTH);
+        }
+
+        // Binary-counter increment: every set low bit is a complete subtree that pairs with the carry
+        int level = 0;
+        while ((leafCount & (1L << level)) != 0) {
+            hasher.parent(frontier, level * Digest.LENGTH, carry, 0, carry, 0);
+            level++;
+        }
+        System.arraycopy(carry, 0, frontier, level * Digest.LENGTH, Digest.LENGTH);
+        leafCount++;
+    }
+
+    /**
+     * Returns the number of leaves added so far.
+     *
+     * @return The leaf count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public long leafCount() {
+        return leafCount;
+    }
+
+    /**
+     * Returns the number of pending subtree roots held in the frontier.
+     *
+     * @return The number of set bits of the leaf count, at most 64.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int frontierSize() {
+        return Long.bitCount(leafCount);
+    }
+
+    /**
+     * Takes a snapshot of the frontier.
+     *
+     * @return The leaf count and the pending subtree roots.
+     * @pre-condition None.
+     * @post-condition The builder is unchanged.
+     * @time-complexity O(log n).
+     */
+    public MerkleFrontier frontier() {
+        byte[] digests = new byte[frontierSize() * Digest.LENGTH];
+        MerkleMetrics.global().recordFrontier(digests.length);
+        int i = 0;
+        for (int level = 0; level < MAX_LEVELS; level++) {
+            if ((leafCount & (1L << level)) != 0) {
+                System.arraycopy(frontier, level * Digest.LENGTH, digests, i++ * Digest.LENGTH, Digest.LENGTH);
+            }
+        }
+        return new MerkleFrontier(mode(), hasher.algorithm(), leafCount, digests);
+    }
+
+    /**
+     * Returns the tree mode of this builder.
+     *
+     * @return The tree mode.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public TreeMode mode() {
+        return hasher.mode();
+    }
+
+    /**
+     * Returns the hash algorithm of this builder.
+     *
+     * @return The algorithm.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public HashAlgorithm algorithm() {
+        return hasher.algorithm();
+    }
+
+    /**
+     * Computes the Merkle root of the leaves added so far.
+     *
+     * @return The root digest.
+     * @throws IllegalArgumentException If no leaf has been added.
+     * @pre-condition At least one leaf has been added.
+     * @post-condition The frontier is unchanged, so more leaves may be added afterwards; the hashing work, the
+     * frontier size and the time of each level of the fold are recorded in MerkleMetrics.
+     * @time-complexity O(log n) parent hashes.
+     */
+    public Digest root() {
+        if (leafCount == 0) {
+            throw new IllegalArgumentException("List is empty. Cannot compute Merkle root.");
+        }
+        Digest root = rightEdgeRoot();
+        MerkleMetrics.global().recordFrontier((long) frontierSize() * Digest.LENGTH);
+        hasher.flushMetrics();
+        return root;
+    }
+
+    // Folds the pending subtree roots into the root, as root() describes. The carries of addLeafDigest interleave
+    // the levels leaf by leaf, so only the fold is timed per level; timing every carry would double its cost.
+    private Digest rightEdgeRoot() {
+        MerkleMetrics metrics = MerkleMetrics.global();
+        long start = System.nanoTime();
+        byte[] carry = new byte[Digest.LENGTH];
+        if (leafCount == 1) {
+            // A lone leaf is paired with itself, as computeMerkleRoot does after duplicating it
+            hasher.parent(frontier, 0, frontier, 0, carry, 0);
+            metrics.recordLevel(System.nanoTime() - start, Digest.LENGTH);
+            return Digest.read(carry, 0);
+        }
+
+        // Walk the right edge: at level k the last nodes are the pending subtree (if bit k is set)
+        // followed by the partial node carried up from below (if any)
+        boolean hasCarry = false;
+        long size = leafCount;
+        int level = 0;
+        while (size > 1) {
+            int pendingOff = level * Digest.LENGTH;
+            boolean pending = (leafCount & (1L << level)) != 0;
+            if (pending && hasCarry) {
+                hasher.parent(frontier, pendingOff, carry, 0, carry, 0);
+            } else if (pending) {
+                hasher.parent(frontier, pendingOff, frontier, pendingOff, carry, 0);
+                hasCarry = true;
+            } else if (hasCarry) {
+                hasher.parent(carry, 0, carry, 0, carry, 0);
+            }
+            if (hasCarry) {
+                long end = System.nanoTime();
+                metrics.recordLevel(end - start, Digest.LENGTH);
+                start = end;
+            }
+            size = (size + 1) / 2;
+            level++;
+        }
+        return hasCarry ? Digest.read(carry, 0) : Digest.read(frontier, level * Digest.LENGTH);
+    }
+
+    /**
+     * Computes the Merkle root and formats it for output.
+     *
+     * @return The root formatted by {@link TreeMode#formatRoot}.
+     * @throws IllegalArgumentException If no leaf has been added.
+     * @pre-condition At least one leaf has been added.
+     * @post-condition The frontier is unchanged.
+     * @time-complexity O(log n) parent hashes.
+     */
+    public String formattedRoot() {
+        return hasher.formatRoot(root());
+    }
+}
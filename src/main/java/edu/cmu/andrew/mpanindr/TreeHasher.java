@@ -0,0 +1,265 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+import edu.utils.HashFunction;
+import edu.utils.HashUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The TreeHasher class computes leaf and parent digests for one TreeMode and one HashAlgorithm.
+ * Digests are read from and written to packed byte arrays (32 bytes per node),
+ * so building a level does not create any String or per-node object.
+ * <p>
+ * Key Features:
+ * - Owns one HashFunction and a small scratch buffer that are reused for every node.
+ * - Leaf digests are the hash of the UTF-8 bytes of a line in every mode.
+ * - The algorithm defaults to SHA-256; any HashAlgorithm may be chosen, and formatRoot records it in the root.
+ * - Parent digests follow the TreeMode: hex concatenation for LEGACY_HEX, raw concatenation for BINARY.
+ * - Hashes, leaves and leaf bytes are counted locally and added to MerkleMetrics every 1024 hashes and on
+ * flushMetrics(), so the hot path touches no shared counter. A leaf abandoned with discardLeaf() is not counted.
+ * <p>
+ * Pre-condition:
+ * - A TreeHasher is not thread-safe; each thread building part of a tree needs its own instance.
+ * <p>
+ * Post-condition:
+ * - For LEGACY_HEX with SHA-256, parent digests equal HashUtil.hash(leftHex + rightHex).
+ * <p>
+ * Time Complexity:
+ * - A parent costs one digest over 128 bytes (LEGACY_HEX) or 64 bytes (BINARY); a leaf is O(m) in the line length.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class TreeHasher {
+
+    private final TreeMode mode;
+    private final HashFunction digest;
+    private final byte[] hexScratch = new byte[4 * Digest.LENGTH];
+
+    // Counted here and flushed to MerkleMetrics in batches
+    private static final int METRICS_BATCH = 1024;
+    private int pendingHashes;
+    private long pendingLeaves;
+    private long pendingBytes;
+    // Bytes of the leaf being fed through updateLeaf; counted only once the leaf is finished
+    private long openLeafBytes;
+
+    /**
+     * Creates a SHA-256 hasher for the given mode.
+     *
+     * @param mode The tree mode whose parent rule is applied.
+     * @throws NoSuchAlgorithmException If SHA-256 is not available.
+     * @pre-condition mode is not null.
+     * @post-condition The hasher is ready to hash leaves and parents.
+     * @time-complexity O(1).
+     */
+    public TreeHasher(TreeMode mode) throws NoSuchAlgorithmException {
+        this(mode, HashAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Creates a hasher for the given mode and hash algorithm.
+     *
+     * @param mode      The tree mode whose parent rule is applied.
+     * @param algorithm The hash function applied to leaves and parents.
+     * @throws NoSuchAlgorithmException If the algorithm is not available.
+     * @pre-condition Neither argument is null.
+     * @post-condition The hasher is ready to hash leaves and parents.
+     * @time-complexity O(1).
+     */
+    public TreeHasher(TreeMode mode, HashAlgorithm algorithm) throws NoSuchAlgorithmException {
+        this.mode = mode;
+        this.digest = algorithm.newFunction();
+    }
+
+    /**
+     * Returns the mode this hasher applies.
+     *
+     * @return The tree mode.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public TreeMode mode() {
+        return mode;
+    }
+
+    /**
+     * Returns the hash algorithm this hasher applies.
+     *
+     * @return The algorithm.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public HashAlgorithm algorithm() {
+        return digest.algorithm();
+    }
+
+    /**
+     * Formats a root digest of a tree built by this hasher, recording the algorithm unless it is the default.
+     *
+     * @param root The root digest.
+     * @return The root formatted by {@link TreeMode#formatRoot(Digest, HashAlgorithm)}.
+     * @pre-condition root is not null.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public String formatRoot(Digest root) {
+        return mode.formatRoot(root, digest.algorithm());
+    }
+
+    /**
+     * Hashes a line of text into a leaf digest.
+     *
+     * @param line   The line, hashed as UTF-8.
+     * @param out    The array receiving the digest.
+     * @param outOff The position of the digest in out.
+     * @pre-condition line is not null and [outOff, outOff + 32) of out is valid.
+     * @post-condition out holds the hash of the line's UTF-8 bytes.
+     * @time-complexity O(m) - Where m is the length of the line.
+     */
+    public void leaf(String line, byte[] out, int outOff) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        leaf(bytes, 0, bytes.length, out, outOff);
+    }
+
+    /**
+     * Hashes a range of raw bytes into a leaf digest.
+     *
+     * @param data   The leaf content.
+     * @param off    The first content byte.
+     * @param len    The number of content bytes.
+     * @param out    The array receiving the digest.
+     * @param outOff The position of the digest in out.
+     * @pre-condition The ranges of data and out are valid.
+     * @post-condition out holds the hash of data[off .. off + len).
+     * @time-complexity O(len).
+     */
+    public void leaf(byte[] data, int off, int len, byte[] out, int outOff) {
+        digest.update(data, off, len);
+        pendingLeaves++;
+        pendingBytes += len;
+        finish(out, outOff);
+    }
+
+    /**
+     * Feeds part of a leaf's content to the digest. A leaf may be fed in any number of pieces
+     * and is completed by {@link #finishLeaf}; no other leaf or parent may be hashed in between.
+     *
+     * @param data The next piece of content, between its position and limit.
+     * @pre-condition data is not null.
+     * @post-condition data's position is advanced to its limit.
+     * @time-complexity O(r) - Where r is the number of remaining bytes.
+     */
+    public void updateLeaf(ByteBuffer data) {
+        openLeafBytes += data.remaining();
+        digest.update(data);
+    }
+
+    /**
+     * Completes a leaf fed through {@link #updateLeaf}.
+     *
+     * @param out    The array receiving the digest.
+     * @param outOff The position of the digest in out.
+     * @pre-condition [outOff, outOff + 32) of out is valid.
+     * @post-condition out holds the leaf digest of all pieces fed since the previous leaf; the hasher is reset.
+     * @time-complexity O(1).
+     */
+    public void finishLeaf(byte[] out, int outOff) {
+        pendingLeaves++;
+        pendingBytes += openLeafBytes;
+        openLeafBytes = 0;
+        finish(out, outOff);
+    }
+
+    /**
+     * Abandons a leaf fed through {@link #updateLeaf} without hashing it, for example a line whose terminator has
+     * not been written yet.
+     *
+     * @pre-condition None.
+     * @post-condition The pieces fed since the previous leaf are dropped and not counted in MerkleMetrics; the hasher
+     * is reset.
+     * @time-complexity O(1).
+     */
+    public void discardLeaf() {
+        openLeafBytes = 0;
+        digest.reset();
+    }
+
+    /**
+     * Hashes two child digests into their parent digest.
+     * The output range may overlap either input range.
+     *
+     * @param left     The array holding the left child.
+     * @param leftOff  The position of the left child.
+     * @param right    The array holding the right child.
+     * @param rightOff The position of the right child.
+     * @param out      The array receiving the parent digest.
+     * @param outOff   The position of the parent digest in out.
+     * @pre-condition All three 32-byte ranges are valid.
+     * @post-condition out holds the parent digest under this hasher's TreeMode.
+     * @time-complexity O(1) - One digest over 128 or 64 bytes.
+     */
+    public void parent(byte[] left, int leftOff, byte[] right, int rightOff, byte[] out, int outOff) {
+        if (mode == TreeMode.LEGACY_HEX) {
+            HashUtil.toHex(left, leftOff, Digest.LENGTH, hexScratch, 0);
+            HashUtil.toHex(right, rightOff, Digest.LENGTH, hexScratch, 2 * Digest.LENGTH);
+            digest.update(hexScratch, 0, hexScratch.length);
+        } else {
+            digest.update(left, leftOff, Digest.LENGTH);
+            digest.update(right, rightOff, Digest.LENGTH);
+        }
+        finish(out, outOff);
+    }
+
+    /**
+     * Hashes two child digests into their parent digest.
+     *
+     * @param left  The left child.
+     * @param right The right child.
+     * @return The parent digest under this hasher's TreeMode.
+     * @pre-condition Neither child is null.
+     * @post-condition The children are not modified.
+     * @time-complexity O(1).
+     */
+    public Digest parent(Digest left, Digest right) {
+        byte[] pair = new byte[2 * Digest.LENGTH];
+        left.writeTo(pair, 0);
+        right.writeTo(pair, Digest.LENGTH);
+        parent(pair, 0, pair, Digest.LENGTH, pair, 0);
+        return Digest.read(pair, 0);
+    }
+
+    /**
+     * Adds the hashes, leaves and bytes counted since the last flush to MerkleMetrics.
+     *
+     * @pre-condition None.
+     * @post-condition MerkleMetrics.global() includes all work done by this hasher.
+     * @time-complexity O(1).
+     */
+    public void flushMetrics() {
+        if (pendingHashes != 0 || pendingBytes != 0) {
+            if (MerkleMetrics.ENABLED) {
+                MerkleMetrics.global().recordHashes(pendingHashes, pendingLeaves, pendingBytes);
+            }
+            pendingHashes = 0;
+            pendingLeaves = 0;
+            pendingBytes = 0;
+        }
+    }
+
+    private void finish(byte[] out, int outOff) {
+        digest.digest(out, outOff);
+        if (++pendingHashes == METRICS_BATCH) {
+            flushMetrics();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+
+/**
+ * The TreeMode enum selects how parent nodes of a Merkle tree are hashed and how the root is printed.
+ * <p>
+ * Key Features:
+ * - LEGACY_HEX is the original scheme: a parent is SHA-256 over the two 64-character uppercase hex
+ * strings of its children, and the root is printed as bare hex.
+ * - BINARY hashes the 64-byte concatenation of the two raw 32-byte child digests, and its root is
+ * printed with a version tag so it can never be mistaken for a legacy root.
+ * - Leaves are the hash of the UTF-8 line bytes in both modes.
+ * - Roots of trees hashed with an algorithm other than SHA-256 carry the algorithm identifier in their tag,
+ * for example "v2+blake3:" or "v1+sha3-256:"; SHA-256 roots are printed exactly as before.
+ * <p>
+ * Pre-condition:
+ * - Roots passed to parseRoot must have been produced by formatRoot.
+ * <p>
+ * Post-condition:
+ * - parseRoot(formatRoot(d)) returns the mode that formatted it.
+ * <p>
+ * Time Complexity:
+ * - All operations are O(1).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public enum TreeMode {
+
+    /**
+     * Parents hash the concatenated uppercase hex of their children; roots are bare hex.
+     */
+    LEGACY_HEX("v1"),
+
+    /**
+     * Parents hash the concatenated raw 32-byte digests of their children; roots are prefixed with "v2:".
+     */
+    BINARY("v2");
+
+    private final String versionTag;
+
+    TreeMode(String versionTag) {
+        this.versionTag = versionTag;
+    }
+
+    /**
+     * Returns the version tag that identifies roots of this mode.
+     *
+     * @return "v1" for LEGACY_HEX, "v2" for BINARY.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public String versionTag() {
+        return versionTag;
+    }
+
+    /**
+     * Formats a root digest for output. Hex encoding happens only here, never inside the tree.
+     *
+     * @param root The root digest.
+     * @return Bare uppercase hex for LEGACY_HEX (unchanged from earlier releases),
+     * "v2:" followed by uppercase hex for BINARY.
+     * @pre-condition root is not null.
+     * @post-condition The digest is not modified.
+     * @time-complexity O(1).
+     */
+    public String formatRoot(Digest root) {
+        if (this == LEGACY_HEX) {
+            return root.toHex();
+        }
+        return versionTag + ":" + root.toHex();
+    }
+
+    /**
+     * Formats a root digest of a tree hashed with the given algorithm.
+     *
+     * @param root      The root digest.
+     * @param algorithm The hash algorithm of the tree.
+     * @return formatRoot(root) for SHA-256; otherwise the tag returned by tag(algorithm), a colon and uppercase hex.
+     * @pre-condition Neither argument is null.
+     * @post-condition The digest is not modified.
+     * @time-complexity O(1).
+     */
+    public String formatRoot(Digest root, HashAlgorithm algorithm) {
+        if (algorithm == HashAlgorithm.DEFAULT) {
+            return formatRoot(root);
+        }
+        return tag(algorithm) + ":" + root.toHex();
+    }
+
+    /**
+     * Returns the tag that identifies this mode together with a hash algorithm.
+     *
+     * @param algorithm The hash algorithm.
+     * @return The version tag alone for SHA-256, otherwise the version tag, "+" and the algorithm identifier.
+     * @pre-condition algorithm is not null.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public String tag(HashAlgorithm algorithm) {
+        return algorithm == HashAlgorithm.DEFAULT ? versionTag : versionTag + "+" + algorithm.id();
+    }
+
+    /**
+     * Returns the mode identified by a version tag.
+     *
+     * @param versionTag A tag returned by versionTag().
+     * @return The matching mode.
+     * @throws IllegalArgumentException If no mode has this tag.
+     * @pre-condition versionTag is not null.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public static TreeMode fromVersionTag(String versionTag) {
+        for (TreeMode mode : values()) {
+            if (mode.versionTag.equals(versionTag)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown tree version: " + versionTag);
+    }
+
+    /**
+     * Determines the mode of a formatted root.
+     *
+     * @param formattedRoot A root produced by formatRoot.
+     * @return BINARY if the root carries the "v2:" or a "v2+" tag, LEGACY_HEX if it is 64 bare hex characters
+     * or carries a "v1+" tag.
+     * @throws IllegalArgumentException If the root matches no form.
+     * @pre-condition formattedRoot is not null.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public static TreeMode parseRoot(String formattedRoot) {
+        int colon = formattedRoot.indexOf(':');
+        if (colon < 0) {
+            if (formattedRoot.length() == 2 * Digest.LENGTH) {
+                return LEGACY_HEX;
+            }
+        } else {
+            String tag = formattedRoot.substring(0, colon);
+            int plus = tag.indexOf('+');
+            if (plus < 0 && tag.equals(BINARY.versionTag)) {
+                return BINARY;
+            }
+            if (plus > 0) {
+                try {
+                    HashAlgorithm.fromId(tag.substring(plus + 1));
+                    return fromVersionTag(tag.substring(0, plus));
+                } catch (IllegalArgumentException e) {
+                    // Reported below with the whole root
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unrecognized Merkle root format: " + formattedRoot);
+    }
+
+    /**
+     * Determines the hash algorithm of a formatted root.
+     *
+     * @param formattedRoot A root produced by formatRoot.
+     * @return The algorithm named in the tag, or SHA-256 if the tag names none.
+     * @throws IllegalArgumentException If the root matches no form.
+     * @pre-condition formattedRoot is not null.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public static HashAlgorithm parseAlgorithm(String formattedRoot) {
+        parseRoot(formattedRoot);
+        int colon = formattedRoot.indexOf(':');
+        int plus = colon < 0 ? -1 : formattedRoot.lastIndexOf('+', colon);
+        return plus < 0 ? HashAlgorithm.DEFAULT : HashAlgorithm.fromId(formattedRoot.substring(plus + 1, colon));
+    }
+
+    /**
+     * Extracts the digest from a formatted root of any mode.
+     *
+     * @param formattedRoot A root produced by formatRoot.
+     * @return The root digest.
+     * @throws IllegalArgumentException If the root matches no form.
+     * @pre-condition formattedRoot is not null.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public static Digest parseDigest(String formattedRoot) {
+        parseRoot(formattedRoot);
+        return Digest.fromHex(formattedRoot.substring(formattedRoot.indexOf(':') + 1));
+    }
+}
@@ -0,0 +1,333 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.cmu.andrew.mpanindr;
+
+import edu.colorado.nodes.UnrolledObjectNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * The UnrolledLinkedList class is a SinglyLinkedList counterpart built on UnrolledObjectNode: each node packs up to
+ * its capacity of elements into one array, so long lists of lines take a fraction of the memory and link-chasing of
+ * ObjectNode chains.
+ * <p>
+ * It offers the same operations as SinglyLinkedList (adding at the front or end, countNodes, getLast, getObjectAt,
+ * reset/hasNext/next, duplicateLastNode, getAllNodes, toArray, forEach, iterator and toString), so callers can switch
+ * by changing the type. "Nodes" in those method names count elements, as they do in SinglyLinkedList.
+ * <p>
+ * Key Features:
+ * - Appends fill the tail node before allocating a new one, so appending keeps every node but the last full.
+ * - addAtFrontNode shifts the head node's elements when it has room, and adds a new head node otherwise.
+ * - getObjectAt skips whole nodes, and continues from the node it last reached when moving forwards.
+ * <p>
+ * Pre-condition:
+ * - The capacity is between UnrolledObjectNode.MIN_CAPACITY and MAX_CAPACITY. Elements may be null.
+ * - An instance is not thread-safe.
+ * <p>
+ * Post-condition:
+ * - The elements keep the order in which they were added, as in SinglyLinkedList.
+ * <p>
+ * Time Complexity:
+ * - addAtEndNode, countNodes, getLast and the iteration methods are O(1); addAtFrontNode is O(capacity).
+ * - getObjectAt is O(i / capacity), or O(1) amortized for forward index loops.
+ * - toArray, forEach, getAllNodes and toString are O(n).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public class UnrolledLinkedList implements Iterable<Object> {
+    private final int capacity;
+    private UnrolledObjectNode head;
+    private UnrolledObjectNode tail;
+    private int countNodes;
+
+    // Built-in iteration state for reset, hasNext and next
+    private UnrolledObjectNode iteratorNode;
+    private int iteratorIndex;
+
+    // The node last reached by getObjectAt and the list index of its first element; -1 when there is none
+    private UnrolledObjectNode cursor;
+    private int cursorStart;
+
+    /**
+     * Creates an empty list with nodes of the default capacity.
+     *
+     * @pre-condition None.
+     * @post-condition The list is empty.
+     * @time-complexity O(1).
+     */
+    public UnrolledLinkedList() {
+        this(UnrolledObjectNode.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty list.
+     *
+     * @param capacity The number of elements per node.
+     * @throws IllegalArgumentException If the capacity is outside the range allowed by UnrolledObjectNode.
+     * @pre-condition None.
+     * @post-condition The list is empty.
+     * @time-complexity O(capacity).
+     */
+    public UnrolledLinkedList(int capacity) {
+        this.capacity = capacity;
+        head = new UnrolledObjectNode(capacity, null);
+        tail = head;
+        cursorStart = -1;
+    }
+
+    /**
+     * Adds an element at the end of the list.
+     *
+     * @param c The element.
+     * @pre-condition None.
+     * @post-condition c is the last element and the count is incremented.
+     * @time-complexity O(1) - A new node is allocated once per capacity elements.
+     */
+    public void addAtEndNode(Object c) {
+        if (!tail.add(c)) {
+            UnrolledObjectNode node = new UnrolledObjectNode(capacity, null);
+            node.add(c);
+            tail.setLink(node);
+            tail = node;
+        }
+        countNodes++;
+    }
+
+    /**
+     * Adds an element at the front of the list.
+     *
+     * @param c The element.
+     * @pre-condition None.
+     * @post-condition c is the first element and the count is incremented.
+     * @time-complexity O(capacity) - The head node's elements are shifted when it has room.
+     */
+    public void addAtFrontNode(Object c) {
+        if (head.isFull()) {
+            head = new UnrolledObjectNode(capacity, head);
+        }
+        head.insert(0, c);
+        countNodes++;
+        // Positions of every element moved, and the head node may have changed
+        cursor = null;
+        cursorStart = -1;
+    }
+
+    /**
+     * Returns the number of elements in the list.
+     *
+     * @return The count.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int countNodes() {
+        return countNodes;
+    }
+
+    /**
+     * Returns the last element of the list.
+     *
+     * @return The last element, or null if the list is empty.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public Object getLast() {
+        if (countNodes == 0) {
+            return null;
+        }
+        return tail.getData(tail.size() - 1);
+    }
+
+    /**
+     * Retrieves the element at an index (0-based).
+     *
+     * @param i The index.
+     * @return The element.
+     * @throws IndexOutOfBoundsException If i is not in [0, countNodes).
+     * @pre-condition None.
+     * @post-condition The list is not modified.
+     * @time-complexity O(i / capacity) - Whole nodes are skipped; O(1) amortized when indexes move forwards.
+     */
+    public Object getObjectAt(int i) {
+        if (i < 0 || i >= countNodes) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        if (i == countNodes - 1) {
+            return getLast();
+        }
+
+        UnrolledObjectNode current = head;
+        int start = 0;
+        if (cursorStart >= 0 && cursorStart <= i) {
+            current = cursor;
+            start = cursorStart;
+        }
+        while (i - start >= current.size()) {
+            start += current.size();
+            current = current.getLink();
+        }
+
+        cursor = current;
+        cursorStart = start;
+        return current.getData(i - start);
+    }
+
+    /**
+     * Resets the built-in iteration to the first element.
+     *
+     * @pre-condition None.
+     * @post-condition next returns the first element.
+     * @time-complexity O(1).
+     */
+    public void reset() {
+        iteratorNode = head;
+        iteratorIndex = 0;
+    }
+
+    /**
+     * Checks whether the built-in iteration has more elements.
+     *
+     * @return true if next returns an element.
+     * @pre-condition reset has been called.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public boolean hasNext() {
+        if (iteratorNode != null && iteratorIndex == iteratorNode.size()) {
+            iteratorNode = iteratorNode.getLink();
+            iteratorIndex = 0;
+        }
+        return iteratorNode != null && iteratorIndex < iteratorNode.size();
+    }
+
+    /**
+     * Returns the next element of the built-in iteration.
+     *
+     * @return The element, or null if the iteration is exhausted, as in SinglyLinkedList.
+     * @pre-condition reset has been called.
+     * @post-condition The iteration advances by one element.
+     * @time-complexity O(1).
+     */
+    public Object next() {
+        if (!hasNext()) {
+            return null;
+        }
+        return iteratorNode.getData(iteratorIndex++);
+    }
+
+    /**
+     * Adds a copy of the last element at the end of the list.
+     *
+     * @throws NoSuchElementException If the list is empty.
+     * @pre-condition The list is not empty.
+     * @post-condition The last two elements are the same object.
+     * @time-complexity O(1).
+     */
+    public void duplicateLastNode() {
+        if (countNodes == 0) {
+            throw new NoSuchElementException("The list is empty");
+        }
+        addAtEndNode(getLast());
+    }
+
+    /**
+     * Copies every element into an array, in list order.
+     *
+     * @return A new array of length countNodes().
+     * @pre-condition None.
+     * @post-condition The list is not modified.
+     * @time-complexity O(n) - One array copy per node.
+     */
+    public Object[] toArray() {
+        Object[] result = new Object[countNodes];
+        int offset = 0;
+        for (UnrolledObjectNode node = head; node != null; node = node.getLink()) {
+            node.copyTo(result, offset);
+            offset += node.size();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the string form of every element, as SinglyLinkedList.getAllNodes does.
+     *
+     * @return The strings, with null for null elements.
+     * @pre-condition None.
+     * @post-condition The list is not modified.
+     * @time-complexity O(n).
+     */
+    public ArrayList<String> getAllNodes() {
+        ArrayList<String> list = new ArrayList<>(countNodes);
+        forEach(data -> list.add(data == null ? null : data.toString()));
+        return list;
+    }
+
+    /**
+     * Passes every element to an action, in list order.
+     *
+     * @param action The action.
+     * @pre-condition action does not modify the list.
+     * @post-condition The built-in iteration and cursor are not moved.
+     * @time-complexity O(n).
+     */
+    @Override
+    public void forEach(Consumer<? super Object> action) {
+        for (UnrolledObjectNode node = head; node != null; node = node.getLink()) {
+            for (int i = 0; i < node.size(); i++) {
+                action.accept(node.getData(i));
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator independent of reset, hasNext and next.
+     *
+     * @return A new iterator positioned before the first element.
+     * @pre-condition The list is not modified while the iterator is in use.
+     * @post-condition The list is not modified; remove() is not supported.
+     * @time-complexity O(1).
+     */
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<Object>() {
+            private UnrolledObjectNode node = head;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                if (node != null && index == node.size()) {
+                    node = node.getLink();
+                    index = 0;
+                }
+                return node != null && index < node.size();
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return node.getData(index++);
+            }
+        };
+    }
+
+    /**
+     * Converts the list into a string in the format of SinglyLinkedList.
+     *
+     * @return "[data1 -> data2 -> ...]", or "[]" if the list is empty.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(n).
+     */
+    @Override
+    public String toString() {
+        return "[" + head + "]";
+    }
+}
@@ -0,0 +1,453 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.colorado.nodes;
+
+import java.util.Arrays;
+
+/**
+ * The UnrolledObjectNode class is a node of an unrolled linked list: instead of one Object it holds an array of
+ * between 32 and 128 elements, filled from the front, plus a link to the next node.
+ * <p>
+ * An ObjectNode costs an object header, a data reference and a link for every element (about 24 bytes with
+ * compressed references). An unrolled node pays for the header, the link and the array header once per node, so a
+ * full node of 64 elements costs a little over 4 bytes per element, and walking the list follows one link per 64
+ * elements instead of one per element.
+ * <p>
+ * Key Features:
+ * - The same static list operations as ObjectNode: listCopy, listLength, listPart, listPosition and listSearch.
+ * Element positions are (node, index) pairs, returned as a Position.
+ * - listCopy packs the copy into full nodes, so copying also compacts a list left sparse by inserts.
+ * - insert splits a full node in half, so nodes stay at least half full when a list grows by inserts.
+ * <p>
+ * Pre-condition:
+ * - The capacity is between MIN_CAPACITY and MAX_CAPACITY. Elements may be null.
+ * - Every node of a list holds at least one element, except the head of an empty list.
+ * <p>
+ * Post-condition:
+ * - Elements keep their order across inserts, splits and copies.
+ * <p>
+ * Time Complexity:
+ * - Element access within a node is O(1); inserting is O(capacity).
+ * - Operations that walk a list of n elements visit n / capacity nodes, and listSearch compares up to n elements.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public class UnrolledObjectNode {
+
+    public static final int MIN_CAPACITY = 32;
+    public static final int MAX_CAPACITY = 128;
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final Object[] data;
+    private int size;
+    private UnrolledObjectNode link;
+
+    /**
+     * Constructs an empty node.
+     *
+     * @param capacity    The number of elements the node can hold.
+     * @param initialLink A reference to the next node, or null.
+     * @throws IllegalArgumentException If the capacity is outside [MIN_CAPACITY, MAX_CAPACITY].
+     * @pre-condition None.
+     * @post-condition The node is empty and linked to initialLink.
+     * @time-complexity O(capacity) - The element array is allocated.
+     */
+    public UnrolledObjectNode(int capacity, UnrolledObjectNode initialLink) {
+        if (capacity < MIN_CAPACITY || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between " + MIN_CAPACITY + " and " + MAX_CAPACITY
+                    + ": " + capacity);
+        }
+        data = new Object[capacity];
+        link = initialLink;
+    }
+
+    /**
+     * Copies a list into new nodes of the same capacity, filling every node but the last.
+     *
+     * @param source The head of the list to copy, or null.
+     * @return The head of the copy, or null if source is null.
+     * @pre-condition None.
+     * @post-condition The source list is not modified; the copy holds the same elements in the same order.
+     * @time-complexity O(n) - Elements are copied with System.arraycopy, one run per source node.
+     */
+    public static UnrolledObjectNode listCopy(UnrolledObjectNode source) {
+        if (source == null) {
+            return null;
+        }
+        return copyRange(source, 0, null, -1, source.capacity())[0];
+    }
+
+    /**
+     * Computes the number of elements in a list.
+     *
+     * @param head The head of the list, or null.
+     * @return The number of elements.
+     * @pre-condition None.
+     * @post-condition The list is not modified.
+     * @time-complexity O(n / capacity) - One step per node.
+     */
+    public static int listLength(UnrolledObjectNode head) {
+        int answer = 0;
+        for (UnrolledObjectNode cursor = head; cursor != null; cursor = cursor.link) {
+            answer += cursor.size;
+        }
+        return answer;
+    }
+
+    /**
+     * Copies the elements from one position to another (both inclusive) into a new packed list.
+     *
+     * @param start The position of the first element to copy.
+     * @param end   The position of the last element to copy.
+     * @return An array whose [0] element is the head and [1] element is the tail of the copy.
+     * @throws NullPointerException     If start is null.
+     * @throws IllegalArgumentException If end is not found at or after start.
+     * @pre-condition Both positions are on the same list and start does not follow end.
+     * @post-condition The source list is not modified.
+     * @time-complexity O(k) - Where k is the number of elements up to end.
+     */
+    public static UnrolledObjectNode[] listPart(Position start, Position end) {
+        return copyRange(start.node, start.index, end.node, end.index, start.node.capacity());
+    }
+
+    /**
+     * Finds the element at a 1-based position.
+     *
+     * @param head     The head of the list, or null.
+     * @param position The 1-based position of the element.
+     * @return The position of the element, or null if the list is shorter than position.
+     * @throws IllegalArgumentException If position is not positive.
+     * @pre-condition None.
+     * @post-condition The list is not modified.
+     * @time-complexity O(position / capacity) - Whole nodes are skipped by their size.
+     */
+    public static Position listPosition(UnrolledObjectNode head, int position) {
+        if (position <= 0) {
+            throw new IllegalArgumentException("position is not positive");
+        }
+        int remaining = position - 1;
+        for (UnrolledObjectNode cursor = head; cursor != null; cursor = cursor.link) {
+            if (remaining < cursor.size) {
+                return new Position(cursor, remaining);
+            }
+            remaining -= cursor.size;
+        }
+        return null;
+    }
+
+    /**
+     * Searches a list for the first element equal to a target.
+     *
+     * @param head   The head of the list, or null.
+     * @param target The data to search for.
+     * @return The position of the first element equal to target, or null if there is none.
+     * @throws NullPointerException If target is null.
+     * @pre-condition target is not null.
+     * @post-condition The list is not modified.
+     * @time-complexity O(n) - Each element is compared once; elements of a node are contiguous in one array.
+     */
+    public static Position listSearch(UnrolledObjectNode head, Object target) {
+        for (UnrolledObjectNode cursor = head; cursor != null; cursor = cursor.link) {
+            Object[] elements = cursor.data;
+            for (int i = 0; i < cursor.size; i++) {
+                if (target.equals(elements[i])) {
+                    return new Position(cursor, i);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of elements the node can hold.
+     *
+     * @return The capacity.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int capacity() {
+        return data.length;
+    }
+
+    /**
+     * Returns the number of elements in this node.
+     *
+     * @return The size.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tells whether the node has no room left.
+     *
+     * @return true if size equals capacity.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public boolean isFull() {
+        return size == data.length;
+    }
+
+    /**
+     * Retrieves an element of this node.
+     *
+     * @param index The index within the node.
+     * @return The element.
+     * @throws IndexOutOfBoundsException If index is not in [0, size).
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public Object getData(int index) {
+        checkIndex(index, size);
+        return data[index];
+    }
+
+    /**
+     * Replaces an element of this node.
+     *
+     * @param index   The index within the node.
+     * @param newData The new element.
+     * @throws IndexOutOfBoundsException If index is not in [0, size).
+     * @pre-condition None.
+     * @post-condition The element at index is newData.
+     * @time-complexity O(1).
+     */
+    public void setData(int index, Object newData) {
+        checkIndex(index, size);
+        data[index] = newData;
+    }
+
+    /**
+     * Appends an element to this node if it has room.
+     *
+     * @param item The element.
+     * @return true if the element was added, false if the node is full.
+     * @pre-condition None.
+     * @post-condition If true was returned, item is the last element of the node.
+     * @time-complexity O(1).
+     */
+    public boolean add(Object item) {
+        if (size == data.length) {
+            return false;
+        }
+        data[size++] = item;
+        return true;
+    }
+
+    /**
+     * Inserts an element at an index of this node, splitting the node first if it is full.
+     *
+     * @param index The index within the node, in [0, size].
+     * @param item  The element.
+     * @return The node now holding the element: this node, or the new node linked after it by a split.
+     * @throws IndexOutOfBoundsException If index is not in [0, size].
+     * @pre-condition None.
+     * @post-condition The element is inserted; after a split, the upper half of the elements moved to the new node.
+     * @time-complexity O(capacity) - Elements after index are shifted, and a split moves half the node.
+     */
+    public UnrolledObjectNode insert(int index, Object item) {
+        checkIndex(index, size + 1);
+        UnrolledObjectNode target = this;
+        if (size == data.length) {
+            UnrolledObjectNode right = new UnrolledObjectNode(data.length, link);
+            int half = data.length / 2;
+            right.size = data.length - half;
+            System.arraycopy(data, half, right.data, 0, right.size);
+            Arrays.fill(data, half, data.length, null);
+            size = half;
+            link = right;
+            if (index > half) {
+                target = right;
+                index -= half;
+            }
+        }
+        System.arraycopy(target.data, index, target.data, index + 1, target.size - index);
+        target.data[index] = item;
+        target.size++;
+        return target;
+    }
+
+    /**
+     * Removes an element of this node.
+     *
+     * @param index The index within the node.
+     * @return The removed element.
+     * @throws IndexOutOfBoundsException If index is not in [0, size).
+     * @pre-condition None.
+     * @post-condition Later elements of the node move down by one. The node may become empty; the caller unlinks it.
+     * @time-complexity O(capacity).
+     */
+    public Object remove(int index) {
+        checkIndex(index, size);
+        Object removed = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        data[--size] = null;
+        return removed;
+    }
+
+    /**
+     * Copies the elements of this node into an array.
+     *
+     * @param dest   The destination array.
+     * @param offset The first index written in dest.
+     * @pre-condition dest has room for size elements from offset.
+     * @post-condition dest[offset, offset + size) holds the elements of this node.
+     * @time-complexity O(size).
+     */
+    public void copyTo(Object[] dest, int offset) {
+        System.arraycopy(data, 0, dest, offset, size);
+    }
+
+    /**
+     * Retrieves the reference to the next node.
+     *
+     * @return The next node, or null if this is the last node.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public UnrolledObjectNode getLink() {
+        return link;
+    }
+
+    /**
+     * Sets the link to the next node.
+     *
+     * @param newLink The node that should follow this one, or null.
+     * @pre-condition None.
+     * @post-condition This node links to newLink.
+     * @time-complexity O(1).
+     */
+    public void setLink(UnrolledObjectNode newLink) {
+        link = newLink;
+    }
+
+    /**
+     * Returns a string representation of the list starting from this node.
+     *
+     * @return The elements separated by " -> ", in the format of ObjectNode.toString.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(n).
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (UnrolledObjectNode cursor = this; cursor != null; cursor = cursor.link) {
+            for (int i = 0; i < cursor.size; i++) {
+                if (result.length() > 0) {
+                    result.append(" -> ");
+                }
+                result.append(cursor.data[i]);
+            }
+        }
+        return result.toString();
+    }
+
+    // Copies from (start, startIndex) up to (end, endIndex) inclusive, or to the end of the list if end is null
+    private static UnrolledObjectNode[] copyRange(UnrolledObjectNode start, int startIndex, UnrolledObjectNode end,
+                                                  int endIndex, int capacity) {
+        UnrolledObjectNode copyHead = new UnrolledObjectNode(capacity, null);
+        UnrolledObjectNode copyTail = copyHead;
+        UnrolledObjectNode cursor = start;
+        int from = startIndex;
+        while (true) {
+            if (cursor == null) {
+                throw new IllegalArgumentException("end node was not found on the list");
+            }
+            int to = cursor == end ? endIndex + 1 : cursor.size;
+            while (from < to) {
+                if (copyTail.size == capacity) {
+                    copyTail.link = new UnrolledObjectNode(capacity, null);
+                    copyTail = copyTail.link;
+                }
+                int run = Math.min(to - from, capacity - copyTail.size);
+                System.arraycopy(cursor.data, from, copyTail.data, copyTail.size, run);
+                copyTail.size += run;
+                from += run;
+            }
+            if (cursor == end || (end == null && cursor.link == null)) {
+                break;
+            }
+            cursor = cursor.link;
+            from = 0;
+        }
+        return new UnrolledObjectNode[]{copyHead, copyTail};
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + bound);
+        }
+    }
+
+    /**
+     * The Position class names one element of an unrolled list: a node and an index within it.
+     * <p>
+     * Author: Manjunath K P
+     * Andrew ID: mpanindr
+     */
+    public static final class Position {
+        private final UnrolledObjectNode node;
+        private final int index;
+
+        /**
+         * Creates a position.
+         *
+         * @param node  The node holding the element.
+         * @param index The index of the element within the node.
+         * @pre-condition node is not null and index is in [0, node.size()).
+         * @post-condition None.
+         * @time-complexity O(1).
+         */
+        public Position(UnrolledObjectNode node, int index) {
+            this.node = node;
+            this.index = index;
+        }
+
+        /**
+         * Returns the node holding the element.
+         *
+         * @return The node.
+         * @pre-condition None.
+         * @post-condition None.
+         * @time-complexity O(1).
+         */
+        public UnrolledObjectNode node() {
+            return node;
+        }
+
+        /**
+         * Returns the index of the element within its node.
+         *
+         * @return The index.
+         * @pre-condition None.
+         * @post-condition None.
+         * @time-complexity O(1).
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * Retrieves the element at this position.
+         *
+         * @return The element.
+         * @pre-condition The node was not modified since the position was created.
+         * @post-condition None.
+         * @time-complexity O(1).
+         */
+        public Object getData() {
+            return node.getData(index);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * The Blake3 class is a pure-Java implementation of the BLAKE3 hash function with its default 32-byte output
+ * (unkeyed hashing only).
+ * <p>
+ * The input is split into 1 KiB chunks of sixteen 64-byte blocks. Each chunk is compressed block by block into a
+ * chaining value, and the chaining values are merged pairwise into a binary tree whose root compression gives the
+ * digest. The chaining values of complete subtrees are kept on a stack, one per set bit of the chunk count, exactly
+ * like the frontier of StreamingMerkleBuilder.
+ * <p>
+ * Key Features:
+ * - The compression function keeps its sixteen state words in local variables and follows a precomputed message
+ * schedule, so a block costs no allocation and no array copies.
+ * - Full blocks that are not the last of the input are compressed straight from the caller's array.
+ * - Digests match the BLAKE3 reference implementation for every input length.
+ * <p>
+ * Pre-condition:
+ * - An instance is not thread-safe.
+ * <p>
+ * Post-condition:
+ * - digest returns BLAKE3 of everything fed since the previous digest and resets the instance.
+ * <p>
+ * Time Complexity:
+ * - O(len) for update: seven rounds of eight quarter-rounds per 64-byte block, plus one parent compression
+ * per 1 KiB chunk.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class Blake3 implements HashFunction {
+
+    private static final int BLOCK_LEN = 64;
+    private static final int CHUNK_BLOCKS = 16;
+    private static final int CHUNK_START = 1;
+    private static final int CHUNK_END = 2;
+    private static final int PARENT = 4;
+    private static final int ROOT = 8;
+
+    // Enough for 2^54 chunks, the most a 64-bit byte count allows
+    private static final int MAX_DEPTH = 54;
+
+    private static final int[] IV = {
+            0x6A09E667, 0xBB67AE85, 0x3C6EF372, 0xA54FF53A, 0x510E527F, 0x9B05688C, 0x1F83D9AB, 0x5BE0CD19
+    };
+    private static final int[] PERMUTATION = {2, 6, 3, 10, 7, 0, 4, 13, 1, 11, 12, 5, 9, 14, 15, 8};
+
+    // SCHEDULE[r][i] is the message word used at position i in round r
+    private static final int[][] SCHEDULE = new int[7][16];
+
+    private static final VarHandle LE_INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    static {
+        for (int i = 0; i < 16; i++) {
+            SCHEDULE[0][i] = i;
+        }
+        for (int r = 1; r < SCHEDULE.length; r++) {
+            for (int i = 0; i < 16; i++) {
+                SCHEDULE[r][i] = SCHEDULE[r - 1][PERMUTATION[i]];
+            }
+        }
+    }
+
+    // State of the current chunk
+    private final int[] cv = new int[8];
+    private final byte[] block = new byte[BLOCK_LEN];
+    private int blockLen;
+    private int blocksCompressed;
+    private long chunkCounter;
+
+    // Chaining values of complete subtrees, 8 words each, oldest first
+    private final int[] stack = new int[MAX_DEPTH * 8];
+    private int stackSize;
+
+    private final int[] words = new int[16];
+    private final byte[] bufferScratch = new byte[4096];
+
+    /**
+     * Creates a BLAKE3 hasher.
+     *
+     * @pre-condition None.
+     * @post-condition The hasher is ready for input.
+     * @time-complexity O(1).
+     */
+    public Blake3() {
+        reset();
+    }
+
+    @Override
+    public HashAlgorithm algorithm() {
+        return HashAlgorithm.BLAKE3;
+    }
+
+    @Override
+    public void update(byte[] data, int off, int len) {
+        while (len > 0) {
+            if (blockLen == BLOCK_LEN) {
+                if (blocksCompressed == CHUNK_BLOCKS - 1) {
+                    // The chunk is complete and more input follows, so its last block can be closed
+                    load(block, 0);
+                    compress(cv, 0, words, chunkCounter, BLOCK_LEN, CHUNK_END, cv, 0);
+                    addChunk(chunkCounter + 1);
+                    System.arraycopy(IV, 0, cv, 0, 8);
+                    chunkCounter++;
+                    blocksCompressed = 0;
+                } else {
+                    load(block, 0);
+                    compress(cv, 0, words, chunkCounter, BLOCK_LEN, startFlag(), cv, 0);
+                    blocksCompressed++;
+                }
+                blockLen = 0;
+            }
+            if (blockLen == 0 && len > BLOCK_LEN && blocksCompressed < CHUNK_BLOCKS - 1) {
+                // A full block that is neither the last of its chunk nor of the input needs no buffering
+                load(data, off);
+                compress(cv, 0, words, chunkCounter, BLOCK_LEN, startFlag(), cv, 0);
+                blocksCompressed++;
+                off += BLOCK_LEN;
+                len -= BLOCK_LEN;
+                continue;
+            }
+            int take = Math.min(BLOCK_LEN - blockLen, len);
+            System.arraycopy(data, off, block, blockLen, take);
+            blockLen += take;
+            off += take;
+            len -= take;
+        }
+    }
+
+    @Override
+    public void update(ByteBuffer data) {
+        if (data.hasArray()) {
+            int position = data.position();
+            update(data.array(), data.arrayOffset() + position, data.limit() - position);
+            data.position(data.limit());
+            return;
+        }
+        while (data.hasRemaining()) {
+            int take = Math.min(bufferScratch.length, data.remaining());
+            data.get(bufferScratch, 0, take);
+            update(bufferScratch, 0, take);
+        }
+    }
+
+    @Override
+    public void digest(byte[] out, int outOff) {
+        Arrays.fill(block, blockLen, BLOCK_LEN, (byte) 0);
+        load(block, 0);
+        int flags = startFlag() | CHUNK_END;
+        if (stackSize == 0) {
+            compress(cv, 0, words, chunkCounter, blockLen, flags | ROOT, cv, 0);
+        } else {
+            // Fold the last chunk into the pending subtrees, newest first; the final merge is the root
+            compress(cv, 0, words, chunkCounter, blockLen, flags, cv, 0);
+            for (int i = stackSize - 1; i >= 0; i--) {
+                System.arraycopy(stack, i * 8, words, 0, 8);
+                System.arraycopy(cv, 0, words, 8, 8);
+                compress(IV, 0, words, 0, BLOCK_LEN, i == 0 ? PARENT | ROOT : PARENT, cv, 0);
+            }
+        }
+        for (int i = 0; i < 8; i++) {
+            LE_INT.set(out, outOff + 4 * i, cv[i]);
+        }
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        System.arraycopy(IV, 0, cv, 0, 8);
+        blockLen = 0;
+        blocksCompressed = 0;
+        chunkCounter = 0;
+        stackSize = 0;
+    }
+
+    private int startFlag() {
+        return blocksCompressed == 0 ? CHUNK_START : 0;
+    }
+
+    // Pushes the chaining value of a finished chunk, first merging every subtree it completes
+    private void addChunk(long totalChunks) {
+        while ((totalChunks & 1) == 0) {
+            stackSize--;
+            System.arraycopy(stack, stackSize * 8, words, 0, 8);
+            System.arraycopy(cv, 0, words, 8, 8);
+            compress(IV, 0, words, 0, BLOCK_LEN, PARENT, cv, 0);
+            totalChunks >>>= 1;
+        }
+        System.arraycopy(cv, 0, stack, stackSize * 8, 8);
+        stackSize++;
+    }
+
+    private void load(byte[] src, int off) {
+        for (int i = 0; i < 16; i++) {
+            words[i] = (int) LE_INT.get(src, off + 4 * i);
+        }
+    }
+
+    // The BLAKE3 compression function, truncated to the 8-word chaining value; out may be the same array as h
+    private static void compress(int[] h, int hOff, int[] m, long counter, int blockLen, int flags, int[] out, int outOff) {
+        int s0 = h[hOff], s1 = h[hOff + 1], s2 = h[hOff + 2], s3 = h[hOff + 3];
+        int s4 = h[hOff + 4], s5 = h[hOff + 5], s6 = h[hOff + 6], s7 = h[hOff + 7];
+        int s8 = IV[0], s9 = IV[1], s10 = IV[2], s11 = IV[3];
+        int s12 = (int) counter, s13 = (int) (counter >>> 32), s14 = blockLen, s15 = flags;
+        for (int[] r : SCHEDULE) {
+            s0 += s4 + m[r[0]];
+            s12 = Integer.rotateRight(s12 ^ s0, 16);
+            s8 += s12;
+            s4 = Integer.rotateRight(s4 ^ s8, 12);
+            s0 += s4 + m[r[1]];
+            s12 = Integer.rotateRight(s12 ^ s0, 8);
+            s8 += s12;
+            s4 = Integer.rotateRight(s4 ^ s8, 7);
+            s1 += s5 + m[r[2]];
+            s13 = Integer.rotateRight(s13 ^ s1, 16);
+            s9 += s13;
+            s5 = Integer.rotateRight(s5 ^ s9, 12);
+            s1 += s5 + m[r[3]];
+            s13 = Integer.rotateRight(s13 ^ s1, 8);
+            s9 += s13;
+            s5 = Integer.rotateRight(s5 ^ s9, 7);
+            s2 += s6 + m[r[4]];
+            s14 = Integer.rotateRight(s14 ^ s2, 16);
+            s10 += s14;
+            s6 = Integer.rotateRight(s6 ^ s10, 12);
+            s2 += s6 + m[r[5]];
+            s14 = Integer.rotateRight(s14 ^ s2, 8);
+            s10 += s14;
+            s6 = Integer.rotateRight(s6 ^ s10, 7);
+            s3 += s7 + m[r[6]];
+            s15 = Integer.rotateRight(s15 ^ s3, 16);
+            s11 += s15;
+            s7 = Integer.rotateRight(s7 ^ s11, 12);
+            s3 += s7 + m[r[7]];
+            s15 = Integer.rotateRight(s15 ^ s3, 8);
+            s11 += s15;
+            s7 = Integer.rotateRight(s7 ^ s11, 7);
+            s0 += s5 + m[r[8]];
+            s15 = Integer.rotateRight(s15 ^ s0, 16);
+            s10 += s15;
+            s5 = Integer.rotateRight(s5 ^ s10, 12);
+            s0 += s5 + m[r[9]];
+            s15 = Integer.rotateRight(s15 ^ s0, 8);
+            s10 += s15;
+            s5 = Integer.rotateRight(s5 ^ s10, 7);
+            s1 += s6 + m[r[10]];
+            s12 = Integer.rotateRight(s12 ^ s1, 16);
+            s11 += s12;
+            s6 = Integer.rotateRight(s6 ^ s11, 12);
+            s1 += s6 + m[r[11]];
+            s12 = Integer.rotateRight(s12 ^ s1, 8);
+            s11 += s12;
+            s6 = Integer.rotateRight(s6 ^ s11, 7);
+            s2 += s7 + m[r[12]];
+            s13 = Integer.rotateRight(s13 ^ s2, 16);
+            s8 += s13;
+            s7 = Integer.rotateRight(s7 ^ s8, 12);
+            s2 += s7 + m[r[13]];
+            s13 = Integer.rotateRight(s13 ^ s2, 8);
+            s8 += s13;
+            s7 = Integer.rotateRight(s7 ^ s8, 7);
+            s3 += s4 + m[r[14]];
+            s14 = Integer.rotateRight(s14 ^ s3, 16);
+            s9 += s14;
+            s4 = Integer.rotateRight(s4 ^ s9, 12);
+            s3 += s4 + m[r[15]];
+            s14 = Integer.rotateRight(s14 ^ s3, 8);
+            s9 += s14;
+            s4 = Integer.rotateRight(s4 ^ s9, 7);
+        }
+        out[outOff] = s0 ^ s8;
+        out[outOff + 1] = s1 ^ s9;
+        out[outOff + 2] = s2 ^ s10;
+        out[outOff + 3] = s3 ^ s11;
+        out[outOff + 4] = s4 ^ s12;
+        out[outOff + 5] = s5 ^ s13;
+        out[outOff + 6] = s6 ^ s14;
+        out[outOff + 7] = s7 ^ s15;
+    }
+}
@@ -0,0 +1,195 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The Digest class is an immutable 32-byte hash value stored as four big-endian longs.
+ * It lets tree code pass raw digests around, compare them and use them as map keys
+ * without going through a 64-character hex String.
+ * <p>
+ * Key Features:
+ * - Reads from and writes to packed byte arrays at any offset; reads from byte buffers.
+ * - Value-based equals and hashCode over the four longs.
+ * - Converts to and from the uppercase hex form used by HashUtil.
+ * <p>
+ * Pre-condition:
+ * - Byte ranges passed in must contain at least 32 bytes from the given offset.
+ * <p>
+ * Post-condition:
+ * - toBytes() returns exactly the bytes the Digest was read from.
+ * <p>
+ * Time Complexity:
+ * - All operations are O(1).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public final class Digest {
+
+    /**
+     * Length of a digest in bytes.
+     */
+    public static final int LENGTH = 32;
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final long w0;
+    private final long w1;
+    private final long w2;
+    private final long w3;
+
+    private Digest(long w0, long w1, long w2, long w3) {
+        this.w0 = w0;
+        this.w1 = w1;
+        this.w2 = w2;
+        this.w3 = w3;
+    }
+
+    /**
+     * Reads a digest from a packed byte array.
+     *
+     * @param src The array holding the digest.
+     * @param off The position of the first digest byte.
+     * @return The digest stored at src[off .. off + 32).
+     * @pre-condition The range [off, off + 32) of src is valid.
+     * @post-condition The source array is not modified or retained.
+     * @time-complexity O(1) - Four long reads.
+     */
+    public static Digest read(byte[] src, int off) {
+        return new Digest((long) LONGS.get(src, off), (long) LONGS.get(src, off + 8),
+                (long) LONGS.get(src, off + 16), (long) LONGS.get(src, off + 24));
+    }
+
+    /**
+     * Reads a digest from a buffer at an absolute position, in big-endian order whatever the buffer's order.
+     *
+     * @param src   The buffer holding the digest.
+     * @param index The position of the first digest byte.
+     * @return The digest stored at src[index .. index + 32).
+     * @pre-condition The range [index, index + 32) of src is within its limit.
+     * @post-condition The buffer's position, limit and content are unchanged.
+     * @time-complexity O(1) - Four long reads.
+     */
+    public static Digest read(ByteBuffer src, int index) {
+        long w0 = src.getLong(index);
+        long w1 = src.getLong(index + 8);
+        long w2 = src.getLong(index + 16);
+        long w3 = src.getLong(index + 24);
+        if (src.order() != ByteOrder.BIG_ENDIAN) {
+            return new Digest(Long.reverseBytes(w0), Long.reverseBytes(w1), Long.reverseBytes(w2), Long.reverseBytes(w3));
+        }
+        return new Digest(w0, w1, w2, w3);
+    }
+
+    /**
+     * Parses a digest from its 64-character hex form (either case).
+     *
+     * @param hex The hex string.
+     * @return The digest it encodes.
+     * @throws IllegalArgumentException If hex is not exactly 64 hex characters.
+     * @pre-condition hex is not null.
+     * @post-condition toHex() of the result equals hex in uppercase.
+     * @time-complexity O(1) - 64 characters are decoded.
+     */
+    public static Digest fromHex(String hex) {
+        if (hex == null || hex.length() != 2 * LENGTH) {
+            throw new IllegalArgumentException("Digest must be 64 hex characters: " + hex);
+        }
+        byte[] bytes = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("Digest must be 64 hex characters: " + hex);
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return read(bytes, 0);
+    }
+
+    /**
+     * Writes this digest into a packed byte array.
+     *
+     * @param dst The destination array.
+     * @param off The position of the first byte to write.
+     * @pre-condition The range [off, off + 32) of dst is valid.
+     * @post-condition dst[off .. off + 32) holds this digest.
+     * @time-complexity O(1) - Four long writes.
+     */
+    public void writeTo(byte[] dst, int off) {
+        LONGS.set(dst, off, w0);
+        LONGS.set(dst, off + 8, w1);
+        LONGS.set(dst, off + 16, w2);
+        LONGS.set(dst, off + 24, w3);
+    }
+
+    /**
+     * Returns the digest as a new 32-byte array.
+     *
+     * @return A copy of the digest bytes.
+     * @pre-condition None.
+     * @post-condition The returned array is not shared with this digest.
+     * @time-complexity O(1).
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[LENGTH];
+        writeTo(bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Returns the digest as 64 uppercase hex characters, the same form HashUtil.hash produces.
+     *
+     * @return The hex representation.
+     * @pre-condition None.
+     * @post-condition The digest is not modified.
+     * @time-complexity O(1).
+     */
+    public String toHex() {
+        return HashUtil.toHex(toBytes(), 0, LENGTH);
+    }
+
+    /**
+     * Checks whether this digest equals the 32 bytes stored at the given position.
+     *
+     * @param src The array to compare against.
+     * @param off The position of the first byte to compare.
+     * @return true if the bytes match this digest.
+     * @pre-condition The range [off, off + 32) of src is valid.
+     * @post-condition Neither value is modified.
+     * @time-complexity O(1) - Four long comparisons.
+     */
+    public boolean matches(byte[] src, int off) {
+        return w0 == (long) LONGS.get(src, off) && w1 == (long) LONGS.get(src, off + 8)
+                && w2 == (long) LONGS.get(src, off + 16) && w3 == (long) LONGS.get(src, off + 24);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Digest)) {
+            return false;
+        }
+        Digest that = (Digest) other;
+        return w0 == that.w0 && w1 == that.w1 && w2 == that.w2 && w3 == that.w3;
+    }
+
+    @Override
+    public int hashCode() {
+        // The words are already uniformly distributed hash output
+        return (int) (w0 ^ (w0 >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+}
@@ -0,0 +1,149 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The HashAlgorithm enum lists the hash functions a Merkle tree can be built with. Every algorithm has a
+ * 32-byte output, so digests keep their size and layout whichever one is chosen.
+ * <p>
+ * Key Features:
+ * - SHA_256 is the default and the only algorithm of earlier releases; roots built with it are printed unchanged.
+ * - SHA_512_256 is SHA-512 truncated to 256 bits; it works on 64-bit words and is usually faster than SHA-256
+ * on 64-bit cores without SHA extensions.
+ * - SHA3_256 is Keccak based, for auditors who require a non-SHA-2 function.
+ * - BLAKE3 is a pure-Java implementation of BLAKE3 with the default 32-byte output.
+ * - Each algorithm has a short identifier, recorded in roots and proofs, and a standard name, recorded in tree files.
+ * - The set is closed. There is no registration at run time, so fromId and fromStandardName only resolve the
+ * constants below, and a root, proof or tree file naming anything else is rejected. Supporting another algorithm
+ * takes a new constant, a branch in newFunction and a release of this library.
+ * <p>
+ * Pre-condition:
+ * - The SHA algorithms need a security provider that offers them (every Java 11+ runtime does).
+ * <p>
+ * Post-condition:
+ * - fromId(a.id()) and fromStandardName(a.standardName()) return a.
+ * <p>
+ * Time Complexity:
+ * - All operations are O(1).
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public enum HashAlgorithm {
+
+    /**
+     * SHA-256, the default.
+     */
+    SHA_256("sha256", "SHA-256"),
+
+    /**
+     * SHA-512/256.
+     */
+    SHA_512_256("sha512-256", "SHA-512/256"),
+
+    /**
+     * SHA3-256.
+     */
+    SHA3_256("sha3-256", "SHA3-256"),
+
+    /**
+     * BLAKE3 with a 32-byte output.
+     */
+    BLAKE3("blake3", "BLAKE3");
+
+    /**
+     * The algorithm used when none is named.
+     */
+    public static final HashAlgorithm DEFAULT = SHA_256;
+
+    private final String id;
+    private final String standardName;
+
+    HashAlgorithm(String id, String standardName) {
+        this.id = id;
+        this.standardName = standardName;
+    }
+
+    /**
+     * Returns the short identifier recorded in roots and proofs.
+     *
+     * @return The identifier, for example "sha256" or "blake3".
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Returns the standard name of the algorithm, as used by MessageDigest.
+     *
+     * @return The name, for example "SHA-256" or "BLAKE3".
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public String standardName() {
+        return standardName;
+    }
+
+    /**
+     * Creates a new hash function instance of this algorithm: the built-in Blake3 for BLAKE3, otherwise the
+     * MessageDigest of the same standard name.
+     *
+     * @return A function ready for input.
+     * @throws NoSuchAlgorithmException If no security provider offers the algorithm.
+     * @pre-condition None.
+     * @post-condition The instance belongs to the caller.
+     * @time-complexity O(1).
+     */
+    public HashFunction newFunction() throws NoSuchAlgorithmException {
+        if (this == BLAKE3) {
+            return new Blake3();
+        }
+        return new MessageDigestFunction(this, MessageDigest.getInstance(standardName));
+    }
+
+    /**
+     * Returns the algorithm with the given identifier.
+     *
+     * @param id An identifier returned by id().
+     * @return The algorithm.
+     * @throws IllegalArgumentException If no algorithm has this identifier.
+     * @pre-condition id is not null.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public static HashAlgorithm fromId(String id) {
+        for (HashAlgorithm algorithm : values()) {
+            if (algorithm.id.equals(id)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown hash algorithm: " + id);
+    }
+
+    /**
+     * Returns the algorithm with the given standard name.
+     *
+     * @param standardName A name returned by standardName().
+     * @return The algorithm.
+     * @throws NoSuchAlgorithmException If no algorithm has this name.
+     * @pre-condition standardName is not null.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    public static HashAlgorithm fromStandardName(String standardName) throws NoSuchAlgorithmException {
+        for (HashAlgorithm algorithm : values()) {
+            if (algorithm.standardName.equals(standardName)) {
+                return algorithm;
+            }
+        }
+        throw new NoSuchAlgorithmException("Unsupported hash algorithm: " + standardName);
+    }
+}
@@ -0,0 +1,87 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The HashFunction interface is the common shape of the built-in hash functions a Merkle tree can be built with,
+ * so the tree code hashes through one interface whichever HashAlgorithm was chosen. An instance is an incremental
+ * hasher with a 32-byte output: content is fed with update and the digest is taken with digest, which also resets
+ * the instance for the next input.
+ * <p>
+ * Key Features:
+ * - Digests are written straight into caller-owned arrays, so hashing a node allocates nothing.
+ * - It is not a plug-in point: instances are only obtained from HashAlgorithm.newFunction, and the set of
+ * algorithms is fixed by the HashAlgorithm constants (see there).
+ * <p>
+ * Pre-condition:
+ * - An instance is not thread-safe; each thread needs its own (see HashAlgorithm.newFunction).
+ * <p>
+ * Post-condition:
+ * - digest returns the hash of everything fed since the previous digest.
+ * <p>
+ * Time Complexity:
+ * - update is O(len); digest is O(1) apart from the buffered tail of the input.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+public interface HashFunction {
+
+    /**
+     * Returns the algorithm this function computes.
+     *
+     * @return The algorithm.
+     * @pre-condition None.
+     * @post-condition None.
+     * @time-complexity O(1).
+     */
+    HashAlgorithm algorithm();
+
+    /**
+     * Feeds a range of bytes.
+     *
+     * @param data The bytes.
+     * @param off  The first byte.
+     * @param len  The number of bytes.
+     * @pre-condition The range [off, off + len) of data is valid.
+     * @post-condition The bytes are part of the next digest.
+     * @time-complexity O(len).
+     */
+    void update(byte[] data, int off, int len);
+
+    /**
+     * Feeds the bytes between a buffer's position and limit.
+     *
+     * @param data The bytes.
+     * @pre-condition data is not null.
+     * @post-condition data's position is advanced to its limit.
+     * @time-complexity O(r) - Where r is the number of remaining bytes.
+     */
+    void update(ByteBuffer data);
+
+    /**
+     * Completes the digest of everything fed so far.
+     *
+     * @param out    The array receiving the 32-byte digest.
+     * @param outOff The position of the digest in out.
+     * @pre-condition [outOff, outOff + 32) of out is valid.
+     * @post-condition out holds the digest; the function is reset.
+     * @time-complexity O(1).
+     */
+    void digest(byte[] out, int outOff);
+
+    /**
+     * Discards everything fed since the previous digest.
+     * The default takes a digest and throws it away; implementations that can reset directly should override it.
+     *
+     * @pre-condition None.
+     * @post-condition The function is reset, as after digest.
+     * @time-complexity O(1) apart from the buffered tail of the input.
+     */
+    default void reset() {
+        digest(new byte[Digest.LENGTH], 0);
+    }
+}
@@ -4,21 +4,203 @@
 package edu.utils;
 
 import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
+/**
+ * The HashUtil class computes SHA-256 digests and their uppercase hex representation.
+ * <p>
+ * Key Features:
+ * - Each thread keeps its own MessageDigest and scratch buffers, so a hash does not look up a provider
+ * or allocate intermediate arrays.
+ * - Hex encoding is table driven: every byte value maps to its two precomputed hex characters.
+ * - Raw 32-byte digests can be written straight into caller-owned arrays.
+ * <p>
+ * Pre-condition:
+ * - Inputs to hash must not be null.
+ * <p>
+ * Post-condition:
+ * - hash(String) returns the same 64-character uppercase hex string as
+ * MessageDigest.getInstance("SHA-256") followed by String.format("%02X") on each byte.
+ * <p>
+ * Time Complexity:
+ * - Hashing is O(m) in the length of the input; hex encoding is O(1) for a 32-byte digest.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
 public class HashUtil {
+
+    /**
+     * Length of a SHA-256 digest in bytes.
+     */
+    public static final int DIGEST_LENGTH = 32;
+
+    // Two hex characters for every byte value: HEX_PAIRS[2 * b] and HEX_PAIRS[2 * b + 1]
+    private static final byte[] HEX_PAIRS = new byte[512];
+
+    // Largest input kept in the per-thread scratch buffer; longer inputs are encoded on their own
+    private static final int MAX_SCRATCH = 1 << 16;
+
+    private static final ThreadLocal<State> STATE = new ThreadLocal<>();
+
+    static {
+        byte[] digits = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+        for (int b = 0; b < 256; b++) {
+            HEX_PAIRS[2 * b] = digits[b >>> 4];
+            HEX_PAIRS[2 * b + 1] = digits[b & 0x0F];
+        }
+    }
+
+    // Per-thread hashing state: a reusable digest plus input and output scratch space
+    private static final class State {
+        private final MessageDigest digest;
+        private final byte[] out = new byte[DIGEST_LENGTH];
+        private final byte[] hex = new byte[2 * DIGEST_LENGTH];
+        private byte[] in = new byte[256];
+
+        private State() throws NoSuchAlgorithmException {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+    }
+
+    private static State state() throws NoSuchAlgorithmException {
+        State state = STATE.get();
+        if (state == null) {
+            state = new State();
+            STATE.set(state);
+        }
+        return state;
+    }
+
+    /**
+     * Hashes the UTF-8 encoding of a string with SHA-256.
+     *
+     * @param text The text to hash.
+     * @return The digest as a 64-character uppercase hex string.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @throws IllegalArgumentException If text is null.
+     * @pre-condition text is not null.
+     * @post-condition The calling thread's digest is left reset and ready for the next call.
+     * @time-complexity O(m) - Where m is the length of the text.
+     */
     public static String hash(String text) throws NoSuchAlgorithmException {
         if (text == null) {
             throw new IllegalArgumentException("Input to hash cannot be null or empty.");
         }
-        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-        byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i <= 31; i++) {
-            byte b = hash[i];
-            sb.append(String.format("%02X", b));
+        State state = state();
+        MessageDigest digest = state.digest;
+
+        int length = text.length();
+        if (length <= MAX_SCRATCH && encodeAscii(text, state)) {
+            digest.update(state.in, 0, length);
+        } else {
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+        }
+        finish(digest, state.out, 0);
+        toHex(state.out, 0, DIGEST_LENGTH, state.hex, 0);
+        return new String(state.hex, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Hashes a range of bytes with SHA-256 into a caller-owned array.
+     *
+     * @param data   The bytes to hash.
+     * @param off    The first byte to hash.
+     * @param len    The number of bytes to hash.
+     * @param out    The array receiving the 32-byte digest.
+     * @param outOff The position in out where the digest starts.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition The ranges [off, off + len) of data and [outOff, outOff + 32) of out are valid.
+     * @post-condition out holds the digest; nothing else is allocated.
+     * @time-complexity O(len) - Each input byte is fed to the digest once.
+     */
+    public static void digest(byte[] data, int off, int len, byte[] out, int outOff) throws NoSuchAlgorithmException {
+        MessageDigest digest = state().digest;
+        digest.update(data, off, len);
+        finish(digest, out, outOff);
+    }
+
+    /**
+     * Hashes a range of bytes with SHA-256.
+     *
+     * @param data The bytes to hash.
+     * @param off  The first byte to hash.
+     * @param len  The number of bytes to hash.
+     * @return A new 32-byte array holding the digest.
+     * @throws NoSuchAlgorithmException If the hashing algorithm is not available.
+     * @pre-condition The range [off, off + len) of data is valid.
+     * @post-condition The input is not modified.
+     * @time-complexity O(len) - Each input byte is fed to the digest once.
+     */
+    public static byte[] digest(byte[] data, int off, int len) throws NoSuchAlgorithmException {
+        byte[] out = new byte[DIGEST_LENGTH];
+        digest(data, off, len, out, 0);
+        return out;
+    }
+
+    /**
+     * Writes the uppercase hex encoding of a byte range as ASCII bytes.
+     *
+     * @param src    The bytes to encode.
+     * @param off    The first byte to encode.
+     * @param len    The number of bytes to encode.
+     * @param dst    The array receiving 2 * len ASCII hex characters.
+     * @param dstOff The position in dst where the characters start.
+     * @pre-condition The ranges [off, off + len) of src and [dstOff, dstOff + 2 * len) of dst are valid.
+     * @post-condition dst holds the hex characters, most significant nibble first.
+     * @time-complexity O(len) - Two table lookups per byte.
+     */
+    public static void toHex(byte[] src, int off, int len, byte[] dst, int dstOff) {
+        for (int i = 0; i < len; i++) {
+            int pair = (src[off + i] & 0xFF) << 1;
+            dst[dstOff++] = HEX_PAIRS[pair];
+            dst[dstOff++] = HEX_PAIRS[pair + 1];
+        }
+    }
+
+    /**
+     * Returns the uppercase hex encoding of a byte range.
+     *
+     * @param src The bytes to encode.
+     * @param off The first byte to encode.
+     * @param len The number of bytes to encode.
+     * @return A string of 2 * len uppercase hex characters.
+     * @pre-condition The range [off, off + len) of src is valid.
+     * @post-condition The input is not modified.
+     * @time-complexity O(len) - Two table lookups per byte.
+     */
+    public static String toHex(byte[] src, int off, int len) {
+        byte[] hex = new byte[2 * len];
+        toHex(src, off, len, hex, 0);
+        return new String(hex, StandardCharsets.ISO_8859_1);
+    }
+
+    // Copies an ASCII-only string into the scratch buffer; returns false if any character needs real UTF-8 encoding
+    private static boolean encodeAscii(String text, State state) {
+        int length = text.length();
+        byte[] in = state.in;
+        if (in.length < length) {
+            in = new byte[Math.max(length, in.length * 2)];
+            state.in = in;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                return false;
+            }
+            in[i] = (byte) c;
+        }
+        return true;
+    }
+
+    private static void finish(MessageDigest digest, byte[] out, int outOff) {
+        try {
+            digest.digest(out, outOff, DIGEST_LENGTH);
+        } catch (DigestException e) {
+            // Cannot happen: the output range always has room for a full SHA-256 digest
+            throw new IllegalStateException(e);
         }
-        return sb.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+//Andrew ID: mpanindr
+//Name: Manjunath K P
+
+package edu.utils;
+
+import java.nio.ByteBuffer;
+import java.security.DigestException;
+import java.security.MessageDigest;
+
+/**
+ * The MessageDigestFunction class adapts a 32-byte MessageDigest from a security provider to HashFunction.
+ * <p>
+ * Author: Manjunath K P
+ * Andrew ID: mpanindr
+ */
+final class MessageDigestFunction implements HashFunction {
+
+    private final HashAlgorithm algorithm;
+    private final MessageDigest digest;
+
+    MessageDigestFunction(HashAlgorithm algorithm, MessageDigest digest) {
+        this.algorithm = algorithm;
+        this.digest = digest;
+    }
+
+    @Override
+    public HashAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public void update(byte[] data, int off, int len) {
+        digest.update(data, off, len);
+    }
+
+    @Override
+    public void update(ByteBuffer data) {
+        digest.update(data);
+    }
+
+    @Override
+    public void digest(byte[] out, int outOff) {
+        try {
+            digest.digest(out, outOff, Digest.LENGTH);
+        } catch (DigestException e) {
+            // Cannot happen: the output range always has room for a full digest
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void reset() {
+        digest.reset();
+    }
+}
@@ -0,0 +1,103 @@
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.HashAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchProofVerifierTest {
+
+    private static String[] lines(int count) {
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = "Row " + i;
+        }
+        return lines;
+    }
+
+    // Test that every proof of trees of many sizes passes in one batch, in both modes
+    @Test
+    void testAllProofsPass() throws NoSuchAlgorithmException {
+        for (TreeMode mode : TreeMode.values()) {
+            for (int count = 1; count <= 40; count++) {
+                String[] lines = lines(count);
+                RetainedMerkleTree tree = RetainedMerkleTree.build(lines, mode);
+                BatchProofVerifier verifier = new BatchProofVerifier(tree.formattedRoot(), count);
+                for (int i = count - 1; i >= 0; i--) {
+                    verifier.add(lines[i], tree.proof(i));
+                }
+                assertEquals(count, verifier.size());
+                assertEquals(List.of(), verifier.verify(), "count " + count);
+                assertEquals(0, verifier.size());
+            }
+        }
+    }
+
+    // Test that exactly the bad proofs are reported, and that they do not spoil the good ones after them
+    @Test
+    void testFailuresAreReported() throws NoSuchAlgorithmException {
+        String[] lines = lines(21);
+        RetainedMerkleTree tree = RetainedMerkleTree.build(lines, TreeMode.BINARY, HashAlgorithm.BLAKE3);
+        BatchProofVerifier verifier = new BatchProofVerifier(tree.formattedRoot(), lines.length);
+
+        InclusionProof proof = tree.proof(7);
+        byte[] siblings = new byte[proof.length() * 32];
+        for (int k = 0; k < proof.length(); k++) {
+            proof.sibling(k).writeTo(siblings, k * 32);
+        }
+        siblings[3 * 32] ^= 1;
+
+        InclusionProof badSibling = new InclusionProof(TreeMode.BINARY, HashAlgorithm.BLAKE3, 7, 21, siblings);
+        InclusionProof badCount = new InclusionProof(TreeMode.BINARY, HashAlgorithm.BLAKE3, 20, 22, siblings);
+        InclusionProof badAlgorithm = RetainedMerkleTree.build(lines, TreeMode.BINARY).proof(3);
+
+        verifier.add(lines[6] + "x", tree.proof(6));
+        verifier.add(lines[6], tree.proof(6));
+        verifier.add(lines[7], badSibling);
+        verifier.add(lines[7], tree.proof(7));
+        verifier.add(lines[8], tree.proof(9));
+        verifier.add(lines[20], badCount);
+        verifier.add(lines[20], tree.proof(20));
+        verifier.add(lines[3], badAlgorithm);
+        assertEquals(List.of(0, 2, 4, 5, 7), verifier.verify());
+
+        // The same tampering is caught after the path is known
+        verifier.add(lines[7], badSibling);
+        verifier.add(lines[6] + "x", tree.proof(6));
+        verifier.add(lines[6], tree.proof(6));
+        assertEquals(List.of(0, 1), verifier.verify());
+    }
+
+    // Test that shared nodes are hashed once: a batch over every leaf costs n - 1 parent hashes, not n log n
+    @Test
+    void testSharedNodesAreHashedOnce() throws NoSuchAlgorithmException {
+        int count = 4096;
+        String[] lines = lines(count);
+        RetainedMerkleTree tree = RetainedMerkleTree.build(lines, TreeMode.LEGACY_HEX);
+
+        BatchProofVerifier inOrder = new BatchProofVerifier(tree.formattedRoot(), count);
+        for (int i = 0; i < count; i++) {
+            inOrder.add(lines[i], tree.proof(i));
+        }
+        assertTrue(inOrder.verify().isEmpty());
+        assertEquals(count - 1, inOrder.parentHashCount());
+
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, new Random(3));
+        BatchProofVerifier shuffled = new BatchProofVerifier(tree.formattedRoot(), count);
+        for (int i : order) {
+            shuffled.add(lines[i], tree.proof(i));
+        }
+        assertTrue(shuffled.verify().isEmpty());
+        assertTrue(shuffled.parentHashCount() <= count - 1);
+    }
+}
@@ -0,0 +1,113 @@
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.HashAlgorithm;
+import edu.utils.Digest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentDefinedChunkerTest {
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static List<Digest> chunks(byte[] data, int pieceSize) throws NoSuchAlgorithmException {
+        List<Digest> digests = new ArrayList<>();
+        ContentDefinedChunker chunker = new ContentDefinedChunker(512, 2048, 8192, (d, off) -> digests.add(Digest.read(d, off)));
+        for (int i = 0; i < data.length; i += pieceSize) {
+            chunker.feed(ByteBuffer.wrap(data, i, Math.min(pieceSize, data.length - i)));
+        }
+        chunker.finish();
+        return digests;
+    }
+
+    // Test that the chunks do not depend on how the stream is split into buffers
+    @Test
+    void testSplitInvariance() throws NoSuchAlgorithmException {
+        byte[] data = randomBytes(300_000, 1);
+        List<Digest> whole = chunks(data, data.length);
+        for (int pieceSize : new int[]{1, 7, 64, 1000, 4096, 65_536}) {
+            assertEquals(whole, chunks(data, pieceSize), "piece size " + pieceSize);
+        }
+    }
+
+    // Test that chunk sizes respect the bounds and average near the requested size
+    @Test
+    void testChunkSizes() throws NoSuchAlgorithmException {
+        byte[] data = randomBytes(1 << 20, 2);
+        List<Integer> sizes = new ArrayList<>();
+        ContentDefinedChunker chunker = new ContentDefinedChunker(512, 2048, 8192, (d, off) -> { });
+        int last = 0;
+        for (int i = 0; i < data.length; i++) {
+            chunker.feed(ByteBuffer.wrap(data, i, 1));
+            if (chunker.chunkCount() > sizes.size()) {
+                sizes.add(i + 1 - last);
+                last = i + 1;
+            }
+        }
+        for (int size : sizes) {
+            assertTrue(size >= 512 && size <= 8192, "chunk of " + size + " bytes");
+        }
+        double average = (double) last / sizes.size();
+        assertTrue(average > 1024 && average < 4096, "average chunk size " + average);
+    }
+
+    // Test that an insertion near the start leaves almost every later chunk unchanged
+    @Test
+    void testShiftResistance() throws NoSuchAlgorithmException {
+        byte[] original = randomBytes(1 << 20, 3);
+        byte[] edited = new byte[original.length + 10];
+        System.arraycopy(original, 0, edited, 0, 1000);
+        System.arraycopy(original, 1000, edited, 1010, original.length - 1000);
+
+        List<Digest> before = chunks(original, 65_536);
+        Set<Digest> after = new HashSet<>(chunks(edited, 65_536));
+        long shared = before.stream().filter(after::contains).count();
+        assertTrue(shared >= before.size() - 3, shared + " of " + before.size() + " chunks shared");
+    }
+
+    // Test the stream root against the chunk digests, and rejection of empty input and bad sizes
+    @Test
+    void testRootAndValidation() throws Exception {
+        byte[] data = randomBytes(100_000, 4);
+        StreamingMerkleBuilder builder = new StreamingMerkleBuilder(TreeMode.BINARY);
+        for (Digest digest : chunks(data, 999)) {
+            builder.addLeafDigest(digest.toBytes(), 0);
+        }
+        assertEquals(builder.formattedRoot(), ContentDefinedChunker.computeMerkleRoot(
+                new ByteArrayInputStream(data), TreeMode.BINARY, 512, 2048, 8192));
+
+        assertThrows(IllegalArgumentException.class, () -> ContentDefinedChunker.computeMerkleRoot(
+                new ByteArrayInputStream(new byte[0]), TreeMode.BINARY, 512, 2048, 8192));
+        assertThrows(IllegalArgumentException.class, () -> new ContentDefinedChunker(512, 3000, 8192, (d, off) -> { }));
+        assertThrows(IllegalArgumentException.class, () -> new ContentDefinedChunker(32, 64, 128, (d, off) -> { }));
+        assertTrue(ContentDefinedChunker.computeMerkleRoot("CrimeLatLonXY.csv", TreeMode.LEGACY_HEX).matches("[0-9A-F]{64}"));
+    }
+
+    // Test that chunks and parents are hashed with the chosen algorithm and the root carries its tag
+    @Test
+    void testAlgorithm() throws Exception {
+        byte[] data = randomBytes(50_000, 5);
+        StreamingMerkleBuilder builder = new StreamingMerkleBuilder(TreeMode.BINARY, HashAlgorithm.BLAKE3);
+        ContentDefinedChunker chunker = new ContentDefinedChunker(512, 2048, 8192, HashAlgorithm.BLAKE3,
+                builder::addLeafDigest);
+        chunker.feed(ByteBuffer.wrap(data));
+        chunker.finish();
+        String root = ContentDefinedChunker.computeMerkleRoot(new ByteArrayInputStream(data), TreeMode.BINARY,
+                HashAlgorithm.BLAKE3, 512, 2048, 8192);
+        assertEquals(builder.formattedRoot(), root);
+        assertTrue(root.startsWith("v2+blake3:"), root);
+    }
+}
@@ -0,0 +1,156 @@
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.HashAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileTailerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static String rootOf(String text, TreeMode mode) throws IOException, NoSuchAlgorithmException {
+        return StreamingMerkleBuilder.computeMerkleRoot(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), mode);
+    }
+
+    private static void append(Path file, String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // Test that polling after every append gives the root of the complete lines written so far
+    @Test
+    void testPollMatchesFullRecompute() throws IOException, NoSuchAlgorithmException {
+        for (TreeMode mode : TreeMode.values()) {
+            Path file = tempDir.resolve("grow-" + mode + ".csv");
+            Files.createFile(file);
+            FileTailer tailer = new FileTailer(file, mode);
+            StringBuilder complete = new StringBuilder();
+            for (int i = 0; i < 200; i++) {
+                String row = "row," + i + ",é\n";
+                append(file, row);
+                complete.append(row);
+                assertEquals(1, tailer.poll());
+                assertEquals(rootOf(complete.toString(), mode), tailer.root(), "row " + i);
+            }
+            assertEquals(Files.size(file), tailer.offset());
+            assertEquals(MerkleTree.computeMerkleRoot(MerkleTree.readFileLines(file.toString()), mode), tailer.root());
+        }
+    }
+
+    // Test that unfinished lines and "\r\n" pairs split between polls are handled like readLine
+    @Test
+    void testSplitLinesAndTerminators() throws IOException, NoSuchAlgorithmException {
+        Path file = tempDir.resolve("split.txt");
+        Files.createFile(file);
+        FileTailer tailer = new FileTailer(file, TreeMode.LEGACY_HEX);
+
+        append(file, "first\r");
+        assertEquals(1, tailer.poll());
+        append(file, "\nsec");
+        assertEquals(0, tailer.poll());
+        assertEquals(rootOf("first", TreeMode.LEGACY_HEX), tailer.root());
+        append(file, "ond\r");
+        assertEquals(1, tailer.poll());
+        append(file, "\rthird\n\nlast");
+        assertEquals(3, tailer.poll());
+        assertEquals(1, tailer.drain());
+
+        String text = "first\r\nsecond\r\rthird\n\nlast";
+        assertEquals(rootOf(text, TreeMode.LEGACY_HEX), tailer.root());
+        assertEquals(6, tailer.lineCount());
+    }
+
+    // Test that a partial line longer than the read buffer is dropped on poll and hashed whole once it ends
+    @Test
+    void testLongPartialLine() throws IOException, NoSuchAlgorithmException {
+        Path file = tempDir.resolve("long.txt");
+        String head = "x".repeat(200_000);
+        append(file, "short\r");
+        append(file, head);
+        FileTailer tailer = new FileTailer(file, TreeMode.BINARY, HashAlgorithm.BLAKE3);
+        assertEquals(1, tailer.poll());
+        assertEquals(6, tailer.offset());
+        assertEquals(0, tailer.poll());
+        assertEquals(6, tailer.offset());
+
+        append(file, "tail\r\nlast");
+        assertEquals(1, tailer.poll());
+        assertEquals(6 + head.length() + 6, tailer.offset());
+        assertEquals(1, tailer.drain());
+        StreamingMerkleBuilder expected = new StreamingMerkleBuilder(TreeMode.BINARY, HashAlgorithm.BLAKE3);
+        expected.addLine("short");
+        expected.addLine(head + "tail");
+        expected.addLine("last");
+        assertEquals(expected.formattedRoot(), tailer.root());
+    }
+
+    // Test that random appends, polls and checkpoint restarts agree with a full recompute
+    @Test
+    void testCheckpointResume() throws IOException, NoSuchAlgorithmException {
+        Random random = new Random(42);
+        Path file = tempDir.resolve("random.txt");
+        Path checkpoint = tempDir.resolve("random.ckpt");
+        Files.createFile(file);
+        StringBuilder text = new StringBuilder();
+        FileTailer tailer = new FileTailer(file, TreeMode.BINARY);
+
+        String[] pieces = {"a", "bc", "\n", "\r", "\r\n", "x".repeat(70_000), "ü"};
+        for (int step = 0; step < 300; step++) {
+            String piece = pieces[random.nextInt(pieces.length)];
+            append(file, piece);
+            text.append(piece);
+            tailer.poll();
+            if (random.nextInt(10) == 0) {
+                tailer.saveCheckpoint(checkpoint);
+                tailer = FileTailer.resume(file, checkpoint);
+            }
+        }
+        tailer.drain();
+        assertEquals(rootOf(text.toString(), TreeMode.BINARY), tailer.root());
+    }
+
+    // Test that a tailer hashes leaves with its own algorithm, also after resuming from a checkpoint
+    @Test
+    void testAlgorithmSurvivesResume() throws IOException, NoSuchAlgorithmException {
+        Path file = tempDir.resolve("blake3.txt");
+        Path checkpoint = tempDir.resolve("blake3.ckpt");
+        append(file, "one\ntwo\n");
+        FileTailer tailer = new FileTailer(file, TreeMode.BINARY, HashAlgorithm.BLAKE3);
+        tailer.poll();
+        tailer.saveCheckpoint(checkpoint);
+        append(file, "three\n");
+        tailer = FileTailer.resume(file, checkpoint);
+        tailer.poll();
+
+        StreamingMerkleBuilder expected = new StreamingMerkleBuilder(TreeMode.BINARY, HashAlgorithm.BLAKE3);
+        for (String line : new String[]{"one", "two", "three"}) {
+            expected.addLine(line);
+        }
+        assertEquals(expected.formattedRoot(), tailer.root());
+        assertTrue(tailer.root().startsWith("v2+blake3:"));
+    }
+
+    // Test that a checkpoint ahead of the file is rejected
+    @Test
+    void testTruncatedFileRejected() throws IOException, NoSuchAlgorithmException {
+        Path file = tempDir.resolve("short.txt");
+        Path checkpoint = tempDir.resolve("short.ckpt");
+        append(file, "one\ntwo\n");
+        FileTailer tailer = new FileTailer(file, TreeMode.LEGACY_HEX);
+        tailer.poll();
+        tailer.saveCheckpoint(checkpoint);
+        Files.write(file, "one\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> FileTailer.resume(file, checkpoint));
+    }
+}
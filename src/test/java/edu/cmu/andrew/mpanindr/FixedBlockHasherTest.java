@@ -0,0 +1,84 @@
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.HashAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedBlockHasherTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Reference: hash each block sequentially and stream the digests into a builder
+    private static String sequentialRoot(byte[] data, int blockSize, TreeMode mode) throws NoSuchAlgorithmException {
+        StreamingMerkleBuilder builder = new StreamingMerkleBuilder(mode);
+        for (int i = 0; i < data.length; i += blockSize) {
+            builder.addLeaf(data, i, Math.min(blockSize, data.length - i));
+        }
+        return builder.formattedRoot();
+    }
+
+    // Test that the root matches a sequential computation for any block size and thread count
+    @Test
+    void testMatchesSequential() throws IOException, NoSuchAlgorithmException {
+        byte[] data = new byte[1_000_003];
+        new Random(5).nextBytes(data);
+        Path file = Files.write(tempDir.resolve("blob.bin"), data);
+        for (TreeMode mode : TreeMode.values()) {
+            for (int blockSize : new int[]{4096, 65_536, 1 << 20, 1 << 21}) {
+                String expected = sequentialRoot(data, blockSize, mode);
+                for (int threads : new int[]{1, 3, 8}) {
+                    assertEquals(expected, new FixedBlockHasher(blockSize, threads).computeMerkleRoot(file.toString(), mode),
+                            "block " + blockSize + " threads " + threads);
+                }
+            }
+        }
+    }
+
+    // Test the packed block digests and an exact multiple of the block size
+    @Test
+    void testBlockDigests() throws IOException, NoSuchAlgorithmException {
+        byte[] data = new byte[3 * 4096];
+        Arrays.fill(data, 4096, 8192, (byte) 1);
+        Path file = Files.write(tempDir.resolve("blocks.bin"), data);
+        byte[] leaves = new FixedBlockHasher(4096, 2).hashBlocks(file);
+        assertEquals(3 * 32, leaves.length);
+        assertArrayEquals(Arrays.copyOfRange(leaves, 0, 32), Arrays.copyOfRange(leaves, 64, 96));
+        assertFalse(Arrays.equals(Arrays.copyOfRange(leaves, 0, 32), Arrays.copyOfRange(leaves, 32, 64)));
+    }
+
+    // Test that blocks and parents are hashed with the chosen algorithm and the root carries its tag
+    @Test
+    void testAlgorithm() throws IOException, NoSuchAlgorithmException {
+        byte[] data = new byte[5 * 1000 + 7];
+        new Random(9).nextBytes(data);
+        Path file = Files.write(tempDir.resolve("blake3.bin"), data);
+        FixedBlockHasher hasher = new FixedBlockHasher(1000, 3);
+        byte[] leaves = hasher.hashBlocks(file, HashAlgorithm.BLAKE3);
+        assertFalse(Arrays.equals(hasher.hashBlocks(file), leaves));
+
+        String expected = TreeMode.BINARY.formatRoot(RetainedMerkleTree.fromLeafDigests(leaves, 6, TreeMode.BINARY,
+                HashAlgorithm.BLAKE3).root(), HashAlgorithm.BLAKE3);
+        assertEquals(expected, hasher.computeMerkleRoot(file.toString(), TreeMode.BINARY, HashAlgorithm.BLAKE3));
+        assertTrue(expected.startsWith("v2+blake3:"), expected);
+    }
+
+    // Test that empty files and invalid parameters are rejected
+    @Test
+    void testValidation() throws IOException {
+        Path empty = Files.createFile(tempDir.resolve("empty.bin"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FixedBlockHasher().computeMerkleRoot(empty.toString(), TreeMode.BINARY));
+        assertThrows(IllegalArgumentException.class, () -> new FixedBlockHasher(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new FixedBlockHasher(4096, 0));
+    }
+}
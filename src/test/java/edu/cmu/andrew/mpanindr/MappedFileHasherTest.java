@@ -0,0 +1,95 @@
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.HashAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileHasherTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String rootWithWindow(Path file, long window) throws IOException, NoSuchAlgorithmException {
+        StreamingMerkleBuilder builder = new StreamingMerkleBuilder(TreeMode.LEGACY_HEX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedFileHasher.hashLines(channel, 0, channel.size(), window, builder::addLeafDigest);
+        }
+        return builder.formattedRoot();
+    }
+
+    // Test that the bundled files give the same roots as readFileLines
+    @Test
+    void testBundledFiles() throws IOException, NoSuchAlgorithmException {
+        for (String file : new String[]{"CrimeLatLonXY.csv", "CrimeLatLonXY1990_Size3.csv", "smallFile.txt",
+                "src/test/resources/sampleFile.txt"}) {
+            assertEquals(MerkleTree.computeMerkleRoot(MerkleTree.readFileLines(file)),
+                    MappedFileHasher.computeMerkleRoot(file, TreeMode.LEGACY_HEX), file);
+        }
+    }
+
+    // Test terminators, empty lines, multi-byte characters and long lines across many small windows
+    @Test
+    void testWindowBoundaries() throws IOException, NoSuchAlgorithmException {
+        Random random = new Random(7);
+        String[] pieces = {"a", "bc", "\n", "\r", "\r\n", "é", "漢字", "", "x".repeat(40)};
+        for (int trial = 0; trial < 40; trial++) {
+            StringBuilder text = new StringBuilder();
+            int count = 1 + random.nextInt(60);
+            for (int i = 0; i < count; i++) {
+                text.append(pieces[random.nextInt(pieces.length)]);
+            }
+            Path file = tempDir.resolve("trial" + trial + ".txt");
+            Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+
+            SinglyLinkedList lines = MerkleTree.readFileLines(file.toString());
+            if (lines.countNodes() == 0) {
+                continue;
+            }
+            String expected = MerkleTree.computeMerkleRoot(lines);
+            for (long window : new long[]{8, 9, 13, 64, MappedFileHasher.DEFAULT_WINDOW}) {
+                assertEquals(expected, rootWithWindow(file, window), "trial " + trial + " window " + window);
+            }
+        }
+    }
+
+    // Test that a "\r\n" split exactly at a window boundary counts as one terminator
+    @Test
+    void testCarriageReturnAtWindowEnd() throws IOException, NoSuchAlgorithmException {
+        Path file = tempDir.resolve("crlf.txt");
+        Files.write(file, "1234567\r\nabc".getBytes(StandardCharsets.UTF_8));
+        assertEquals(MerkleTree.computeMerkleRoot(MerkleTree.readFileLines(file.toString())), rootWithWindow(file, 8));
+    }
+
+    // Test that the mapped hasher and the retained builders honour a non-default algorithm
+    @Test
+    void testAlgorithm() throws IOException, NoSuchAlgorithmException {
+        String expected = MerkleTree.computeMerkleRoot(MerkleTree.readFileLines("smallFile.txt"), TreeMode.BINARY,
+                HashAlgorithm.SHA3_256);
+        assertEquals(expected, MappedFileHasher.computeMerkleRoot("smallFile.txt", TreeMode.BINARY, HashAlgorithm.SHA3_256));
+        assertEquals(expected, TreeMode.BINARY.formatRoot(RetainedMerkleTree.build(Path.of("smallFile.txt"),
+                TreeMode.BINARY, HashAlgorithm.SHA3_256).root(), HashAlgorithm.SHA3_256));
+        try (RetainedMerkleTree tree = RetainedMerkleTree.buildOffHeap(Path.of("smallFile.txt"), TreeMode.BINARY,
+                HashAlgorithm.SHA3_256)) {
+            assertEquals(expected, TreeMode.BINARY.formatRoot(tree.root(), HashAlgorithm.SHA3_256));
+        }
+    }
+
+    // Test that an empty file has no lines
+    @Test
+    void testEmptyFile() throws IOException, NoSuchAlgorithmException {
+        assertEquals(0, MappedFileHasher.hashLines(Path.of("src/test/resources/emptyFile.txt"), (digest, off) -> fail()));
+        assertThrows(IllegalArgumentException.class,
+                () -> MappedFileHasher.computeMerkleRoot("src/test/resources/emptyFile.txt", TreeMode.LEGACY_HEX));
+    }
+}
@@ -0,0 +1,115 @@
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerkleLevelBuilderTest {
+
+    // Reference implementation: the original list-based algorithm, kept here to pin the roots
+    private static String listBasedRoot(SinglyLinkedList list) throws NoSuchAlgorithmException {
+        if (list.countNodes() % 2 != 0) {
+            list.duplicateLastNode();
+        }
+        SinglyLinkedList currentLevel = new SinglyLinkedList();
+        for (int i = 0; i < list.countNodes(); i++) {
+            currentLevel.addAtEndNode(HashUtil.hash(list.getObjectAt(i).toString()));
+        }
+        while (currentLevel.countNodes() > 1) {
+            if (currentLevel.countNodes() % 2 != 0) {
+                currentLevel.duplicateLastNode();
+            }
+            SinglyLinkedList nextLevel = new SinglyLinkedList();
+            for (int i = 0; i < currentLevel.countNodes(); i += 2) {
+                String leftHash = currentLevel.getObjectAt(i).toString();
+                String rightHash = currentLevel.getObjectAt(i + 1).toString();
+                nextLevel.addAtEndNode(HashUtil.hash(leftHash + rightHash));
+            }
+            currentLevel = nextLevel;
+        }
+        return currentLevel.getObjectAt(0).toString();
+    }
+
+    private static SinglyLinkedList lines(int count) {
+        SinglyLinkedList list = new SinglyLinkedList();
+        for (int i = 0; i < count; i++) {
+            list.addAtEndNode("Line " + i);
+        }
+        return list;
+    }
+
+    // Test that the level engine matches the list-based algorithm for every small size
+    @Test
+    void testMatchesListBasedAlgorithm() throws NoSuchAlgorithmException {
+        for (int count = 1; count <= 40; count++) {
+            assertEquals(listBasedRoot(lines(count)), MerkleTree.computeMerkleRoot(lines(count)), "count " + count);
+        }
+    }
+
+    // Test the roots of the bundled files against the values produced before the level engine
+    @Test
+    void testKnownFileRoots() throws IOException, NoSuchAlgorithmException {
+        assertEquals("BE263C0044B95044951327B0D9ABBD7E4E3719CC1AE59B57DF059945616219C1",
+                MerkleTree.computeMerkleRoot(MerkleTree.readFileLines("smallFile.txt")));
+        assertEquals("313A2AD830ED85B5203C8C2A9895ADFA521CD4ABB74B83C25DA2C6A47AE08818",
+                MerkleTree.computeMerkleRoot(MerkleTree.readFileLines("CrimeLatLonXY1990_Size3.csv")));
+    }
+
+    // Test that a single leaf is paired with itself
+    @Test
+    void testSingleLeaf() throws NoSuchAlgorithmException {
+        TreeHasher hasher = new TreeHasher(TreeMode.LEGACY_HEX);
+        byte[] leaves = new byte[32];
+        hasher.leaf("only", leaves, 0);
+        String leaf = HashUtil.hash("only");
+        assertEquals(HashUtil.hash(leaf + leaf), MerkleLevelBuilder.computeRoot(leaves, 1, hasher).toHex());
+    }
+
+    // Test that an odd level pairs its last digest with itself
+    @Test
+    void testNextLevelOddSize() throws NoSuchAlgorithmException {
+        TreeHasher hasher = new TreeHasher(TreeMode.LEGACY_HEX);
+        byte[] level = new byte[3 * 32];
+        for (int i = 0; i < 3; i++) {
+            hasher.leaf("Line " + i, level, i * 32);
+        }
+        byte[] parents = MerkleLevelBuilder.nextLevel(level, 3, hasher);
+
+        String h0 = HashUtil.hash("Line 0");
+        String h1 = HashUtil.hash("Line 1");
+        String h2 = HashUtil.hash("Line 2");
+        assertEquals(HashUtil.hash(h0 + h1), Digest.read(parents, 0).toHex());
+        assertEquals(HashUtil.hash(h2 + h2), Digest.read(parents, 32).toHex());
+    }
+
+    // Test that an empty leaf level is rejected
+    @Test
+    void testEmptyLeaves() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MerkleLevelBuilder.computeRoot(new byte[0], 0, new TreeHasher(TreeMode.LEGACY_HEX)));
+    }
+
+    // Test that a leaf count whose packed size overflows an int is rejected instead of wrapping around
+    @Test
+    void testPackedLengthCap() {
+        assertEquals(MerkleLevelBuilder.MAX_LEAVES * 32, MerkleLevelBuilder.packedLength(MerkleLevelBuilder.MAX_LEAVES));
+        assertThrows(IllegalArgumentException.class,
+                () -> MerkleLevelBuilder.packedLength(MerkleLevelBuilder.MAX_LEAVES + 1));
+        assertThrows(IllegalArgumentException.class, () -> MerkleLevelBuilder.packedLength(67_108_864L));
+    }
+
+    // Regression test: a multi-million-leaf list must be rooted in linear time.
+    // The list-based algorithm needed on the order of 10^12 node hops here and never finished.
+    @Test
+    void testMultiMillionLeavesStayLinear() {
+        SinglyLinkedList list = lines(2_000_000);
+        String root = assertTimeoutPreemptively(Duration.ofSeconds(120), () -> MerkleTree.computeMerkleRoot(list));
+        assertEquals(64, root.length());
+    }
+}
@@ -0,0 +1,160 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerkleMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Test the hash, leaf, byte and level counts of one build, read as snapshot deltas. The metrics are global, so
+    // work from other threads may add to the deltas; they are checked as lower bounds
+    @Test
+    void testBuildCounters() throws Exception {
+        MetricsSnapshot before = MerkleMetrics.global().snapshot();
+        RetainedMerkleTree.build(new String[]{"a", "bb", "c", "dd", "e"}, TreeMode.BINARY);
+        MetricsSnapshot after = MerkleMetrics.global().snapshot();
+
+        // 5 leaves, then levels of 3, 2 and 1 parents
+        assertTrue(after.hashesComputed() - before.hashesComputed() >= 11);
+        assertTrue(after.leavesHashed() - before.leavesHashed() >= 5);
+        assertTrue(after.bytesIngested() - before.bytesIngested() >= 7);
+        assertTrue(after.levelsBuilt() - before.levelsBuilt() >= 3);
+        assertTrue(after.peakLevelBytes() >= 3 * 32);
+        assertTrue(after.levelBuildMaxNanos() >= after.levelBuildP99Nanos());
+        assertTrue(after.leavesPerSecondSince(before) > 0);
+    }
+
+    // Test that the streaming builder reports its frontier and flushes its hasher when the root is read
+    @Test
+    void testStreamingFrontier() throws Exception {
+        MetricsSnapshot before = MerkleMetrics.global().snapshot();
+        StreamingMerkleBuilder builder = new StreamingMerkleBuilder(TreeMode.BINARY);
+        for (int i = 0; i < 7; i++) {
+            builder.addLine("line" + i);
+        }
+        builder.root();
+        MetricsSnapshot after = MerkleMetrics.global().snapshot();
+
+        assertTrue(after.leavesHashed() - before.leavesHashed() >= 7);
+        assertTrue(after.hashesComputed() - before.hashesComputed() > 7);
+        assertTrue(after.peakFrontierBytes() >= 3 * 32);
+        // The fold of 7 leaves climbs 3 levels
+        assertTrue(after.levelsBuilt() - before.levelsBuilt() >= 3);
+    }
+
+    // Test that the blocks of a parallel build record their levels
+    @Test
+    void testParallelLevels() throws Exception {
+        String[] lines = new String[64];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "line" + i;
+        }
+        MetricsSnapshot before = MerkleMetrics.global().snapshot();
+        new ParallelMerkleBuilder(ForkJoinPool.commonPool(), 8).computeRoot(lines, TreeMode.BINARY);
+        MetricsSnapshot after = MerkleMetrics.global().snapshot();
+
+        // 8 blocks of 3 levels each, then 3 levels over the 8 block roots
+        assertTrue(after.levelsBuilt() - before.levelsBuilt() >= 8 * 3 + 3);
+    }
+
+    // Test that reading the rate over JMX has no side effect: two reads in a row both see the whole history
+    @Test
+    void testLeavesPerSecondIsSideEffectFree() throws Exception {
+        RetainedMerkleTree.build(new String[]{"a", "b", "c"}, TreeMode.BINARY);
+        MerkleMetrics metrics = MerkleMetrics.global();
+        assertTrue(metrics.getLeavesPerSecond() > 0);
+        assertTrue(metrics.getLeavesPerSecond() > 0);
+    }
+
+    // Test that polls of a file ending in a partial line count only the complete lines. The partial line spans two
+    // read buffers, so each poll feeds and then discards part of it; counting it would add a leaf and 64 KiB per poll
+    @Test
+    void testTailerCountsOnlyCompleteLines() throws Exception {
+        Path file = Files.write(tempDir.resolve("tail.txt"),
+                ("a\n" + "x".repeat(100_000)).getBytes(StandardCharsets.UTF_8));
+        FileTailer tailer = new FileTailer(file, TreeMode.BINARY);
+        MetricsSnapshot before = MerkleMetrics.global().snapshot();
+        for (int i = 0; i < 20; i++) {
+            tailer.poll();
+        }
+        MetricsSnapshot polled = MerkleMetrics.global().snapshot();
+        assertEquals(1, tailer.lineCount());
+        assertTrue(polled.leavesHashed() - before.leavesHashed() < 10);
+        assertTrue(polled.bytesIngested() - before.bytesIngested() < 100_000);
+
+        Files.write(file, "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertEquals(1, tailer.poll());
+        MetricsSnapshot after = MerkleMetrics.global().snapshot();
+        assertTrue(after.leavesHashed() - polled.leavesHashed() >= 1);
+        assertTrue(after.bytesIngested() - polled.bytesIngested() >= 100_000);
+    }
+
+    // Test that RootCache lookups are counted, with a stale entry counted as a miss
+    @Test
+    void testCacheHitsAndMisses() throws Exception {
+        Path file = Files.write(tempDir.resolve("a.txt"), "one\n".getBytes(StandardCharsets.UTF_8));
+        RootCache cache = new RootCache(10, false);
+        MetricsSnapshot before = MerkleMetrics.global().snapshot();
+
+        assertNull(cache.lookup(file, TreeMode.BINARY));
+        cache.put(file, TreeMode.BINARY, cache.identify(file), "ROOT");
+        assertEquals("ROOT", cache.lookup(file, TreeMode.BINARY));
+        Files.write(file, "one\ntwo\n".getBytes(StandardCharsets.UTF_8));
+        assertNull(cache.lookup(file, TreeMode.BINARY));
+
+        MetricsSnapshot after = MerkleMetrics.global().snapshot();
+        assertTrue(after.cacheHits() - before.cacheHits() >= 1);
+        assertTrue(after.cacheMisses() - before.cacheMisses() >= 2);
+    }
+
+    // Test that the metrics are readable through the platform MBean server and that registering twice is harmless
+    @Test
+    void testJmxRegistration() throws Exception {
+        ObjectName name = MerkleMetrics.register();
+        assertEquals(name, MerkleMetrics.register());
+        RetainedMerkleTree.build(new String[]{"x", "y"}, TreeMode.LEGACY_HEX);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertTrue(server.isRegistered(name));
+        long hashes = (Long) server.getAttribute(name, "HashesComputed");
+        assertTrue(hashes > 0);
+        assertTrue(MerkleMetrics.global().getHashesComputed() >= hashes);
+        assertTrue((Long) server.getAttribute(name, "LevelsBuilt") > 0);
+        assertTrue((Double) server.getAttribute(name, "LeavesPerSecond") >= 0);
+    }
+
+    // Test that percentiles are bucket upper bounds capped by the maximum
+    @Test
+    void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.99));
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+
+        assertEquals(100, histogram.count());
+        assertEquals(99 * 100 + 5000, histogram.totalNanos());
+        assertEquals(127, histogram.percentile(0.50));
+        assertEquals(127, histogram.percentile(0.99));
+        assertEquals(5000, histogram.percentile(1.0));
+        assertEquals(5000, histogram.maxNanos());
+
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.maxNanos());
+    }
+}
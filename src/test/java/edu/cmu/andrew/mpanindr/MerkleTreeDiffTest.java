@@ -0,0 +1,97 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerkleTreeDiffTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Reference: compare every position directly and merge adjacent differences
+    private static List<LeafRange> bruteForce(String[] a, String[] b) {
+        List<LeafRange> ranges = new ArrayList<>();
+        long start = -1;
+        int n = Math.max(a.length, b.length);
+        for (int i = 0; i <= n; i++) {
+            boolean differs = i < n && (i >= a.length || i >= b.length || !a[i].equals(b[i]));
+            if (differs && start < 0) {
+                start = i;
+            } else if (!differs && start >= 0) {
+                ranges.add(new LeafRange(start, i));
+                start = -1;
+            }
+        }
+        return ranges;
+    }
+
+    // Test random edits and different leaf counts against a position-by-position comparison
+    @Test
+    void testMatchesBruteForce() throws NoSuchAlgorithmException {
+        Random random = new Random(3);
+        for (TreeMode mode : TreeMode.values()) {
+            for (int trial = 0; trial < 400; trial++) {
+                String[] a = new String[1 + random.nextInt(70)];
+                for (int i = 0; i < a.length; i++) {
+                    a[i] = "row " + i;
+                }
+                String[] b = Arrays.copyOf(a, Math.max(1, a.length + random.nextInt(21) - 10));
+                for (int i = a.length; i < b.length; i++) {
+                    // Sometimes repeat the last row, which collides with the self-paired tail of the shorter tree
+                    b[i] = random.nextBoolean() ? b[i - 1] : "extra " + i;
+                }
+                for (int edits = random.nextInt(4); edits > 0; edits--) {
+                    b[random.nextInt(b.length)] = "edited " + random.nextInt();
+                }
+                List<LeafRange> expected = bruteForce(a, b);
+                RetainedMerkleTree treeA = RetainedMerkleTree.build(a, mode);
+                RetainedMerkleTree treeB = RetainedMerkleTree.build(b, mode);
+                assertEquals(expected, MerkleTreeDiff.diff(treeA, treeB), Arrays.toString(b));
+                assertEquals(expected, MerkleTreeDiff.diff(treeB, treeA));
+            }
+        }
+    }
+
+    // Test the duplicate-tail case and identical trees explicitly
+    @Test
+    void testDuplicateTailAndEqualTrees() throws NoSuchAlgorithmException {
+        RetainedMerkleTree three = RetainedMerkleTree.build(new String[]{"a", "b", "c"}, TreeMode.LEGACY_HEX);
+        RetainedMerkleTree four = RetainedMerkleTree.build(new String[]{"a", "b", "c", "c"}, TreeMode.LEGACY_HEX);
+        assertEquals(three.root(), four.root());
+        assertEquals(Collections.singletonList(new LeafRange(3, 4)), MerkleTreeDiff.diff(three, four));
+        assertEquals(Collections.emptyList(), MerkleTreeDiff.diff(three, three));
+        assertThrows(IllegalArgumentException.class,
+                () -> MerkleTreeDiff.diff(three, RetainedMerkleTree.build(new String[]{"a"}, TreeMode.BINARY)));
+    }
+
+    // Test diffing two files that differ in a few clustered lines
+    @Test
+    void testFiles() throws IOException, NoSuchAlgorithmException {
+        StringBuilder left = new StringBuilder();
+        StringBuilder right = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            left.append("row,").append(i).append('\n');
+            right.append("row,").append(i >= 5000 && i < 5003 || i == 77_777 ? -i : i).append('\n');
+        }
+        right.append("tail\n");
+        Path a = tempDir.resolve("a.csv");
+        Path b = tempDir.resolve("b.csv");
+        Files.write(a, left.toString().getBytes(StandardCharsets.UTF_8));
+        Files.write(b, right.toString().getBytes(StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList(new LeafRange(5000, 5003), new LeafRange(77_777, 77_778), new LeafRange(100_000, 100_001)),
+                MerkleTreeDiff.diff(a.toString(), b.toString()));
+    }
+}
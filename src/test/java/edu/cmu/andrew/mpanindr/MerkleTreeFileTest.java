@@ -0,0 +1,149 @@
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.HashAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.NoSuchAlgorithmException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerkleTreeFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static String[] lines(int count) {
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = "Line " + i;
+        }
+        return lines;
+    }
+
+    // Test that every node, root and proof survives a save and load
+    @Test
+    void testRoundTrip() throws IOException, NoSuchAlgorithmException {
+        for (TreeMode mode : TreeMode.values()) {
+            for (int count : new int[]{1, 2, 3, 17, 64, 1000}) {
+                String[] lines = lines(count);
+                RetainedMerkleTree tree = RetainedMerkleTree.build(lines, mode);
+                Path file = tempDir.resolve(mode + "-" + count + ".mtree");
+                MerkleTreeFile.save(tree, file, null);
+                assertEquals(64 + 32L * sumOfLevels(tree), Files.size(file));
+
+                RetainedMerkleTree loaded = MerkleTreeFile.load(file).tree();
+                assertEquals(mode, loaded.mode());
+                assertEquals(tree.formattedRoot(), loaded.formattedRoot());
+                assertEquals(tree.height(), loaded.height());
+                for (int level = 0; level < tree.height(); level++) {
+                    for (int i = 0; i < tree.levelSize(level); i++) {
+                        assertEquals(tree.node(level, i), loaded.node(level, i));
+                    }
+                }
+                for (int i = 0; i < count; i++) {
+                    assertTrue(InclusionProof.verify(tree.formattedRoot(), lines[i], loaded.proof(i)));
+                }
+                assertThrows(UnsupportedOperationException.class, () -> loaded.updateLeaf(0, "x"));
+            }
+        }
+    }
+
+    // Test a round trip whose levels are mapped in chunks of 8 digests, so reads and proofs cross mapping boundaries
+    @Test
+    void testChunkedMappingRoundTrip() throws IOException, NoSuchAlgorithmException {
+        String[] lines = lines(1000);
+        Path source = Files.write(tempDir.resolve("chunked.txt"), String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        Path file = tempDir.resolve("chunked.mtree");
+        try (RetainedMerkleTree tree = RetainedMerkleTree.buildOffHeap(source, TreeMode.BINARY)) {
+            MerkleTreeFile.save(tree, file, source);
+
+            RetainedMerkleTree loaded = MerkleTreeFile.load(file, 3).tree();
+            assertEquals(tree.formattedRoot(), loaded.formattedRoot());
+            for (int level = 0; level < tree.height(); level++) {
+                for (int i = 0; i < tree.levelSize(level); i++) {
+                    assertEquals(tree.node(level, i), loaded.node(level, i), "level " + level + " node " + i);
+                }
+            }
+            for (int i = 0; i < lines.length; i++) {
+                assertTrue(InclusionProof.verify(tree.formattedRoot(), lines[i], loaded.proof(i)));
+            }
+
+            // Saving the loaded tree writes every mapping back in order
+            Path copy = tempDir.resolve("copy.mtree");
+            MerkleTreeFile.save(loaded, copy, source);
+            assertEquals(-1, Files.mismatch(file, copy));
+        }
+    }
+
+    private static long sumOfLevels(RetainedMerkleTree tree) {
+        long sum = 0;
+        for (int level = 0; level < tree.height(); level++) {
+            sum += tree.levelSize(level);
+        }
+        return sum;
+    }
+
+    // Test that the source size and modification time are recorded and checked
+    @Test
+    void testSourceInformation() throws IOException, NoSuchAlgorithmException {
+        Path source = tempDir.resolve("source.csv");
+        Files.copy(Paths.get("CrimeLatLonXY1990_Size2.csv"), source);
+        Path file = tempDir.resolve("source.mtree");
+        RetainedMerkleTree tree = RetainedMerkleTree.build(source, TreeMode.LEGACY_HEX);
+        MerkleTreeFile.save(tree, file, source);
+
+        MerkleTreeFile loaded = MerkleTreeFile.load(file);
+        assertEquals(Files.size(source), loaded.sourceSize());
+        assertTrue(loaded.matchesSource(source));
+        assertEquals("DDD49991D04273A7300EF24CFAD21E2706C145001483D161D53937D90F76C001", loaded.tree().formattedRoot());
+
+        Files.setLastModifiedTime(source, FileTime.fromMillis(loaded.sourceModified() + 5000));
+        assertFalse(loaded.matchesSource(source));
+    }
+
+    // Test that the hash algorithm is recorded in the file and restored on load
+    @Test
+    void testHashAlgorithmRoundTrip() throws IOException, NoSuchAlgorithmException {
+        Path file = tempDir.resolve("blake3.mtree");
+        RetainedMerkleTree tree = RetainedMerkleTree.build(lines(37), TreeMode.BINARY, HashAlgorithm.BLAKE3);
+        MerkleTreeFile.save(tree, file, null);
+        RetainedMerkleTree loaded = MerkleTreeFile.load(file).tree();
+        assertEquals(HashAlgorithm.BLAKE3, loaded.algorithm());
+        assertEquals(tree.formattedRoot(), loaded.formattedRoot());
+        assertTrue(InclusionProof.verify(tree.formattedRoot(), "Line 20", loaded.proof(20)));
+
+        // An unknown algorithm name is reported as such
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap("MD5\0\0\0".getBytes(StandardCharsets.US_ASCII)), 24);
+        }
+        assertThrows(NoSuchAlgorithmException.class, () -> MerkleTreeFile.load(file));
+    }
+
+    // Test that damaged files are rejected
+    @Test
+    void testCorruptFiles() throws IOException, NoSuchAlgorithmException {
+        Path file = tempDir.resolve("tree.mtree");
+        MerkleTreeFile.save(RetainedMerkleTree.build(lines(10), TreeMode.BINARY), file, null);
+
+        Path truncated = tempDir.resolve("truncated.mtree");
+        Files.copy(file, truncated);
+        try (FileChannel channel = FileChannel.open(truncated, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        assertThrows(IOException.class, () -> MerkleTreeFile.load(truncated));
+
+        Path garbage = tempDir.resolve("garbage.mtree");
+        Files.write(garbage, new byte[100]);
+        assertThrows(IOException.class, () -> MerkleTreeFile.load(garbage));
+    }
+}
@@ -1,14 +1,23 @@
 package edu.cmu.andrew.mpanindr;
 
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import edu.utils.HashUtil;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,6 +56,48 @@ class MerkleTreeTest {
         // Add any necessary assertions based on expected behavior
     }
 
+    // Test that the "All files" choice writes a root cache only when one is named, and reuses it
+    @Test
+    void testProcessAllFilesWithRootCache(@TempDir Path tempDir) throws IOException {
+        Path cacheFile = tempDir.resolve("roots.cache");
+        System.setProperty(MerkleTree.ROOT_CACHE_PROPERTY, cacheFile.toString());
+        Logger logger = (Logger) LoggerFactory.getLogger(MerkleTree.class);
+        ListAppender<ILoggingEvent> printed = new ListAppender<>();
+        printed.start();
+        logger.addAppender(printed);
+        try {
+            provideInput("1\n");
+            MerkleTree.main(new String[]{});
+            assertTrue(Files.exists(cacheFile));
+            List<String> firstRoots = rootLines(printed);
+            assertFalse(firstRoots.isEmpty());
+            assertEquals(firstRoots.size(), RootCache.load(cacheFile, 10, false).size());
+
+            // The second run must answer every file from the cache and print the same roots
+            printed.list.clear();
+            MetricsSnapshot before = MerkleMetrics.global().snapshot();
+            provideInput("1\n");
+            MerkleTree.main(new String[]{});
+            MetricsSnapshot after = MerkleMetrics.global().snapshot();
+            assertTrue(after.cacheHits() - before.cacheHits() >= firstRoots.size());
+            assertEquals(firstRoots, rootLines(printed));
+        } finally {
+            logger.detachAppender(printed);
+            System.clearProperty(MerkleTree.ROOT_CACHE_PROPERTY);
+        }
+    }
+
+    // Helper method returning the "Merkle Root for" lines logged by MerkleTree
+    private static List<String> rootLines(ListAppender<ILoggingEvent> appender) {
+        List<String> lines = new ArrayList<>();
+        for (ILoggingEvent event : appender.list) {
+            if (event.getFormattedMessage().startsWith("Merkle Root for ")) {
+                lines.add(event.getFormattedMessage());
+            }
+        }
+        return lines;
+    }
+
     @Test
     void testProcessSpecificFileChoice() {
         // Simulate user input "2\nsampleFile.txt\n" for the specific file choice
@@ -0,0 +1,97 @@
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.HashAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiFileMerkleEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Test that the bundled files get the same roots as when hashed one at a time
+    @Test
+    void testBundledFiles() throws Exception {
+        List<String> files = Arrays.asList("CrimeLatLonXY.csv", "CrimeLatLonXY1990_Size2.csv",
+                "CrimeLatLonXY1990_Size3.csv", "smallFile.txt");
+        try (MultiFileMerkleEngine engine = new MultiFileMerkleEngine(TreeMode.LEGACY_HEX)) {
+            Map<String, String> roots = engine.computeMerkleRoots(files);
+            assertEquals(files, new ArrayList<>(roots.keySet()));
+            for (String file : files) {
+                assertEquals(MerkleTree.computeMerkleRoot(MerkleTree.readFileLines(file)), roots.get(file), file);
+            }
+        }
+    }
+
+    // Test many files with tiny chunks, a tight memory budget and few open files
+    @Test
+    void testManyFilesWithTightLimits() throws Exception {
+        Random random = new Random(7);
+        List<String> files = new ArrayList<>();
+        String[] pieces = {"abc", "\n", "\r", "\r\n", "é", "xxxxxxxxxxxxxxxxxxxxxxxxxxxxx"};
+        for (int f = 0; f < 100; f++) {
+            StringBuilder text = new StringBuilder("first\n");
+            int length = random.nextInt(300);
+            for (int i = 0; i < length; i++) {
+                text.append(pieces[random.nextInt(pieces.length)]);
+            }
+            Path file = tempDir.resolve("file" + f + ".txt");
+            Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+            files.add(file.toString());
+        }
+        try (MultiFileMerkleEngine engine = new MultiFileMerkleEngine(TreeMode.BINARY, 2, 3, 64, 16)) {
+            Map<String, String> roots = engine.computeMerkleRoots(files);
+            for (String file : files) {
+                assertEquals(StreamingMerkleBuilder.computeMerkleRoot(file, TreeMode.BINARY), roots.get(file), file);
+            }
+        }
+    }
+
+    // Test that the engine hashes with the chosen algorithm and that the cache keeps algorithms apart
+    @Test
+    void testAlgorithm() throws IOException, NoSuchAlgorithmException, InterruptedException, ExecutionException {
+        String expected = MerkleTree.computeMerkleRoot(MerkleTree.readFileLines("smallFile.txt"), TreeMode.BINARY,
+                HashAlgorithm.BLAKE3);
+        RootCache cache = new RootCache(10, false);
+        try (MultiFileMerkleEngine engine = new MultiFileMerkleEngine(TreeMode.BINARY, HashAlgorithm.BLAKE3, cache)) {
+            assertEquals(expected, engine.submit("smallFile.txt").get());
+        }
+        assertEquals(expected, cache.lookup(Path.of("smallFile.txt"), TreeMode.BINARY, HashAlgorithm.BLAKE3));
+        assertNull(cache.lookup(Path.of("smallFile.txt"), TreeMode.BINARY));
+        try (MultiFileMerkleEngine engine = new MultiFileMerkleEngine(TreeMode.BINARY, cache)) {
+            assertEquals(StreamingMerkleBuilder.computeMerkleRoot("smallFile.txt", TreeMode.BINARY),
+                    engine.submit("smallFile.txt").get());
+        }
+    }
+
+    // Test that a failing file is reported while the others still complete
+    @Test
+    void testFailures() throws IOException, NoSuchAlgorithmException, InterruptedException, ExecutionException {
+        Path empty = Files.createFile(tempDir.resolve("empty.txt"));
+        try (MultiFileMerkleEngine engine = new MultiFileMerkleEngine(TreeMode.LEGACY_HEX, 1, 1, 16, 16)) {
+            ExecutionException missing = assertThrows(ExecutionException.class,
+                    () -> engine.submit(tempDir.resolve("missing.txt").toString()).get());
+            assertInstanceOf(NoSuchFileException.class, missing.getCause());
+            ExecutionException noLines = assertThrows(ExecutionException.class, () -> engine.submit(empty.toString()).get());
+            assertInstanceOf(IllegalArgumentException.class, noLines.getCause());
+            assertEquals(MerkleTree.computeMerkleRoot(MerkleTree.readFileLines("smallFile.txt")),
+                    engine.submit("smallFile.txt").get());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new MultiFileMerkleEngine(TreeMode.BINARY, 1, 1, 8, 16));
+    }
+}
@@ -0,0 +1,87 @@
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapDigestStoreTest {
+
+    private static byte[] digest(int seed) {
+        byte[] digest = new byte[Digest.LENGTH];
+        for (int i = 0; i < digest.length; i++) {
+            digest[i] = (byte) (seed * 31 + i);
+        }
+        return digest;
+    }
+
+    // Test reads and writes across chunk boundaries, and the packed form written to a channel
+    @Test
+    void testReadWriteAcrossChunks() throws IOException {
+        try (OffHeapDigestStore store = new OffHeapDigestStore(100, 4)) {
+            assertEquals(100, store.size());
+            assertEquals(Digest.read(new byte[Digest.LENGTH], 0), store.get(99));
+            for (int i = 0; i < store.size(); i++) {
+                store.write(i, digest(i), 0);
+            }
+            byte[] out = new byte[Digest.LENGTH + 3];
+            for (int i = 0; i < store.size(); i++) {
+                store.read(i, out, 3);
+                assertEquals(Digest.read(digest(i), 0), Digest.read(out, 3));
+                assertEquals(Digest.read(digest(i), 0), store.get(i));
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> store.read(100, out, 0));
+            assertThrows(IndexOutOfBoundsException.class, () -> store.write(-1, out, 0));
+
+            ByteArrayOutputStream packed = new ByteArrayOutputStream();
+            store.writeTo(Channels.newChannel(packed));
+            byte[] bytes = packed.toByteArray();
+            assertEquals(100 * Digest.LENGTH, bytes.length);
+            assertEquals(Digest.read(digest(77), 0), Digest.read(bytes, 77 * Digest.LENGTH));
+            assertEquals(100L * Digest.LENGTH, store.offHeapBytes());
+        }
+    }
+
+    // Test that a closed store frees its memory and refuses access instead of reading freed memory
+    @Test
+    void testClose() {
+        OffHeapDigestStore store = new OffHeapDigestStore(10);
+        store.write(3, digest(3), 0);
+        // A full JDK has jdk.unsupported, so the memory is freed on close rather than by the garbage collector
+        assertTrue(OffHeapDigestStore.releasesOnClose());
+        store.close();
+        assertTrue(store.isClosed());
+        assertEquals(0, store.offHeapBytes());
+        assertThrows(IllegalStateException.class, () -> store.get(3));
+        assertThrows(IllegalStateException.class, () -> store.write(3, digest(3), 0));
+        store.close();
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapDigestStore(-1));
+    }
+
+    // Test that a collector grows its last chunk and hands every digest to the store in order
+    @Test
+    void testCollector() {
+        OffHeapDigestStore.Collector collector = new OffHeapDigestStore.Collector(11);
+        for (int i = 0; i < 5000; i++) {
+            collector.accept(digest(i), 0);
+        }
+        assertEquals(5000, collector.count());
+        try (OffHeapDigestStore store = collector.toStore()) {
+            assertEquals(5000, store.size());
+            for (int i = 0; i < store.size(); i++) {
+                assertEquals(Digest.read(digest(i), 0), store.get(i));
+            }
+        }
+        assertThrows(IllegalStateException.class, () -> collector.accept(digest(0), 0));
+        assertThrows(IllegalStateException.class, collector::toStore);
+
+        OffHeapDigestStore.Collector discarded = new OffHeapDigestStore.Collector();
+        discarded.accept(digest(1), 0);
+        discarded.close();
+        assertThrows(IllegalStateException.class, () -> discarded.accept(digest(0), 0));
+    }
+}
@@ -0,0 +1,128 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedIntListTest {
+
+    private static int[] drain(PrimitiveIterator.OfInt values) {
+        int[] result = new int[16];
+        int n = 0;
+        while (values.hasNext()) {
+            if (n == result.length) {
+                result = Arrays.copyOf(result, n * 2);
+            }
+            result[n++] = values.nextInt();
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    // Test random inserts with duplicates against a sorted array, across many leaf and inner page splits
+    @Test
+    void testSortedAdd() {
+        Random random = new Random(7);
+        int[] expected = new int[200_000];
+        OrderedIntList list = new OrderedIntList();
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = random.nextInt(50_000) - 25_000;
+            list.sortedAdd(expected[i]);
+        }
+        Arrays.sort(expected);
+        assertEquals(expected.length, list.size());
+        assertArrayEquals(expected, list.toArray());
+        assertArrayEquals(expected, drain(list.iterator()));
+
+        list.reset();
+        for (int value : expected) {
+            assertTrue(list.hasNext());
+            assertEquals(value, list.next());
+        }
+        assertFalse(list.hasNext());
+        assertThrows(NoSuchElementException.class, list::next);
+
+        for (int probe = -25_010; probe < 25_010; probe += 13) {
+            assertEquals(Arrays.binarySearch(expected, probe) >= 0, list.contains(probe));
+        }
+    }
+
+    // Test ascending and descending runs, the worst cases for page splits
+    @Test
+    void testMonotonicInserts() {
+        OrderedIntList ascending = new OrderedIntList();
+        OrderedIntList descending = new OrderedIntList();
+        int n = 100_000;
+        for (int i = 0; i < n; i++) {
+            ascending.sortedAdd(i);
+            descending.sortedAdd(n - 1 - i);
+        }
+        int[] expected = new int[n];
+        Arrays.setAll(expected, i -> i);
+        assertArrayEquals(expected, ascending.toArray());
+        assertArrayEquals(expected, descending.toArray());
+        assertTrue(descending.contains(0));
+        assertTrue(descending.contains(n - 1));
+        assertFalse(descending.contains(n));
+    }
+
+    // Test merge against a sorted concatenation, and that the inputs are untouched
+    @Test
+    void testMerge() {
+        Random random = new Random(11);
+        int[] a = new int[30_000];
+        int[] b = new int[45_000];
+        OrderedIntList list1 = new OrderedIntList();
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextInt();
+            list1.sortedAdd(a[i]);
+        }
+        for (int i = 0; i < b.length; i++) {
+            b[i] = random.nextInt(1000);
+        }
+        Arrays.sort(a);
+        Arrays.sort(b);
+        OrderedIntList list2 = OrderedIntList.fromSorted(b, b.length);
+
+        OrderedIntList merged = OrderedIntList.merge(list1, list2);
+        int[] expected = new int[a.length + b.length];
+        System.arraycopy(a, 0, expected, 0, a.length);
+        System.arraycopy(b, 0, expected, a.length, b.length);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, merged.toArray());
+        assertArrayEquals(a, list1.toArray());
+        assertArrayEquals(b, list2.toArray());
+
+        // A bulk-loaded list keeps accepting inserts
+        merged.sortedAdd(Integer.MIN_VALUE);
+        merged.sortedAdd(500);
+        assertEquals(expected.length + 2, merged.size());
+        assertEquals(Integer.MIN_VALUE, merged.iterator().nextInt());
+
+        assertEquals(0, OrderedIntList.merge(new OrderedIntList(), new OrderedIntList()).size());
+        assertThrows(IllegalArgumentException.class, () -> OrderedIntList.fromSorted(new int[]{2, 1}, 2));
+    }
+
+    // Test range iteration over bounds that fall inside, between and outside the stored values
+    @Test
+    void testRange() {
+        OrderedIntList list = new OrderedIntList();
+        for (int i = 0; i < 10_000; i++) {
+            list.sortedAdd(i * 2);
+            list.sortedAdd(i * 2);
+        }
+        assertArrayEquals(new int[]{10, 10, 12, 12}, drain(list.range(10, 14)));
+        assertArrayEquals(new int[]{12, 12}, drain(list.range(11, 13)));
+        assertEquals(0, drain(list.range(5, 5)).length);
+        assertEquals(0, drain(list.range(20_000, Integer.MAX_VALUE)).length);
+        assertEquals(20_000, drain(list.range(Integer.MIN_VALUE, Integer.MAX_VALUE)).length);
+        assertEquals("[]", new OrderedIntList().toString());
+
+        OrderedIntList small = OrderedIntList.fromSorted(new int[]{1, 3, 3, 8}, 4);
+        assertEquals("[1 -> 3 -> 3 -> 8]", small.toString());
+    }
+}
@@ -0,0 +1,88 @@
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.HashAlgorithm;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelMerkleBuilderTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void createPool() {
+        pool = new ForkJoinPool(3);
+    }
+
+    @AfterAll
+    static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    private static SinglyLinkedList lines(int count) {
+        SinglyLinkedList list = new SinglyLinkedList();
+        for (int i = 0; i < count; i++) {
+            list.addAtEndNode("Line " + i);
+        }
+        return list;
+    }
+
+    // Test that every size around several block boundaries matches the sequential root in both modes
+    @Test
+    void testMatchesSequentialRoot() throws NoSuchAlgorithmException {
+        for (int cutoff : new int[]{2, 4, 8}) {
+            ParallelMerkleBuilder builder = new ParallelMerkleBuilder(pool, cutoff);
+            for (int count = 1; count <= 140; count++) {
+                for (TreeMode mode : TreeMode.values()) {
+                    assertEquals(MerkleTree.computeMerkleRoot(lines(count), mode),
+                            builder.computeMerkleRoot(lines(count), mode), "cutoff " + cutoff + " count " + count);
+                }
+            }
+        }
+    }
+
+    // Test a larger input whose block-root level is itself reduced in parallel
+    @Test
+    void testMultiLevelReduction() throws NoSuchAlgorithmException {
+        ParallelMerkleBuilder builder = new ParallelMerkleBuilder(pool, 16);
+        assertEquals(MerkleTree.computeMerkleRoot(lines(100_003)), builder.computeMerkleRoot(lines(100_003), TreeMode.LEGACY_HEX));
+    }
+
+    // Test that a non-default algorithm reaches every block and carries its tag in the root
+    @Test
+    void testAlgorithm() throws NoSuchAlgorithmException {
+        ParallelMerkleBuilder builder = new ParallelMerkleBuilder(pool, 4);
+        String root = builder.computeMerkleRoot(lines(37), TreeMode.BINARY, HashAlgorithm.BLAKE3);
+        assertEquals(MerkleTree.computeMerkleRoot(lines(37), TreeMode.BINARY, HashAlgorithm.BLAKE3), root);
+        assertTrue(root.startsWith("v2+blake3:"), root);
+        assertNotEquals(MerkleTree.computeMerkleRoot(lines(37), TreeMode.BINARY).substring(3), root.substring(10));
+    }
+
+    // Test that the parallel builder leaves the list untouched
+    @Test
+    void testListNotModified() throws NoSuchAlgorithmException {
+        SinglyLinkedList list = lines(5);
+        new ParallelMerkleBuilder().computeMerkleRoot(list, TreeMode.BINARY);
+        assertEquals(5, list.countNodes());
+    }
+
+    // Test the cutoff rounding and validation
+    @Test
+    void testSequentialCutoff() {
+        assertEquals(64, new ParallelMerkleBuilder(pool, 100).sequentialCutoff());
+        assertEquals(ParallelMerkleBuilder.DEFAULT_SEQUENTIAL_CUTOFF, new ParallelMerkleBuilder().sequentialCutoff());
+        assertThrows(IllegalArgumentException.class, () -> new ParallelMerkleBuilder(pool, 1));
+    }
+
+    // Test that an empty input is rejected
+    @Test
+    void testEmptyInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelMerkleBuilder().computeMerkleRoot(new SinglyLinkedList(), TreeMode.LEGACY_HEX));
+    }
+}
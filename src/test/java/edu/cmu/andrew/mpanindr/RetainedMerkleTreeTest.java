@@ -0,0 +1,218 @@
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetainedMerkleTreeTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static String[] lines(int count) {
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = "Line " + i;
+        }
+        return lines;
+    }
+
+    private static SinglyLinkedList list(String[] lines) {
+        SinglyLinkedList list = new SinglyLinkedList();
+        for (String line : lines) {
+            list.addAtEndNode(line);
+        }
+        return list;
+    }
+
+    // Test that the retained root matches computeMerkleRoot and every proof verifies
+    @Test
+    void testRootsAndProofs() throws NoSuchAlgorithmException {
+        for (TreeMode mode : TreeMode.values()) {
+            for (int count = 1; count <= 70; count++) {
+                String[] lines = lines(count);
+                RetainedMerkleTree tree = MerkleTree.buildMerkleTree(list(lines), mode);
+                String root = tree.formattedRoot();
+                assertEquals(MerkleTree.computeMerkleRoot(list(lines), mode), root, "count " + count);
+                assertEquals(RetainedMerkleTree.levelCount(count), tree.height());
+
+                for (int i = 0; i < count; i++) {
+                    InclusionProof proof = tree.proof(i);
+                    assertTrue(InclusionProof.verify(root, lines[i], proof), "count " + count + " leaf " + i);
+                    assertFalse(InclusionProof.verify(root, lines[i] + "x", proof));
+                }
+            }
+        }
+    }
+
+    // Test that every hash algorithm gives its own root, recorded in the formatted root and in the proofs
+    @Test
+    void testHashAlgorithms() throws NoSuchAlgorithmException {
+        String[] lines = lines(13);
+        for (TreeMode mode : TreeMode.values()) {
+            for (HashAlgorithm algorithm : HashAlgorithm.values()) {
+                RetainedMerkleTree tree = RetainedMerkleTree.build(lines, mode, algorithm);
+                String root = tree.formattedRoot();
+                assertEquals(mode, TreeMode.parseRoot(root));
+                assertEquals(algorithm, TreeMode.parseAlgorithm(root));
+                assertEquals(tree.root(), TreeMode.parseDigest(root));
+
+                StreamingMerkleBuilder builder = new StreamingMerkleBuilder(mode, algorithm);
+                for (String line : lines) {
+                    builder.addLine(line);
+                }
+                assertEquals(root, builder.formattedRoot());
+
+                for (int i = 0; i < lines.length; i++) {
+                    InclusionProof proof = tree.proof(i);
+                    assertEquals(algorithm, proof.algorithm());
+                    assertTrue(InclusionProof.verify(root, lines[i], proof), algorithm + " leaf " + i);
+                }
+            }
+        }
+
+        // The default algorithm leaves the root format unchanged, and a proof never verifies under another algorithm
+        RetainedMerkleTree sha256 = RetainedMerkleTree.build(lines, TreeMode.LEGACY_HEX);
+        RetainedMerkleTree blake3 = RetainedMerkleTree.build(lines, TreeMode.LEGACY_HEX, HashAlgorithm.BLAKE3);
+        assertEquals(2 * Digest.LENGTH, sha256.formattedRoot().length());
+        assertTrue(blake3.formattedRoot().startsWith("v1+blake3:"));
+        assertFalse(InclusionProof.verify(sha256.formattedRoot(), lines[0], blake3.proof(0)));
+        assertFalse(InclusionProof.verify(blake3.formattedRoot(), lines[0], sha256.proof(0)));
+    }
+
+    // Test that a proof does not verify for another leaf's content or another root
+    @Test
+    void testProofIsBoundToPositionAndRoot() throws NoSuchAlgorithmException {
+        String[] lines = lines(11);
+        RetainedMerkleTree tree = RetainedMerkleTree.build(lines, TreeMode.BINARY);
+        RetainedMerkleTree other = RetainedMerkleTree.build(lines(12), TreeMode.BINARY);
+
+        assertFalse(InclusionProof.verify(tree.formattedRoot(), lines[4], tree.proof(3)));
+        assertFalse(InclusionProof.verify(other.formattedRoot(), lines[3], tree.proof(3)));
+        assertFalse(InclusionProof.verify(TreeMode.LEGACY_HEX.formatRoot(tree.root()), lines[3], tree.proof(3)));
+
+        // Re-labelling the same siblings with a different index or path length must fail
+        InclusionProof proof = tree.proof(10);
+        byte[] siblings = new byte[proof.length() * Digest.LENGTH];
+        for (int k = 0; k < proof.length(); k++) {
+            proof.sibling(k).writeTo(siblings, k * Digest.LENGTH);
+        }
+        assertTrue(InclusionProof.verify(tree.formattedRoot(), lines[10], new InclusionProof(TreeMode.BINARY, 10, 11, siblings)));
+        assertFalse(InclusionProof.verify(tree.formattedRoot(), lines[10], new InclusionProof(TreeMode.BINARY, 10, 17, siblings)));
+        assertFalse(InclusionProof.verify(tree.formattedRoot(), lines[10], new InclusionProof(TreeMode.BINARY, 11, 11, siblings)));
+    }
+
+    // Test node access and the level layout of a small tree
+    @Test
+    void testNodes() throws NoSuchAlgorithmException {
+        RetainedMerkleTree tree = RetainedMerkleTree.build(lines(5), TreeMode.LEGACY_HEX);
+        assertEquals(5, tree.leafCount());
+        assertArrayEquals(new int[]{5, 3, 2, 1}, new int[]{tree.levelSize(0), tree.levelSize(1), tree.levelSize(2), tree.levelSize(3)});
+        assertEquals(tree.root(), tree.node(3, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.node(1, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.proof(5));
+    }
+
+    // Test that proofs on a million-leaf tree have one sibling per level and verify against the root
+    @Test
+    void testProofsOnMillionLeaves() throws NoSuchAlgorithmException {
+        int count = 1 << 20;
+        byte[] leaves = new byte[count * Digest.LENGTH];
+        for (int i = 0; i < count; i++) {
+            leaves[i * Digest.LENGTH] = (byte) i;
+            leaves[i * Digest.LENGTH + 1] = (byte) (i >>> 8);
+            leaves[i * Digest.LENGTH + 2] = (byte) (i >>> 16);
+        }
+        RetainedMerkleTree tree = RetainedMerkleTree.fromLeafDigests(leaves.clone(), count, TreeMode.BINARY);
+        TreeHasher hasher = new TreeHasher(TreeMode.BINARY);
+
+        for (int i = 0; i < 1000; i++) {
+            int index = (i * 7919) & (count - 1);
+            InclusionProof proof = tree.proof(index);
+            assertEquals(20, proof.length());
+            byte[] leaf = Arrays.copyOfRange(leaves, index * Digest.LENGTH, (index + 1) * Digest.LENGTH);
+            assertTrue(proof.matches(tree.root(), leaf, hasher), "leaf " + index);
+        }
+    }
+
+    // Test that updating any leaf gives the same tree as a full rebuild
+    @Test
+    void testUpdateLeafMatchesRebuild() throws NoSuchAlgorithmException {
+        for (TreeMode mode : TreeMode.values()) {
+            for (int count = 1; count <= 40; count++) {
+                String[] lines = lines(count);
+                RetainedMerkleTree tree = RetainedMerkleTree.build(lines, mode);
+                for (int i = 0; i < count; i++) {
+                    lines[i] = "Corrected " + i;
+                    tree.updateLeaf(i, lines[i]);
+                    RetainedMerkleTree rebuilt = RetainedMerkleTree.build(lines, mode);
+                    assertEquals(rebuilt.formattedRoot(), tree.formattedRoot(), "count " + count + " leaf " + i);
+                    for (int level = 0; level < tree.height(); level++) {
+                        for (int j = 0; j < tree.levelSize(level); j++) {
+                            assertEquals(rebuilt.node(level, j), tree.node(level, j));
+                        }
+                    }
+                    assertTrue(InclusionProof.verify(tree.formattedRoot(), lines[i], tree.proof(i)));
+                }
+            }
+        }
+        RetainedMerkleTree tree = RetainedMerkleTree.build(lines(3), TreeMode.BINARY);
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.updateLeaf(3, "x"));
+    }
+
+    // Test that single-leaf updates on a million-leaf tree give the same root as a rebuild
+    @Test
+    void testUpdatesOnMillionLeaves() throws NoSuchAlgorithmException {
+        int count = 1 << 20;
+        byte[] leaves = new byte[count * Digest.LENGTH];
+        RetainedMerkleTree tree = RetainedMerkleTree.fromLeafDigests(leaves.clone(), count, TreeMode.BINARY);
+        TreeHasher hasher = new TreeHasher(TreeMode.BINARY);
+        for (int i = 0; i < 1000; i++) {
+            int index = (i * 7919) & (count - 1);
+            tree.updateLeaf(index, "Row " + i);
+            hasher.leaf("Row " + i, leaves, index * Digest.LENGTH);
+        }
+        assertEquals(RetainedMerkleTree.fromLeafDigests(leaves, count, TreeMode.BINARY).root(), tree.root());
+    }
+
+    // Test that an empty input is rejected
+    @Test
+    void testEmpty() {
+        assertThrows(IllegalArgumentException.class, () -> RetainedMerkleTree.build(new String[0], TreeMode.LEGACY_HEX));
+    }
+
+    // Test that an off-heap tree matches the heap tree, supports proofs and updates, and is unusable once closed
+    @Test
+    void testOffHeap() throws IOException, NoSuchAlgorithmException {
+        String[] lines = lines(1000);
+        Path file = tempDir.resolve("lines.txt");
+        Files.write(file, Arrays.asList(lines));
+        RetainedMerkleTree heap = RetainedMerkleTree.build(lines, TreeMode.BINARY);
+        RetainedMerkleTree offHeap = RetainedMerkleTree.buildOffHeap(file, TreeMode.BINARY);
+        try (offHeap) {
+            assertEquals(heap.formattedRoot(), offHeap.formattedRoot());
+            assertTrue(offHeap.level(0) instanceof OffHeapDigestStore);
+            assertTrue(offHeap.level(offHeap.height() - 1) instanceof OffHeapDigestStore);
+            assertTrue(InclusionProof.verify(offHeap.formattedRoot(), lines[617], offHeap.proof(617)));
+
+            heap.updateLeaf(999, "changed");
+            offHeap.updateLeaf(999, "changed");
+            assertEquals(heap.root(), offHeap.root());
+        }
+        assertThrows(IllegalStateException.class, offHeap::root);
+
+        OffHeapDigestStore empty = new OffHeapDigestStore(0);
+        assertThrows(IllegalArgumentException.class,
+                () -> RetainedMerkleTree.fromLeafStore(empty, TreeMode.BINARY, HashAlgorithm.DEFAULT));
+        assertTrue(empty.isClosed());
+    }
+}
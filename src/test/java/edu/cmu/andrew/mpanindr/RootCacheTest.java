@@ -0,0 +1,135 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RootCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path write(String name, String text) throws IOException {
+        return Files.write(tempDir.resolve(name), text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Test hits, misses after a change, and per-mode entries
+    @Test
+    void testLookup() throws IOException {
+        RootCache cache = new RootCache(10, false);
+        Path file = write("a.txt", "one\ntwo\n");
+        assertNull(cache.lookup(file, TreeMode.LEGACY_HEX));
+
+        cache.put(file, TreeMode.LEGACY_HEX, cache.identify(file), "ROOT");
+        assertEquals("ROOT", cache.lookup(file, TreeMode.LEGACY_HEX));
+        assertEquals("ROOT", cache.lookup(tempDir.resolve(".").resolve("a.txt"), TreeMode.LEGACY_HEX));
+        assertNull(cache.lookup(file, TreeMode.BINARY));
+
+        write("a.txt", "one\ntwo\nthree\n");
+        assertNull(cache.lookup(file, TreeMode.LEGACY_HEX));
+        assertEquals(0, cache.size());
+    }
+
+    // Test that content sampling detects a rewrite with the same size and modification time
+    @Test
+    void testContentSampling() throws IOException {
+        Path file = write("b.txt", "aaaa\n");
+        FileTime time = Files.getLastModifiedTime(file);
+        RootCache plain = new RootCache(10, false);
+        RootCache sampled = new RootCache(10, true);
+        plain.put(file, TreeMode.BINARY, plain.identify(file), "ROOT");
+        sampled.put(file, TreeMode.BINARY, sampled.identify(file), "ROOT");
+
+        write("b.txt", "bbbb\n");
+        Files.setLastModifiedTime(file, time);
+        assertEquals("ROOT", plain.lookup(file, TreeMode.BINARY));
+        assertNull(sampled.lookup(file, TreeMode.BINARY));
+    }
+
+    // Test that a file changed between identify and put is not cached
+    @Test
+    void testChangeDuringHashing() throws IOException {
+        RootCache cache = new RootCache(10, false);
+        Path file = write("c.txt", "x\n");
+        RootCache.FileIdentity before = cache.identify(file);
+        write("c.txt", "x\ny\n");
+        cache.put(file, TreeMode.BINARY, before, "STALE");
+        assertEquals(0, cache.size());
+    }
+
+    // Test LRU eviction and that save and load keep the most recently used entries
+    @Test
+    void testEvictionAndPersistence() throws IOException {
+        RootCache cache = new RootCache(2, true);
+        Path a = write("a.txt", "a\n");
+        Path b = write("b.txt", "b\n");
+        Path c = write("c.txt", "c\n");
+        cache.put(a, TreeMode.LEGACY_HEX, cache.identify(a), "A");
+        cache.put(b, TreeMode.LEGACY_HEX, cache.identify(b), "B");
+        assertEquals("A", cache.lookup(a, TreeMode.LEGACY_HEX));
+        cache.put(c, TreeMode.LEGACY_HEX, cache.identify(c), "C");
+        assertNull(cache.lookup(b, TreeMode.LEGACY_HEX));
+
+        Path saved = tempDir.resolve("roots.cache");
+        cache.save(saved);
+        RootCache loaded = RootCache.load(saved, 1, true);
+        assertEquals(1, loaded.size());
+        assertEquals("C", loaded.lookup(c, TreeMode.LEGACY_HEX));
+        assertEquals(0, RootCache.load(tempDir.resolve("missing.cache"), 5, false).size());
+    }
+
+    // Test that entries are evicted in LRU order once their estimated size exceeds the byte bound
+    @Test
+    void testByteBound() throws IOException {
+        Path a = write("a.txt", "a\n");
+        Path b = write("b.txt", "b\n");
+        RootCache probe = new RootCache(10, false);
+        probe.put(a, TreeMode.BINARY, probe.identify(a), "ROOT-A");
+        long entryBytes = probe.bytes();
+        assertTrue(entryBytes > 0);
+
+        RootCache cache = new RootCache(10, entryBytes + entryBytes / 2, false);
+        cache.put(a, TreeMode.BINARY, cache.identify(a), "ROOT-A");
+        cache.put(b, TreeMode.BINARY, cache.identify(b), "ROOT-B");
+        assertEquals(1, cache.size());
+        assertNull(cache.lookup(a, TreeMode.BINARY));
+        assertEquals("ROOT-B", cache.lookup(b, TreeMode.BINARY));
+        assertTrue(cache.bytes() <= entryBytes + entryBytes / 2);
+
+        Path saved = tempDir.resolve("bounded.cache");
+        probe.put(b, TreeMode.BINARY, probe.identify(b), "ROOT-B");
+        probe.save(saved);
+        RootCache loaded = RootCache.load(saved, 10, entryBytes + entryBytes / 2, false);
+        assertEquals(1, loaded.size());
+        assertEquals("ROOT-B", loaded.lookup(b, TreeMode.BINARY));
+        assertThrows(IllegalArgumentException.class, () -> new RootCache(10, 0, false));
+    }
+
+    // Test that the engine answers unchanged files from the cache
+    @Test
+    void testEngineUsesCache() throws Exception {
+        Path file = write("d.txt", "first\nsecond\n");
+        RootCache cache = new RootCache(10, false);
+        String root;
+        try (MultiFileMerkleEngine engine = new MultiFileMerkleEngine(TreeMode.LEGACY_HEX, cache)) {
+            root = engine.submit(file.toString()).get();
+        }
+        assertEquals(root, cache.lookup(file, TreeMode.LEGACY_HEX));
+
+        // A planted root proves that the second run does not read the file
+        cache.put(file, TreeMode.LEGACY_HEX, cache.identify(file), "PLANTED");
+        try (MultiFileMerkleEngine engine = new MultiFileMerkleEngine(TreeMode.LEGACY_HEX, cache)) {
+            Map<String, String> roots = engine.computeMerkleRoots(Arrays.asList(file.toString()));
+            assertEquals("PLANTED", roots.get(file.toString()));
+        }
+    }
+}
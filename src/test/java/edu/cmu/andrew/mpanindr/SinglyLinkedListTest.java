@@ -1,6 +1,14 @@
 package edu.cmu.andrew.mpanindr;
 
 import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class SinglyLinkedListTest {
@@ -154,4 +162,116 @@ class SinglyLinkedListTest {
         assertNull(list.next());
         assertFalse(list.hasNext());
     }
+
+    // Test indexed access in every direction around the cached cursor, including after adding at the front
+    @Test
+    void testGetObjectAtCursor() {
+        SinglyLinkedList list = new SinglyLinkedList();
+        for (int i = 0; i < 100; i++) {
+            list.addAtEndNode(i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, list.getObjectAt(i));
+        }
+        assertEquals(50, list.getObjectAt(50));
+        assertEquals(10, list.getObjectAt(10));
+        assertEquals(10, list.getObjectAt(10));
+        assertEquals(60, list.getObjectAt(60));
+
+        list.addAtFrontNode(-1);
+        assertEquals(60, list.getObjectAt(61));
+        assertEquals(-1, list.getObjectAt(0));
+        list.duplicateLastNode();
+        assertEquals(99, list.getObjectAt(101));
+        assertEquals(99, list.getObjectAt(100));
+    }
+
+    // Test toArray and forEach against indexed access
+    @Test
+    void testToArrayAndForEach() {
+        SinglyLinkedList list = new SinglyLinkedList();
+        assertEquals(0, list.toArray().length);
+        list.addAtEndNode('a');
+        list.addAtEndNode(null);
+        list.addAtEndNode('c');
+        assertArrayEquals(new Object[]{'a', null, 'c'}, list.toArray());
+
+        StringBuilder seen = new StringBuilder();
+        list.forEach(seen::append);
+        assertEquals("anullc", seen.toString());
+    }
+
+    // Test that iterator() is independent of the built-in reset/hasNext/next cursor
+    @Test
+    void testIterable() {
+        SinglyLinkedList list = new SinglyLinkedList();
+        list.addAtEndNode('a');
+        list.addAtEndNode('b');
+        list.reset();
+        assertEquals('a', list.next());
+
+        Iterator<Object> first = list.iterator();
+        Iterator<Object> second = list.iterator();
+        assertEquals('a', first.next());
+        assertEquals('a', second.next());
+        assertEquals('b', first.next());
+        assertFalse(first.hasNext());
+        assertThrows(NoSuchElementException.class, first::next);
+        assertEquals('b', list.next());
+
+        StringBuilder seen = new StringBuilder();
+        for (Object data : list) {
+            seen.append(data);
+        }
+        assertEquals("ab", seen.toString());
+    }
+
+    // Test that recursive splitting covers every node exactly once, in order, with exact sizes
+    @Test
+    void testSpliterator() {
+        SinglyLinkedList list = new SinglyLinkedList();
+        for (int i = 0; i < 10_000; i++) {
+            list.addAtEndNode(i);
+        }
+        List<Spliterator<Object>> parts = new ArrayList<>();
+        parts.add(list.spliterator());
+        for (int round = 0; round < 4; round++) {
+            List<Spliterator<Object>> next = new ArrayList<>();
+            for (Spliterator<Object> part : parts) {
+                long size = part.estimateSize();
+                Spliterator<Object> prefix = part.trySplit();
+                if (prefix != null) {
+                    assertTrue(prefix.hasCharacteristics(Spliterator.SIZED | Spliterator.ORDERED));
+                    assertEquals(size, prefix.estimateSize() + part.estimateSize());
+                    next.add(prefix);
+                }
+                next.add(part);
+            }
+            parts = next;
+        }
+        assertEquals(16, parts.size());
+        List<Object> seen = new ArrayList<>();
+        for (Spliterator<Object> part : parts) {
+            part.forEachRemaining(seen::add);
+        }
+        assertEquals(list.stream().collect(Collectors.toList()), seen);
+        assertEquals(10_000, seen.size());
+        for (int i = 0; i < seen.size(); i++) {
+            assertEquals(i, seen.get(i));
+        }
+    }
+
+    // Test a parallel stream against the sequential result
+    @Test
+    void testParallelStream() {
+        SinglyLinkedList list = new SinglyLinkedList();
+        for (int i = 0; i < 50_000; i++) {
+            list.addAtEndNode("row " + i);
+        }
+        List<Integer> sequential = list.stream().map(Object::hashCode).collect(Collectors.toList());
+        List<Integer> parallel = list.stream().parallel().map(Object::hashCode).collect(Collectors.toList());
+        assertEquals(sequential, parallel);
+        assertEquals(50_000, list.stream().parallel().count());
+        assertEquals(0, new SinglyLinkedList().stream().parallel().count());
+    }
 }
\ No newline at end of file
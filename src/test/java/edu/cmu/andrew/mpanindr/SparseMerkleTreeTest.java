@@ -0,0 +1,150 @@
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparseMerkleTreeTest {
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Test inserting and removing keys, and that removing everything restores the empty root
+    @Test
+    void testInsertAndRemove() throws NoSuchAlgorithmException {
+        SparseMerkleTree tree = new SparseMerkleTree();
+        Digest empty = tree.root();
+        Digest a = tree.add("alpha");
+        Digest afterA = tree.root();
+        assertNotEquals(empty, afterA);
+        assertEquals(1, tree.size());
+        assertEquals(a, tree.get(a));
+
+        Digest b = SparseMerkleTree.keyOf("beta", HashAlgorithm.SHA_256);
+        tree.put(b, bytes("value of beta"));
+        assertEquals(2, tree.size());
+        tree.put(b, bytes("new value of beta"));
+        assertEquals(2, tree.size());
+
+        assertTrue(tree.remove(b));
+        assertFalse(tree.remove(b));
+        assertEquals(afterA, tree.root());
+        assertNull(tree.get(b));
+        assertTrue(tree.remove(a));
+        assertEquals(empty, tree.root());
+        assertEquals(0, tree.size());
+    }
+
+    // Test that the root does not depend on the order of updates, and that a batch equals single updates
+    @Test
+    void testOrderAndBatchIndependence() throws NoSuchAlgorithmException {
+        SparseMerkleTree forward = new SparseMerkleTree(HashAlgorithm.BLAKE3);
+        SparseMerkleTree backward = new SparseMerkleTree(HashAlgorithm.BLAKE3);
+        SparseMerkleTree batched = new SparseMerkleTree(HashAlgorithm.BLAKE3);
+        Map<Digest, byte[]> changes = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            forward.add("row " + i);
+            backward.add("row " + (199 - i));
+            changes.put(SparseMerkleTree.keyOf("row " + i, HashAlgorithm.BLAKE3), bytes("row " + i));
+        }
+        batched.putAll(changes);
+        assertEquals(forward.root(), backward.root());
+        assertEquals(forward.root(), batched.root());
+        assertEquals(200, batched.size());
+
+        // A batch may remove keys as well
+        Map<Digest, byte[]> removals = new HashMap<>();
+        for (int i = 0; i < 200; i += 2) {
+            Digest key = SparseMerkleTree.keyOf("row " + i, HashAlgorithm.BLAKE3);
+            removals.put(key, null);
+            forward.remove(key);
+        }
+        batched.putAll(removals);
+        assertEquals(forward.root(), batched.root());
+        assertEquals(100, batched.size());
+    }
+
+    // Test membership and non-membership proofs
+    @Test
+    void testProofs() throws NoSuchAlgorithmException {
+        SparseMerkleTree tree = new SparseMerkleTree();
+        for (int i = 0; i < 100; i++) {
+            tree.add("row " + i);
+        }
+        Digest root = tree.root();
+
+        Digest present = SparseMerkleTree.keyOf("row 42", HashAlgorithm.SHA_256);
+        SparseMerkleProof membership = tree.proof(present);
+        assertTrue(SparseMerkleProof.verify(root, present, bytes("row 42"), membership));
+        assertFalse(SparseMerkleProof.verify(root, present, bytes("row 43"), membership));
+        assertFalse(SparseMerkleProof.verify(root, present, null, membership));
+        assertTrue(membership.storedSiblings() < 20, "stored " + membership.storedSiblings());
+
+        Digest absent = SparseMerkleTree.keyOf("row 100", HashAlgorithm.SHA_256);
+        SparseMerkleProof nonMembership = tree.proof(absent);
+        assertTrue(SparseMerkleProof.verify(root, absent, null, nonMembership));
+        assertFalse(SparseMerkleProof.verify(root, absent, bytes("row 100"), nonMembership));
+        assertFalse(SparseMerkleProof.verify(root, present, null, nonMembership));
+
+        // Proofs describe the root they were produced from
+        tree.add("row 100");
+        assertFalse(SparseMerkleProof.verify(tree.root(), absent, null, nonMembership));
+        assertTrue(SparseMerkleProof.verify(tree.root(), absent, bytes("row 100"), tree.proof(absent)));
+        assertTrue(SparseMerkleProof.verify(new SparseMerkleTree().root(), absent, null,
+                new SparseMerkleTree().proof(absent)));
+    }
+
+    // Test the roots against values from the uncompressed tree that stored every node of every path
+    @Test
+    void testKnownRoots() throws NoSuchAlgorithmException {
+        SparseMerkleTree tree = new SparseMerkleTree();
+        tree.add("alpha");
+        assertEquals("7F934D08C94E17F9D439BDAB75DED2E2F0A64EBD185522F0166AE57AAC5B1EC6", tree.root().toHex());
+        for (int i = 0; i < 1000; i++) {
+            tree.add("row " + i);
+        }
+        assertEquals("F945792762EECDB4DFA5C4E792932CBD23C6B816BC88BA72088CA3F8080DD530", tree.root().toHex());
+    }
+
+    // Test that k keys are stored as k shortcut leaves and k - 1 branches, and that proofs hold as the shape changes
+    @Test
+    void testPathCompression() throws NoSuchAlgorithmException {
+        SparseMerkleTree tree = new SparseMerkleTree();
+        assertEquals(0, tree.storedNodes());
+        for (int i = 0; i < 300; i++) {
+            tree.add("row " + i);
+        }
+        assertEquals(599, tree.storedNodes());
+        for (int i = 0; i < 300; i += 3) {
+            assertTrue(tree.remove(SparseMerkleTree.keyOf("row " + i, HashAlgorithm.SHA_256)));
+        }
+        assertEquals(399, tree.storedNodes());
+
+        Digest root = tree.root();
+        for (int i = 0; i < 300; i++) {
+            Digest key = SparseMerkleTree.keyOf("row " + i, HashAlgorithm.SHA_256);
+            byte[] value = i % 3 == 0 ? null : bytes("row " + i);
+            assertTrue(SparseMerkleProof.verify(root, key, value, tree.proof(key)), "row " + i);
+        }
+
+        // Keys that share a long prefix still get one branch where they split
+        SparseMerkleTree close = new SparseMerkleTree();
+        byte[] first = new byte[Digest.LENGTH];
+        byte[] second = new byte[Digest.LENGTH];
+        second[Digest.LENGTH - 1] = 1;
+        close.put(Digest.read(first, 0), bytes("first"));
+        close.put(Digest.read(second, 0), bytes("second"));
+        assertEquals(3, close.storedNodes());
+        assertTrue(SparseMerkleProof.verify(close.root(), Digest.read(second, 0), bytes("second"),
+                close.proof(Digest.read(second, 0))));
+        assertEquals(1, close.proof(Digest.read(first, 0)).storedSiblings());
+    }
+}
@@ -0,0 +1,101 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingMerkleBuilderTest {
+
+    private static SinglyLinkedList lines(int count) {
+        SinglyLinkedList list = new SinglyLinkedList();
+        for (int i = 0; i < count; i++) {
+            list.addAtEndNode("Line " + i);
+        }
+        return list;
+    }
+
+    // Test that the streamed root matches computeMerkleRoot for every count, asking for the root after each leaf
+    @Test
+    void testMatchesComputeMerkleRoot() throws NoSuchAlgorithmException {
+        for (TreeMode mode : TreeMode.values()) {
+            StreamingMerkleBuilder builder = new StreamingMerkleBuilder(mode);
+            for (int count = 1; count <= 130; count++) {
+                builder.addLine("Line " + (count - 1));
+                assertEquals(MerkleTree.computeMerkleRoot(lines(count), mode), builder.formattedRoot(), "count " + count);
+            }
+        }
+    }
+
+    // Test that streaming a file gives the same root as reading it into a list
+    @Test
+    void testFileRoots() throws IOException, NoSuchAlgorithmException {
+        for (String file : new String[]{"smallFile.txt", "CrimeLatLonXY1990_Size2.csv", "src/test/resources/sampleFile.txt"}) {
+            assertEquals(MerkleTree.computeMerkleRoot(MerkleTree.readFileLines(file)),
+                    StreamingMerkleBuilder.computeMerkleRoot(file, TreeMode.LEGACY_HEX), file);
+        }
+    }
+
+    // Test that mixed line terminators are split like BufferedReader.readLine
+    @Test
+    void testLineTerminators() throws IOException, NoSuchAlgorithmException {
+        String text = "a\r\nb\rc\n\ndé";
+        SinglyLinkedList list = new SinglyLinkedList();
+        for (String line : new String[]{"a", "b", "c", "", "dé"}) {
+            list.addAtEndNode(line);
+        }
+        String root = StreamingMerkleBuilder.computeMerkleRoot(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), TreeMode.LEGACY_HEX);
+        assertEquals(MerkleTree.computeMerkleRoot(list), root);
+    }
+
+    // Test that the frontier stays logarithmic in the number of leaves
+    @Test
+    void testFrontierStaysLogarithmic() throws NoSuchAlgorithmException {
+        StreamingMerkleBuilder builder = new StreamingMerkleBuilder(TreeMode.BINARY);
+        byte[] leaf = new byte[32];
+        int maxFrontier = 0;
+        for (int i = 0; i < (1 << 20) - 1; i++) {
+            builder.addLeafDigest(leaf, 0);
+            maxFrontier = Math.max(maxFrontier, builder.frontierSize());
+        }
+        assertEquals((1 << 20) - 1, builder.leafCount());
+        assertEquals(20, maxFrontier);
+    }
+
+    // Test that a builder restored from a saved frontier continues with the same roots
+    @Test
+    void testFrontierSaveAndRestore() throws IOException, NoSuchAlgorithmException {
+        for (TreeMode mode : TreeMode.values()) {
+            StreamingMerkleBuilder builder = new StreamingMerkleBuilder(mode);
+            for (int count = 1; count <= 70; count++) {
+                builder.addLine("Line " + (count - 1));
+
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                builder.frontier().writeTo(new DataOutputStream(bytes));
+                MerkleFrontier saved = MerkleFrontier.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+                assertEquals(Long.bitCount(count), saved.size());
+
+                StreamingMerkleBuilder restored = new StreamingMerkleBuilder(saved);
+                restored.addLine("Line " + count);
+                assertEquals(MerkleTree.computeMerkleRoot(lines(count + 1), mode), restored.formattedRoot(), "count " + count);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new MerkleFrontier(TreeMode.BINARY, 3, new byte[32]));
+    }
+
+    // Test that an empty stream is rejected like an empty list
+    @Test
+    void testEmptyStream() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> StreamingMerkleBuilder.computeMerkleRoot(new ByteArrayInputStream(new byte[0]), TreeMode.LEGACY_HEX));
+        assertEquals("List is empty. Cannot compute Merkle root.", exception.getMessage());
+    }
+}
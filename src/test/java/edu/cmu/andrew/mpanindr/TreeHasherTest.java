@@ -0,0 +1,124 @@
+package edu.cmu.andrew.mpanindr;
+
+import edu.utils.Digest;
+import edu.utils.HashAlgorithm;
+import edu.utils.HashUtil;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeHasherTest {
+
+    // Test that a legacy parent equals the hash of the two concatenated hex strings
+    @Test
+    void testLegacyParent() throws NoSuchAlgorithmException {
+        TreeHasher hasher = new TreeHasher(TreeMode.LEGACY_HEX);
+        Digest left = Digest.fromHex(HashUtil.hash("left"));
+        Digest right = Digest.fromHex(HashUtil.hash("right"));
+        assertEquals(HashUtil.hash(left.toHex() + right.toHex()), hasher.parent(left, right).toHex());
+    }
+
+    // Test that a binary parent is SHA-256 over the 64 raw child bytes
+    @Test
+    void testBinaryParent() throws NoSuchAlgorithmException {
+        TreeHasher hasher = new TreeHasher(TreeMode.BINARY);
+        Digest left = Digest.fromHex(HashUtil.hash("left"));
+        Digest right = Digest.fromHex(HashUtil.hash("right"));
+
+        MessageDigest sha = MessageDigest.getInstance("SHA-256");
+        sha.update(left.toBytes());
+        sha.update(right.toBytes());
+        assertEquals(Digest.read(sha.digest(), 0), hasher.parent(left, right));
+    }
+
+    // Test that leaves are the same in both modes
+    @Test
+    void testLeafIsModeIndependent() throws NoSuchAlgorithmException {
+        byte[] legacy = new byte[32];
+        byte[] binary = new byte[32];
+        new TreeHasher(TreeMode.LEGACY_HEX).leaf("café", legacy, 0);
+        new TreeHasher(TreeMode.BINARY).leaf("café".getBytes(StandardCharsets.UTF_8), 0, 5, binary, 0);
+        assertArrayEquals(legacy, binary);
+        assertEquals(HashUtil.hash("café"), Digest.read(legacy, 0).toHex());
+    }
+
+    // Test that legacy and binary roots of the same data differ and carry distinguishable formats
+    @Test
+    void testRootFormatsAreDistinct() throws NoSuchAlgorithmException {
+        SinglyLinkedList list = new SinglyLinkedList();
+        list.addAtEndNode("Line 1");
+        list.addAtEndNode("Line 2");
+        list.addAtEndNode("Line 3");
+
+        String legacy = MerkleTree.computeMerkleRoot(list, TreeMode.LEGACY_HEX);
+        String binary = MerkleTree.computeMerkleRoot(list, TreeMode.BINARY);
+
+        assertEquals(64, legacy.length());
+        assertTrue(binary.startsWith("v2:"));
+        assertNotEquals(legacy, binary.substring(3));
+        assertEquals(TreeMode.LEGACY_HEX, TreeMode.parseRoot(legacy));
+        assertEquals(TreeMode.BINARY, TreeMode.parseRoot(binary));
+        assertEquals(Digest.fromHex(binary.substring(3)), TreeMode.parseDigest(binary));
+        assertThrows(IllegalArgumentException.class, () -> TreeMode.parseRoot("v9:" + legacy));
+    }
+
+    // Test that roots of other hash algorithms carry the algorithm in their tag and parse back
+    @Test
+    void testAlgorithmTags() throws NoSuchAlgorithmException {
+        Digest root = Digest.fromHex(HashUtil.hash("root"));
+        assertEquals(root.toHex(), TreeMode.LEGACY_HEX.formatRoot(root, HashAlgorithm.SHA_256));
+        assertEquals("v2:" + root.toHex(), TreeMode.BINARY.formatRoot(root, HashAlgorithm.SHA_256));
+        assertEquals("v1+sha3-256:" + root.toHex(), TreeMode.LEGACY_HEX.formatRoot(root, HashAlgorithm.SHA3_256));
+        assertEquals("v2+blake3:" + root.toHex(), TreeMode.BINARY.formatRoot(root, HashAlgorithm.BLAKE3));
+
+        for (TreeMode mode : TreeMode.values()) {
+            for (HashAlgorithm algorithm : HashAlgorithm.values()) {
+                String formatted = mode.formatRoot(root, algorithm);
+                assertEquals(mode, TreeMode.parseRoot(formatted));
+                assertEquals(algorithm, TreeMode.parseAlgorithm(formatted));
+                assertEquals(root, TreeMode.parseDigest(formatted));
+                assertEquals(algorithm, new TreeHasher(mode, algorithm).algorithm());
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> TreeMode.parseRoot("v2+md5:" + root.toHex()));
+        assertThrows(IllegalArgumentException.class, () -> TreeMode.parseRoot("v1:" + root.toHex()));
+    }
+
+    // Test the binary root of three lines against a hand-built tree
+    @Test
+    void testBinaryRootByHand() throws NoSuchAlgorithmException {
+        TreeHasher hasher = new TreeHasher(TreeMode.BINARY);
+        Digest a = Digest.fromHex(HashUtil.hash("a"));
+        Digest b = Digest.fromHex(HashUtil.hash("b"));
+        Digest c = Digest.fromHex(HashUtil.hash("c"));
+        Digest expected = hasher.parent(hasher.parent(a, b), hasher.parent(c, c));
+
+        SinglyLinkedList list = new SinglyLinkedList();
+        list.addAtEndNode("a");
+        list.addAtEndNode("b");
+        list.addAtEndNode("c");
+        assertEquals("v2:" + expected.toHex(), MerkleTree.computeMerkleRoot(list, TreeMode.BINARY));
+    }
+
+    // Test that a discarded leaf leaves no trace in the next leaf, for every algorithm
+    @Test
+    void testDiscardLeaf() throws NoSuchAlgorithmException {
+        for (HashAlgorithm algorithm : HashAlgorithm.values()) {
+            TreeHasher hasher = new TreeHasher(TreeMode.BINARY, algorithm);
+            byte[] expected = new byte[32];
+            hasher.leaf("line", expected, 0);
+
+            byte[] actual = new byte[32];
+            hasher.updateLeaf(ByteBuffer.wrap(new byte[5000]));
+            hasher.discardLeaf();
+            hasher.updateLeaf(ByteBuffer.wrap("line".getBytes(StandardCharsets.UTF_8)));
+            hasher.finishLeaf(actual, 0);
+            assertArrayEquals(expected, actual, algorithm.id());
+        }
+    }
+}
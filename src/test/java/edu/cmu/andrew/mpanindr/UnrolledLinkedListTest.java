@@ -0,0 +1,73 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnrolledLinkedListTest {
+
+    // Test that an unrolled list behaves like a SinglyLinkedList under the same mix of operations
+    @Test
+    void testMatchesSinglyLinkedList() {
+        UnrolledLinkedList unrolled = new UnrolledLinkedList(32);
+        SinglyLinkedList expected = new SinglyLinkedList();
+        for (int i = 0; i < 1000; i++) {
+            if (i % 7 == 0) {
+                unrolled.addAtFrontNode(i);
+                expected.addAtFrontNode(i);
+            } else {
+                unrolled.addAtEndNode("row " + i);
+                expected.addAtEndNode("row " + i);
+            }
+        }
+        unrolled.addAtEndNode(null);
+        expected.addAtEndNode(null);
+        unrolled.duplicateLastNode();
+        expected.duplicateLastNode();
+
+        assertEquals(expected.countNodes(), unrolled.countNodes());
+        assertEquals(expected.toString(), unrolled.toString());
+        assertArrayEquals(expected.toArray(), unrolled.toArray());
+        assertEquals(expected.getAllNodes(), unrolled.getAllNodes());
+        assertNull(unrolled.getLast());
+
+        for (int i = 0; i < expected.countNodes(); i++) {
+            assertEquals(expected.getObjectAt(i), unrolled.getObjectAt(i));
+        }
+        assertEquals(expected.getObjectAt(5), unrolled.getObjectAt(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> unrolled.getObjectAt(expected.countNodes()));
+
+        List<Object> seen = new ArrayList<>();
+        unrolled.reset();
+        while (unrolled.hasNext()) {
+            seen.add(unrolled.next());
+        }
+        assertNull(unrolled.next());
+        List<Object> iterated = new ArrayList<>();
+        for (Object data : unrolled) {
+            iterated.add(data);
+        }
+        assertEquals(seen, iterated);
+        assertArrayEquals(expected.toArray(), seen.toArray());
+    }
+
+    // Test an empty list
+    @Test
+    void testEmptyList() {
+        UnrolledLinkedList list = new UnrolledLinkedList();
+        assertEquals(0, list.countNodes());
+        assertNull(list.getLast());
+        assertEquals("[]", list.toString());
+        assertEquals(0, list.toArray().length);
+        list.reset();
+        assertFalse(list.hasNext());
+        assertFalse(list.iterator().hasNext());
+        assertThrows(NoSuchElementException.class, () -> list.iterator().next());
+        assertThrows(NoSuchElementException.class, list::duplicateLastNode);
+        assertThrows(IllegalArgumentException.class, () -> new UnrolledLinkedList(8));
+    }
+}
@@ -0,0 +1,99 @@
+package edu.colorado.nodes;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnrolledObjectNodeTest {
+
+    // Builds a list of the given length by appending, holding 0, 1, 2, ...
+    private static UnrolledObjectNode build(int length, int capacity) {
+        UnrolledObjectNode head = new UnrolledObjectNode(capacity, null);
+        UnrolledObjectNode tail = head;
+        for (int i = 0; i < length; i++) {
+            if (!tail.add(i)) {
+                tail.setLink(new UnrolledObjectNode(capacity, null));
+                tail = tail.getLink();
+                tail.add(i);
+            }
+        }
+        return head;
+    }
+
+    // Test the capacity bounds and the per-node operations, including a split on insert
+    @Test
+    void testNodeOperations() {
+        assertThrows(IllegalArgumentException.class, () -> new UnrolledObjectNode(16, null));
+        assertThrows(IllegalArgumentException.class, () -> new UnrolledObjectNode(256, null));
+
+        UnrolledObjectNode node = build(32, 32);
+        assertTrue(node.isFull());
+        assertFalse(node.add(99));
+        assertThrows(IndexOutOfBoundsException.class, () -> node.getData(32));
+
+        UnrolledObjectNode holder = node.insert(20, "x");
+        assertNotSame(node, holder);
+        assertSame(holder, node.getLink());
+        assertEquals(16, node.size());
+        assertEquals(17, holder.size());
+        assertEquals("x", holder.getData(4));
+        assertEquals(33, UnrolledObjectNode.listLength(node));
+
+        assertEquals("x", holder.remove(4));
+        node.setData(0, 'a');
+        assertEquals('a', node.getData(0));
+        assertEquals(32, UnrolledObjectNode.listLength(node));
+    }
+
+    // Test listCopy, which also packs a list with half-full nodes
+    @Test
+    void testListCopy() {
+        assertNull(UnrolledObjectNode.listCopy(null));
+        UnrolledObjectNode source = build(200, 64);
+        source.insert(0, -1);
+        UnrolledObjectNode copy = UnrolledObjectNode.listCopy(source);
+        assertEquals(source.toString(), copy.toString());
+        assertEquals(201, UnrolledObjectNode.listLength(copy));
+        assertEquals(64, copy.size());
+        assertEquals(64, copy.getLink().size());
+        assertEquals(0, UnrolledObjectNode.listLength(UnrolledObjectNode.listCopy(new UnrolledObjectNode(32, null))));
+    }
+
+    // Test listPosition and listSearch across node boundaries
+    @Test
+    void testListPositionAndSearch() {
+        UnrolledObjectNode head = build(300, 128);
+        assertThrows(IllegalArgumentException.class, () -> UnrolledObjectNode.listPosition(head, 0));
+        assertEquals(0, UnrolledObjectNode.listPosition(head, 1).getData());
+        assertEquals(128, UnrolledObjectNode.listPosition(head, 129).getData());
+        assertEquals(0, UnrolledObjectNode.listPosition(head, 129).index());
+        assertEquals(299, UnrolledObjectNode.listPosition(head, 300).getData());
+        assertNull(UnrolledObjectNode.listPosition(head, 301));
+
+        UnrolledObjectNode.Position found = UnrolledObjectNode.listSearch(head, 250);
+        assertSame(head.getLink(), found.node());
+        assertEquals(250 - 128, found.index());
+        assertNull(UnrolledObjectNode.listSearch(head, 300));
+    }
+
+    // Test listPart within one node and across several nodes
+    @Test
+    void testListPart() {
+        UnrolledObjectNode head = build(300, 32);
+        UnrolledObjectNode[] within = UnrolledObjectNode.listPart(UnrolledObjectNode.listPosition(head, 3),
+                UnrolledObjectNode.listPosition(head, 5));
+        assertEquals("2 -> 3 -> 4", within[0].toString());
+        assertSame(within[0], within[1]);
+
+        UnrolledObjectNode[] across = UnrolledObjectNode.listPart(UnrolledObjectNode.listSearch(head, 10),
+                UnrolledObjectNode.listSearch(head, 209));
+        assertEquals(200, UnrolledObjectNode.listLength(across[0]));
+        assertEquals(10, across[0].getData(0));
+        assertEquals(209, across[1].getData(across[1].size() - 1));
+        assertNull(across[1].getLink());
+
+        UnrolledObjectNode other = build(10, 32);
+        assertThrows(IllegalArgumentException.class, () -> UnrolledObjectNode.listPart(
+                UnrolledObjectNode.listPosition(head, 1), UnrolledObjectNode.listPosition(other, 1)));
+    }
+}
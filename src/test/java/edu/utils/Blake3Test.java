@@ -0,0 +1,91 @@
+package edu.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Blake3Test {
+
+    // Official BLAKE3 test vectors: the input of length n is the bytes i % 251 for i in [0, n)
+    private static final int[] LENGTHS = {0, 1, 1023, 1024, 1025, 2048, 2049, 3072, 8192, 31744, 102400};
+    private static final String[] HASHES = {
+            "af1349b9f5f9a1a6a0404dea36dcc9499bcb25c9adc112b7cc9a93cae41f3262",
+            "2d3adedff11b61f14c886e35afa036736dcd87a74d27b5c1510225d0f592e213",
+            "10108970eeda3eb932baac1428c7a2163b0e924c9a9e25b35bba72b28f70bd11",
+            "42214739f095a406f3fc83deb889744ac00df831c10daa55189b5d121c855af7",
+            "d00278ae47eb27b34faecf67b4fe263f82d5412916c1ffd97c8cb7fb814b8444",
+            "e776b6028c7cd22a4d0ba182a8bf62205d2ef576467e838ed6f2529b85fba24a",
+            "5f4d72f40d7a5f82b15ca2b2e44b1de3c2ef86c426c95c1af0b6879522563030",
+            "b98cb0ff3623be03326b373de6b9095218513e64f1ee2edd2525c7ad1e5cffd2",
+            "aae792484c8efe4f19e2ca7d371d8c467ffb10748d8a5a1ae579948f718a2a63",
+            "62b6960e1a44bcc1eb1a611a8d6235b6b4b78f32e7abc4fb4c6cdcce94895c47",
+            "bc3e3d41a1146b069abffad3c0d44860cf664390afce4d9661f7902e7943e085"
+    };
+
+    private static byte[] input(int length) {
+        byte[] input = new byte[length];
+        for (int i = 0; i < length; i++) {
+            input[i] = (byte) (i % 251);
+        }
+        return input;
+    }
+
+    private static String hex(byte[] digest) {
+        return HashUtil.toHex(digest, 0, Digest.LENGTH).toLowerCase();
+    }
+
+    // Test the official vectors, hashing each input in one call
+    @Test
+    void testVectors() {
+        Blake3 blake3 = new Blake3();
+        byte[] out = new byte[Digest.LENGTH];
+        for (int i = 0; i < LENGTHS.length; i++) {
+            byte[] input = input(LENGTHS[i]);
+            blake3.update(input, 0, input.length);
+            blake3.digest(out, 0);
+            assertEquals(HASHES[i], hex(out), "length " + LENGTHS[i]);
+        }
+        blake3.update("abc".getBytes(StandardCharsets.US_ASCII), 0, 3);
+        blake3.digest(out, 0);
+        assertEquals("6437b3ac38465133ffb63b75273a8db548c558465d79db03fd359c6cd5bd9d85", hex(out));
+    }
+
+    // Test that the digest does not depend on how the input is split, and that digest resets the hasher
+    @Test
+    void testIncrementalUpdates() {
+        Blake3 blake3 = new Blake3();
+        byte[] out = new byte[Digest.LENGTH];
+        for (int i = 0; i < LENGTHS.length; i++) {
+            byte[] input = input(LENGTHS[i]);
+            for (int piece : new int[]{1, 63, 64, 65, 1000}) {
+                for (int off = 0; off < input.length; off += piece) {
+                    blake3.update(input, off, Math.min(piece, input.length - off));
+                }
+                blake3.digest(out, 0);
+                assertEquals(HASHES[i], hex(out), "length " + LENGTHS[i] + " piece " + piece);
+            }
+        }
+    }
+
+    // Test heap and direct byte buffers
+    @Test
+    void testByteBuffers() {
+        Blake3 blake3 = new Blake3();
+        byte[] out = new byte[Digest.LENGTH];
+        byte[] input = input(102400);
+        ByteBuffer direct = ByteBuffer.allocateDirect(input.length).put(input).flip();
+        blake3.update(direct);
+        assertFalse(direct.hasRemaining());
+        blake3.digest(out, 0);
+        assertEquals(HASHES[HASHES.length - 1], hex(out));
+
+        byte[] padded = new byte[input.length + 10];
+        System.arraycopy(input, 0, padded, 5, input.length);
+        blake3.update(ByteBuffer.wrap(padded, 5, input.length).slice());
+        blake3.digest(out, 0);
+        assertEquals(HASHES[HASHES.length - 1], hex(out));
+    }
+}
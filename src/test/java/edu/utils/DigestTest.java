@@ -0,0 +1,49 @@
+package edu.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.NoSuchAlgorithmException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DigestTest {
+
+    // Test that a digest survives a round trip through bytes and hex
+    @Test
+    void testRoundTrip() throws NoSuchAlgorithmException {
+        String hex = HashUtil.hash("Hello, World!");
+        Digest digest = Digest.fromHex(hex);
+        assertEquals(hex, digest.toHex());
+        assertEquals(digest, Digest.read(digest.toBytes(), 0));
+        assertEquals(digest, Digest.fromHex(hex.toLowerCase()));
+    }
+
+    // Test reading and writing at an offset inside a packed array
+    @Test
+    void testPackedOffsets() throws NoSuchAlgorithmException {
+        Digest digest = Digest.fromHex(HashUtil.hash("packed"));
+        byte[] packed = new byte[96];
+        digest.writeTo(packed, 40);
+        assertTrue(digest.matches(packed, 40));
+        assertFalse(digest.matches(packed, 0));
+        assertEquals(digest, Digest.read(packed, 40));
+    }
+
+    // Test equality and hash codes
+    @Test
+    void testEquality() throws NoSuchAlgorithmException {
+        Digest a = Digest.fromHex(HashUtil.hash("a"));
+        Digest b = Digest.fromHex(HashUtil.hash("b"));
+        assertEquals(a, Digest.fromHex(HashUtil.hash("a")));
+        assertEquals(a.hashCode(), Digest.fromHex(HashUtil.hash("a")).hashCode());
+        assertNotEquals(a, b);
+    }
+
+    // Test that malformed hex is rejected
+    @Test
+    void testInvalidHex() {
+        assertThrows(IllegalArgumentException.class, () -> Digest.fromHex("ABC"));
+        assertThrows(IllegalArgumentException.class, () -> Digest.fromHex("G".repeat(64)));
+        assertThrows(IllegalArgumentException.class, () -> Digest.fromHex(null));
+    }
+}
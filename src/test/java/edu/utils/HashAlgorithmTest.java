@@ -0,0 +1,60 @@
+package edu.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashAlgorithmTest {
+
+    // Test that the provider-backed algorithms agree with MessageDigest
+    @Test
+    void testMatchesMessageDigest() throws NoSuchAlgorithmException {
+        byte[] input = "40.408655,-79.976088,ROBBERY".getBytes(StandardCharsets.UTF_8);
+        byte[] out = new byte[Digest.LENGTH + 4];
+        for (HashAlgorithm algorithm : HashAlgorithm.values()) {
+            if (algorithm == HashAlgorithm.BLAKE3) {
+                continue;
+            }
+            HashFunction function = algorithm.newFunction();
+            assertEquals(algorithm, function.algorithm());
+            function.update(input, 0, 10);
+            function.update(ByteBuffer.wrap(input, 10, input.length - 10));
+            function.digest(out, 4);
+            byte[] expected = MessageDigest.getInstance(algorithm.standardName()).digest(input);
+            assertEquals(HashUtil.toHex(expected, 0, Digest.LENGTH), HashUtil.toHex(out, 4, Digest.LENGTH), algorithm.id());
+        }
+    }
+
+    // Test that every algorithm has a 32-byte output and distinct results
+    @Test
+    void testDistinctDigests() throws NoSuchAlgorithmException {
+        byte[] input = "merkle".getBytes(StandardCharsets.UTF_8);
+        Set<String> seen = new HashSet<>();
+        for (HashAlgorithm algorithm : HashAlgorithm.values()) {
+            HashFunction function = algorithm.newFunction();
+            byte[] out = new byte[Digest.LENGTH];
+            function.update(input, 0, input.length);
+            function.digest(out, 0);
+            assertTrue(seen.add(HashUtil.toHex(out, 0, Digest.LENGTH)), algorithm.id());
+        }
+    }
+
+    // Test identifier and standard name lookups
+    @Test
+    void testLookups() throws NoSuchAlgorithmException {
+        for (HashAlgorithm algorithm : HashAlgorithm.values()) {
+            assertEquals(algorithm, HashAlgorithm.fromId(algorithm.id()));
+            assertEquals(algorithm, HashAlgorithm.fromStandardName(algorithm.standardName()));
+        }
+        assertEquals(HashAlgorithm.SHA_256, HashAlgorithm.DEFAULT);
+        assertThrows(IllegalArgumentException.class, () -> HashAlgorithm.fromId("md5"));
+        assertThrows(NoSuchAlgorithmException.class, () -> HashAlgorithm.fromStandardName("MD5"));
+    }
+}
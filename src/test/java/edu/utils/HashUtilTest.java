@@ -1,11 +1,32 @@
 package edu.utils;
 
 import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class HashUtilTest {
 
+    // The original implementation: a fresh digest per call and String.format per byte
+    static String legacyHash(String text) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i <= 31; i++) {
+            sb.append(String.format("%02X", hash[i]));
+        }
+        return sb.toString();
+    }
+
     // Test hashing a normal string
     @Test
     void testHashNormalString() throws NoSuchAlgorithmException {
@@ -95,4 +116,62 @@ class HashUtilTest {
         // Ensure hash length is 64 characters (standard SHA-256 length in hexadecimal)
         assertEquals(64, hash.length());
     }
-}
\ No newline at end of file
+
+    // Test that ASCII, non-ASCII and oversized inputs all match the original implementation
+    @Test
+    void testMatchesLegacyImplementation() throws NoSuchAlgorithmException {
+        Random random = new Random(42);
+        List<String> inputs = new ArrayList<>(List.of("", "a", "Line 1", "caf\u00e9", "\u6f22\u5b57", "emoji \uD83D\uDE00",
+                "broken \uD800 surrogate", "x".repeat(70_000), "\u00e9".repeat(70_000)));
+        for (int i = 0; i < 200; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(300);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) (random.nextBoolean() ? random.nextInt(128) : random.nextInt(0xD000)));
+            }
+            inputs.add(sb.toString());
+        }
+        for (String input : inputs) {
+            assertEquals(legacyHash(input), HashUtil.hash(input));
+        }
+    }
+
+    // Test that the raw digest agrees with MessageDigest and the hex encoder agrees with hash(String)
+    @Test
+    void testDigestAndHex() throws NoSuchAlgorithmException {
+        byte[] data = "xxHello, World!xx".getBytes(StandardCharsets.UTF_8);
+        byte[] out = new byte[40];
+        HashUtil.digest(data, 2, 13, out, 4);
+
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest("Hello, World!".getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals(expected, HashUtil.digest(data, 2, 13));
+        assertEquals(HashUtil.hash("Hello, World!"), HashUtil.toHex(out, 4, 32));
+        assertEquals("00FF7F80", HashUtil.toHex(new byte[]{0, -1, 127, -128}, 0, 4));
+    }
+
+    // Test that threads hashing at the same time do not share digest state
+    @Test
+    void testConcurrentHashing() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int seed = t;
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        String input = "thread " + seed + " row " + i;
+                        if (!legacyHash(input).equals(HashUtil.hash(input))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}